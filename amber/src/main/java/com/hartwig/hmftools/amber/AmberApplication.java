@@ -8,22 +8,28 @@ import static com.hartwig.hmftools.common.utils.collection.Multimaps.filterEntri
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
 import java.util.function.Predicate;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hartwig.hmftools.common.amber.AmberBAF;
 import com.hartwig.hmftools.common.amber.AmberSite;
 import com.hartwig.hmftools.common.amber.AmberSiteFactory;
 import com.hartwig.hmftools.common.amber.BaseDepth;
+import com.hartwig.hmftools.common.amber.BaseDepthColumns;
 import com.hartwig.hmftools.common.amber.BaseDepthEvidence;
 import com.hartwig.hmftools.common.amber.BaseDepthFactory;
 import com.hartwig.hmftools.common.amber.BaseDepthFilter;
@@ -32,7 +38,7 @@ import com.hartwig.hmftools.common.amber.NormalHomozygousFilter;
 import com.hartwig.hmftools.common.amber.TumorBAF;
 import com.hartwig.hmftools.common.amber.TumorBAFEvidence;
 import com.hartwig.hmftools.common.amber.TumorContamination;
-import com.hartwig.hmftools.common.amber.TumorContaminationEvidence;
+import com.hartwig.hmftools.common.amber.TumorEvidence;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.utils.Doubles;
@@ -57,9 +63,8 @@ public class AmberApplication implements AutoCloseable {
 
     private final AmberConfig config;
     private final ExecutorService executorService;
-    private final Predicate<BaseDepth> snpCheckFilter;
-    private final Predicate<BaseDepth> homozygousFilter;
-    private final Predicate<BaseDepth> heterozygousFilter;
+    private final NormalHomozygousFilter homozygousFilter;
+    private final NormalHeterozygousFilter heterozygousFilter;
     private final AmberPersistence persistence;
     private final VersionInfo versionInfo;
     private final ListMultimap<Chromosome, AmberSite> sites;
@@ -83,10 +88,8 @@ public class AmberApplication implements AutoCloseable {
         final CommandLine cmd = createCommandLine(args, options);
         config = AmberConfig.createConfig(cmd);
 
-        final Predicate<BaseDepth> isValidFilter = BaseDepth::isValid;
-        homozygousFilter = new NormalHomozygousFilter().and(isValidFilter);
-        heterozygousFilter = new NormalHeterozygousFilter(config.minHetAfPercent(), config.maxHetAfPercent()).and(isValidFilter);
-        persistence = new AmberPersistence(config);
+        homozygousFilter = new NormalHomozygousFilter();
+        heterozygousFilter = new NormalHeterozygousFilter(config.minHetAfPercent(), config.maxHetAfPercent());
 
         final File outputDir = new File(config.outputDirectory());
         if (!outputDir.exists() && !outputDir.mkdirs()) {
@@ -94,7 +97,7 @@ public class AmberApplication implements AutoCloseable {
         }
 
         if (!new File(config.bafLociPath()).exists()) {
-            throw new IOException("Unable to locate vcf file " + config.bafLociPath());
+            throw new IOException("Unable to locate loci file " + config.bafLociPath());
         }
 
         if (!new File(config.tumorBamPath()).exists()) {
@@ -111,10 +114,10 @@ public class AmberApplication implements AutoCloseable {
 
         final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("-%d").build();
         executorService = Executors.newFixedThreadPool(config.threadCount(), namedThreadFactory);
+        persistence = new AmberPersistence(config, executorService);
 
-        LOGGER.info("Loading vcf file {}", config.bafLociPath());
+        LOGGER.info("Loading loci file {}", config.bafLociPath());
         sites = AmberSiteFactory.sites(config.bafLociPath());
-        snpCheckFilter = new SnpCheckFilter(sites);
     }
 
     private void run() throws InterruptedException, ExecutionException, IOException {
@@ -130,30 +133,35 @@ public class AmberApplication implements AutoCloseable {
         final AmberHetNormalEvidence hetNormalEvidence = new AmberHetNormalEvidence();
 
         // Primary Reference Data
-        final ListMultimap<Chromosome, BaseDepth> unfilteredNormal = normalDepth(readerFactory, config.referenceBamPath().get(0), sites);
-        final Predicate<BaseDepth> depthFilter = new BaseDepthFilter(config.minDepthPercent(), config.maxDepthPercent(), unfilteredNormal);
-        final ListMultimap<Chromosome, BaseDepth> snpCheck = filterEntries(unfilteredNormal, snpCheckFilter);
-        final ListMultimap<Chromosome, BaseDepth> homNormal = filterEntries(unfilteredNormal, depthFilter.and(homozygousFilter));
-        final ListMultimap<Chromosome, BaseDepth> hetNormal = filterEntries(unfilteredNormal, depthFilter.and(heterozygousFilter));
+        final List<BaseDepthColumns> unfilteredNormal = normalDepth(readerFactory, config.referenceBamPath().get(0), sites);
+        final BaseDepthFilter depthFilter = new BaseDepthFilter(config.minDepthPercent(), config.maxDepthPercent(), unfilteredNormal);
+        final ListMultimap<Chromosome, BaseDepth> snpCheck = select(unfilteredNormal, x -> x::snpCheck);
+        final ListMultimap<Chromosome, BaseDepth> homNormal =
+                select(unfilteredNormal, x -> i -> depthFilter.test(x, i) && homozygousFilter.test(x, i));
+        final ListMultimap<Chromosome, BaseDepth> hetNormal =
+                select(unfilteredNormal, x -> i -> depthFilter.test(x, i) && heterozygousFilter.test(x, i));
         hetNormalEvidence.add(config.primaryReference(), hetNormal.values());
 
         // Additional Reference Data
         for (int i = 1; i < config.reference().size(); i++) {
             final String sample = config.reference().get(i);
             final String sampleBam = config.referenceBamPath().get(i);
-            final Collection<BaseDepth> additional = normalDepth(readerFactory, sampleBam, hetNormalEvidence.intersection()).values();
-            final Predicate<BaseDepth> filter = new BaseDepthFilter(config.minDepthPercent(), config.maxDepthPercent(), additional);
-            final Collection<BaseDepth> additionalHetNormal = additional.stream().filter(filter.and(heterozygousFilter)).collect(toList());
+            final List<BaseDepthColumns> additional = normalDepth(readerFactory, sampleBam, hetNormalEvidence.intersection());
+            final BaseDepthFilter filter = new BaseDepthFilter(config.minDepthPercent(), config.maxDepthPercent(), additional);
+            final Collection<BaseDepth> additionalHetNormal =
+                    select(additional, x -> j -> filter.test(x, j) && heterozygousFilter.test(x, j)).values();
             hetNormalEvidence.add(sample, additionalHetNormal);
         }
 
         final Predicate<BaseDepth> intersectionFilter = hetNormalEvidence.intersectionFilter();
-        final ListMultimap<Chromosome, TumorBAF> tumorBAFMap = tumorBAF(readerFactory, filterEntries(hetNormal, intersectionFilter));
-        final List<TumorBAF> tumorBAFList = tumorBAFMap.values().stream().sorted().collect(toList());
+        final List<TumorEvidence> tumorEvidence = tumorEvidence(readerFactory, filterEntries(hetNormal, intersectionFilter), homNormal);
+
+        final List<TumorBAF> tumorBAFList =
+                tumorEvidence.stream().flatMap(x -> x.bafEvidence().stream()).sorted().collect(toList());
         final List<AmberBAF> amberBAFList = tumorBAFList.stream().map(AmberBAF::create).filter(AmberApplication::isValid).collect(toList());
 
-        final ListMultimap<Chromosome, TumorContamination> tumorContamination = contamination(readerFactory, homNormal);
-        final List<TumorContamination> contaminationList = Lists.newArrayList(tumorContamination.values());
+        final List<TumorContamination> contaminationList =
+                tumorEvidence.stream().flatMap(x -> x.contaminationEvidence().stream()).collect(toList());
 
         persistence.persisQC(amberBAFList, contaminationList);
         persistence.persistVersionInfo(versionInfo);
@@ -187,7 +195,7 @@ public class AmberApplication implements AutoCloseable {
     }
 
     @NotNull
-    private ListMultimap<Chromosome, BaseDepth> normalDepth(final SamReaderFactory readerFactory, final String bamPath,
+    private List<BaseDepthColumns> normalDepth(final SamReaderFactory readerFactory, final String bamPath,
             final ListMultimap<Chromosome, AmberSite> bedRegionsSortedSet) throws InterruptedException, ExecutionException {
 
         final int partitionSize = Math.max(config.minPartition(), bedRegionsSortedSet.size() / config.threadCount());
@@ -209,9 +217,17 @@ public class AmberApplication implements AutoCloseable {
             }
         }
 
-        final ListMultimap<Chromosome, BaseDepth> normalEvidence = ArrayListMultimap.create();
-        getFuture(futures).forEach(x -> normalEvidence.putAll(HumanChromosome.fromString(x.contig()), x.evidence()));
-        return normalEvidence;
+        return getFuture(futures).stream().map(BaseDepthEvidence::evidence).collect(toList());
+    }
+
+    @NotNull
+    private static ListMultimap<Chromosome, BaseDepth> select(@NotNull final List<BaseDepthColumns> evidence,
+            @NotNull final Function<BaseDepthColumns, IntPredicate> filter) {
+        final ListMultimap<Chromosome, BaseDepth> result = ArrayListMultimap.create();
+        for (BaseDepthColumns columns : evidence) {
+            result.putAll(HumanChromosome.fromString(columns.contig()), columns.select(columns.filter(filter.apply(columns))));
+        }
+        return result;
     }
 
     @NotNull
@@ -256,34 +272,52 @@ public class AmberApplication implements AutoCloseable {
     }
 
     @NotNull
-    private ListMultimap<Chromosome, TumorContamination> contamination(@NotNull final SamReaderFactory readerFactory,
+    private List<TumorEvidence> tumorEvidence(@NotNull final SamReaderFactory readerFactory,
+            @NotNull final ListMultimap<Chromosome, BaseDepth> normalHetSites,
             @NotNull final ListMultimap<Chromosome, BaseDepth> normalHomSites) throws ExecutionException, InterruptedException {
-        final int partitionSize = Math.max(config.minPartition(), normalHomSites.values().size() / config.threadCount());
+        final int siteCount = normalHetSites.size() + normalHomSites.size();
+        final int partitionSize = Math.max(config.minPartition(), siteCount / config.threadCount());
 
-        LOGGER.info("Processing {} homozygous sites in tumor bam {} for contamination", normalHomSites.size(), config.tumorBamPath());
+        LOGGER.info("Processing {} heterozygous and {} homozygous sites in tumor bam {}",
+                normalHetSites.size(),
+                normalHomSites.size(),
+                config.tumorBamPath());
         final AmberTaskCompletion completion = new AmberTaskCompletion();
 
-        final List<Future<TumorContaminationEvidence>> futures = Lists.newArrayList();
-        for (final Chromosome chromosome : normalHomSites.keySet()) {
-            for (final List<BaseDepth> chromosomeBafPoints : Lists.partition(normalHomSites.get(chromosome), partitionSize)) {
-                if (!chromosomeBafPoints.isEmpty()) {
-                    final String contig = chromosomeBafPoints.get(0).chromosome();
-                    final TumorContaminationEvidence evidence = new TumorContaminationEvidence(config.typicalReadDepth(),
-                            config.minMappingQuality(),
-                            config.minBaseQuality(),
-                            contig,
-                            config.tumorBamPath(),
-                            readerFactory,
-                            chromosomeBafPoints);
-                    futures.add(executorService.submit(completion.task(evidence)));
+        final Set<Chromosome> chromosomes = Sets.newLinkedHashSet(normalHetSites.keySet());
+        chromosomes.addAll(normalHomSites.keySet());
+
+        final List<Future<TumorEvidence>> futures = Lists.newArrayList();
+        for (final Chromosome chromosome : chromosomes) {
+            final Set<BaseDepth> hetSites = Sets.newHashSet(normalHetSites.get(chromosome));
+            final List<BaseDepth> sites = Lists.newArrayList(normalHetSites.get(chromosome));
+            sites.addAll(normalHomSites.get(chromosome));
+            sites.sort(Comparator.naturalOrder());
+
+            for (final List<BaseDepth> partition : Lists.partition(sites, partitionSize)) {
+                final List<BaseDepth> partitionHetSites = Lists.newArrayList();
+                final List<BaseDepth> partitionHomSites = Lists.newArrayList();
+                for (BaseDepth site : partition) {
+                    if (hetSites.contains(site)) {
+                        partitionHetSites.add(site);
+                    } else {
+                        partitionHomSites.add(site);
+                    }
                 }
+
+                final TumorEvidence evidence = new TumorEvidence(config.typicalReadDepth(),
+                        config.minMappingQuality(),
+                        config.minBaseQuality(),
+                        partition.get(0).chromosome(),
+                        config.tumorBamPath(),
+                        readerFactory,
+                        partitionHetSites,
+                        partitionHomSites);
+                futures.add(executorService.submit(completion.task(evidence)));
             }
         }
 
-        final ListMultimap<Chromosome, TumorContamination> result = ArrayListMultimap.create();
-        getFuture(futures).forEach(x -> result.putAll(HumanChromosome.fromString(x.contig()), x.evidence()));
-
-        return result;
+        return getFuture(futures);
     }
 
     @NotNull
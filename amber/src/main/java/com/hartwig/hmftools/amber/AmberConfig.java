@@ -55,6 +55,8 @@ public interface AmberConfig {
     String MIN_HET_AF_PERCENTAGE = "min_het_af_percent";
     String MAX_HET_AF_PERCENTAGE = "max_het_af_percent";
     String VALIDATION_STRINGENCY = "validation_stringency";
+    String JAVA_PCF = "java_pcf";
+    String OUTPUT_GZIP = "output_gzip";
 
     String TUMOR_ONLY = "tumor_only";
     String TUMOR_ONLY_MIN_VAF = "tumor_only_min_vaf";
@@ -70,7 +72,7 @@ public interface AmberConfig {
         options.addOption(TUMOR, true, "Name of tumor sample");
         options.addOption(TUMOR_BAM, true, "Path to tumor bam file");
         options.addOption(OUTPUT_DIR, true, "Output directory");
-        options.addOption(BAF_LOCI, true, "Path to BAF loci vcf file");
+        options.addOption(BAF_LOCI, true, "Path to BAF loci vcf or binary loci file");
         options.addOption(REF_GENOME, true, "Path to the ref genome fasta file");
         options.addOption(MIN_BASE_QUALITY, true, "Minimum quality for a base to be considered [" + DEFAULT_MIN_BASE_QUALITY + "]");
         options.addOption(MIN_MAPPING_QUALITY,
@@ -86,12 +88,18 @@ public interface AmberConfig {
                 true,
                 "Min VAF in ref and alt in tumor only mode [" + DEFAULT_TUMOR_ONLY_MIN_SUPPORT + "]");
         options.addOption(VALIDATION_STRINGENCY, true, "SAM validation strategy: STRICT, SILENT, LENIENT [STRICT]");
+        options.addOption(JAVA_PCF, false, "Segment in process with the exact Java pcf rather than the R copynumber pcf");
+        options.addOption(OUTPUT_GZIP, false, "Gzip compress the BAF file");
 
         return options;
     }
 
     boolean tumorOnly();
 
+    boolean javaPcf();
+
+    boolean outputGzip();
+
     int tumorOnlyMinSupport();
 
     double tumorOnlyMinVaf();
@@ -158,6 +166,7 @@ public interface AmberConfig {
     @NotNull
     static AmberConfig createConfig(@NotNull final CommandLine cmd) throws ParseException {
         final boolean isTumorOnly = cmd.hasOption(TUMOR_ONLY);
+        final boolean javaPcf = cmd.hasOption(JAVA_PCF);
 
         final int threadCount = defaultIntValue(cmd, THREADS, DEFAULT_THREADS);
         final int minBaseQuality = defaultIntValue(cmd, MIN_BASE_QUALITY, DEFAULT_MIN_BASE_QUALITY);
@@ -195,6 +204,8 @@ public interface AmberConfig {
 
         return ImmutableAmberConfig.builder()
                 .tumorOnly(isTumorOnly)
+                .javaPcf(javaPcf)
+                .outputGzip(cmd.hasOption(OUTPUT_GZIP))
                 .tumorOnlyMinVaf(tumorOnlyMinVaf)
                 .tumorOnlyMinSupport(tumorOnlyMinSupport)
                 .threadCount(threadCount)
@@ -0,0 +1,71 @@
+package com.hartwig.hmftools.amber;
+
+import java.io.IOException;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.AmberSiteBinaryFile;
+import com.hartwig.hmftools.common.amber.AmberSiteFactory;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * One off conversion of the BAF loci vcf into the binary loci file read by AMBER.
+ */
+public class AmberLociConverter {
+
+    private static final Logger LOGGER = LogManager.getLogger(AmberLociConverter.class);
+
+    private static final String LOCI = "loci";
+    private static final String OUTPUT = "output";
+
+    public static void main(final String... args) throws IOException {
+        final Options options = new Options();
+        options.addOption(LOCI, true, "Path to BAF loci vcf file");
+        options.addOption(OUTPUT, true, "Path to output binary loci file, must end with " + AmberSiteBinaryFile.EXTENSION);
+
+        try {
+            final CommandLine cmd = new DefaultParser().parse(options, args);
+            if (!cmd.hasOption(LOCI) || !cmd.hasOption(OUTPUT) || !AmberSiteBinaryFile.isBinaryFile(cmd.getOptionValue(OUTPUT))) {
+                throw new ParseException("Missing or invalid arguments");
+            }
+
+            convert(cmd.getOptionValue(LOCI), cmd.getOptionValue(OUTPUT));
+        } catch (ParseException e) {
+            LOGGER.warn(e);
+            final HelpFormatter formatter = new HelpFormatter();
+            formatter.printHelp("AmberLociConverter", options);
+            System.exit(1);
+        }
+    }
+
+    private static void convert(@NotNull final String vcfFile, @NotNull final String outputFile) throws IOException {
+        LOGGER.info("Loading vcf file {}", vcfFile);
+        final ListMultimap<Chromosome, AmberSite> sites = AmberSiteFactory.sites(vcfFile);
+
+        final ListMultimap<Chromosome, AmberSite> snvSites = ArrayListMultimap.create();
+        for (Chromosome chromosome : sites.keySet()) {
+            for (AmberSite site : sites.get(chromosome)) {
+                if (isSingleBase(site.ref()) && isSingleBase(site.alt())) {
+                    snvSites.put(chromosome, site);
+                }
+            }
+        }
+
+        LOGGER.info("Writing {} of {} sites to {}", snvSites.size(), sites.size(), outputFile);
+        AmberSiteBinaryFile.write(outputFile, snvSites);
+    }
+
+    private static boolean isSingleBase(@NotNull final String base) {
+        return base.length() == 1 && "GATCN".contains(base);
+    }
+}
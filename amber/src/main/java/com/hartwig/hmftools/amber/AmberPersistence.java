@@ -2,8 +2,12 @@ package com.hartwig.hmftools.amber;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
@@ -29,24 +33,30 @@ class AmberPersistence {
     private static final Logger LOGGER = LogManager.getLogger(AmberPersistence.class);
 
     private final AmberConfig config;
+    private final ExecutorService executorService;
 
-    AmberPersistence(final AmberConfig config) {
+    AmberPersistence(final AmberConfig config, final ExecutorService executorService) {
         this.config = config;
+        this.executorService = executorService;
     }
 
     void persistVersionInfo(@NotNull final VersionInfo versionInfo) throws IOException {
         versionInfo.write(config.outputDirectory());
     }
 
-    void persistBAF(@NotNull final List<AmberBAF> result) throws IOException, InterruptedException {
-        final String filename = AmberBAFFile.generateAmberFilenameForWriting(config.outputDirectory(), config.tumor());
+    void persistBAF(@NotNull final List<AmberBAF> result) throws IOException, InterruptedException, ExecutionException {
+        final String filename = AmberBAFFile.generateAmberFilenameForWriting(config.outputDirectory(), config.tumor(), config.outputGzip());
+        if (config.outputGzip()) {
+            // Readers prefer an uncompressed BAF file so remove any left by an earlier run
+            Files.deleteIfExists(Paths.get(AmberBAFFile.generateAmberFilenameForWriting(config.outputDirectory(), config.tumor())));
+        }
+
         AmberBAFFile.write(filename, result);
 
         LOGGER.info("Applying pcf segmentation");
-        new BAFSegmentation(config.outputDirectory()).applySegmentation(config.tumor());
+        new BAFSegmentation(executorService, config.outputDirectory(), config.javaPcf()).applySegmentation(config.tumor(), result);
     }
 
-
     void persistBafVcf(@NotNull final List<TumorBAF> tumorBAFList, final AmberHetNormalEvidence amberHetNormalEvidence) {
         final String outputVcf = config.outputDirectory() + File.separator + config.tumor() + ".amber.baf.vcf.gz";
         LOGGER.info("Writing {} BAF records to {}", tumorBAFList.size(), outputVcf);
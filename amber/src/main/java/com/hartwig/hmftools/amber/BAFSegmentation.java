@@ -1,28 +1,62 @@
 package com.hartwig.hmftools.amber;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.hartwig.hmftools.common.amber.AmberBAF;
 import com.hartwig.hmftools.common.amber.AmberBAFFile;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenome;
 import com.hartwig.hmftools.common.utils.pcf.PCFFile;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegment;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegmentation;
 import com.hartwig.hmftools.common.utils.r.RExecutor;
 
 import org.jetbrains.annotations.NotNull;
 
 class BAFSegmentation {
 
+    private static final String SAMPLE_ID = "tumorModifiedBAF";
+
     @NotNull
     private final String outputDirectory;
+    private final boolean javaPcf;
+    @NotNull
+    private final PCFSegmentation segmentation;
 
-    BAFSegmentation(@NotNull final String outputDirectory) {
+    BAFSegmentation(@NotNull final ExecutorService executorService, @NotNull final String outputDirectory, final boolean javaPcf) {
         this.outputDirectory = outputDirectory;
+        this.javaPcf = javaPcf;
+        // Chromosome arms as per the hg19 default of the R copynumber package
+        this.segmentation = new PCFSegmentation(executorService, RefGenome.HG19.centromeres());
     }
 
-    void applySegmentation(@NotNull final String tumor) throws InterruptedException, IOException {
-        final String ratioFile = AmberBAFFile.generateAmberFilenameForReading(outputDirectory, tumor);
+    void applySegmentation(@NotNull final String tumor, @NotNull final List<AmberBAF> bafs)
+            throws ExecutionException, InterruptedException, IOException {
         final String pcfFile = PCFFile.generateBAFFilename(outputDirectory, tumor);
-        int result = RExecutor.executeFromClasspath("r/bafSegmentation.R", ratioFile, pcfFile);
-        if (result != 0) {
-            throw new IOException("R execution failed. Unable to complete segmentation.");
+        if (!javaPcf) {
+            // The R fast pcf remains the default until the exact Java fit has been compared with it on real samples
+            final String ratioFile = AmberBAFFile.generateAmberFilenameForReading(outputDirectory, tumor);
+            int result = RExecutor.executeFromClasspath("r/bafSegmentation.R", ratioFile, pcfFile);
+            if (result != 0) {
+                throw new IOException("R execution failed. Unable to complete segmentation.");
+            }
+            return;
         }
+
+        final ListMultimap<Chromosome, AmberBAF> bafMap = ArrayListMultimap.create();
+        for (AmberBAF baf : bafs) {
+            if (HumanChromosome.contains(baf.chromosome())) {
+                bafMap.put(HumanChromosome.fromString(baf.chromosome()), baf);
+            }
+        }
+
+        final ListMultimap<Chromosome, PCFSegment> segments = segmentation.segment(bafMap, AmberBAF::tumorModifiedBAF);
+        PCFFile.write(pcfFile, SAMPLE_ID, segments.values());
     }
 }
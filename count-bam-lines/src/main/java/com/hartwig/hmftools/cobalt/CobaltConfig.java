@@ -42,6 +42,8 @@ public interface CobaltConfig {
     String GC_PROFILE = "gc_profile";
     String MIN_MAPPING_QUALITY = "min_quality";
     String VALIDATION_STRINGENCY = "validation_stringency";
+    String JAVA_PCF = "java_pcf";
+    String OUTPUT_GZIP = "output_gzip";
 
     @NotNull
     static Options createOptions() {
@@ -59,6 +61,8 @@ public interface CobaltConfig {
         options.addOption(GC_PROFILE, true, "Location of GC Profile");
         options.addOption(REF_GENOME, true, "Path to reference genome fasta file if using CRAM files");
         options.addOption(VALIDATION_STRINGENCY, true, "SAM validation strategy: STRICT, SILENT, LENIENT [STRICT]");
+        options.addOption(JAVA_PCF, false, "Segment in process with the exact Java pcf rather than the R copynumber pcf");
+        options.addOption(OUTPUT_GZIP, false, "Gzip compress the ratio file");
 
         return options;
     }
@@ -96,6 +100,10 @@ public interface CobaltConfig {
 
     boolean tumorOnly();
 
+    boolean javaPcf();
+
+    boolean outputGzip();
+
     @NotNull
     String tumorOnlyDiploidBed();
 
@@ -120,6 +128,7 @@ public interface CobaltConfig {
         }
 
         final boolean isTumorOnly = cmd.hasOption(TUMOR_ONLY);
+        final boolean javaPcf = cmd.hasOption(JAVA_PCF);
         final String reference;
         final String referenceBamPath;
         final String diploidBed;
@@ -157,6 +166,8 @@ public interface CobaltConfig {
         return ImmutableCobaltConfig.builder()
                 .threadCount(threadCount)
                 .tumorOnly(isTumorOnly)
+                .javaPcf(javaPcf)
+                .outputGzip(cmd.hasOption(OUTPUT_GZIP))
                 .tumorOnlyDiploidBed(diploidBed)
                 .minMappingQuality(minMappingQuality)
                 .gcProfilePath(gcProfilePath)
@@ -197,6 +208,8 @@ public interface CobaltConfig {
 
         return ImmutableCobaltConfig.builder()
                 .threadCount(1)
+                .javaPcf(cmd.hasOption(JAVA_PCF))
+                .outputGzip(cmd.hasOption(OUTPUT_GZIP))
                 .minMappingQuality(0)
                 .gcProfilePath(gcProfilePath)
                 .tumorBamPath(Strings.EMPTY)
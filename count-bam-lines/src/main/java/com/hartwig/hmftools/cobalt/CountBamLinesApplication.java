@@ -4,6 +4,8 @@ import static htsjdk.tribble.AbstractFeatureReader.getFeatureReader;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -12,9 +14,9 @@ import java.util.concurrent.ThreadFactory;
 
 import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hartwig.hmftools.cobalt.count.CobaltWindowCounts;
 import com.hartwig.hmftools.cobalt.count.CountSupplier;
 import com.hartwig.hmftools.cobalt.ratio.RatioSupplier;
-import com.hartwig.hmftools.common.cobalt.CobaltCount;
 import com.hartwig.hmftools.common.cobalt.CobaltRatio;
 import com.hartwig.hmftools.common.cobalt.CobaltRatioFile;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
@@ -93,7 +95,7 @@ public class CountBamLinesApplication implements AutoCloseable {
                 config.minMappingQuality(),
                 executorService,
                 readerFactory);
-        final Multimap<Chromosome, CobaltCount> readCounts = config.tumorOnly()
+        final CobaltWindowCounts readCounts = config.tumorOnly()
                 ? countSupplier.tumorOnly(config.tumorBamPath())
                 : countSupplier.pairedTumorNormal(config.referenceBamPath(), config.tumorBamPath());
 
@@ -102,12 +104,20 @@ public class CountBamLinesApplication implements AutoCloseable {
                 ? ratioSupplier.tumorOnly(diploidBedFile, gcProfiles, readCounts)
                 : ratioSupplier.tumorNormalPair(gcProfiles, readCounts);
 
-        final String outputFilename = CobaltRatioFile.generateFilenameForWriting(config.outputDirectory(), config.tumor());
+        final String outputFilename =
+                CobaltRatioFile.generateFilenameForWriting(config.outputDirectory(), config.tumor(), config.outputGzip());
+        if (config.outputGzip()) {
+            // Readers prefer an uncompressed ratio file so remove any left by an earlier run
+            Files.deleteIfExists(Paths.get(CobaltRatioFile.generateFilenameForWriting(config.outputDirectory(), config.tumor())));
+        }
+
         LOGGER.info("Persisting cobalt ratios to {}", outputFilename);
         versionInfo.write(config.outputDirectory());
         CobaltRatioFile.write(outputFilename, ratios);
 
-        new RatioSegmentation(executorService, config.outputDirectory()).applySegmentation(config.reference(), config.tumor());
+        new RatioSegmentation(executorService, config.outputDirectory(), config.javaPcf()).applySegmentation(config.reference(),
+                config.tumor(),
+                ratios);
     }
 
     @NotNull
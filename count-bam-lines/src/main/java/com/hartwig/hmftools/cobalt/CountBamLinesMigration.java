@@ -2,6 +2,8 @@ package com.hartwig.hmftools.cobalt;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -13,6 +15,7 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hartwig.hmftools.cobalt.count.CobaltWindowCounts;
 import com.hartwig.hmftools.cobalt.ratio.RatioSupplier;
 import com.hartwig.hmftools.common.cobalt.CobaltCount;
 import com.hartwig.hmftools.common.cobalt.CobaltRatio;
@@ -97,14 +100,23 @@ public class CountBamLinesMigration implements AutoCloseable {
         }
 
         final RatioSupplier ratioSupplier = new RatioSupplier(config.reference(), config.tumor(), config.outputDirectory());
-        final Multimap<Chromosome, CobaltRatio> ratios = ratioSupplier.tumorNormalPair(gcProfiles, readCounts);
+        final Multimap<Chromosome, CobaltRatio> ratios = ratioSupplier.tumorNormalPair(gcProfiles,
+                CobaltWindowCounts.fromCobaltCounts(config.windowSize(), readCounts));
+
+        final String outputFilename =
+                CobaltRatioFile.generateFilenameForWriting(config.outputDirectory(), config.tumor(), config.outputGzip());
+        if (config.outputGzip()) {
+            // Readers prefer an uncompressed ratio file so remove any left by an earlier run
+            Files.deleteIfExists(Paths.get(CobaltRatioFile.generateFilenameForWriting(config.outputDirectory(), config.tumor())));
+        }
 
-        final String outputFilename = CobaltRatioFile.generateFilenameForWriting(config.outputDirectory(), config.tumor());
         LOGGER.info("Persisting cobalt ratios to {}", outputFilename);
         versionInfo.write(config.outputDirectory());
         CobaltRatioFile.write(outputFilename, ratios);
 
-        new RatioSegmentation(executorService, config.outputDirectory()).applySegmentation(config.reference(), config.tumor());
+        new RatioSegmentation(executorService, config.outputDirectory(), config.javaPcf()).applySegmentation(config.reference(),
+                config.tumor(),
+                ratios);
     }
 
     @NotNull
@@ -5,10 +5,18 @@ import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
 
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.hartwig.hmftools.common.cobalt.CobaltRatio;
 import com.hartwig.hmftools.common.cobalt.CobaltRatioFile;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenome;
 import com.hartwig.hmftools.common.utils.pcf.PCFFile;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegment;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegmentation;
 import com.hartwig.hmftools.common.utils.r.RExecutor;
 
 import org.apache.logging.log4j.LogManager;
@@ -19,27 +27,48 @@ class RatioSegmentation {
 
     private static final Logger LOGGER = LogManager.getLogger(RatioSegmentation.class);
 
+    private static final String SAMPLE_ID = "S1";
+
     private final String outputDirectory;
     private final ExecutorService executorService;
+    private final boolean javaPcf;
+    private final PCFSegmentation segmentation;
 
-    RatioSegmentation(final ExecutorService executorService, final String outputDirectory) {
+    RatioSegmentation(final ExecutorService executorService, final String outputDirectory, final boolean javaPcf) {
         this.outputDirectory = outputDirectory;
         this.executorService = executorService;
+        this.javaPcf = javaPcf;
+        // Chromosome arms as per the hg19 default of the R copynumber package
+        this.segmentation = new PCFSegmentation(executorService, RefGenome.HG19.centromeres());
     }
 
-    void applySegmentation(@NotNull final String reference, @NotNull final String tumor) throws ExecutionException, InterruptedException {
-        final String ratioFile = CobaltRatioFile.generateFilenameForReading(outputDirectory, tumor);
-        final List<Future<Object>> futures = Lists.newArrayList();
-        futures.add(executorService.submit(() -> ratioSegmentation(ratioFile, reference, "referenceGCDiploidRatio")));
-        futures.add(executorService.submit(() -> ratioSegmentation(ratioFile, tumor, "tumorGCRatio")));
+    void applySegmentation(@NotNull final String reference, @NotNull final String tumor,
+            @NotNull final Multimap<Chromosome, CobaltRatio> ratios) throws ExecutionException, InterruptedException, IOException {
+        if (javaPcf) {
+            ratioSegmentation(ratios, reference, CobaltRatio::referenceGCDiploidRatio);
+            ratioSegmentation(ratios, tumor, CobaltRatio::tumorGCRatio);
+        } else {
+            // The R fast pcf remains the default until the exact Java fit has been compared with it on real samples
+            final String ratioFile = CobaltRatioFile.generateFilenameForReading(outputDirectory, tumor);
+            final List<Future<Object>> futures = Lists.newArrayList();
+            futures.add(executorService.submit(() -> ratioSegmentation(ratioFile, reference, "referenceGCDiploidRatio")));
+            futures.add(executorService.submit(() -> ratioSegmentation(ratioFile, tumor, "tumorGCRatio")));
 
-        for (Future<Object> future : futures) {
-            future.get();
+            for (Future<Object> future : futures) {
+                future.get();
+            }
         }
 
         LOGGER.info("Segmentation Complete");
     }
 
+    private void ratioSegmentation(@NotNull final Multimap<Chromosome, CobaltRatio> ratios, @NotNull final String sample,
+            @NotNull final ToDoubleFunction<CobaltRatio> ratio) throws ExecutionException, InterruptedException, IOException {
+        final String pcfFile = PCFFile.generateRatioFilename(outputDirectory, sample);
+        final ListMultimap<Chromosome, PCFSegment> segments = segmentation.segment(ratios, x -> PCFSegmentation.log2Ratio(ratio.applyAsDouble(x)));
+        PCFFile.write(pcfFile, SAMPLE_ID, segments.values());
+    }
+
     private Object ratioSegmentation(@NotNull final String ratioFile, @NotNull final String sample, @NotNull final String column)
             throws IOException, InterruptedException {
         final String pcfFile = PCFFile.generateRatioFilename(outputDirectory, sample);
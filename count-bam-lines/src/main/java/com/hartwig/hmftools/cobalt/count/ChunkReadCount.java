@@ -0,0 +1,59 @@
+package com.hartwig.hmftools.cobalt.count;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMRecordIterator;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+
+/**
+ * Counts the reads starting within a window aligned chunk of a chromosome. Chunks of the same chromosome write to disjoint
+ * windows of the shared counts.
+ */
+class ChunkReadCount implements Callable<ChunkReadCount> {
+
+    private final File inputFile;
+    private final SamReaderFactory readerFactory;
+    private final WindowCounts counts;
+    private final int start;
+    private final int end;
+    private final int minMappingQuality;
+
+    ChunkReadCount(final File inputFile, final SamReaderFactory readerFactory, @NotNull final WindowCounts counts, final int start,
+            final int end, final int minMappingQuality) {
+        this.inputFile = inputFile;
+        this.readerFactory = readerFactory;
+        this.counts = counts;
+        this.start = start;
+        this.end = end;
+        this.minMappingQuality = minMappingQuality;
+    }
+
+    @Override
+    public ChunkReadCount call() throws Exception {
+        try (final SamReader reader = readerFactory.open(inputFile);
+                final SAMRecordIterator iterator = reader.query(counts.chromosome(), start, end, false)) {
+            while (iterator.hasNext()) {
+                addRecord(iterator.next());
+            }
+        }
+        return this;
+    }
+
+    private void addRecord(@NotNull SAMRecord record) {
+        // Reads overlapping the start of the chunk are counted by the previous chunk
+        int alignmentStart = record.getAlignmentStart();
+        if (alignmentStart >= start && alignmentStart <= end && isEligible(record)) {
+            counts.increment(counts.index(alignmentStart));
+        }
+    }
+
+    private boolean isEligible(@NotNull SAMRecord record) {
+        return record.getMappingQuality() >= minMappingQuality && !(record.getReadUnmappedFlag() || record.getDuplicateReadFlag()
+                || record.isSecondaryOrSupplementary());
+    }
+}
@@ -0,0 +1,103 @@
+package com.hartwig.hmftools.cobalt.count;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.hartwig.hmftools.common.cobalt.CobaltCount;
+import com.hartwig.hmftools.common.cobalt.ImmutableCobaltRatio;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tumor and optional reference window counts. Windows are driven by the reference, or by the tumor in tumor only mode.
+ */
+public class CobaltWindowCounts {
+
+    @Nullable
+    private final Map<Chromosome, WindowCounts> reference;
+    private final Map<Chromosome, WindowCounts> tumor;
+
+    @NotNull
+    public static CobaltWindowCounts fromCobaltCounts(int windowSize, @NotNull final Multimap<Chromosome, CobaltCount> counts) {
+        final Map<Chromosome, WindowCounts> reference = Maps.newLinkedHashMap();
+        final Map<Chromosome, WindowCounts> tumor = Maps.newLinkedHashMap();
+        for (Chromosome chromosome : counts.keySet()) {
+            final Collection<CobaltCount> chromosomeCounts = counts.get(chromosome);
+            final CobaltCount last = Iterables.getLast(chromosomeCounts);
+            final WindowCounts referenceCounts = new WindowCounts(last.chromosome(), last.position() + windowSize - 1, windowSize);
+            final WindowCounts tumorCounts = new WindowCounts(last.chromosome(), last.position() + windowSize - 1, windowSize);
+            for (CobaltCount count : chromosomeCounts) {
+                final int index = referenceCounts.index(count.position());
+                referenceCounts.set(index, count.referenceReadCount());
+                tumorCounts.set(index, count.tumorReadCount());
+            }
+            reference.put(chromosome, referenceCounts);
+            tumor.put(chromosome, tumorCounts);
+        }
+
+        return new CobaltWindowCounts(reference, tumor);
+    }
+
+    CobaltWindowCounts(@Nullable final Map<Chromosome, WindowCounts> reference, @NotNull final Map<Chromosome, WindowCounts> tumor) {
+        this.reference = reference;
+        this.tumor = tumor;
+    }
+
+    public boolean tumorOnly() {
+        return reference == null;
+    }
+
+    @NotNull
+    public Set<Chromosome> chromosomes() {
+        return reference == null ? tumor.keySet() : reference.keySet();
+    }
+
+    @NotNull
+    public WindowCounts windows(@NotNull final Chromosome chromosome) {
+        return reference == null ? tumor.get(chromosome) : reference.get(chromosome);
+    }
+
+    public int referenceReadCount(@NotNull final Chromosome chromosome, int index) {
+        return reference == null ? -1 : reference.get(chromosome).readCount(index);
+    }
+
+    public int tumorReadCount(@NotNull final Chromosome chromosome, int index) {
+        if (reference == null) {
+            return tumor.get(chromosome).readCount(index);
+        }
+
+        final WindowCounts tumorCounts = tumor.get(chromosome);
+        return tumorCounts == null ? 0 : tumorCounts.readCount(index);
+    }
+
+    @NotNull
+    public Multimap<Chromosome, CobaltCount> cobaltCounts() {
+        final Multimap<Chromosome, CobaltCount> result = ArrayListMultimap.create();
+        for (Chromosome chromosome : chromosomes()) {
+            final WindowCounts windows = windows(chromosome);
+            for (int i = 0; i < windows.windows(); i++) {
+                if (windows.isReported(i)) {
+                    result.put(chromosome,
+                            ImmutableCobaltRatio.builder()
+                                    .chromosome(windows.chromosome())
+                                    .position(windows.position(i))
+                                    .referenceReadCount(referenceReadCount(chromosome, i))
+                                    .tumorReadCount(tumorReadCount(chromosome, i))
+                                    .referenceGCRatio(-1)
+                                    .referenceGCDiploidRatio(-1)
+                                    .tumorGCRatio(-1)
+                                    .build());
+                }
+            }
+        }
+
+        return result;
+    }
+}
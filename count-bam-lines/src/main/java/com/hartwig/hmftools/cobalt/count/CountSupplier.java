@@ -3,22 +3,19 @@ package com.hartwig.hmftools.cobalt.count;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.Maps;
 import com.hartwig.hmftools.cobalt.CountBamLinesApplication;
-import com.hartwig.hmftools.common.cobalt.CobaltCount;
-import com.hartwig.hmftools.common.cobalt.CobaltCountFactory;
-import com.hartwig.hmftools.common.cobalt.ReadCount;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.ChromosomeLength;
 import com.hartwig.hmftools.common.genome.chromosome.ChromosomeLengthFactory;
 import com.hartwig.hmftools.common.genome.chromosome.ChromosomeLengthFile;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -31,6 +28,8 @@ public class CountSupplier {
 
     private static final Logger LOGGER = LogManager.getLogger(CountBamLinesApplication.class);
 
+    private static final int CHUNK_SIZE = 10_000_000;
+
     private final String tumor;
     private final String outputDirectory;
     private final int windowSize;
@@ -49,82 +48,87 @@ public class CountSupplier {
     }
 
     @NotNull
-    public Multimap<Chromosome, CobaltCount> pairedTumorNormal(@NotNull final String referenceBam, @NotNull final String tumorBam)
+    public CobaltWindowCounts pairedTumorNormal(@NotNull final String referenceBam, @NotNull final String tumorBam)
             throws IOException, ExecutionException, InterruptedException {
         final File tumorFile = new File(tumorBam);
         final File referenceFile = new File(referenceBam);
-
-        final String chromosomeLengthFileName = ChromosomeLengthFile.generateFilename(outputDirectory, tumor);
-        final List<ChromosomeLength> lengths;
-        try (SamReader reader = readerFactory.open(tumorFile)) {
-            lengths = ChromosomeLengthFactory.create(reader.getFileHeader());
-        }
-        ChromosomeLengthFile.write(chromosomeLengthFileName, lengths);
+        final List<ChromosomeLength> lengths = chromosomeLengths(tumorFile);
 
         LOGGER.info("Calculating Read Count from {}", tumorFile.toString());
-        final List<Future<ChromosomeReadCount>> tumorFutures = createFutures(readerFactory, tumorFile, lengths);
+        final Map<Chromosome, WindowCounts> tumorCounts = createCounts(lengths);
+        final List<Future<ChunkReadCount>> tumorFutures = createFutures(readerFactory, tumorFile, tumorCounts);
 
         LOGGER.info("Calculating Read Count from {}", referenceFile.toString());
-        final List<Future<ChromosomeReadCount>> referenceFutures = createFutures(readerFactory, referenceFile, lengths);
+        final Map<Chromosome, WindowCounts> referenceCounts = createCounts(lengths);
+        final List<Future<ChunkReadCount>> referenceFutures = createFutures(readerFactory, referenceFile, referenceCounts);
 
-        final Multimap<Chromosome, ReadCount> tumorCounts = fromFutures(tumorFutures);
-        final Multimap<Chromosome, ReadCount> referenceCounts = fromFutures(referenceFutures);
+        getFutures(tumorFutures);
+        getFutures(referenceFutures);
 
         LOGGER.info("Read Count Complete");
-        return CobaltCountFactory.pairedTumorNormal(referenceCounts, tumorCounts);
+        return new CobaltWindowCounts(referenceCounts, tumorCounts);
     }
 
     @NotNull
-    public Multimap<Chromosome, CobaltCount> tumorOnly(@NotNull final String tumorBam)
-            throws IOException, ExecutionException, InterruptedException {
+    public CobaltWindowCounts tumorOnly(@NotNull final String tumorBam) throws IOException, ExecutionException, InterruptedException {
         final File tumorFile = new File(tumorBam);
+        final List<ChromosomeLength> lengths = chromosomeLengths(tumorFile);
+
+        LOGGER.info("Calculating Read Count from {}", tumorFile.toString());
+        final Map<Chromosome, WindowCounts> tumorCounts = createCounts(lengths);
+        getFutures(createFutures(readerFactory, tumorFile, tumorCounts));
+
+        LOGGER.info("Read Count Complete");
+        return new CobaltWindowCounts(null, tumorCounts);
+    }
 
+    @NotNull
+    private List<ChromosomeLength> chromosomeLengths(@NotNull final File tumorFile) throws IOException {
         final String chromosomeLengthFileName = ChromosomeLengthFile.generateFilename(outputDirectory, tumor);
         final List<ChromosomeLength> lengths;
         try (SamReader reader = readerFactory.open(tumorFile)) {
             lengths = ChromosomeLengthFactory.create(reader.getFileHeader());
         }
         ChromosomeLengthFile.write(chromosomeLengthFileName, lengths);
-
-        LOGGER.info("Calculating Read Count from {}", tumorFile.toString());
-        final List<Future<ChromosomeReadCount>> tumorFutures = createFutures(readerFactory, tumorFile, lengths);
-
-        final Multimap<Chromosome, ReadCount> tumorCounts = fromFutures(tumorFutures);
-
-        LOGGER.info("Read Count Complete");
-        return CobaltCountFactory.tumorOnly(tumorCounts);
+        return lengths;
     }
 
-
     @NotNull
-    private List<Future<ChromosomeReadCount>> createFutures(final SamReaderFactory readerFactory, final File file,
-            final List<ChromosomeLength> lengths) {
-        final List<Future<ChromosomeReadCount>> futures = Lists.newArrayList();
+    private Map<Chromosome, WindowCounts> createCounts(@NotNull final List<ChromosomeLength> lengths) {
+        final Map<Chromosome, WindowCounts> result = Maps.newLinkedHashMap();
         for (ChromosomeLength chromosome : lengths) {
-            final ChromosomeReadCount callable = new ChromosomeReadCount(file,
-                    readerFactory,
-                    chromosome.chromosome(),
-                    chromosome.length(),
-                    windowSize,
-                    minMappingQuality);
-            futures.add(executorService.submit(callable));
+            result.put(HumanChromosome.fromString(chromosome.chromosome()),
+                    new WindowCounts(chromosome.chromosome(), chromosome.length(), windowSize));
         }
-
-        return futures;
+        return result;
     }
 
     @NotNull
-    private static Multimap<Chromosome, ReadCount> fromFutures(List<Future<ChromosomeReadCount>> futures)
-            throws ExecutionException, InterruptedException {
-        final ListMultimap<Chromosome, ReadCount> readCounts = ArrayListMultimap.create();
-        for (Future<ChromosomeReadCount> future : futures) {
-            final ChromosomeReadCount readCount = future.get();
-            final Chromosome chromosome = readCount.chromosome();
-            final List<ReadCount> result = readCount.readCount();
-
-            readCounts.putAll(chromosome, result);
+    private List<Future<ChunkReadCount>> createFutures(final SamReaderFactory readerFactory, final File file,
+            final Map<Chromosome, WindowCounts> counts) {
+        // Chunks are aligned to windows so no two chunks count into the same window
+        final int chunkSize = Math.max(1, CHUNK_SIZE / windowSize) * windowSize;
+
+        final List<Future<ChunkReadCount>> futures = Lists.newArrayList();
+        for (WindowCounts chromosomeCounts : counts.values()) {
+            final long chromosomeEnd = chromosomeCounts.position(chromosomeCounts.windows() - 1) + windowSize - 1;
+            for (long start = 1; start <= chromosomeEnd; start += chunkSize) {
+                final ChunkReadCount callable = new ChunkReadCount(file,
+                        readerFactory,
+                        chromosomeCounts,
+                        (int) start,
+                        (int) Math.min(start + chunkSize - 1, chromosomeEnd),
+                        minMappingQuality);
+                futures.add(executorService.submit(callable));
+            }
         }
 
-        return readCounts;
+        return futures;
+    }
+
+    private static void getFutures(@NotNull final List<Future<ChunkReadCount>> futures) throws ExecutionException, InterruptedException {
+        for (Future<ChunkReadCount> future : futures) {
+            future.get();
+        }
     }
 }
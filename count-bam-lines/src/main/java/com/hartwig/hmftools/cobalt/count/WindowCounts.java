@@ -0,0 +1,61 @@
+package com.hartwig.hmftools.cobalt.count;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Read counts of every window of a chromosome. Windows without reads are only reported at either end of the chromosome where
+ * they have a read count of -1.
+ */
+public class WindowCounts {
+
+    private final String chromosome;
+    private final int windowSize;
+    private final int[] counts;
+
+    WindowCounts(@NotNull final String chromosome, final long chromosomeLength, final int windowSize) {
+        this.chromosome = chromosome;
+        this.windowSize = windowSize;
+        this.counts = new int[(int) ((chromosomeLength - 1) / windowSize) + 1];
+    }
+
+    @NotNull
+    public String chromosome() {
+        return chromosome;
+    }
+
+    public int windowSize() {
+        return windowSize;
+    }
+
+    public int windows() {
+        return counts.length;
+    }
+
+    public int index(long position) {
+        return (int) ((position - 1) / windowSize);
+    }
+
+    public long position(int index) {
+        return (long) index * windowSize + 1;
+    }
+
+    public boolean isReported(int index) {
+        return counts[index] > 0 || index == 0 || index == counts.length - 1;
+    }
+
+    public int readCount(int index) {
+        if (index < 0 || index >= counts.length) {
+            return 0;
+        }
+
+        return counts[index] > 0 ? counts[index] : isReported(index) ? -1 : 0;
+    }
+
+    void increment(int index) {
+        counts[index]++;
+    }
+
+    void set(int index, int count) {
+        counts[index] = count;
+    }
+}
@@ -1,16 +1,13 @@
 package com.hartwig.hmftools.cobalt.ratio;
 
-import java.util.Optional;
-
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
-import com.hartwig.hmftools.common.cobalt.CobaltCount;
+import com.hartwig.hmftools.cobalt.count.CobaltWindowCounts;
+import com.hartwig.hmftools.cobalt.count.WindowCounts;
 import com.hartwig.hmftools.common.cobalt.ReadRatio;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.gc.GCMedianReadCount;
 import com.hartwig.hmftools.common.genome.gc.GCProfile;
-import com.hartwig.hmftools.common.genome.region.GenomeRegionSelector;
-import com.hartwig.hmftools.common.genome.region.GenomeRegionSelectorFactory;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -21,19 +18,18 @@ class GCRatioSupplier {
     private final ListMultimap<Chromosome, ReadRatio> tumorRatios;
     private final ListMultimap<Chromosome, ReadRatio> referenceRatios;
 
-    GCRatioSupplier(@NotNull final Multimap<Chromosome, GCProfile> gcProfiles, @NotNull final Multimap<Chromosome, CobaltCount> counts) {
-        final GenomeRegionSelector<GCProfile> gcProfileSelector = GenomeRegionSelectorFactory.createImproved(gcProfiles);
-
+    GCRatioSupplier(@NotNull final Multimap<Chromosome, GCProfile> gcProfiles, @NotNull final CobaltWindowCounts counts) {
         final GCRatioNormalization tumorRatiosBuilder = new GCRatioNormalization();
         final GCRatioNormalization referenceRatiosBuilder = new GCRatioNormalization();
 
-        for (Chromosome chromosome : counts.keySet()) {
-            for (CobaltCount cobaltPosition : counts.get(chromosome)) {
-                final Optional<GCProfile> optionalGCProfile = gcProfileSelector.select(cobaltPosition);
-                if (optionalGCProfile.isPresent()) {
-                    final GCProfile gcProfile = optionalGCProfile.get();
-                    referenceRatiosBuilder.addPosition(chromosome, gcProfile, cobaltPosition.referenceReadCount());
-                    tumorRatiosBuilder.addPosition(chromosome, gcProfile, cobaltPosition.tumorReadCount());
+        for (Chromosome chromosome : counts.chromosomes()) {
+            // GC profiles share the window grid of the counts so each profile maps straight to a window index
+            final WindowCounts windows = counts.windows(chromosome);
+            for (GCProfile gcProfile : gcProfiles.get(chromosome)) {
+                final int index = windows.index(gcProfile.start());
+                if (index < windows.windows() && windows.isReported(index)) {
+                    referenceRatiosBuilder.addPosition(chromosome, gcProfile, counts.referenceReadCount(chromosome, index));
+                    tumorRatiosBuilder.addPosition(chromosome, gcProfile, counts.tumorReadCount(chromosome, index));
                 }
             }
         }
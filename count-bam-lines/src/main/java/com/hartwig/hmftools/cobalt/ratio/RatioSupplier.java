@@ -6,8 +6,8 @@ import java.util.stream.Collectors;
 
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
+import com.hartwig.hmftools.cobalt.count.CobaltWindowCounts;
 import com.hartwig.hmftools.cobalt.diploid.DiploidRatioBuilder;
-import com.hartwig.hmftools.common.cobalt.CobaltCount;
 import com.hartwig.hmftools.common.cobalt.CobaltRatio;
 import com.hartwig.hmftools.common.cobalt.CobaltRatioFactory;
 import com.hartwig.hmftools.common.cobalt.MedianRatio;
@@ -41,7 +41,7 @@ public class RatioSupplier {
 
     @NotNull
     public Multimap<Chromosome, CobaltRatio> tumorOnly(final List<BEDFeature> bedFile,
-            @NotNull final Multimap<Chromosome, GCProfile> gcProfiles, @NotNull final Multimap<Chromosome, CobaltCount> readCounts)
+            @NotNull final Multimap<Chromosome, GCProfile> gcProfiles, @NotNull final CobaltWindowCounts readCounts)
             throws IOException {
         LOGGER.info("Applying ratio gc normalization");
         final GCRatioSupplier gcRatioSupplier = new GCRatioSupplier(gcProfiles, readCounts);
@@ -53,12 +53,12 @@ public class RatioSupplier {
         final String tumorGCMedianFilename = GCMedianReadCountFile.generateFilename(outputDirectory, tumor);
         GCMedianReadCountFile.write(tumorGCMedianFilename, gcRatioSupplier.tumorGCMedianReadCount());
 
-        return CobaltRatioFactory.merge(readCounts, diploidRatio, tumorGCRatio, diploidRatio);
+        return CobaltRatioFactory.merge(readCounts.cobaltCounts(), diploidRatio, tumorGCRatio, diploidRatio);
     }
 
     @NotNull
     public Multimap<Chromosome, CobaltRatio> tumorNormalPair(@NotNull final Multimap<Chromosome, GCProfile> gcProfiles,
-            @NotNull final Multimap<Chromosome, CobaltCount> readCounts) throws IOException {
+            @NotNull final CobaltWindowCounts readCounts) throws IOException {
         LOGGER.info("Applying ratio gc normalization");
         final GCRatioSupplier gcRatioSupplier = new GCRatioSupplier(gcProfiles, readCounts);
         final ListMultimap<Chromosome, ReadRatio> tumorGCRatio = gcRatioSupplier.tumorRatios();
@@ -85,7 +85,7 @@ public class RatioSupplier {
         GCMedianReadCountFile.write(referenceGCMedianFilename, gcRatioSupplier.referenceGCMedianReadCount());
         MedianRatioFile.write(ratioMedianFilename, medianRatios);
 
-        return CobaltRatioFactory.merge(readCounts, referenceGCRatio, tumorGCRatio, referenceGCDiploidRatio);
+        return CobaltRatioFactory.merge(readCounts.cobaltCounts(), referenceGCRatio, tumorGCRatio, referenceGCDiploidRatio);
     }
 }
 
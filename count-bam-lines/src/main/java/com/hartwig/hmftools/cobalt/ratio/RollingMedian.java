@@ -1,82 +1,192 @@
 package com.hartwig.hmftools.cobalt.ratio;
 
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.Arrays;
+import java.util.Random;
 
+/**
+ * Median of a multiset of doubles supporting add and remove by value in O(log n). Values are held in a treap of primitive arrays
+ * where each node carries the multiplicity of its value and the size of its subtree so the middle elements can be selected by rank.
+ */
 class RollingMedian {
 
-    private final PriorityQueue<Double> minheap = new PriorityQueue<>(new MinHeapComparator());
-    private final PriorityQueue<Double> maxheap = new PriorityQueue<>(new MaxHeapComparator());
+    private static final int NIL = 0;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Random random = new Random(0);
+
+    private double[] value = new double[INITIAL_CAPACITY];
+    private int[] priority = new int[INITIAL_CAPACITY];
+    private int[] multiplicity = new int[INITIAL_CAPACITY];
+    private int[] subtreeSize = new int[INITIAL_CAPACITY];
+    private int[] left = new int[INITIAL_CAPACITY];
+    private int[] right = new int[INITIAL_CAPACITY];
+
+    // Node 0 is the empty sentinel, freed nodes are chained through left
+    private int root = NIL;
+    private int nextNode = 1;
+    private int freeNode = NIL;
 
     void add(double n) {
-        if (isEmpty()) {
-            minheap.add(n);
-        } else {
-            if (Double.compare(n, median()) <= 0) {
-                maxheap.add(n);
-            } else {
-                minheap.add(n);
-            }
-        }
-        fixChaos();
+        root = insert(root, n);
     }
 
     void remove(double n) {
-        if (!isEmpty()) {
-            if (Double.compare(n, median()) <= 0) {
-                maxheap.remove(n);
-            } else {
-                minheap.remove(n);
-            }
-        }
-        fixChaos();
+        root = delete(root, n);
     }
 
     int size() {
-        return maxheap.size() + minheap.size();
+        return subtreeSize[root];
     }
 
-    private boolean isEmpty() {
-        return size() == 0;
+    double median() {
+        final int size = size();
+        if (size == 0) {
+            return 0;
+        }
+
+        if (size % 2 == 1) {
+            return select(size / 2);
+        }
+
+        return (select(size / 2 - 1) + select(size / 2)) / 2;
     }
 
-    private void fixChaos() {
-        //if sizes of heaps differ by 2, then it's a chaos, since median must be the middle element
-        if (Math.abs(maxheap.size() - minheap.size()) > 1) {
-            //check which one is the culprit and take action by kicking out the root from culprit into victim
-            if (maxheap.size() > minheap.size()) {
-                minheap.add(maxheap.poll());
+    private double select(int rank) {
+        int node = root;
+        while (true) {
+            final int leftSize = subtreeSize[left[node]];
+            if (rank < leftSize) {
+                node = left[node];
+            } else if (rank < leftSize + multiplicity[node]) {
+                return value[node];
             } else {
-                maxheap.add(minheap.poll());
+                rank -= leftSize + multiplicity[node];
+                node = right[node];
             }
         }
     }
 
-    double median() {
-        if (isEmpty()) {
-            return 0;
+    private int insert(int node, double n) {
+        if (node == NIL) {
+            return newNode(n);
         }
-        if (maxheap.size() == minheap.size()) {
-            return (maxheap.peek() + minheap.peek()) / 2;
-        } else if (maxheap.size() > minheap.size()) {
-            return maxheap.peek();
+
+        final int compare = Double.compare(n, value[node]);
+        if (compare == 0) {
+            multiplicity[node]++;
+        } else if (compare < 0) {
+            left[node] = insert(left[node], n);
+            if (priority[left[node]] > priority[node]) {
+                node = rotateRight(node);
+            }
         } else {
-            return minheap.peek();
+            right[node] = insert(right[node], n);
+            if (priority[right[node]] > priority[node]) {
+                node = rotateLeft(node);
+            }
         }
+
+        update(node);
+        return node;
     }
 
-    private static class MinHeapComparator implements Comparator<Double> {
-        @Override
-        public int compare(Double i, Double j) {
-            return Double.compare(i, j);
+    private int delete(int node, double n) {
+        if (node == NIL) {
+            return NIL;
         }
+
+        final int compare = Double.compare(n, value[node]);
+        if (compare < 0) {
+            left[node] = delete(left[node], n);
+        } else if (compare > 0) {
+            right[node] = delete(right[node], n);
+        } else if (multiplicity[node] > 1) {
+            multiplicity[node]--;
+        } else {
+            final int merged = merge(left[node], right[node]);
+            freeNode(node);
+            return merged;
+        }
+
+        update(node);
+        return node;
     }
 
-    private static class MaxHeapComparator implements Comparator<Double> {
-        // opposite to minHeapComparator, invert the return values
-        @Override
-        public int compare(Double i, Double j) {
-            return -1 * Double.compare(i, j);
+    private int merge(int a, int b) {
+        if (a == NIL) {
+            return b;
+        }
+
+        if (b == NIL) {
+            return a;
+        }
+
+        if (priority[a] > priority[b]) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        } else {
+            left[b] = merge(a, left[b]);
+            update(b);
+            return b;
         }
     }
-}
\ No newline at end of file
+
+    private int rotateRight(int node) {
+        final int pivot = left[node];
+        left[node] = right[pivot];
+        right[pivot] = node;
+        update(node);
+        return pivot;
+    }
+
+    private int rotateLeft(int node) {
+        final int pivot = right[node];
+        right[node] = left[pivot];
+        left[pivot] = node;
+        update(node);
+        return pivot;
+    }
+
+    private void update(int node) {
+        subtreeSize[node] = subtreeSize[left[node]] + subtreeSize[right[node]] + multiplicity[node];
+    }
+
+    private int newNode(double n) {
+        final int node;
+        if (freeNode != NIL) {
+            node = freeNode;
+            freeNode = left[node];
+        } else {
+            if (nextNode == value.length) {
+                grow();
+            }
+            node = nextNode++;
+        }
+
+        value[node] = n;
+        priority[node] = random.nextInt();
+        multiplicity[node] = 1;
+        subtreeSize[node] = 1;
+        left[node] = NIL;
+        right[node] = NIL;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        left[node] = freeNode;
+        right[node] = NIL;
+        subtreeSize[node] = 0;
+        freeNode = node;
+    }
+
+    private void grow() {
+        final int capacity = value.length * 2;
+        value = Arrays.copyOf(value, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        multiplicity = Arrays.copyOf(multiplicity, capacity);
+        subtreeSize = Arrays.copyOf(subtreeSize, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+    }
+}
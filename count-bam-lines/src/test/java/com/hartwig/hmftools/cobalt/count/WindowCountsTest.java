@@ -0,0 +1,37 @@
+package com.hartwig.hmftools.cobalt.count;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class WindowCountsTest {
+
+    @Test
+    public void testWindowIndex() {
+        final WindowCounts victim = new WindowCounts("1", 3500, 1000);
+        assertEquals(4, victim.windows());
+        assertEquals(0, victim.index(1));
+        assertEquals(0, victim.index(1000));
+        assertEquals(1, victim.index(1001));
+        assertEquals(3001, victim.position(3));
+    }
+
+    @Test
+    public void testOnlyEdgeWindowsReportedWithoutReads() {
+        final WindowCounts victim = new WindowCounts("1", 4000, 1000);
+        victim.increment(1);
+        victim.increment(1);
+
+        assertTrue(victim.isReported(0));
+        assertTrue(victim.isReported(1));
+        assertFalse(victim.isReported(2));
+        assertTrue(victim.isReported(3));
+
+        assertEquals(-1, victim.readCount(0));
+        assertEquals(2, victim.readCount(1));
+        assertEquals(0, victim.readCount(2));
+        assertEquals(-1, victim.readCount(3));
+    }
+}
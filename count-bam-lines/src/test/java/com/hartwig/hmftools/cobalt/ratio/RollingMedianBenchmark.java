@@ -0,0 +1,131 @@
+package com.hartwig.hmftools.cobalt.ratio;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Slides a diploid normalisation sized window over a run of ratios. Run with main from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class RollingMedianBenchmark {
+
+    @Param({ "250000" })
+    public int windowCount;
+
+    @Param({ "1001", "10001" })
+    public int windowSize;
+
+    private double[] ratios;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        ratios = new double[windowCount];
+        for (int i = 0; i < windowCount; i++) {
+            // Ratios are binned read counts so duplicates are common
+            ratios[i] = Math.round(random.nextGaussian() * 100 + 1000) / 1000d;
+        }
+    }
+
+    @Benchmark
+    public void rollingMedian(final Blackhole blackhole) {
+        final RollingMedian median = new RollingMedian();
+        for (int i = 0; i < ratios.length; i++) {
+            median.add(ratios[i]);
+            if (i >= windowSize) {
+                median.remove(ratios[i - windowSize]);
+            }
+            blackhole.consume(median.median());
+        }
+    }
+
+    @Benchmark
+    public void priorityQueueMedian(final Blackhole blackhole) {
+        final PriorityQueueMedian median = new PriorityQueueMedian();
+        for (int i = 0; i < ratios.length; i++) {
+            median.add(ratios[i]);
+            if (i >= windowSize) {
+                median.remove(ratios[i - windowSize]);
+            }
+            blackhole.consume(median.median());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RollingMedianBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // Previous two heap implementation with linear removal
+    private static class PriorityQueueMedian {
+
+        private final PriorityQueue<Double> minheap = new PriorityQueue<>(Comparator.naturalOrder());
+        private final PriorityQueue<Double> maxheap = new PriorityQueue<>(Comparator.reverseOrder());
+
+        void add(double n) {
+            if (size() == 0 || Double.compare(n, median()) > 0) {
+                minheap.add(n);
+            } else {
+                maxheap.add(n);
+            }
+            rebalance();
+        }
+
+        void remove(double n) {
+            if (size() > 0) {
+                if (Double.compare(n, median()) <= 0) {
+                    maxheap.remove(n);
+                } else {
+                    minheap.remove(n);
+                }
+            }
+            rebalance();
+        }
+
+        int size() {
+            return maxheap.size() + minheap.size();
+        }
+
+        double median() {
+            if (size() == 0) {
+                return 0;
+            }
+            if (maxheap.size() == minheap.size()) {
+                return (maxheap.peek() + minheap.peek()) / 2;
+            }
+            return maxheap.size() > minheap.size() ? maxheap.peek() : minheap.peek();
+        }
+
+        private void rebalance() {
+            if (Math.abs(maxheap.size() - minheap.size()) > 1) {
+                if (maxheap.size() > minheap.size()) {
+                    minheap.add(maxheap.poll());
+                } else {
+                    maxheap.add(minheap.poll());
+                }
+            }
+        }
+    }
+}
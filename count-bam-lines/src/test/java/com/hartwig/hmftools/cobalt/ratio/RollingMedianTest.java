@@ -2,6 +2,9 @@ package com.hartwig.hmftools.cobalt.ratio;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -44,6 +47,43 @@ public class RollingMedianTest {
         assertMedian(5.5);
     }
 
+    @Test
+    public void testRemoveDuplicate() {
+        victim.add(5);
+        victim.add(5);
+        victim.add(7);
+        victim.remove(5);
+        assertMedian(6);
+        victim.remove(5);
+        assertMedian(7);
+        victim.remove(7);
+        assertEquals(0, victim.size());
+    }
+
+    @Test
+    public void testSlidingWindowMatchesSortedMedian() {
+        final Random random = new Random(1);
+        final double[] values = new double[2000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(50);
+        }
+
+        final int window = 101;
+        for (int i = 0; i < values.length; i++) {
+            victim.add(values[i]);
+            if (i >= window) {
+                victim.remove(values[i - window]);
+            }
+
+            final double[] sorted = Arrays.copyOfRange(values, Math.max(0, i - window + 1), i + 1);
+            Arrays.sort(sorted);
+            final int size = sorted.length;
+            final double expected = size % 2 == 1 ? sorted[size / 2] : (sorted[size / 2 - 1] + sorted[size / 2]) / 2;
+            assertEquals(size, victim.size());
+            assertMedian(expected);
+        }
+    }
+
     private void assertMedian(double expected) {
         assertEquals(expected, victim.median(), EPSILON);
     }
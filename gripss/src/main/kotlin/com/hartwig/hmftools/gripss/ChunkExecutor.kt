@@ -0,0 +1,42 @@
+package com.hartwig.hmftools.gripss
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import kotlin.math.max
+
+/**
+ * Maps lists in contiguous chunks across a fixed pool of threads, returning the results in the original order so the output is
+ * independent of the number of threads. With a single thread everything runs on the calling thread.
+ */
+class ChunkExecutor(val threads: Int, private val minChunkSize: Int = DEFAULT_MIN_CHUNK_SIZE) : AutoCloseable {
+
+    companion object {
+        private const val DEFAULT_MIN_CHUNK_SIZE = 100
+        private const val CHUNKS_PER_THREAD = 4
+    }
+
+    private val executor: ExecutorService? = if (threads > 1) Executors.newFixedThreadPool(threads) else null
+
+    fun <T, R> mapChunks(items: List<T>, transform: (List<T>) -> List<R>): List<R> {
+        if (executor == null || items.size < 2 * minChunkSize) {
+            return transform(items)
+        }
+
+        val chunkCount = threads * CHUNKS_PER_THREAD
+        val chunkSize = max(minChunkSize, (items.size + chunkCount - 1) / chunkCount)
+        val futures = items.chunked(chunkSize).map { chunk -> executor.submit(Callable { transform(chunk) }) }
+
+        try {
+            return futures.flatMap { it.get() }
+        } catch (e: ExecutionException) {
+            futures.forEach { it.cancel(true) }
+            throw e.cause ?: e
+        }
+    }
+
+    override fun close() {
+        executor?.shutdown()
+    }
+}
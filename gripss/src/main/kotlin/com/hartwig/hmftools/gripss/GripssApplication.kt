@@ -6,7 +6,6 @@ import com.hartwig.hmftools.common.utils.version.VersionInfo
 import com.hartwig.hmftools.extensions.BEALN
 import com.hartwig.hmftools.extensions.REPEAT_MASKER_REPEAT_CLASS
 import com.hartwig.hmftools.extensions.REPEAT_MASKER_REPEAT_TYPE
-import com.hartwig.hmftools.extensions.realigned
 import com.hartwig.hmftools.gripss.GripssApplication.Companion.logger
 import com.hartwig.hmftools.gripss.dedup.DedupPair
 import com.hartwig.hmftools.gripss.dedup.DedupSingle
@@ -18,8 +17,6 @@ import com.hartwig.hmftools.gripss.store.LinkStore
 import com.hartwig.hmftools.gripss.store.LocationStore
 import com.hartwig.hmftools.gripss.store.SoftFilterStore
 import com.hartwig.hmftools.gripss.store.VariantStore
-import htsjdk.samtools.reference.IndexedFastaSequenceFile
-import htsjdk.variant.variantcontext.VariantContextComparator
 import htsjdk.variant.vcf.VCFFileReader
 import htsjdk.variant.vcf.VCFHeader
 import org.apache.commons.cli.*
@@ -52,6 +49,7 @@ fun main(args: Array<String>) {
 class GripssApplication(private val config: GripssConfig) : AutoCloseable, Runnable {
     companion object {
         const val PON_ADDITIONAL_DISTANCE = 1
+        const val VCF_BATCH_SIZE = 100_000
         val logger = LogManager.getLogger(this::class.java)
         val version = VersionInfo("gripss.version")
     }
@@ -60,7 +58,7 @@ class GripssApplication(private val config: GripssConfig) : AutoCloseable, Runna
     private val fileReader = VCFFileReader(File(config.inputVcf), false)
     private val dictionary = fileReader.fileHeader.sequenceDictionary
     private val fileWriter = GripssVCF(config.outputVcf, dictionary)
-    private val refGenome = IndexedFastaSequenceFile(File(config.refGenome))
+    private val executor = ChunkExecutor(config.threads)
 
     override fun run() {
         val inputHeader = fileReader.fileHeader!!
@@ -69,6 +67,9 @@ class GripssApplication(private val config: GripssConfig) : AutoCloseable, Runna
         assertInfoLine(inputHeader, REPEAT_MASKER_REPEAT_TYPE)
 
         logger.info("Config ${config.filterConfig}")
+        if (config.threads > 1) {
+            logger.info("Using ${config.threads} threads")
+        }
         val contigComparator = ContigComparator(dictionary)
 
         val inputSampleNames = inputHeader.genotypeSamples!!
@@ -91,7 +92,8 @@ class GripssApplication(private val config: GripssConfig) : AutoCloseable, Runna
         val hotspotFilter = hotspotFilter(hotspotStore)
 
         logger.info("Reading VCF file: ${config.inputVcf}")
-        val variantStore = VariantStore(hardFilterAndRealign(fileReader, inputSampleOrdinals, hotspotFilter, contigComparator))
+        val hardFilterAndRealign = HardFilterAndRealign(config.filterConfig, config.refGenome, inputSampleOrdinals, contigComparator, executor)
+        val variantStore = VariantStore(hardFilterAndRealign.hardFilterAndRealign(fileReader, hotspotFilter, dictionary))
         val hotspots = variantStore.selectAll().filter(hotspotFilter).map { x -> x.vcfId }.toSet()
 
         logger.info("Reading PON files: ${config.singlePonFile} ${config.pairedPonFile}")
@@ -104,7 +106,7 @@ class GripssApplication(private val config: GripssConfig) : AutoCloseable, Runna
         val assemblyLinks: LinkStore = AssemblyLink(variantStore.selectAll())
 
         logger.info("Finding transitive links")
-        val alternatePaths: Collection<AlternatePath> = AlternatePath(assemblyLinks, variantStore)
+        val alternatePaths: Collection<AlternatePath> = AlternatePath(assemblyLinks, variantStore, executor)
         val alternatePathsStringsByVcfId = alternatePaths.associate { x -> Pair(x.vcfId, x.pathString()) }
         val transitiveLinks = LinkStore(alternatePaths.flatMap { x -> x.transitiveLinks() })
         val combinedTransitiveAssemblyLinks = LinkStore(assemblyLinks, transitiveLinks)
@@ -150,52 +152,35 @@ class GripssApplication(private val config: GripssConfig) : AutoCloseable, Runna
     }
 
     private fun ponFiltered(contigComparator: ContigComparator, variants: List<StructuralVariantContext>): Set<String> {
-        val breakends = Breakend.fromBedFile(config.singlePonFile)
-        val breakpoints = Breakpoint.fromBedpeFile(config.pairedPonFile, contigComparator)
-        val ponStore = LocationStore(contigComparator, breakends, breakpoints, PON_ADDITIONAL_DISTANCE)
+        val ponStore = ponStore(contigComparator)
 
         logger.info("Applying PON file")
         return variants.filter { ponStore.contains(it) }.map { it.vcfId }.toSet()
     }
 
-    private fun hardFilterAndRealign(fileReader: VCFFileReader, ordinals: Pair<Int, Int>, hotspotFilter: (StructuralVariantContext) -> Boolean, contigComparator: ContigComparator): List<StructuralVariantContext> {
-        val hardFilter: MutableSet<String> = mutableSetOf()
-        val validVariantsById: MutableMap<String, StructuralVariantContext> = mutableMapOf()
-
-        // Read in all non hard filtered
-        for (variantContext in fileReader) {
-            val structuralVariant = StructuralVariantContext(variantContext, ordinals.first, ordinals.second)
-            val isHotspot = hotspotFilter(structuralVariant)
-            val isMateHardFiltered = hardFilter.contains(structuralVariant.vcfId)
-            val isHardFiltered = isMateHardFiltered || structuralVariant.isHardFilter(config.filterConfig, contigComparator, isHotspot)
-
-            if (isHardFiltered) {
-                structuralVariant.mateId?.let {
-                    hardFilter.add(it)
-                    validVariantsById.remove(it)
-                }
-            } else {
-                validVariantsById[variantContext.id] = structuralVariant
+    private fun ponStore(contigComparator: ContigComparator): LocationStore {
+        val ponFiles = listOf(config.singlePonFile, config.pairedPonFile)
+
+        if (config.ponIndexFile.isNotEmpty() && File(config.ponIndexFile).exists()) {
+            logger.info("Reading PON index: ${config.ponIndexFile}")
+            val indexedStore = LocationStore.read(config.ponIndexFile, contigComparator, PON_ADDITIONAL_DISTANCE, ponFiles)
+            if (indexedStore != null) {
+                return indexedStore
             }
+
+            logger.warn("PON index ${config.ponIndexFile} was built from different PON files or additional distance, rebuilding")
         }
 
-        // Realignment
-        val vcfIds = validVariantsById.keys
-        for (vcfId in vcfIds) {
-            val original = validVariantsById[vcfId]!!
-            val realigned = original.realign(refGenome, contigComparator)
-            if (realigned.context.realigned()) {
-                validVariantsById[vcfId] = realigned
-                realigned.mateId?.let { validVariantsById[it] }?.let { x ->
-                    validVariantsById[x.vcfId] = x.realignRemote(realigned)
-                }
-            }
+        val breakends = Breakend.fromBedFile(config.singlePonFile)
+        val breakpoints = Breakpoint.fromBedpeFile(config.pairedPonFile, contigComparator)
+        val ponStore = LocationStore(contigComparator, breakends, breakpoints, PON_ADDITIONAL_DISTANCE)
+
+        if (config.ponIndexFile.isNotEmpty()) {
+            logger.info("Writing PON index: ${config.ponIndexFile}")
+            ponStore.write(config.ponIndexFile, ponFiles)
         }
 
-        val contextComparator = VariantContextComparator(dictionary)
-        val comparator: Comparator<StructuralVariantContext> = Comparator { x, y -> contextComparator.compare(x.context, y.context) }
-        val mateIsValidOrNull = { x: StructuralVariantContext -> x.mateId?.let { validVariantsById.contains(it) } != false }
-        return validVariantsById.values.filter { x -> !hardFilter.contains(x.vcfId) && mateIsValidOrNull(x) }.sortedWith(comparator)
+        return ponStore
     }
 
     private fun assertInfoLine(header: VCFHeader, tag: String) {
@@ -205,7 +190,7 @@ class GripssApplication(private val config: GripssConfig) : AutoCloseable, Runna
     }
 
     override fun close() {
-        refGenome.close()
+        executor.close()
         fileReader.close()
         fileWriter.close()
         logger.info("Finished in ${(System.currentTimeMillis() - startTime) / 1000} seconds")
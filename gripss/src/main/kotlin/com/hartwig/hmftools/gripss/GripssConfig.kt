@@ -19,18 +19,22 @@ const val REF_GENOME_OPTION = "ref_genome"
 const val SINGLE_PON_OPTION = "breakend_pon"
 const val PAIRED_PON_OPTION = "breakpoint_pon"
 const val PAIRED_HOTSPOT_OPTION = "breakpoint_hotspot"
+const val PON_INDEX_OPTION = "pon_index"
 const val REFERENCE = "reference"
 const val TUMOR = "tumor"
+const val THREADS_OPTION = "threads"
 
 data class GripssConfig(
         val inputVcf: String,
         val outputVcf: String,
         val singlePonFile: String,
         val pairedPonFile: String,
+        val ponIndexFile: String,
         val pairedHotspotFile: String,
         val refGenome: String,
         val reference: String,
         val tumor: String,
+        val threads: Int,
         val filterConfig: GripssFilterConfig) {
 
     fun sampleOrdinals(sampleNames: List<String>): Pair<Int, Int> {
@@ -60,9 +64,11 @@ data class GripssConfig(
             options.addOption(requiredOption(SINGLE_PON_OPTION, "Single breakend pon bed file"))
             options.addOption(requiredOption(PAIRED_PON_OPTION, "Paired breakpoint pon bedpe file"))
             options.addOption(requiredOption(PAIRED_HOTSPOT_OPTION, "Paired breakpoint hotspot bedpe file"))
+            options.addOption(Option(PON_INDEX_OPTION, true, "Optional prebuilt pon index, loaded in place of the pon files if built from the same pon paths, sizes and modification times, otherwise rebuilt and written from them"))
             options.addOption(requiredOption(REF_GENOME_OPTION, "Ref genome"))
             options.addOption(Option(REFERENCE, true, "Optional name of reference sample"))
             options.addOption(requiredOption(TUMOR, "Name of tumor sample"))
+            options.addOption(Option(THREADS_OPTION, true, "Number of threads [1]"))
             GripssFilterConfig.createOptions().options.forEach { options.addOption(it) }
             return options
         }
@@ -74,9 +80,11 @@ data class GripssConfig(
             val singlePon = requiredFile(cmd, SINGLE_PON_OPTION)
             val pairedPon = requiredFile(cmd, PAIRED_PON_OPTION)
             val pairedHotspot = requiredFile(cmd, PAIRED_HOTSPOT_OPTION)
+            val ponIndex = cmd.getOptionValue(PON_INDEX_OPTION, Strings.EMPTY)
             val outputVcf = cmd.getOptionValue(OUTPUT_VCF_OPTION)
             val reference = cmd.getOptionValue(REFERENCE, Strings.EMPTY)
             val tumor = cmd.getOptionValue(TUMOR, Strings.EMPTY)
+            val threads = defaultIntValue(cmd, THREADS_OPTION, 1)
 
             val outputDir = File(outputVcf).absoluteFile.parentFile
             if (!outputDir.exists() && !outputDir.mkdirs()) {
@@ -86,7 +94,7 @@ data class GripssConfig(
             val isGRCh38 = isGRCh38(refGenome)
             val filterConfig = GripssFilterConfig.createConfig(cmd, isGRCh38)
 
-            return GripssConfig(inputVcf, outputVcf, singlePon, pairedPon, pairedHotspot, refGenome, reference, tumor, filterConfig)
+            return GripssConfig(inputVcf, outputVcf, singlePon, pairedPon, ponIndex, pairedHotspot, refGenome, reference, tumor, threads, filterConfig)
         }
 
         private fun isGRCh38(refGenome: String): Boolean {
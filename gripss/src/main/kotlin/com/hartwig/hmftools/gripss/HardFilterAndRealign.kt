@@ -0,0 +1,95 @@
+package com.hartwig.hmftools.gripss
+
+import com.hartwig.hmftools.extensions.realigned
+import htsjdk.samtools.SAMSequenceDictionary
+import htsjdk.samtools.reference.IndexedFastaSequenceFile
+import htsjdk.variant.variantcontext.LazyGenotypesContext
+import htsjdk.variant.variantcontext.VariantContext
+import htsjdk.variant.variantcontext.VariantContextComparator
+import java.io.File
+
+class HardFilterAndRealign(
+        private val filterConfig: GripssFilterConfig,
+        private val refGenomeFile: String,
+        private val ordinals: Pair<Int, Int>,
+        private val contigComparator: ContigComparator,
+        private val executor: ChunkExecutor,
+        private val batchSize: Int = GripssApplication.VCF_BATCH_SIZE) {
+
+    fun hardFilterAndRealign(variants: Iterable<VariantContext>, hotspotFilter: (StructuralVariantContext) -> Boolean, dictionary: SAMSequenceDictionary): List<StructuralVariantContext> {
+        val hardFilter: MutableSet<String> = mutableSetOf()
+        val validVariantsById: MutableMap<String, StructuralVariantContext> = mutableMapOf()
+
+        // Read in all non hard filtered
+        fun addBatch(batch: List<VariantContext>) {
+            val decodedBatch = executor.mapChunks(batch) { chunk ->
+                chunk.map { variantContext ->
+                    val structuralVariant = StructuralVariantContext(variantContext, ordinals.first, ordinals.second)
+                    val isHotspot = hotspotFilter(structuralVariant)
+                    Pair(structuralVariant, structuralVariant.isHardFilter(filterConfig, contigComparator, isHotspot))
+                }
+            }
+
+            for ((structuralVariant, isHardFilter) in decodedBatch) {
+                val isMateHardFiltered = hardFilter.contains(structuralVariant.vcfId)
+                val isHardFiltered = isMateHardFiltered || isHardFilter
+
+                if (isHardFiltered) {
+                    structuralVariant.mateId?.let {
+                        hardFilter.add(it)
+                        validVariantsById.remove(it)
+                    }
+                } else {
+                    validVariantsById[structuralVariant.vcfId] = structuralVariant
+                }
+            }
+        }
+
+        val batch = ArrayList<VariantContext>(batchSize)
+        for (variantContext in variants) {
+            // Genotypes are lazily decoded by the codec shared by the whole file so must be decoded before leaving this thread
+            (variantContext.genotypes as? LazyGenotypesContext)?.decode()
+            batch.add(variantContext)
+            if (batch.size == batchSize) {
+                addBatch(batch)
+                batch.clear()
+            }
+        }
+        addBatch(batch)
+
+        // Realignment
+        IndexedFastaSequenceFile(File(refGenomeFile)).use { refGenome ->
+            val originals = validVariantsById.values.toList()
+            val realignedOriginals = realign(refGenome, originals)
+            for (i in originals.indices) {
+                val vcfId = originals[i].vcfId
+                val current = validVariantsById[vcfId]!!
+
+                // A variant already updated by its realigned mate is realigned again from that updated state
+                val realigned = if (current === originals[i]) realignedOriginals[i] else current.realign(refGenome, contigComparator)
+                if (realigned.context.realigned()) {
+                    validVariantsById[vcfId] = realigned
+                    realigned.mateId?.let { validVariantsById[it] }?.let { x ->
+                        validVariantsById[x.vcfId] = x.realignRemote(realigned)
+                    }
+                }
+            }
+        }
+
+        val contextComparator = VariantContextComparator(dictionary)
+        val comparator: Comparator<StructuralVariantContext> = Comparator { x, y -> contextComparator.compare(x.context, y.context) }
+        val mateIsValidOrNull = { x: StructuralVariantContext -> x.mateId?.let { validVariantsById.contains(it) } != false }
+        return validVariantsById.values.filter { x -> !hardFilter.contains(x.vcfId) && mateIsValidOrNull(x) }.sortedWith(comparator)
+    }
+
+    private fun realign(refGenome: IndexedFastaSequenceFile, variants: List<StructuralVariantContext>): List<StructuralVariantContext> {
+        if (executor.threads == 1) {
+            return variants.map { x -> x.realign(refGenome, contigComparator) }
+        }
+
+        // Reference readers are not thread safe so each chunk reads from its own
+        return executor.mapChunks(variants) { chunk ->
+            IndexedFastaSequenceFile(File(refGenomeFile)).use { chunkRefGenome -> chunk.map { x -> x.realign(chunkRefGenome, contigComparator) } }
+        }
+    }
+}
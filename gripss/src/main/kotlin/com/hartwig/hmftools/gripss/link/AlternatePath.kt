@@ -1,5 +1,6 @@
 package com.hartwig.hmftools.gripss.link
 
+import com.hartwig.hmftools.gripss.ChunkExecutor
 import com.hartwig.hmftools.gripss.store.LinkStore
 import com.hartwig.hmftools.gripss.store.VariantStore
 import org.apache.logging.log4j.LogManager
@@ -11,15 +12,16 @@ data class AlternatePath(val vcfId: String, val mateId: String, val path: List<L
     companion object {
         private val logger = LogManager.getLogger(this::class.java)
 
-        operator fun invoke(assemblyLinkStore: LinkStore, variantStore: VariantStore): Collection<AlternatePath> {
+        operator fun invoke(assemblyLinkStore: LinkStore, variantStore: VariantStore, executor: ChunkExecutor = ChunkExecutor(1)): Collection<AlternatePath> {
 
             val failed = HashSet<String>()
             val result = HashMap<String, AlternatePath>()
             val transitiveLink = TransitiveLink(assemblyLinkStore, variantStore)
+            val linksByVcfId = searchFirstOfPairs(transitiveLink, variantStore, executor)
 
             for (variant in variantStore.selectAll()) {
                 if (variant.mateId != null && !result.keys.contains(variant.mateId) && !failed.contains(variant.mateId)) {
-                    val links = transitiveLink.transitiveLink(variant)
+                    val links = linksByVcfId[variant.vcfId] ?: transitiveLink.transitiveLink(variant)
                     if (links.isNotEmpty()) {
                         val alternatePath = AlternatePath(variant.vcfId, variant.mateId, links)
                         val reverseAlternatePath = AlternatePath(variant.mateId, variant.vcfId, links.map { x -> x.reverse() }.reversed())
@@ -34,6 +36,20 @@ data class AlternatePath(val vcfId: String, val mateId: String, val path: List<L
 
             return result.values
         }
+
+        private fun searchFirstOfPairs(transitiveLink: TransitiveLink, variantStore: VariantStore, executor: ChunkExecutor): Map<String, List<Link>> {
+            // The searches are independent so those of the first variant of each pair are made up front, in parallel. Any other
+            // search the serial merge above needs falls back to being made there.
+            val seen = HashSet<String>()
+            val firstOfPairs = variantStore.selectAll().filter { x ->
+                val isFirstOfPair = x.mateId != null && !seen.contains(x.mateId)
+                seen.add(x.vcfId)
+                isFirstOfPair
+            }
+
+            val links = executor.mapChunks(firstOfPairs) { chunk -> chunk.map { x -> transitiveLink.transitiveLink(x) } }
+            return firstOfPairs.indices.associate { i -> Pair(firstOfPairs[i].vcfId, links[i]) }
+        }
     }
 
     fun size(): Int = path.size
@@ -1,7 +1,12 @@
 package com.hartwig.hmftools.gripss.store
 
 import com.hartwig.hmftools.bedpe.Location
+import kotlin.math.max
 
+/**
+ * Elements sorted by start with an implicit interval tree over them: the element at the midpoint of each range of the binary
+ * search holds the max end of that range, so whole ranges ending before a query are skipped.
+ */
 class LocationSeek<T : Location> private constructor(private val elements: List<T>) {
 
     companion object {
@@ -10,21 +15,55 @@ class LocationSeek<T : Location> private constructor(private val elements: List<
         }
     }
 
-    fun any(filter: (T) -> Boolean): Boolean {
+    private val maxEnds = IntArray(elements.size)
 
-        if (elements.isEmpty()) {
+    init {
+        buildMaxEnds(0, elements.size)
+    }
+
+    val size: Int
+        get() = elements.size
+
+    fun elements(): List<T> = elements
+
+    fun any(start: Int, end: Int, filter: (T) -> Boolean): Boolean {
+        return any(0, elements.size, start, end, filter)
+    }
+
+    private fun any(lowIndex: Int, highIndex: Int, start: Int, end: Int, filter: (T) -> Boolean): Boolean {
+        if (lowIndex >= highIndex) {
+            return false
+        }
+
+        val midIndex = (lowIndex + highIndex) ushr 1
+        if (maxEnds[midIndex] < start) {
             return false
         }
 
-        var loopIndex = 0
-        while (loopIndex < elements.size) {
-            if (filter(elements[loopIndex])) {
-                return true
-            }
-            loopIndex++
+        if (any(lowIndex, midIndex, start, end, filter)) {
+            return true
         }
 
-        return false
+        val element = elements[midIndex]
+        if (element.start > end) {
+            return false
+        }
+
+        if (element.end >= start && filter(element)) {
+            return true
+        }
+
+        return any(midIndex + 1, highIndex, start, end, filter)
     }
 
-}
\ No newline at end of file
+    private fun buildMaxEnds(lowIndex: Int, highIndex: Int): Int {
+        if (lowIndex >= highIndex) {
+            return Int.MIN_VALUE
+        }
+
+        val midIndex = (lowIndex + highIndex) ushr 1
+        val maxEnd = max(elements[midIndex].end, max(buildMaxEnds(lowIndex, midIndex), buildMaxEnds(midIndex + 1, highIndex)))
+        maxEnds[midIndex] = maxEnd
+        return maxEnd
+    }
+}
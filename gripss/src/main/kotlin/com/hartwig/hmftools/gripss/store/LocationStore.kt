@@ -5,59 +5,59 @@ import com.hartwig.hmftools.bedpe.Breakpoint
 import com.hartwig.hmftools.bedpe.Location
 import com.hartwig.hmftools.gripss.ContigComparator
 import com.hartwig.hmftools.gripss.StructuralVariantContext
-import java.io.Serializable
+import java.io.*
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
 
-class LocationStore private constructor(private val compare: ContigComparator, private val singlesMap: Map<String, LocationSeek<Breakend>>, private val pairedMap: Map<String, LocationSeek<Breakpoint>>) : Serializable {
+class LocationStore private constructor(private val compare: ContigComparator, private val additionalBuffer: Int, private val singlesMap: Map<String, LocationSeek<Breakend>>, private val pairedMap: Map<String, LocationSeek<Breakpoint>>, private val sources: List<SourceFile> = listOf()) : Serializable {
 
     companion object {
+        private const val serialVersionUID = 1L
+
         operator fun invoke(compare: ContigComparator, single: List<Breakend>, paired: List<Breakpoint>, additionalBuffer: Int = 0): LocationStore {
 
             val singlesMap = mutableMapOf<String, MutableList<Breakend>>()
             for (bedEntry in single) {
-                val expanded = bedEntry.expand(additionalBuffer)
-                bedEntry.locationKey().forEach { key -> singlesMap.computeIfAbsent(key) { mutableListOf() }.add(expanded) }
+                singlesMap.computeIfAbsent(bedEntry.locationKey()) { mutableListOf() }.add(bedEntry.expand(additionalBuffer))
             }
 
             val pairedMap = mutableMapOf<String, MutableList<Breakpoint>>()
             for (bedpePair in paired) {
-                val expanded = bedpePair.expand(additionalBuffer)
-                bedpePair.locationKey().forEach { key -> pairedMap.computeIfAbsent(key) { mutableListOf() }.add(expanded) }
+                pairedMap.computeIfAbsent(bedpePair.locationKey()) { mutableListOf() }.add(bedpePair.expand(additionalBuffer))
             }
 
             val breakendSeeks: Map<String, LocationSeek<Breakend>> = singlesMap.entries.associate { (key: String, list: List<Breakend>) -> Pair(key, LocationSeek(list)) }
             val breakpointSeeks: Map<String, LocationSeek<Breakpoint>> = pairedMap.entries.associate { (key: String, list: List<Breakpoint>) -> Pair(key, LocationSeek(list)) }
 
-            return LocationStore(compare, breakendSeeks, breakpointSeeks)
-        }
-
-        private fun Breakend.locationKey(): List<String> {
-            val startPositionKey = roundedPosition(this.start)
-            val endPositionKey = roundedPosition(this.start)
-
-            val result = mutableListOf<String>()
-            result.add("${this.contig}:${this.orientation}:${startPositionKey}")
-            if (startPositionKey != endPositionKey) {
-                result.add("${this.contig}:${this.orientation}:${endPositionKey}")
-            }
-
-            return result
+            return LocationStore(compare, additionalBuffer, breakendSeeks, breakpointSeeks)
         }
 
-        private fun Breakpoint.locationKey(): List<String> {
-            val startKeys = startBreakend.locationKey()
-            val endKeys = endBreakend.locationKey()
+        /**
+         * Reads a store previously written with [write], keeping the supplied contig order. Returns null if the file was built
+         * with a different additional buffer or from source files that no longer match the supplied files by path, size and
+         * modification time.
+         */
+        @Throws(IOException::class)
+        fun read(file: String, compare: ContigComparator, additionalBuffer: Int = 0, sourceFiles: List<String> = listOf()): LocationStore? {
+            ObjectInputStream(BufferedInputStream(GZIPInputStream(FileInputStream(file)), 1 shl 16)).use {
+                val store = try {
+                    it.readObject() as LocationStore
+                } catch (e: ClassNotFoundException) {
+                    throw IOException(e)
+                }
 
-            val result = mutableListOf<String>()
-            for (startKey in startKeys) {
-                for (endKey in endKeys) {
-                    result.add("$startKey:$endKey")
+                return if (store.additionalBuffer == additionalBuffer && store.sources == sourceFiles.map { x -> SourceFile(x) }) {
+                    LocationStore(compare, additionalBuffer, store.singlesMap, store.pairedMap, store.sources)
+                } else {
+                    null
                 }
             }
-
-            return result
         }
 
-        private fun roundedPosition(position: Int) = position / 1_000_000
+        // Indexed by contig and orientation only, as the interval index finds any overlap within them
+        private fun Breakend.locationKey(): String = "${this.contig}:${this.orientation}"
+
+        private fun Breakpoint.locationKey(): String = "${startBreakend.locationKey()}:${endBreakend.locationKey()}"
 
         private fun Location.overlaps(other: Location): Boolean {
             // No need to check for contig and orientation as the maps are already keyed by this
@@ -74,8 +74,7 @@ class LocationStore private constructor(private val compare: ContigComparator, p
     }
 
     fun contains(start: Breakend): Boolean {
-        val keys = start.locationKey()
-        return keys.any { singlesMap[it]?.any { x -> x.overlaps(start) } == true }
+        return singlesMap[start.locationKey()]?.any(start.start, start.end) { true } == true
     }
 
     fun contains(breakpoint: Breakpoint): Boolean {
@@ -83,11 +82,93 @@ class LocationStore private constructor(private val compare: ContigComparator, p
             return contains(Breakpoint(breakpoint.endBreakend, breakpoint.startBreakend))
         }
 
-        val keys = breakpoint.locationKey()
-        return keys.any { pairedMap[it]?.any { x -> x.startBreakend.overlaps(breakpoint.startBreakend) && x.endBreakend.overlaps(breakpoint.endBreakend) } == true }
+        // The index finds entries overlapping the start breakend, which are then checked against the end breakend
+        val seek = pairedMap[breakpoint.locationKey()] ?: return false
+        return seek.any(breakpoint.startBreakend.start, breakpoint.startBreakend.end) { x -> x.endBreakend.overlaps(breakpoint.endBreakend) }
+    }
+
+    /**
+     * Writes the store, recording the path, size and modification time of the source files it was built from so [read] can
+     * detect a stale file.
+     */
+    @Throws(IOException::class)
+    fun write(file: String, sourceFiles: List<String> = listOf()) {
+        val store = LocationStore(compare, additionalBuffer, singlesMap, pairedMap, sourceFiles.map { x -> SourceFile(x) })
+        ObjectOutputStream(BufferedOutputStream(GZIPOutputStream(FileOutputStream(file)), 1 shl 16)).use { it.writeObject(store) }
     }
 
     private fun ContigComparator.compare(breakend1: Breakend, breakend2: Breakend): Int {
         return compare(breakend1.contig, breakend1.start, breakend2.contig, breakend2.start)
     }
-}
\ No newline at end of file
+
+    private fun writeReplace(): Any {
+        val singles = singlesMap.values.filter { it.size > 0 }.map { seek ->
+            val elements = seek.elements()
+            SerializedBreakends(elements[0].contig, elements[0].orientation, IntArray(elements.size) { elements[it].start }, IntArray(elements.size) { elements[it].end })
+        }
+
+        val paired = pairedMap.values.filter { it.size > 0 }.map { seek ->
+            val elements = seek.elements()
+            SerializedBreakpoints(
+                    SerializedBreakends(elements[0].startBreakend.contig, elements[0].startBreakend.orientation,
+                            IntArray(elements.size) { elements[it].startBreakend.start }, IntArray(elements.size) { elements[it].startBreakend.end }),
+                    SerializedBreakends(elements[0].endBreakend.contig, elements[0].endBreakend.orientation,
+                            IntArray(elements.size) { elements[it].endBreakend.start }, IntArray(elements.size) { elements[it].endBreakend.end }))
+        }
+
+        return SerializedForm(compare.contigs.entries.sortedBy { it.value }.map { it.key }, additionalBuffer, sources, singles, paired)
+    }
+
+    /**
+     * Compact form of the store holding the already expanded and sorted locations of each contig and orientation as columns of
+     * primitive positions.
+     */
+    private class SerializedForm(val contigs: List<String>, val additionalBuffer: Int, val sources: List<SourceFile>, val singles: List<SerializedBreakends>, val paired: List<SerializedBreakpoints>) : Serializable {
+
+        companion object {
+            private const val serialVersionUID = 1L
+        }
+
+        fun toStore(compare: ContigComparator): LocationStore {
+            val singlesMap = singles.associate { x -> Pair("${x.contig}:${x.orientation}", LocationSeek(x.breakends())) }
+
+            val pairedMap = paired.associate { x ->
+                val startBreakends = x.start.breakends()
+                val endBreakends = x.end.breakends()
+                val breakpoints = startBreakends.indices.map { Breakpoint(startBreakends[it], endBreakends[it]) }
+                Pair("${x.start.contig}:${x.start.orientation}:${x.end.contig}:${x.end.orientation}", LocationSeek(breakpoints))
+            }
+
+            return LocationStore(compare, additionalBuffer, singlesMap, pairedMap, sources)
+        }
+
+        private fun readResolve(): Any = toStore(ContigComparator(contigs))
+    }
+
+    private data class SourceFile(val path: String, val length: Long, val lastModified: Long) : Serializable {
+
+        constructor(file: File) : this(file.absolutePath, file.length(), file.lastModified())
+
+        constructor(path: String) : this(File(path))
+
+        companion object {
+            private const val serialVersionUID = 1L
+        }
+    }
+
+    private class SerializedBreakends(val contig: String, val orientation: Byte, val starts: IntArray, val ends: IntArray) : Serializable {
+
+        companion object {
+            private const val serialVersionUID = 1L
+        }
+
+        fun breakends(): List<Breakend> = starts.indices.map { Breakend(contig, starts[it], ends[it], orientation) }
+    }
+
+    private class SerializedBreakpoints(val start: SerializedBreakends, val end: SerializedBreakends) : Serializable {
+
+        companion object {
+            private const val serialVersionUID = 1L
+        }
+    }
+}
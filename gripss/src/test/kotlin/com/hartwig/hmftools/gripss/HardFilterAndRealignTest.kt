@@ -0,0 +1,68 @@
+package com.hartwig.hmftools.gripss
+
+import com.hartwig.hmftools.extensions.realigned
+import com.hartwig.hmftools.gripss.VariantContextTestFactory.cipos
+import com.hartwig.hmftools.gripss.VariantContextTestFactory.createImpreciseVariant
+import com.hartwig.hmftools.gripss.VariantContextTestFactory.createVariant
+import com.hartwig.hmftools.gripss.VariantContextTestFactory.fragmentSupport
+import com.hartwig.hmftools.gripss.VariantContextTestFactory.setAttribute
+import htsjdk.samtools.SAMSequenceDictionary
+import htsjdk.samtools.SAMSequenceRecord
+import htsjdk.variant.variantcontext.VariantContext
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class HardFilterAndRealignTest {
+
+    private val refGenome = javaClass.getResource("/realign/ref.fasta").path
+    private val contigComparator = ContigComparator(listOf("1"))
+    private val dictionary = SAMSequenceDictionary(listOf(SAMSequenceRecord("1", 6000)))
+
+    @Test
+    fun testParallelMatchesSerial() {
+        val variants = variants()
+        val serial = ChunkExecutor(1).use { executor -> hardFilterAndRealign(executor, variants) }
+        val parallel = ChunkExecutor(4, 1).use { executor -> hardFilterAndRealign(executor, variants) }
+
+        assertEquals(serial.map { x -> x.context.toStringDecodeGenotypes() }, parallel.map { x -> x.context.toStringDecodeGenotypes() })
+
+        // Realigning the first of the pair updates its mate which is then realigned from that updated state
+        val start = serial.first { x -> x.vcfId == "mate_o" }
+        val end = serial.first { x -> x.vcfId == "mate_h" }
+        assertTrue(start.context.realigned())
+        assertTrue(end.context.realigned())
+        assertEquals(end.confidenceInterval.toList(), start.context.getAttributeAsIntList("CIRPOS", 0))
+        assertEquals(start.confidenceInterval.toList(), end.context.getAttributeAsIntList("CIRPOS", 0))
+        assertEquals(start.start, (end.variantType as Paired).otherPosition)
+        assertEquals(end.start, (start.variantType as Paired).otherPosition)
+
+        assertFalse(serial.any { x -> x.vcfId == "hard_o" || x.vcfId == "hard_h" })
+    }
+
+    private fun hardFilterAndRealign(executor: ChunkExecutor, variants: List<VariantContext>): List<StructuralVariantContext> {
+        val victim = HardFilterAndRealign(GripssFilterConfig.default(), refGenome, Pair(0, 1), contigComparator, executor, 3)
+        return victim.hardFilterAndRealign(variants, { false }, dictionary)
+    }
+
+    private fun variants(): List<VariantContext> {
+        val result = mutableListOf<VariantContext>()
+        result.add(createVariant("1", 1000, "mate_o", "A", "A[1:4000[", 1000, "mate_h").cipos(Pair(0, 4), Pair(0, 4)).fragmentSupport(0, 10))
+        result.add(createVariant("1", 4000, "mate_h", "A", "]1:1000]A", 1000, "mate_o").cipos(Pair(0, 4), Pair(0, 4)).fragmentSupport(0, 10))
+        result.add(createVariant("1", 1500, "hard_o", "A", "A[1:3500[", 50, "hard_h").fragmentSupport(0, 10))
+        result.add(createVariant("1", 3500, "hard_h", "A", "]1:1500]A", 1000, "hard_o").fragmentSupport(0, 10))
+        result.add(createImpreciseVariant("1", 2000, "imprecise_o", "A", "A]1:3000]", 1000, "imprecise_h").cipos(Pair(10, 10), Pair(10, 10)).fragmentSupport(0, 10))
+        result.add(createImpreciseVariant("1", 3000, "imprecise_h", "A", "A]1:2000]", 1000, "imprecise_o").cipos(Pair(10, 10), Pair(10, 10)).fragmentSupport(0, 10))
+        result.add(createVariant("1", 2500, "single", "A", "A.", 1000, setOf(".")).setAttribute("IMPRECISE", true).cipos(Pair(5, 5), Pair(0, 0)).fragmentSupport(0, 10))
+
+        for (i in 0 until 10) {
+            val start = 100 + 50 * i
+            val end = 5000 + 50 * i
+            result.add(createVariant("1", start, "pair${i}o", "A", "A[1:$end[", 1000, "pair${i}h").cipos(Pair(0, i % 3), Pair(0, i % 3)).fragmentSupport(0, 10))
+            result.add(createVariant("1", end, "pair${i}h", "A", "]1:$start]A", 1000, "pair${i}o").cipos(Pair(0, i % 3), Pair(0, i % 3)).fragmentSupport(0, 10))
+        }
+
+        return result.sortedBy { x -> x.start }
+    }
+}
@@ -1,5 +1,6 @@
 package com.hartwig.hmftools.gripss.link
 
+import com.hartwig.hmftools.gripss.ChunkExecutor
 import com.hartwig.hmftools.gripss.ContigComparator
 import com.hartwig.hmftools.gripss.StructuralVariantContext
 import com.hartwig.hmftools.gripss.VariantContextTestFactory
@@ -164,6 +165,28 @@ class TransitiveLinkTest {
         assertTrue(TransitiveLink(LinkStore(listOf()), variantStoreAll).transitiveLink(v1start).isEmpty())
     }
 
+    @Test
+    fun testParallelAlternatePathsMatchSerial() {
+        val variants = mutableListOf<StructuralVariantContext>()
+        for (contig in defaultContigs) {
+            variants.add(createImpreciseVariant(contig, 1000, "${contig}id1s", "A", "A[$contig:5000[", 1000, "${contig}id1e").toSv())
+            variants.add(createVariant(contig, 1000, "${contig}id2s", "A", "A[$contig:2000[", 1000, "${contig}id2e").toSv())
+            variants.add(createVariant(contig, 2000, "${contig}id2e", "A", "]$contig:1000]A", 1000, "${contig}id2s").toSv())
+            variants.add(createVariant(contig, 4000, "${contig}id3s", "A", "A[$contig:5000[", 1000, "${contig}id3e").toSv())
+            variants.add(createVariant(contig, 5000, "${contig}id3e", "A", "]$contig:4000]A", 1000, "${contig}id3s").toSv())
+            variants.add(createImpreciseVariant(contig, 5000, "${contig}id1e", "A", "]$contig:1000]A", 1000, "${contig}id1s").toSv())
+        }
+
+        val variantStore = variantStore(*variants.toTypedArray())
+        val serial = AlternatePath(LinkStore(listOf()), variantStore).associate { x -> Pair(x.vcfId, x.pathString()) }
+        assertTrue(serial.size >= 2 * defaultContigs.size)
+
+        ChunkExecutor(4, 1).use { executor ->
+            val parallel = AlternatePath(LinkStore(listOf()), variantStore, executor).associate { x -> Pair(x.vcfId, x.pathString()) }
+            assertEquals(serial, parallel)
+        }
+    }
+
     private fun variantStore(vararg elements: StructuralVariantContext): VariantStore {
         val result = mutableListOf<StructuralVariantContext>()
         elements.forEach { result.add(it) }
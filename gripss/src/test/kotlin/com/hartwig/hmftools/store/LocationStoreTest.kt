@@ -8,6 +8,8 @@ import junit.framework.Assert.assertTrue
 import org.junit.Assert
 import org.junit.Ignore
 import org.junit.Test
+import java.io.File
+import java.util.*
 
 class LocationStoreTest {
 
@@ -57,6 +59,85 @@ class LocationStoreTest {
         Assert.assertTrue(store.contains(Breakpoint(entry2.startBreakend, entry1.endBreakend)))
     }
 
+    @Test
+    fun testOverlapAcrossMegabaseBoundary() {
+        val entry = Breakend("1", 999_990, 999_999, 1)
+        val store = LocationStore(contigComparator, listOf(entry), listOf(), 5)
+        Assert.assertTrue(store.contains(Breakend("1", 1_000_003, 1_000_003, 1)))
+        Assert.assertFalse(store.contains(Breakend("1", 1_000_005, 1_000_005, 1)))
+        Assert.assertFalse(store.contains(Breakend("1", 1_000_003, 1_000_003, -1)))
+    }
+
+    @Test
+    fun testMatchesLinearScan() {
+        val random = Random(0)
+        val breakends = (0 until 2000).map {
+            val start = random.nextInt(100_000)
+            Breakend("1", start, start + random.nextInt(if (it % 100 == 0) 5000 else 20), 1)
+        }
+
+        val breakpoints = breakends.map { Breakpoint(it, Breakend("2", it.start, it.end, -1)) }
+        val store = LocationStore(contigComparator, breakends, breakpoints)
+
+        for (i in 0 until 2000) {
+            val start = random.nextInt(100_000)
+            val query = Breakend("1", start, start + random.nextInt(10), 1)
+            val expected = breakends.any { it.isEquivalent(query) }
+            Assert.assertEquals(expected, store.contains(query))
+
+            val otherQuery = Breakend("2", start, start, -1)
+            val expectedPair = breakpoints.any { it.startBreakend.isEquivalent(query) && it.endBreakend.isEquivalent(otherQuery) }
+            Assert.assertEquals(expectedPair, store.contains(Breakpoint(query, otherQuery)))
+        }
+    }
+
+    @Test
+    fun testSerializedStore() {
+        val entry1 = Breakpoint(Breakend("1", 224, 233, 1), Breakend("MT", 335, 335, 1))
+        val entry2 = Breakpoint(Breakend("1", 229, 230, 1), Breakend("7", 335, 335, 1))
+        val single = Breakend.fromBed("1\t665\t666\t.\t440\t+")
+        val store = LocationStore(contigComparator, listOf(single), listOf(entry2, entry1), 1)
+
+        val file = File.createTempFile("pon", ".idx")
+        file.deleteOnExit()
+        store.write(file.path)
+
+        Assert.assertNull(LocationStore.read(file.path, contigComparator, 0))
+        val victim = LocationStore.read(file.path, contigComparator, 1)!!
+
+        Assert.assertTrue(victim.contains(Breakend("1", 667, 667, 1)))
+        Assert.assertFalse(victim.contains(Breakend("1", 668, 668, 1)))
+        Assert.assertTrue(victim.contains(Breakpoint(entry1.endBreakend, Breakend("1", 234, 234, 1))))
+        Assert.assertTrue(victim.contains(Breakpoint(Breakend("1", 228, 228, 1), entry2.endBreakend)))
+        Assert.assertFalse(victim.contains(Breakpoint(Breakend("1", 235, 235, 1), entry2.endBreakend)))
+    }
+
+    @Test
+    fun testSerializedStoreSourceFiles() {
+        val store = LocationStore(contigComparator, listOf(Breakend("1", 100, 100, 1)), listOf(), 1)
+
+        val source = File.createTempFile("pon", ".bed")
+        source.deleteOnExit()
+        source.writeText("1\t99\t100\t.\t1\t+\n")
+        val otherSource = File.createTempFile("pon", ".bed")
+        otherSource.deleteOnExit()
+        otherSource.writeText("1\t99\t100\t.\t1\t+\n")
+        otherSource.setLastModified(source.lastModified())
+
+        val file = File.createTempFile("pon", ".idx")
+        file.deleteOnExit()
+        store.write(file.path, listOf(source.path))
+
+        Assert.assertNotNull(LocationStore.read(file.path, contigComparator, 1, listOf(source.path)))
+        Assert.assertNull(LocationStore.read(file.path, contigComparator, 1, listOf()))
+        Assert.assertNull(LocationStore.read(file.path, contigComparator, 1, listOf(otherSource.path)))
+
+        // A source replaced by an older or same aged file of a different size is still detected
+        source.appendText("1\t199\t200\t.\t1\t+\n")
+        source.setLastModified(source.lastModified() - 60000)
+        Assert.assertNull(LocationStore.read(file.path, contigComparator, 1, listOf(source.path)))
+    }
+
     @Ignore
     fun testStuff() {
         val breakEnds = Breakend.fromBedFile("/Users/jon/hmf/resources/gridss_pon_single_breakend.bed")
@@ -0,0 +1,176 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The BAFs of a sorted run of sites on a single contig held in primitive columns rather than one object per site.
+ */
+public class AmberBAFColumns {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final String contig;
+    private int size;
+    private int[] position;
+    private double[] tumorBAF;
+    private int[] tumorDepth;
+    private double[] normalBAF;
+    private int[] normalDepth;
+
+    @NotNull
+    public static AmberBAFColumns fromBafs(@NotNull final String contig, @NotNull final Collection<AmberBAF> bafs) {
+        final AmberBAFColumns result = new AmberBAFColumns(contig, bafs.size());
+        for (AmberBAF baf : bafs) {
+            result.add((int) baf.position(), baf.tumorBAF(), baf.tumorDepth(), baf.normalBAF(), baf.normalDepth());
+        }
+        return result;
+    }
+
+    /**
+     * Read only list view over the given columns in which each BAF is only materialised when it is accessed.
+     */
+    @NotNull
+    public static List<AmberBAF> asList(@NotNull final Collection<AmberBAFColumns> columns) {
+        final List<AmberBAFColumns> columnList = Lists.newArrayList(columns);
+        final int[] offsets = new int[columnList.size() + 1];
+        for (int i = 0; i < columnList.size(); i++) {
+            offsets[i + 1] = offsets[i] + columnList.get(i).size();
+        }
+
+        return new AbstractList<AmberBAF>() {
+            @Override
+            public AmberBAF get(final int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+                }
+
+                int column = Arrays.binarySearch(offsets, index);
+                if (column < 0) {
+                    column = -column - 2;
+                } else {
+                    // skip over empty columns sharing the same offset
+                    while (offsets[column + 1] == index) {
+                        column++;
+                    }
+                }
+                return columnList.get(column).baf(index - offsets[column]);
+            }
+
+            @Override
+            public int size() {
+                return offsets[columnList.size()];
+            }
+        };
+    }
+
+    AmberBAFColumns(@NotNull final String contig) {
+        this(contig, INITIAL_CAPACITY);
+    }
+
+    private AmberBAFColumns(@NotNull final String contig, int capacity) {
+        this.contig = contig;
+        this.position = new int[capacity];
+        this.tumorBAF = new double[capacity];
+        this.tumorDepth = new int[capacity];
+        this.normalBAF = new double[capacity];
+        this.normalDepth = new int[capacity];
+    }
+
+    @NotNull
+    public String contig() {
+        return contig;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int position(int index) {
+        return position[index];
+    }
+
+    public double tumorBAF(int index) {
+        return tumorBAF[index];
+    }
+
+    public double tumorModifiedBAF(int index) {
+        return 0.5 + Math.abs(tumorBAF[index] - 0.5);
+    }
+
+    public int tumorDepth(int index) {
+        return tumorDepth[index];
+    }
+
+    public double normalBAF(int index) {
+        return normalBAF[index];
+    }
+
+    public int normalDepth(int index) {
+        return normalDepth[index];
+    }
+
+    /**
+     * Index of the first site at or after the given position.
+     */
+    public int firstIndex(long minPosition) {
+        int index = Arrays.binarySearch(position, 0, size, (int) Math.min(minPosition, Integer.MAX_VALUE));
+        if (index < 0) {
+            return -index - 1;
+        }
+
+        while (index > 0 && position[index - 1] == position[index]) {
+            index--;
+        }
+        return index;
+    }
+
+    @NotNull
+    public AmberBAF baf(int index) {
+        return ImmutableAmberBAF.builder()
+                .chromosome(contig)
+                .position(position[index])
+                .tumorBAF(tumorBAF[index])
+                .tumorDepth(tumorDepth[index])
+                .normalBAF(normalBAF[index])
+                .normalDepth(normalDepth[index])
+                .build();
+    }
+
+    void add(int position, double tumorBAF, int tumorDepth, double normalBAF, int normalDepth) {
+        if (size == this.position.length) {
+            grow();
+        }
+
+        this.position[size] = position;
+        this.tumorBAF[size] = tumorBAF;
+        this.tumorDepth[size] = tumorDepth;
+        this.normalBAF[size] = normalBAF;
+        this.normalDepth[size] = normalDepth;
+        size++;
+    }
+
+    void trim() {
+        if (size < position.length) {
+            resize(size);
+        }
+    }
+
+    private void grow() {
+        resize(Math.max(INITIAL_CAPACITY, position.length + (position.length >> 1)));
+    }
+
+    private void resize(int capacity) {
+        position = Arrays.copyOf(position, capacity);
+        tumorBAF = Arrays.copyOf(tumorBAF, capacity);
+        tumorDepth = Arrays.copyOf(tumorDepth, capacity);
+        normalBAF = Arrays.copyOf(normalBAF, capacity);
+        normalDepth = Arrays.copyOf(normalDepth, capacity);
+    }
+}
@@ -1,19 +1,25 @@
 package com.hartwig.hmftools.common.amber;
 
+import static com.hartwig.hmftools.common.utils.io.GzipFiles.GZIP_EXTENSION;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.text.DecimalFormat;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.primitives.Doubles;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.utils.io.GzipFiles;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -36,15 +42,78 @@ public final class AmberBAFFile {
         return basePath + File.separator + sample + AMBER_EXTENSION;
     }
 
+    @NotNull
+    public static String generateAmberFilenameForWriting(@NotNull final String basePath, @NotNull final String sample,
+            boolean compressed) {
+        final String filename = generateAmberFilenameForWriting(basePath, sample);
+        return compressed ? filename + GZIP_EXTENSION : filename;
+    }
+
     @NotNull
     public static String generateAmberFilenameForReading(@NotNull final String basePath, @NotNull final String sample) {
         String filename = basePath + File.separator + sample + AMBER_EXTENSION;
-        return (new File(filename).exists()) ? filename : basePath + File.separator + sample + AMBER_EXTENSION_OLD;
+        if (new File(filename).exists()) {
+            return filename;
+        }
+
+        String compressedFilename = filename + GZIP_EXTENSION;
+        return new File(compressedFilename).exists() ? compressedFilename : basePath + File.separator + sample + AMBER_EXTENSION_OLD;
     }
 
     @NotNull
     public static Multimap<Chromosome, AmberBAF> read(@NotNull final String fileName) throws IOException {
-        return fromLines(Files.readAllLines(new File(fileName).toPath()));
+        final Multimap<Chromosome, AmberBAF> result = ArrayListMultimap.create();
+        try (BufferedReader reader = GzipFiles.reader(fileName)) {
+            reader.readLine();
+
+            int lineNumber = 1;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                try {
+                    final AmberBAF baf = fromString(line);
+                    result.put(HumanChromosome.fromString(baf.chromosome()), baf);
+                } catch (RuntimeException e) {
+                    LOGGER.info("Unable to parse line {}: {}", lineNumber, line);
+                    throw e;
+                }
+                lineNumber++;
+            }
+        }
+
+        return result;
+    }
+
+    @NotNull
+    public static Map<Chromosome, AmberBAFColumns> readColumns(@NotNull final String fileName) throws IOException {
+        final Map<Chromosome, AmberBAFColumns> result = Maps.newLinkedHashMap();
+        try (BufferedReader reader = GzipFiles.reader(fileName)) {
+            reader.readLine();
+
+            AmberBAFColumns columns = null;
+            int lineNumber = 1;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                try {
+                    final String[] values = line.split(DELIMITER);
+                    final String chromosome = values[0];
+                    if (columns == null || !columns.contig().equals(chromosome)) {
+                        columns = result.computeIfAbsent(HumanChromosome.fromString(chromosome), x -> new AmberBAFColumns(chromosome));
+                    }
+
+                    final boolean hasDepth = values.length == 8;
+                    columns.add(Integer.parseInt(values[1]),
+                            Double.parseDouble(values[2]),
+                            hasDepth ? Integer.parseInt(values[4]) : 0,
+                            hasDepth ? Double.parseDouble(values[5]) : 0.5,
+                            hasDepth ? Integer.parseInt(values[7]) : 0);
+                } catch (RuntimeException e) {
+                    LOGGER.info("Unable to parse line {}: {}", lineNumber, line);
+                    throw e;
+                }
+                lineNumber++;
+            }
+        }
+
+        result.values().forEach(AmberBAFColumns::trim);
+        return result;
     }
 
     public static void write(@NotNull final String filename, @NotNull final Multimap<String, AmberBAF> bafs) throws IOException {
@@ -54,15 +123,14 @@ public final class AmberBAFFile {
     }
 
     public static void write(@NotNull final String filename, @NotNull final List<AmberBAF> bafs) throws IOException {
-        Files.write(new File(filename).toPath(), toLines(bafs));
-    }
-
-    @NotNull
-    private static List<String> toLines(@NotNull final List<AmberBAF> bafs) {
-        final List<String> lines = Lists.newArrayList();
-        lines.add(header());
-        bafs.stream().map(AmberBAFFile::toString).forEach(lines::add);
-        return lines;
+        try (BufferedWriter writer = GzipFiles.writer(filename)) {
+            writer.write(header());
+            writer.newLine();
+            for (AmberBAF baf : bafs) {
+                writer.write(toString(baf));
+                writer.newLine();
+            }
+        }
     }
 
     @NotNull
@@ -91,23 +159,6 @@ public final class AmberBAFFile {
                 .toString();
     }
 
-    @NotNull
-    private static Multimap<Chromosome, AmberBAF> fromLines(@NotNull final List<String> lines) {
-        Multimap<Chromosome, AmberBAF> result = ArrayListMultimap.create();
-        for (int i = 1; i < lines.size(); i++) {
-            final String line = lines.get(i);
-            try {
-                final AmberBAF baf = fromString(line);
-                result.put(HumanChromosome.fromString(baf.chromosome()), baf);
-            } catch (RuntimeException e) {
-                LOGGER.info("Unable to parse line {}: {}", i, line);
-                throw e;
-            }
-        }
-
-        return result;
-    }
-
     @NotNull
     private static AmberBAF fromString(@NotNull final String line) {
         String[] values = line.split(DELIMITER);
@@ -0,0 +1,216 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compact binary form of the AMBER loci. A header indexes each contig by name, site count and data offset. The data of each
+ * contig holds the delta encoded positions as varints, each followed by a single byte packing ref, alt and the snp check flag.
+ */
+public final class AmberSiteBinaryFile {
+
+    public static final String EXTENSION = ".amber.loci.bin";
+
+    private static final byte[] MAGIC = "AMBERLOC".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final BaseDepth.Base[] BASES = BaseDepth.Base.values();
+    private static final int SNP_CHECK_FLAG = 0x40;
+
+    private AmberSiteBinaryFile() {
+    }
+
+    public static boolean isBinaryFile(@NotNull final String filename) {
+        return filename.endsWith(EXTENSION);
+    }
+
+    @NotNull
+    public static ListMultimap<Chromosome, AmberSite> read(@NotNull final String filename) throws IOException {
+        return readChromosomes(filename, null);
+    }
+
+    /**
+     * Loads only the given chromosomes, seeking to each by its offset in the header. Data of other chromosomes is never touched.
+     */
+    @NotNull
+    public static ListMultimap<Chromosome, AmberSite> read(@NotNull final String filename, @NotNull final Set<Chromosome> chromosomes)
+            throws IOException {
+        return readChromosomes(filename, chromosomes);
+    }
+
+    @NotNull
+    private static ListMultimap<Chromosome, AmberSite> readChromosomes(@NotNull final String filename,
+            @Nullable final Set<Chromosome> chromosomes) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return fromBuffer(buffer, chromosomes);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated amber loci file " + filename, e);
+        }
+    }
+
+    public static void write(@NotNull final String filename, @NotNull final ListMultimap<Chromosome, AmberSite> sites) throws IOException {
+        try (OutputStream output = new FileOutputStream(new File(filename))) {
+            output.write(toBytes(sites));
+        }
+    }
+
+    @NotNull
+    static byte[] toBytes(@NotNull final ListMultimap<Chromosome, AmberSite> sites) throws IOException {
+        final List<String> contigs = Lists.newArrayList();
+        final List<byte[]> contigData = Lists.newArrayList();
+        final List<Integer> contigCounts = Lists.newArrayList();
+
+        for (Chromosome chromosome : HumanChromosome.values()) {
+            final List<AmberSite> contigSites = sites.get(chromosome);
+            if (contigSites.isEmpty()) {
+                continue;
+            }
+
+            final ByteArrayOutputStream data = new ByteArrayOutputStream();
+            long previousPosition = 0;
+            for (AmberSite site : contigSites) {
+                long delta = site.position() - previousPosition;
+                if (delta < 0) {
+                    throw new IllegalArgumentException("Amber sites must be sorted: " + site.chromosome() + ":" + site.position());
+                }
+
+                writeVarInt(data, delta);
+                data.write(encodeBases(site));
+                previousPosition = site.position();
+            }
+
+            contigs.add(contigSites.get(0).chromosome());
+            contigCounts.add(contigSites.size());
+            contigData.add(data.toByteArray());
+        }
+
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        final DataOutputStream header = new DataOutputStream(result);
+        header.write(MAGIC);
+        header.writeInt(VERSION);
+        header.writeInt(contigs.size());
+
+        long headerSize = MAGIC.length + 8;
+        for (String contig : contigs) {
+            headerSize += 2 + contig.getBytes(StandardCharsets.UTF_8).length + 12;
+        }
+
+        long offset = headerSize;
+        for (int i = 0; i < contigs.size(); i++) {
+            header.writeUTF(contigs.get(i));
+            header.writeInt(contigCounts.get(i));
+            header.writeLong(offset);
+            offset += contigData.get(i).length;
+        }
+
+        for (byte[] data : contigData) {
+            header.write(data);
+        }
+        header.flush();
+
+        return result.toByteArray();
+    }
+
+    @NotNull
+    static ListMultimap<Chromosome, AmberSite> fromBuffer(@NotNull final ByteBuffer buffer, @Nullable final Set<Chromosome> chromosomes)
+            throws IOException {
+        final byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        final int version = buffer.getInt();
+        if (!Arrays.equals(magic, MAGIC) || version != VERSION) {
+            throw new IOException("Unrecognised amber loci file version");
+        }
+
+        final ListMultimap<Chromosome, AmberSite> result = ArrayListMultimap.create();
+        final int contigCount = buffer.getInt();
+        for (int i = 0; i < contigCount; i++) {
+            final String contig = readUTF(buffer);
+            final int siteCount = buffer.getInt();
+            final long offset = buffer.getLong();
+            if (!HumanChromosome.contains(contig)) {
+                continue;
+            }
+
+            final Chromosome chromosome = HumanChromosome.fromString(contig);
+            if (chromosomes != null && !chromosomes.contains(chromosome)) {
+                continue;
+            }
+
+            final ByteBuffer data = buffer.duplicate();
+            data.position((int) offset);
+
+            final List<AmberSite> contigSites = result.get(chromosome);
+            long position = 0;
+            for (int j = 0; j < siteCount; j++) {
+                position += readVarInt(data);
+                final int bases = data.get();
+                contigSites.add(ImmutableAmberSite.builder()
+                        .chromosome(contig)
+                        .position(position)
+                        .ref(BASES[bases & 0x7].toString())
+                        .alt(BASES[(bases >> 3) & 0x7].toString())
+                        .snpCheck((bases & SNP_CHECK_FLAG) != 0)
+                        .build());
+            }
+        }
+
+        return result;
+    }
+
+    private static int encodeBases(@NotNull final AmberSite site) {
+        final int ref = BaseDepth.Base.valueOf(site.ref()).ordinal();
+        final int alt = BaseDepth.Base.valueOf(site.alt()).ordinal();
+        return ref | (alt << 3) | (site.snpCheck() ? SNP_CHECK_FLAG : 0);
+    }
+
+    private static void writeVarInt(@NotNull final ByteArrayOutputStream output, long value) {
+        while ((value & ~0x7FL) != 0) {
+            output.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.write((int) value);
+    }
+
+    private static long readVarInt(@NotNull final ByteBuffer buffer) {
+        long result = 0;
+        for (int shift = 0; ; shift += 7) {
+            final byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+    }
+
+    @NotNull
+    private static String readUTF(@NotNull final ByteBuffer buffer) {
+        // Contig names are plain ascii so the modified UTF-8 of DataOutput.writeUTF decodes as standard UTF-8
+        final int length = buffer.getShort() & 0xFFFF;
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -43,6 +43,10 @@ public final class AmberSiteFactory {
 
     @NotNull
     public static ListMultimap<Chromosome, AmberSite> sites(@NotNull final String vcfFile) throws IOException {
+        if (AmberSiteBinaryFile.isBinaryFile(vcfFile)) {
+            return AmberSiteBinaryFile.read(vcfFile);
+        }
+
         final ListMultimap<Chromosome, AmberSite> result = ArrayListMultimap.create();
 
         try (final AbstractFeatureReader<VariantContext, LineIterator> reader = getFeatureReader(vcfFile, new VCFCodec(), false)) {
@@ -0,0 +1,207 @@
+package com.hartwig.hmftools.common.amber;
+
+import static com.hartwig.hmftools.common.amber.BaseDepthFactory.indel;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.utils.sam.SAMRecords;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * Depth evidence of a sorted run of sites on a single contig held in primitive columns rather than one object per site.
+ * Filters are evaluated into bitmasks and only the selected sites are materialised as BaseDepth.
+ */
+public class BaseDepthColumns {
+
+    private static final BaseDepth.Base[] BASES = BaseDepth.Base.values();
+
+    private final String contig;
+    private final int[] position;
+    private final byte[] ref;
+    private final byte[] alt;
+    private final BitSet snpCheck;
+    private final int[] readDepth;
+    private final int[] refSupport;
+    private final int[] altSupport;
+    private final short[] indelCount;
+
+    @NotNull
+    public static BaseDepthColumns fromSites(@NotNull final String contig, @NotNull final List<AmberSite> sites) {
+        final BaseDepthColumns result = new BaseDepthColumns(contig, sites.size());
+        for (int i = 0; i < sites.size(); i++) {
+            final AmberSite site = sites.get(i);
+            result.position[i] = (int) site.position();
+            result.ref[i] = (byte) BaseDepth.Base.valueOf(site.ref()).ordinal();
+            result.alt[i] = (byte) BaseDepth.Base.valueOf(site.alt()).ordinal();
+            result.snpCheck.set(i, site.snpCheck());
+        }
+        return result;
+    }
+
+    private BaseDepthColumns(@NotNull final String contig, int size) {
+        this.contig = contig;
+        this.position = new int[size];
+        this.ref = new byte[size];
+        this.alt = new byte[size];
+        this.snpCheck = new BitSet(size);
+        this.readDepth = new int[size];
+        this.refSupport = new int[size];
+        this.altSupport = new int[size];
+        this.indelCount = new short[size];
+    }
+
+    @NotNull
+    public String contig() {
+        return contig;
+    }
+
+    public int size() {
+        return position.length;
+    }
+
+    public int position(int index) {
+        return position[index];
+    }
+
+    @NotNull
+    public BaseDepth.Base ref(int index) {
+        return BASES[ref[index]];
+    }
+
+    @NotNull
+    public BaseDepth.Base alt(int index) {
+        return BASES[alt[index]];
+    }
+
+    public boolean snpCheck(int index) {
+        return snpCheck.get(index);
+    }
+
+    public int readDepth(int index) {
+        return readDepth[index];
+    }
+
+    public int refSupport(int index) {
+        return refSupport[index];
+    }
+
+    public int altSupport(int index) {
+        return altSupport[index];
+    }
+
+    public int indelCount(int index) {
+        return indelCount[index];
+    }
+
+    public boolean isValid(int index) {
+        return indelCount[index] == 0;
+    }
+
+    /**
+     * Index of the first site at or after the given position.
+     */
+    public int firstIndex(int minPosition) {
+        int index = Arrays.binarySearch(position, minPosition);
+        if (index < 0) {
+            return -index - 1;
+        }
+
+        while (index > 0 && position[index - 1] == minPosition) {
+            index--;
+        }
+        return index;
+    }
+
+    @NotNull
+    public BitSet filter(@NotNull final IntPredicate predicate) {
+        final BitSet result = new BitSet(size());
+        for (int i = 0; i < size(); i++) {
+            if (predicate.test(i)) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    public List<BaseDepth> select(@NotNull final BitSet mask) {
+        final List<BaseDepth> result = Lists.newArrayListWithCapacity(mask.cardinality());
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+            result.add(baseDepth(i));
+        }
+        return result;
+    }
+
+    @NotNull
+    public ModifiableBaseDepth baseDepth(int index) {
+        return ModifiableBaseDepth.create()
+                .setChromosome(contig)
+                .setPosition(position[index])
+                .setRef(ref(index))
+                .setAlt(alt(index))
+                .setReadDepth(readDepth[index])
+                .setRefSupport(refSupport[index])
+                .setAltSupport(altSupport[index])
+                .setIndelCount(indelCount[index]);
+    }
+
+    void addEvidence(int index, @NotNull final SAMRecord samRecord, int minBaseQuality) {
+        final int sitePosition = position[index];
+        if (baseQuality(sitePosition, samRecord) < minBaseQuality) {
+            return;
+        }
+
+        readDepth[index]++;
+        int readPosition = samRecord.getReadPositionAtReferencePosition(sitePosition);
+        if (readPosition != 0) {
+            if (!indel(sitePosition, readPosition, samRecord)) {
+                final int base = baseIndex(samRecord.getReadBases()[readPosition - 1]);
+                if (base == ref[index]) {
+                    refSupport[index]++;
+                } else if (base == alt[index]) {
+                    altSupport[index]++;
+                }
+            } else if (indelCount[index] < Short.MAX_VALUE) {
+                indelCount[index]++;
+            }
+        }
+    }
+
+    private static int baseQuality(int sitePosition, @NotNull final SAMRecord samRecord) {
+        // Get quality of base after del if necessary
+        for (int pos = sitePosition; pos <= samRecord.getAlignmentEnd(); pos++) {
+            int readPosition = samRecord.getReadPositionAtReferencePosition(pos);
+            if (readPosition != 0) {
+                return SAMRecords.getBaseQuality(samRecord, readPosition);
+            }
+        }
+
+        return 0;
+    }
+
+    private static int baseIndex(byte base) {
+        switch (base) {
+            case 'G':
+            case 'g':
+                return BaseDepth.Base.G.ordinal();
+            case 'A':
+            case 'a':
+                return BaseDepth.Base.A.ordinal();
+            case 'T':
+            case 't':
+                return BaseDepth.Base.T.ordinal();
+            case 'C':
+            case 'c':
+                return BaseDepth.Base.C.ordinal();
+            default:
+                return BaseDepth.Base.N.ordinal();
+        }
+    }
+}
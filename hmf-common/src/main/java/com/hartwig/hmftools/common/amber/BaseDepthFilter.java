@@ -1,6 +1,8 @@
 package com.hartwig.hmftools.common.amber;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -26,7 +28,15 @@ public class BaseDepthFilter implements Predicate<BaseDepth> {
 
     public BaseDepthFilter(final double minDepthPercentage, final double maxDepthPercentage,
             @NotNull final Collection<BaseDepth> evidence) {
-        int medianDepth = medianDepth(evidence);
+        this(minDepthPercentage, maxDepthPercentage, medianDepth(evidence));
+    }
+
+    public BaseDepthFilter(final double minDepthPercentage, final double maxDepthPercentage,
+            @NotNull final List<BaseDepthColumns> evidence) {
+        this(minDepthPercentage, maxDepthPercentage, medianColumnDepth(evidence));
+    }
+
+    private BaseDepthFilter(final double minDepthPercentage, final double maxDepthPercentage, int medianDepth) {
         minDepth = (int) Math.round(medianDepth * minDepthPercentage);
         maxDepth = (int) Math.round(medianDepth * maxDepthPercentage);
         LOGGER.info("Median normal depth is {} reads: filtering reads outside of {} and {}", medianDepth, minDepth, maxDepth);
@@ -34,10 +44,42 @@ public class BaseDepthFilter implements Predicate<BaseDepth> {
 
     @Override
     public boolean test(final BaseDepth bafEvidence) {
-        return bafEvidence.readDepth() > 0 && bafEvidence.readDepth() >= minDepth && bafEvidence.readDepth() <= maxDepth;
+        return test(bafEvidence.readDepth());
+    }
+
+    public boolean test(final BaseDepthColumns evidence, int index) {
+        return test(evidence.readDepth(index));
     }
 
-    private int medianDepth(@NotNull final Collection<BaseDepth> evidence) {
+    private boolean test(int readDepth) {
+        return readDepth > 0 && readDepth >= minDepth && readDepth <= maxDepth;
+    }
+
+    private static int medianDepth(@NotNull final Collection<BaseDepth> evidence) {
         return Integers.medianPositiveValue(evidence.stream().map(BaseDepth::readDepth).collect(Collectors.toList()));
     }
+
+    private static int medianColumnDepth(@NotNull final List<BaseDepthColumns> evidence) {
+        int count = 0;
+        for (BaseDepthColumns columns : evidence) {
+            count += columns.size();
+        }
+
+        final int[] depths = new int[count];
+        int positive = 0;
+        for (BaseDepthColumns columns : evidence) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (columns.readDepth(i) > 0) {
+                    depths[positive++] = columns.readDepth(i);
+                }
+            }
+        }
+
+        if (positive == 0) {
+            return 0;
+        }
+
+        Arrays.sort(depths, 0, positive);
+        return positive % 2 == 0 ? (depths[positive / 2] + depths[positive / 2 - 1]) / 2 : depths[positive / 2];
+    }
 }
@@ -14,9 +14,15 @@ public class NormalHeterozygousFilter implements Predicate<BaseDepth> {
 
     @Override
     public boolean test(final BaseDepth bafEvidence) {
-        return bafEvidence.isValid() && bafEvidence.altSupport() > 0 && bafEvidence.refSupport() > 0
-                && isHeterozygousRef(bafEvidence.refSupport(), bafEvidence.readDepth())
-                && isHeterozygousAlt(bafEvidence.altSupport(), bafEvidence.readDepth());
+        return bafEvidence.isValid() && test(bafEvidence.refSupport(), bafEvidence.altSupport(), bafEvidence.readDepth());
+    }
+
+    public boolean test(final BaseDepthColumns evidence, int index) {
+        return evidence.isValid(index) && test(evidence.refSupport(index), evidence.altSupport(index), evidence.readDepth(index));
+    }
+
+    private boolean test(int refSupport, int altSupport, int readDepth) {
+        return altSupport > 0 && refSupport > 0 && isHeterozygousRef(refSupport, readDepth) && isHeterozygousAlt(altSupport, readDepth);
     }
 
     private boolean isHeterozygousRef(int refSupport, int readDepth) {
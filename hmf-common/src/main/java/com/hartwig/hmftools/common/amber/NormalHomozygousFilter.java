@@ -8,4 +8,8 @@ public class NormalHomozygousFilter implements Predicate<BaseDepth> {
     public boolean test(final BaseDepth bafEvidence) {
         return bafEvidence.isValid() && bafEvidence.altSupport() == 0;
     }
+
+    public boolean test(final BaseDepthColumns evidence, int index) {
+        return evidence.isValid(index) && evidence.altSupport(index) == 0;
+    }
 }
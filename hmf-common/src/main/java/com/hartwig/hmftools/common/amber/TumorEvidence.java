@@ -0,0 +1,140 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
+import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+import com.hartwig.hmftools.common.genome.region.GenomeRegionsBuilder;
+import com.hartwig.hmftools.common.variant.hotspot.SAMSlicer;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+
+/**
+ * Collects tumor BAF evidence at the normal heterozygous sites and contamination evidence at the normal homozygous sites
+ * from a single pass over the tumor bam.
+ */
+public class TumorEvidence implements Callable<TumorEvidence> {
+
+    private final String contig;
+    private final String bamFile;
+    private final SamReaderFactory samReaderFactory;
+    private final TumorBAFFactory bafFactory;
+    private final BaseDepthFactory contaminationFactory;
+    private final List<ModifiableTumorBAF> bafEvidence = Lists.newArrayList();
+    private final List<BaseDepth> normalHomSites;
+    private final List<ModifiableBaseDepth> contaminationEvidence = Lists.newArrayList();
+    private final GenomePositionSelector<TumorSite> selector;
+    private final SAMSlicer supplier;
+
+    public TumorEvidence(int typicalReadDepth, int minMappingQuality, int minBaseQuality, final String contig, final String bamFile,
+            final SamReaderFactory samReaderFactory, final List<BaseDepth> normalHetSites, final List<BaseDepth> normalHomSites) {
+        this.contig = contig;
+        this.bamFile = bamFile;
+        this.samReaderFactory = samReaderFactory;
+        this.bafFactory = new TumorBAFFactory(minBaseQuality);
+        this.contaminationFactory = new BaseDepthFactory(minBaseQuality);
+        this.normalHomSites = normalHomSites;
+
+        final List<TumorSite> sites = Lists.newArrayListWithCapacity(normalHetSites.size() + normalHomSites.size());
+        for (BaseDepth normal : normalHetSites) {
+            final ModifiableTumorBAF tumor = TumorBAFFactory.create(normal);
+            bafEvidence.add(tumor);
+            sites.add(new TumorSite(tumor, record -> bafFactory.addEvidence(tumor, record)));
+        }
+
+        for (BaseDepth normal : normalHomSites) {
+            final ModifiableBaseDepth tumor = BaseDepthFactory.create(normal);
+            contaminationEvidence.add(tumor);
+            sites.add(new TumorSite(tumor, record -> contaminationFactory.addEvidence(tumor, record)));
+        }
+
+        // Both site lists are already sorted so this is a cheap merge
+        Collections.sort(sites);
+        this.selector = GenomePositionSelectorFactory.create(sites);
+
+        final GenomeRegionsBuilder builder = new GenomeRegionsBuilder(typicalReadDepth);
+        sites.forEach(builder::addPosition);
+        this.supplier = new SAMSlicer(minMappingQuality, builder.build());
+    }
+
+    @NotNull
+    public String contig() {
+        return contig;
+    }
+
+    @NotNull
+    public List<TumorBAF> bafEvidence() {
+        final List<TumorBAF> result = Lists.newArrayList();
+        for (ModifiableTumorBAF tumor : bafEvidence) {
+            if (tumor.tumorIndelCount() == 0) {
+                result.add(tumor);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    public List<TumorContamination> contaminationEvidence() {
+        final List<TumorContamination> result = Lists.newArrayList();
+        for (int i = 0; i < normalHomSites.size(); i++) {
+            final BaseDepth normal = normalHomSites.get(i);
+            final BaseDepth tumor = contaminationEvidence.get(i);
+            if (tumor.altSupport() != 0) {
+                result.add(ImmutableTumorContamination.builder().from(normal).normal(normal).tumor(tumor).build());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public TumorEvidence call() throws Exception {
+        try (SamReader reader = samReaderFactory.open(new File(bamFile))) {
+            supplier.slice(reader, this::record);
+        }
+
+        return this;
+    }
+
+    private void record(@NotNull final SAMRecord record) {
+        selector.select(asRegion(record), site -> site.handler.accept(record));
+    }
+
+    @NotNull
+    private static GenomeRegion asRegion(@NotNull final SAMRecord record) {
+        return GenomeRegions.create(record.getContig(), record.getAlignmentStart(), record.getAlignmentEnd());
+    }
+
+    private static final class TumorSite implements GenomePosition {
+
+        private final GenomePosition position;
+        private final Consumer<SAMRecord> handler;
+
+        private TumorSite(@NotNull final GenomePosition position, @NotNull final Consumer<SAMRecord> handler) {
+            this.position = position;
+            this.handler = handler;
+        }
+
+        @NotNull
+        @Override
+        public String chromosome() {
+            return position.chromosome();
+        }
+
+        @Override
+        public long position() {
+            return position.position();
+        }
+    }
+}
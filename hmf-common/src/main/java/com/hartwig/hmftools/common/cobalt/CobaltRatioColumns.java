@@ -0,0 +1,146 @@
+package com.hartwig.hmftools.common.cobalt;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The ratios of a sorted run of windows on a single contig held in primitive columns rather than one object per window.
+ */
+public class CobaltRatioColumns {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final String contig;
+    private int size;
+    private int[] position;
+    private int[] referenceReadCount;
+    private int[] tumorReadCount;
+    private double[] referenceGCRatio;
+    private double[] referenceGCDiploidRatio;
+    private double[] tumorGCRatio;
+
+    @NotNull
+    public static CobaltRatioColumns fromRatios(@NotNull final String contig, @NotNull final Collection<CobaltRatio> ratios) {
+        final CobaltRatioColumns result = new CobaltRatioColumns(contig, ratios.size());
+        for (CobaltRatio ratio : ratios) {
+            result.add((int) ratio.position(),
+                    ratio.referenceReadCount(),
+                    ratio.tumorReadCount(),
+                    ratio.referenceGCRatio(),
+                    ratio.referenceGCDiploidRatio(),
+                    ratio.tumorGCRatio());
+        }
+        return result;
+    }
+
+    CobaltRatioColumns(@NotNull final String contig) {
+        this(contig, INITIAL_CAPACITY);
+    }
+
+    private CobaltRatioColumns(@NotNull final String contig, int capacity) {
+        this.contig = contig;
+        this.position = new int[capacity];
+        this.referenceReadCount = new int[capacity];
+        this.tumorReadCount = new int[capacity];
+        this.referenceGCRatio = new double[capacity];
+        this.referenceGCDiploidRatio = new double[capacity];
+        this.tumorGCRatio = new double[capacity];
+    }
+
+    @NotNull
+    public String contig() {
+        return contig;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int position(int index) {
+        return position[index];
+    }
+
+    public int referenceReadCount(int index) {
+        return referenceReadCount[index];
+    }
+
+    public int tumorReadCount(int index) {
+        return tumorReadCount[index];
+    }
+
+    public double referenceGCRatio(int index) {
+        return referenceGCRatio[index];
+    }
+
+    public double referenceGCDiploidRatio(int index) {
+        return referenceGCDiploidRatio[index];
+    }
+
+    public double tumorGCRatio(int index) {
+        return tumorGCRatio[index];
+    }
+
+    /**
+     * Index of the first window at or after the given position.
+     */
+    public int firstIndex(long minPosition) {
+        int index = Arrays.binarySearch(position, 0, size, (int) Math.min(minPosition, Integer.MAX_VALUE));
+        if (index < 0) {
+            return -index - 1;
+        }
+
+        while (index > 0 && position[index - 1] == position[index]) {
+            index--;
+        }
+        return index;
+    }
+
+    @NotNull
+    public CobaltRatio ratio(int index) {
+        return ImmutableCobaltRatio.builder()
+                .chromosome(contig)
+                .position(position[index])
+                .referenceReadCount(referenceReadCount[index])
+                .tumorReadCount(tumorReadCount[index])
+                .referenceGCRatio(referenceGCRatio[index])
+                .referenceGCDiploidRatio(referenceGCDiploidRatio[index])
+                .tumorGCRatio(tumorGCRatio[index])
+                .build();
+    }
+
+    void add(int position, int referenceReadCount, int tumorReadCount, double referenceGCRatio, double referenceGCDiploidRatio,
+            double tumorGCRatio) {
+        if (size == this.position.length) {
+            grow();
+        }
+
+        this.position[size] = position;
+        this.referenceReadCount[size] = referenceReadCount;
+        this.tumorReadCount[size] = tumorReadCount;
+        this.referenceGCRatio[size] = referenceGCRatio;
+        this.referenceGCDiploidRatio[size] = referenceGCDiploidRatio;
+        this.tumorGCRatio[size] = tumorGCRatio;
+        size++;
+    }
+
+    void trim() {
+        if (size < position.length) {
+            resize(size);
+        }
+    }
+
+    private void grow() {
+        resize(Math.max(INITIAL_CAPACITY, position.length + (position.length >> 1)));
+    }
+
+    private void resize(int capacity) {
+        position = Arrays.copyOf(position, capacity);
+        referenceReadCount = Arrays.copyOf(referenceReadCount, capacity);
+        tumorReadCount = Arrays.copyOf(tumorReadCount, capacity);
+        referenceGCRatio = Arrays.copyOf(referenceGCRatio, capacity);
+        referenceGCDiploidRatio = Arrays.copyOf(referenceGCDiploidRatio, capacity);
+        tumorGCRatio = Arrays.copyOf(tumorGCRatio, capacity);
+    }
+}
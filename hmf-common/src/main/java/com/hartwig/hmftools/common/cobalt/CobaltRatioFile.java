@@ -1,22 +1,27 @@
 package com.hartwig.hmftools.common.cobalt;
 
+import static com.hartwig.hmftools.common.utils.io.GzipFiles.GZIP_EXTENSION;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.text.DecimalFormat;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
-import java.util.stream.Collectors;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.purple.gender.Gender;
 import com.hartwig.hmftools.common.utils.Doubles;
+import com.hartwig.hmftools.common.utils.io.GzipFiles;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -39,29 +44,43 @@ public final class CobaltRatioFile {
         return basePath + File.separator + sample + EXTENSION;
     }
 
+    @NotNull
+    public static String generateFilenameForWriting(@NotNull final String basePath, @NotNull final String sample, boolean compressed) {
+        final String filename = generateFilenameForWriting(basePath, sample);
+        return compressed ? filename + GZIP_EXTENSION : filename;
+    }
+
     @NotNull
     public static String generateFilenameForReading(@NotNull final String basePath, @NotNull final String sample) {
         String filename = basePath + File.separator + sample + EXTENSION;
-        return (new File(filename).exists()) ? filename : basePath + File.separator + sample + EXTENSION_OLD;
+        if (new File(filename).exists()) {
+            return filename;
+        }
+
+        String compressedFilename = filename + GZIP_EXTENSION;
+        return new File(compressedFilename).exists() ? compressedFilename : basePath + File.separator + sample + EXTENSION_OLD;
     }
 
     @NotNull
     public static ListMultimap<Chromosome, CobaltRatio> read(@NotNull final String filename) throws IOException {
-        return fromRatios(Files.readAllLines(new File(filename).toPath())
-                .stream()
-                .skip(1)
-                .map(x -> fromLine(null, x))
-                .collect(Collectors.toList()));
+        return read(filename, null);
     }
 
     @NotNull
     public static ListMultimap<Chromosome, CobaltRatio> readTumorOnly(@NotNull final String filename, @NotNull final Gender gender)
             throws IOException {
-        return fromRatios(Files.readAllLines(new File(filename).toPath())
-                .stream()
-                .skip(1)
-                .map(x -> fromLine(gender, x))
-                .collect(Collectors.toList()));
+        return read(filename, gender);
+    }
+
+    @NotNull
+    public static Map<Chromosome, CobaltRatioColumns> readColumns(@NotNull final String filename) throws IOException {
+        return readColumns(filename, null);
+    }
+
+    @NotNull
+    public static Map<Chromosome, CobaltRatioColumns> readTumorOnlyColumns(@NotNull final String filename, @NotNull final Gender gender)
+            throws IOException {
+        return readColumns(filename, gender);
     }
 
     public static void write(@NotNull final String fileName, @NotNull Multimap<Chromosome, CobaltRatio> ratios) throws IOException {
@@ -71,15 +90,56 @@ public final class CobaltRatioFile {
     }
 
     private static void write(@NotNull final String fileName, @NotNull List<CobaltRatio> ratios) throws IOException {
-        Files.write(new File(fileName).toPath(), toLines(ratios));
+        try (BufferedWriter writer = GzipFiles.writer(fileName)) {
+            writer.write(header());
+            writer.newLine();
+            for (CobaltRatio ratio : ratios) {
+                writer.write(toString(ratio));
+                writer.newLine();
+            }
+        }
     }
 
     @NotNull
-    private static List<String> toLines(@NotNull final List<CobaltRatio> ratio) {
-        final List<String> lines = Lists.newArrayList();
-        lines.add(header());
-        ratio.stream().map(CobaltRatioFile::toString).forEach(lines::add);
-        return lines;
+    private static ListMultimap<Chromosome, CobaltRatio> read(@NotNull final String filename, @Nullable final Gender gender)
+            throws IOException {
+        final ListMultimap<Chromosome, CobaltRatio> result = ArrayListMultimap.create();
+        try (BufferedReader reader = GzipFiles.reader(filename)) {
+            reader.readLine();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                final CobaltRatio ratio = fromLine(gender, line);
+                result.put(HumanChromosome.fromString(ratio.chromosome()), ratio);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static Map<Chromosome, CobaltRatioColumns> readColumns(@NotNull final String filename, @Nullable final Gender gender)
+            throws IOException {
+        final Map<Chromosome, CobaltRatioColumns> result = Maps.newLinkedHashMap();
+        try (BufferedReader reader = GzipFiles.reader(filename)) {
+            reader.readLine();
+
+            CobaltRatioColumns columns = null;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                final String[] values = line.split(DELIMITER);
+                final String chromosome = values[0].trim();
+                if (columns == null || !columns.contig().equals(chromosome)) {
+                    columns = result.computeIfAbsent(HumanChromosome.fromString(chromosome), x -> new CobaltRatioColumns(chromosome));
+                }
+
+                columns.add(Integer.parseInt(values[1].trim()),
+                        Integer.parseInt(values[2].trim()),
+                        Integer.parseInt(values[3].trim()),
+                        genderAdjustedDiploidRatio(gender, chromosome, Double.parseDouble(values[4].trim())),
+                        genderAdjustedDiploidRatio(gender, chromosome, Double.parseDouble(values[6].trim())),
+                        Double.parseDouble(values[5].trim()));
+            }
+        }
+
+        result.values().forEach(CobaltRatioColumns::trim);
+        return result;
     }
 
     @NotNull
@@ -106,15 +166,6 @@ public final class CobaltRatioFile {
                 .toString();
     }
 
-    @NotNull
-    private static ListMultimap<Chromosome, CobaltRatio> fromRatios(@NotNull final List<CobaltRatio> ratios) {
-        final ListMultimap<Chromosome, CobaltRatio> result = ArrayListMultimap.create();
-        for (CobaltRatio ratio : ratios) {
-            result.put(HumanChromosome.fromString(ratio.chromosome()), ratio);
-        }
-        return result;
-    }
-
     @NotNull
     private static CobaltRatio fromLine(@Nullable final Gender gender, @NotNull final String ratioLine) {
         final String[] values = ratioLine.split(DELIMITER);
@@ -2,6 +2,7 @@ package com.hartwig.hmftools.common.cobalt;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -29,6 +30,32 @@ public final class MedianRatioFactory {
         return create(CobaltRatio::referenceGCRatio, ratios);
     }
 
+    @NotNull
+    public static List<MedianRatio> create(@NotNull Map<Chromosome, CobaltRatioColumns> ratios) {
+        final List<MedianRatio> results = Lists.newArrayList();
+
+        for (Chromosome humanChromosome : HumanChromosome.values()) {
+            final CobaltRatioColumns columns = ratios.get(humanChromosome);
+            if (columns != null && columns.size() > 0) {
+                final List<Double> contigRatios = Lists.newArrayList();
+                for (int i = 0; i < columns.size(); i++) {
+                    if (Doubles.positive(columns.referenceGCRatio(i))) {
+                        contigRatios.add(columns.referenceGCRatio(i));
+                    }
+                }
+
+                int count = contigRatios.size();
+                final double medianRatio = count > 0 ? Doubles.median(contigRatios) : 0;
+                results.add(ImmutableMedianRatio.builder()
+                        .chromosome(columns.contig())
+                        .medianRatio(medianRatio)
+                        .count(count)
+                        .build());
+            }
+        }
+        return results;
+    }
+
     @NotNull
     public static <T extends GenomePosition> List<MedianRatio> create(@NotNull Function<T, Double> ratioFunction,
             @NotNull Multimap<Chromosome, T> ratios) {
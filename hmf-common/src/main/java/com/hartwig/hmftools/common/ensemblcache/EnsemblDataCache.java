@@ -20,10 +20,13 @@ import static com.hartwig.hmftools.common.utils.sv.SvRegion.positionWithin;
 import java.io.File;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.hartwig.hmftools.common.fusion.GeneAnnotation;
 import com.hartwig.hmftools.common.fusion.Transcript;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
@@ -33,13 +36,17 @@ public class EnsemblDataCache
     private final String mDataPath;
     private final RefGenomeVersion mRefGenomeVersion;
 
-    private final Map<String,List<TranscriptData>> mTranscriptDataMap; // transcripts keyed by geneId
+    private Map<String,List<TranscriptData>> mTranscriptDataMap; // transcripts keyed by geneId
     private final Map<String,List<EnsemblGeneData>> mChrGeneDataMap; // genes keyed by chromosome
     private final Map<Integer,List<TranscriptProteinData>> mEnsemblProteinDataMap;
     private final Map<Integer,Integer> mTransSpliceAcceptorPosDataMap;
     private final Map<String,EnsemblGeneData> mGeneDataMap; // keyed by geneId
     private final Map<String,EnsemblGeneData> mGeneNameIdMap; // for faster look-up by name
 
+    // region and transcript look-ups, built at load time and rebuilt if the underlying gene or transcript list is replaced
+    private final Map<String,IntervalIndex<EnsemblGeneData>> mChrGeneIndex;
+    private final Map<String,GeneTranscripts> mGeneTranscriptIndex;
+
     // whether to load more details information for each transcript - exons, protein domains, splice positions etc
     private boolean mRequireExons;
     private boolean mRequireProteinDomains;
@@ -51,6 +58,9 @@ public class EnsemblDataCache
     private final List<EnsemblGeneData> mAlternativeGeneData;
     private final List<String> mRestrictedGeneIdList = Lists.newArrayList();
 
+    // binary copy of the CSV files if one has been written, from which transcripts are read on first use
+    private EnsemblDataSnapshot mSnapshot;
+
     public EnsemblDataCache(final String dataPath, final RefGenomeVersion refGenomeVersion)
     {
         mDataPath = dataPath.endsWith(File.separator) ? dataPath : dataPath + File.separator;
@@ -62,6 +72,8 @@ public class EnsemblDataCache
         mTransSpliceAcceptorPosDataMap = Maps.newHashMap();
         mGeneDataMap = Maps.newHashMap();
         mGeneNameIdMap = Maps.newHashMap();
+        mChrGeneIndex = new ConcurrentHashMap<>();
+        mGeneTranscriptIndex = new ConcurrentHashMap<>();
         mRequireExons = true;
         mRequireProteinDomains = false;
         mRequireSplicePositions = false;
@@ -69,6 +81,7 @@ public class EnsemblDataCache
         mRequireGeneSynonyms = false;
         mDownstreamGeneAnnotations = Maps.newHashMap();
         mAlternativeGeneData = Lists.newArrayList();
+        mSnapshot = null;
     }
 
     public void setRestrictedGeneIdList(final List<String> geneIds)
@@ -305,12 +318,7 @@ public class EnsemblDataCache
         // create gene and transcript data for any gene fully overlapped by the SV
         List<GeneAnnotation> geneAnnotations = Lists.newArrayList();
 
-        final List<EnsemblGeneData> chrGeneList = mChrGeneDataMap.get(chromosome);
-
-        if(chrGeneList == null)
-            return geneAnnotations;
-
-        for(final EnsemblGeneData geneData : chrGeneList)
+        for(final EnsemblGeneData geneData : findGenesOverlapping(chromosome, posStart, posEnd))
         {
             if(!(posStart < geneData.GeneStart && posEnd > geneData.GeneEnd))
                 continue;
@@ -361,15 +369,15 @@ public class EnsemblDataCache
         if (transDataList == null || transDataList.isEmpty())
             return null;
 
-        for(final TranscriptData transData : transDataList)
+        GeneTranscripts geneTranscripts = mGeneTranscriptIndex.get(geneId);
+
+        if(geneTranscripts == null || !geneTranscripts.indexes(transDataList))
         {
-            if(transcriptId.isEmpty() && transData.IsCanonical)
-                return transData;
-            else if(transData.TransName.equals(transcriptId))
-                return transData;
+            geneTranscripts = new GeneTranscripts(transDataList);
+            mGeneTranscriptIndex.put(geneId, geneTranscripts);
         }
 
-        return null;
+        return transcriptId.isEmpty() ? geneTranscripts.Canonical : geneTranscripts.ByName.get(transcriptId);
     }
 
     public final List<EnsemblGeneData> findGenesByRegion(final String chromosome, int posStart, int posEnd)
@@ -377,13 +385,8 @@ public class EnsemblDataCache
         // find genes if any of their transcripts are within this position
         List<EnsemblGeneData> genesList = Lists.newArrayList();
 
-        final List<EnsemblGeneData> geneDataList = mChrGeneDataMap.get(chromosome);
-
-        for(final EnsemblGeneData geneData : geneDataList)
+        for(final EnsemblGeneData geneData : findGenesOverlapping(chromosome, posStart, posEnd))
         {
-            if(posStart > geneData.GeneEnd || posEnd < geneData.GeneStart)
-                continue;
-
             final List<TranscriptData> transList = mTranscriptDataMap.get(geneData.GeneId);
 
             if(transList == null || transList.isEmpty())
@@ -406,12 +409,8 @@ public class EnsemblDataCache
     {
         final List<EnsemblGeneData> matchedGenes = Lists.newArrayList();
 
-        final List<EnsemblGeneData> geneDataList = mChrGeneDataMap.get(chromosome);
-
-        if(geneDataList == null)
-            return matchedGenes;
-
-        for(final EnsemblGeneData geneData : geneDataList)
+        // the upstream window is applied to one side of each gene depending on strand, so widen the query by it on both sides
+        for(final EnsemblGeneData geneData : findGenesOverlapping(chromosome, position - upstreamDistance, position + upstreamDistance))
         {
             int geneStartRange = geneData.Strand == 1 ? geneData.GeneStart - upstreamDistance : geneData.GeneStart;
             int geneEndRange = geneData.Strand == 1 ? geneData.GeneEnd : geneData.GeneEnd + upstreamDistance;
@@ -439,6 +438,67 @@ public class EnsemblDataCache
         return matchedGenes;
     }
 
+    private List<EnsemblGeneData> findGenesOverlapping(final String chromosome, int posStart, int posEnd)
+    {
+        final List<EnsemblGeneData> geneDataList = mChrGeneDataMap.get(chromosome);
+
+        if(geneDataList == null)
+            return Lists.newArrayList();
+
+        IntervalIndex<EnsemblGeneData> geneIndex = mChrGeneIndex.get(chromosome);
+
+        if(geneIndex == null || !geneIndex.indexes(geneDataList))
+        {
+            geneIndex = new IntervalIndex<>(geneDataList, x -> x.GeneStart, x -> x.GeneEnd);
+            mChrGeneIndex.put(chromosome, geneIndex);
+        }
+
+        return geneIndex.findOverlapping(posStart, posEnd);
+    }
+
+    public void createGeneRegionIndex()
+    {
+        mChrGeneIndex.clear();
+
+        for(Map.Entry<String,List<EnsemblGeneData>> entry : mChrGeneDataMap.entrySet())
+        {
+            mChrGeneIndex.put(entry.getKey(), new IntervalIndex<>(entry.getValue(), x -> x.GeneStart, x -> x.GeneEnd));
+        }
+    }
+
+    public void createTranscriptIndex()
+    {
+        mGeneTranscriptIndex.clear();
+
+        for(Map.Entry<String,List<TranscriptData>> entry : mTranscriptDataMap.entrySet())
+        {
+            mGeneTranscriptIndex.put(entry.getKey(), new GeneTranscripts(entry.getValue()));
+        }
+    }
+
+    private static class GeneTranscripts
+    {
+        public final TranscriptData Canonical;
+        public final Map<String,TranscriptData> ByName;
+
+        private final List<TranscriptData> mSource;
+        private final int mSourceSize;
+
+        public GeneTranscripts(final List<TranscriptData> transDataList)
+        {
+            mSource = transDataList;
+            mSourceSize = transDataList.size();
+            Canonical = transDataList.stream().filter(x -> x.IsCanonical).findFirst().orElse(null);
+            ByName = Maps.newHashMap();
+            transDataList.forEach(x -> ByName.putIfAbsent(x.TransName, x));
+        }
+
+        public boolean indexes(final List<TranscriptData> transDataList)
+        {
+            return transDataList == mSource && transDataList.size() == mSourceSize;
+        }
+    }
+
     public int findPrecedingGeneSpliceAcceptorPosition(int transId)
     {
         if(mTransSpliceAcceptorPosDataMap.isEmpty())
@@ -530,7 +590,21 @@ public class EnsemblDataCache
         }
         else
         {
-            for (int index = 0; index < exonList.size(); ++index)
+            // exons are ordered by position so find the first which ends at or after the position
+            int low = 0;
+            int high = exonList.size() - 1;
+
+            while(low < high)
+            {
+                int mid = (low + high) >>> 1;
+
+                if(exonList.get(mid).ExonEnd < position)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+
+            for (int index = low; index < exonList.size(); ++index)
             {
                 final ExonData exonData = exonList.get(index);
 
@@ -795,18 +869,42 @@ public class EnsemblDataCache
 
     public boolean load(boolean delayTranscriptLoading)
     {
-        if(!loadEnsemblGeneData(mDataPath, mRestrictedGeneIdList, mChrGeneDataMap, mRefGenomeVersion, mRequireGeneSynonyms))
+        mSnapshot = EnsemblDataSnapshot.open(mDataPath);
+
+        if(mSnapshot != null)
+        {
+            mSnapshot.loadGeneData(mRestrictedGeneIdList, mChrGeneDataMap, mRefGenomeVersion, mRequireGeneSynonyms);
+            mTranscriptDataMap = mSnapshot.transcriptDataMap(mRequireExons, mCanonicalTranscriptsOnly);
+        }
+        else if(!loadEnsemblGeneData(mDataPath, mRestrictedGeneIdList, mChrGeneDataMap, mRefGenomeVersion, mRequireGeneSynonyms))
+        {
             return false;
+        }
+
+        createGeneRegionIndex();
 
         if(!delayTranscriptLoading)
         {
-            if(!EnsemblDataLoader.loadTranscriptData(mDataPath, mTranscriptDataMap, mRestrictedGeneIdList, mRequireExons, mCanonicalTranscriptsOnly))
-                return false;
+            if(mSnapshot != null)
+            {
+                // transcripts are read and indexed per gene as they are requested
+                ((EnsemblDataSnapshot.TranscriptDataMap)mTranscriptDataMap).allow(mRestrictedGeneIdList);
+            }
+            else
+            {
+                if(!EnsemblDataLoader.loadTranscriptData(
+                        mDataPath, mTranscriptDataMap, mRestrictedGeneIdList, mRequireExons, mCanonicalTranscriptsOnly))
+                {
+                    return false;
+                }
 
-            if(mRequireProteinDomains && !loadTranscriptProteinData(mDataPath, mEnsemblProteinDataMap, Lists.newArrayList()))
+                createTranscriptIndex();
+            }
+
+            if(mRequireProteinDomains && !loadProteinData(Lists.newArrayList()))
                 return false;
 
-            if(mRequireSplicePositions && !loadTranscriptSpliceAcceptorData(mDataPath, mTransSpliceAcceptorPosDataMap, Lists.newArrayList()))
+            if(mRequireSplicePositions && !loadSpliceAcceptorData(Lists.newArrayList()))
                 return false;
         }
 
@@ -815,29 +913,59 @@ public class EnsemblDataCache
 
     public boolean loadTranscriptData(final List<String> restrictedGeneIds)
     {
-        if(!EnsemblDataLoader.loadTranscriptData(mDataPath, mTranscriptDataMap, restrictedGeneIds, mRequireExons, mCanonicalTranscriptsOnly))
-            return false;
+        if(mSnapshot != null)
+        {
+            ((EnsemblDataSnapshot.TranscriptDataMap)mTranscriptDataMap).allow(restrictedGeneIds);
+        }
+        else
+        {
+            if(!EnsemblDataLoader.loadTranscriptData(
+                    mDataPath, mTranscriptDataMap, restrictedGeneIds, mRequireExons, mCanonicalTranscriptsOnly))
+            {
+                return false;
+            }
 
-        List<Integer> uniqueTransIds = Lists.newArrayList();
+            createTranscriptIndex();
+        }
+
+        if(!mRequireProteinDomains && !mRequireSplicePositions)
+            return true;
+
+        Set<Integer> uniqueTransIds = Sets.newLinkedHashSet();
 
         for(List<TranscriptData> transDataList : mTranscriptDataMap.values())
         {
             for(TranscriptData transData : transDataList)
             {
-                if(!uniqueTransIds.contains(transData.TransId))
-                    uniqueTransIds.add(transData.TransId);
+                uniqueTransIds.add(transData.TransId);
             }
         }
 
-        if(mRequireProteinDomains && !loadTranscriptProteinData(mDataPath, mEnsemblProteinDataMap, uniqueTransIds))
+        if(mRequireProteinDomains && !loadProteinData(Lists.newArrayList(uniqueTransIds)))
             return false;
 
-        if(mRequireSplicePositions && !loadTranscriptSpliceAcceptorData(mDataPath, mTransSpliceAcceptorPosDataMap, uniqueTransIds))
+        if(mRequireSplicePositions && !loadSpliceAcceptorData(Lists.newArrayList(uniqueTransIds)))
             return false;
 
         return true;
     }
 
+    private boolean loadProteinData(final List<Integer> restrictedTransIds)
+    {
+        if(mSnapshot != null)
+            return mSnapshot.loadTranscriptProteinData(mEnsemblProteinDataMap, restrictedTransIds);
+
+        return loadTranscriptProteinData(mDataPath, mEnsemblProteinDataMap, restrictedTransIds);
+    }
+
+    private boolean loadSpliceAcceptorData(final List<Integer> restrictedTransIds)
+    {
+        if(mSnapshot != null)
+            return mSnapshot.loadTranscriptSpliceAcceptorData(mTransSpliceAcceptorPosDataMap, restrictedTransIds);
+
+        return loadTranscriptSpliceAcceptorData(mDataPath, mTransSpliceAcceptorPosDataMap, restrictedTransIds);
+    }
+
     public static Integer[] getProteinDomainPositions(final TranscriptProteinData proteinData, final TranscriptData transData)
     {
         Integer[] domainPositions = {null, null};
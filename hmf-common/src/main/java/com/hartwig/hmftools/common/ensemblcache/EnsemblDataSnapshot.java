@@ -0,0 +1,540 @@
+package com.hartwig.hmftools.common.ensemblcache;
+
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_GENE_DATA_FILE;
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_PROTEIN_FEATURE_DATA_FILE;
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_TRANS_EXON_DATA_FILE;
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_TRANS_SPLICE_DATA_FILE;
+import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion.refGenomeChromosome;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// a binary copy of the Ensembl CSV files, written once alongside them and memory-mapped on load
+// genes are materialised up-front since they back the region index, whereas transcripts and their exons are only
+// read from the mapped file when a gene's transcripts are first requested
+public class EnsemblDataSnapshot
+{
+    public static final String ENSEMBL_SNAPSHOT_FILE = "ensembl_data_cache.bin";
+
+    private static final int MAGIC = 0x454E5343; // ENSC
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_INTS = 11;
+    private static final int GENE_INTS = 8;
+    private static final int GENE_TRANS_INTS = 3;
+    private static final int TRANS_INTS = 11;
+    private static final int EXON_INTS = 5;
+    private static final int PROTEIN_INTS = 6;
+    private static final int SPLICE_INTS = 2;
+
+    private static final int NULL_CODING_POS = Integer.MIN_VALUE;
+
+    private static final Logger LOGGER = LogManager.getLogger(EnsemblDataSnapshot.class);
+
+    private final ByteBuffer mBuffer;
+
+    private final int mStringCount;
+    private final int mStringOffsetsPos;
+    private final int mStringDataPos;
+    private final int mGenesPos;
+    private final int mGeneCount;
+    private final int mGeneTransPos;
+    private final int mTransPos;
+    private final int mExonsPos;
+    private final int mProteinsPos;
+    private final int mProteinCount;
+    private final int mSplicePos;
+    private final int mSpliceCount;
+
+    private final Map<String,Integer> mGeneTransIndex; // geneId to its record in the gene-transcripts section
+
+    private EnsemblDataSnapshot(final ByteBuffer buffer)
+    {
+        mBuffer = buffer;
+
+        mStringCount = headerInt(2);
+        mGeneCount = headerInt(3);
+        int geneTransCount = headerInt(4);
+        int transCount = headerInt(5);
+        int exonCount = headerInt(6);
+        mProteinCount = headerInt(7);
+        mSpliceCount = headerInt(8);
+        int stringDataLength = headerInt(10);
+
+        // sections follow the header in a fixed order
+        mStringOffsetsPos = HEADER_INTS * Integer.BYTES;
+        mStringDataPos = mStringOffsetsPos + (mStringCount + 1) * Integer.BYTES;
+        mGenesPos = mStringDataPos + stringDataLength;
+        mGeneTransPos = mGenesPos + mGeneCount * GENE_INTS * Integer.BYTES;
+        mTransPos = mGeneTransPos + geneTransCount * GENE_TRANS_INTS * Integer.BYTES;
+        mExonsPos = mTransPos + transCount * TRANS_INTS * Integer.BYTES;
+        mProteinsPos = mExonsPos + exonCount * EXON_INTS * Integer.BYTES;
+        mSplicePos = mProteinsPos + mProteinCount * PROTEIN_INTS * Integer.BYTES;
+
+        mGeneTransIndex = Maps.newHashMapWithExpectedSize(geneTransCount);
+
+        for(int i = 0; i < geneTransCount; ++i)
+        {
+            mGeneTransIndex.put(getString(readInt(mGeneTransPos, GENE_TRANS_INTS, i, 0)), i);
+        }
+    }
+
+    public boolean hasProteinData() { return flag(1); }
+    public boolean hasSpliceAcceptorData() { return flag(2); }
+
+    public static EnsemblDataSnapshot open(final String dataPath)
+    {
+        final File snapshotFile = new File(dataPath + ENSEMBL_SNAPSHOT_FILE);
+
+        if(!snapshotFile.exists())
+            return null;
+
+        // ignore a snapshot which predates any of the CSV files it was built from
+        for(String csvFile : new String[] { ENSEMBL_GENE_DATA_FILE, ENSEMBL_TRANS_EXON_DATA_FILE,
+                ENSEMBL_PROTEIN_FEATURE_DATA_FILE, ENSEMBL_TRANS_SPLICE_DATA_FILE })
+        {
+            final File file = new File(dataPath + csvFile);
+
+            if(file.exists() && file.lastModified() > snapshotFile.lastModified())
+            {
+                LOGGER.info("ignoring Ensembl data snapshot({}) older than {}", snapshotFile, csvFile);
+                return null;
+            }
+        }
+
+        try(FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ))
+        {
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if(buffer.limit() < HEADER_INTS * Integer.BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != FORMAT_VERSION)
+            {
+                LOGGER.warn("ignoring invalid Ensembl data snapshot({})", snapshotFile);
+                return null;
+            }
+
+            LOGGER.debug("mapped Ensembl data snapshot({})", snapshotFile);
+            return new EnsemblDataSnapshot(buffer);
+        }
+        catch(IOException e)
+        {
+            LOGGER.warn("failed to map Ensembl data snapshot({}): {}", snapshotFile, e.toString());
+            return null;
+        }
+    }
+
+    public void loadGeneData(
+            final List<String> restrictedGeneIds, final Map<String,List<EnsemblGeneData>> chrGeneDataMap,
+            RefGenomeVersion version, boolean loadSynonyms)
+    {
+        final Set<String> restrictedIds = Sets.newHashSet(restrictedGeneIds);
+
+        for(int i = 0; i < mGeneCount; ++i)
+        {
+            final String geneId = getString(readInt(mGenesPos, GENE_INTS, i, 0));
+
+            if(!restrictedIds.isEmpty() && !restrictedIds.contains(geneId))
+                continue;
+
+            final String chromosome = refGenomeChromosome(getString(readInt(mGenesPos, GENE_INTS, i, 2)), version);
+
+            EnsemblGeneData geneData = new EnsemblGeneData(
+                    geneId, getString(readInt(mGenesPos, GENE_INTS, i, 1)), chromosome, (byte)readInt(mGenesPos, GENE_INTS, i, 3),
+                    readInt(mGenesPos, GENE_INTS, i, 4), readInt(mGenesPos, GENE_INTS, i, 5),
+                    getString(readInt(mGenesPos, GENE_INTS, i, 6)));
+
+            if(loadSynonyms)
+                geneData.addSynonyms(getString(readInt(mGenesPos, GENE_INTS, i, 7)));
+
+            chrGeneDataMap.computeIfAbsent(chromosome, k -> Lists.newArrayList()).add(geneData);
+        }
+
+        LOGGER.debug("loaded {} gene records from snapshot", mGeneCount);
+    }
+
+    public TranscriptDataMap transcriptDataMap(boolean cacheExons, boolean canonicalOnly)
+    {
+        return new TranscriptDataMap(this, cacheExons, canonicalOnly);
+    }
+
+    public boolean loadTranscriptProteinData(final Map<Integer,List<TranscriptProteinData>> proteinDataMap, final List<Integer> restrictedTransIds)
+    {
+        if(!hasProteinData())
+            return false;
+
+        final Set<Integer> restrictedIds = Sets.newHashSet(restrictedTransIds);
+
+        for(int i = 0; i < mProteinCount; ++i)
+        {
+            int transId = readInt(mProteinsPos, PROTEIN_INTS, i, 0);
+
+            if(!restrictedIds.isEmpty() && !restrictedIds.contains(transId))
+                continue;
+
+            proteinDataMap.computeIfAbsent(transId, k -> Lists.newArrayList()).add(new TranscriptProteinData(
+                    transId, readInt(mProteinsPos, PROTEIN_INTS, i, 1), readInt(mProteinsPos, PROTEIN_INTS, i, 2),
+                    readInt(mProteinsPos, PROTEIN_INTS, i, 3), readInt(mProteinsPos, PROTEIN_INTS, i, 4),
+                    getString(readInt(mProteinsPos, PROTEIN_INTS, i, 5))));
+        }
+
+        return true;
+    }
+
+    public boolean loadTranscriptSpliceAcceptorData(final Map<Integer,Integer> transSaPositionDataMap, final List<Integer> restrictedTransIds)
+    {
+        if(!hasSpliceAcceptorData())
+            return false;
+
+        final Set<Integer> restrictedIds = Sets.newHashSet(restrictedTransIds);
+
+        for(int i = 0; i < mSpliceCount; ++i)
+        {
+            int transId = readInt(mSplicePos, SPLICE_INTS, i, 0);
+
+            if(!restrictedIds.isEmpty() && !restrictedIds.contains(transId))
+                continue;
+
+            transSaPositionDataMap.put(transId, readInt(mSplicePos, SPLICE_INTS, i, 1));
+        }
+
+        return true;
+    }
+
+    private List<TranscriptData> readTranscripts(final String geneId, boolean cacheExons, boolean canonicalOnly)
+    {
+        final Integer geneTransIndex = mGeneTransIndex.get(geneId);
+
+        if(geneTransIndex == null)
+            return null;
+
+        int transOffset = readInt(mGeneTransPos, GENE_TRANS_INTS, geneTransIndex, 1);
+        int transCount = readInt(mGeneTransPos, GENE_TRANS_INTS, geneTransIndex, 2);
+
+        final List<TranscriptData> transDataList = Lists.newArrayListWithExpectedSize(transCount);
+
+        for(int t = transOffset; t < transOffset + transCount; ++t)
+        {
+            boolean isCanonical = readInt(mTransPos, TRANS_INTS, t, 2) == 1;
+
+            if(!isCanonical && canonicalOnly)
+                continue;
+
+            int transId = readInt(mTransPos, TRANS_INTS, t, 0);
+            int codingStart = readInt(mTransPos, TRANS_INTS, t, 6);
+            int codingEnd = readInt(mTransPos, TRANS_INTS, t, 7);
+
+            TranscriptData transData = new TranscriptData(
+                    transId, getString(readInt(mTransPos, TRANS_INTS, t, 1)), geneId, isCanonical,
+                    (byte)readInt(mTransPos, TRANS_INTS, t, 3), readInt(mTransPos, TRANS_INTS, t, 4), readInt(mTransPos, TRANS_INTS, t, 5),
+                    codingStart != NULL_CODING_POS ? codingStart : null, codingEnd != NULL_CODING_POS ? codingEnd : null,
+                    getString(readInt(mTransPos, TRANS_INTS, t, 8)));
+
+            int exonOffset = readInt(mTransPos, TRANS_INTS, t, 9);
+            int exonCount = cacheExons || isCanonical ? readInt(mTransPos, TRANS_INTS, t, 10) : 0;
+
+            final List<ExonData> exonDataList = Lists.newArrayListWithExpectedSize(exonCount);
+
+            for(int e = exonOffset; e < exonOffset + exonCount; ++e)
+            {
+                exonDataList.add(new ExonData(
+                        transId, readInt(mExonsPos, EXON_INTS, e, 0), readInt(mExonsPos, EXON_INTS, e, 1),
+                        readInt(mExonsPos, EXON_INTS, e, 2), readInt(mExonsPos, EXON_INTS, e, 3), readInt(mExonsPos, EXON_INTS, e, 4)));
+            }
+
+            transData.setExons(exonDataList);
+            transDataList.add(transData);
+        }
+
+        return transDataList;
+    }
+
+    private Collection<String> geneIds() { return mGeneTransIndex.keySet(); }
+
+    private int headerInt(int index) { return mBuffer.getInt(index * Integer.BYTES); }
+    private boolean flag(int flag) { return (headerInt(9) & flag) != 0; }
+
+    private int readInt(int sectionPos, int recordInts, int record, int field)
+    {
+        return mBuffer.getInt(sectionPos + (record * recordInts + field) * Integer.BYTES);
+    }
+
+    private String getString(int index)
+    {
+        int start = mBuffer.getInt(mStringOffsetsPos + index * Integer.BYTES);
+        int end = mBuffer.getInt(mStringOffsetsPos + (index + 1) * Integer.BYTES);
+
+        final byte[] bytes = new byte[end - start];
+
+        // absolute bulk reads need Java 13, so read from a duplicate to leave the shared buffer's position untouched
+        final ByteBuffer view = mBuffer.duplicate();
+        view.position(mStringDataPos + start);
+        view.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // transcripts keyed by geneId, read from the snapshot as each gene is first requested
+    // like the CSV loader, genes only become visible once allowed, either all at once or by accumulating restricted lists
+    public static class TranscriptDataMap extends AbstractMap<String,List<TranscriptData>>
+    {
+        private final EnsemblDataSnapshot mSnapshot;
+        private final boolean mCacheExons;
+        private final boolean mCanonicalOnly;
+
+        private final Map<String,List<TranscriptData>> mMaterialised;
+        private final Set<String> mAllowedGeneIds;
+        private boolean mAllowAll;
+
+        private TranscriptDataMap(final EnsemblDataSnapshot snapshot, boolean cacheExons, boolean canonicalOnly)
+        {
+            mSnapshot = snapshot;
+            mCacheExons = cacheExons;
+            mCanonicalOnly = canonicalOnly;
+            mMaterialised = new ConcurrentHashMap<>();
+            mAllowedGeneIds = ConcurrentHashMap.newKeySet();
+            mAllowAll = false;
+        }
+
+        public void allow(final List<String> geneIds)
+        {
+            if(geneIds.isEmpty())
+                mAllowAll = true;
+            else
+                mAllowedGeneIds.addAll(geneIds);
+        }
+
+        private boolean isAllowed(final String geneId) { return mAllowAll || mAllowedGeneIds.contains(geneId); }
+
+        @Override
+        public List<TranscriptData> get(final Object key)
+        {
+            final List<TranscriptData> transDataList = mMaterialised.get(key);
+
+            if(transDataList != null || !(key instanceof String) || !isAllowed((String)key))
+                return transDataList;
+
+            final String geneId = (String)key;
+
+            if(!mSnapshot.mGeneTransIndex.containsKey(geneId))
+                return null;
+
+            return mMaterialised.computeIfAbsent(geneId, k -> mSnapshot.readTranscripts(k, mCacheExons, mCanonicalOnly));
+        }
+
+        @Override
+        public boolean containsKey(final Object key) { return get(key) != null; }
+
+        @Override
+        public List<TranscriptData> put(final String geneId, final List<TranscriptData> transDataList)
+        {
+            final List<TranscriptData> existing = get(geneId);
+            mAllowedGeneIds.add(geneId);
+            mMaterialised.put(geneId, transDataList);
+            return existing;
+        }
+
+        @Override
+        public List<TranscriptData> remove(final Object key)
+        {
+            final List<TranscriptData> existing = get(key);
+
+            if(existing != null)
+            {
+                // stop the gene being read again from the snapshot
+                if(mAllowAll)
+                {
+                    mAllowAll = false;
+                    mAllowedGeneIds.addAll(mSnapshot.geneIds());
+                }
+
+                mAllowedGeneIds.remove(key);
+                mMaterialised.remove(key);
+            }
+
+            return existing;
+        }
+
+        @Override
+        public void clear()
+        {
+            mAllowAll = false;
+            mAllowedGeneIds.clear();
+            mMaterialised.clear();
+        }
+
+        @Override
+        public Set<Entry<String,List<TranscriptData>>> entrySet()
+        {
+            final Collection<String> geneIds = mAllowAll ? mSnapshot.geneIds() : mAllowedGeneIds;
+            geneIds.forEach(this::get);
+            return mMaterialised.entrySet();
+        }
+    }
+
+    public static boolean write(final String dataPath)
+    {
+        final Map<String,List<EnsemblGeneData>> chrGeneDataMap = Maps.newLinkedHashMap();
+        final Map<String,List<TranscriptData>> transcriptDataMap = Maps.newLinkedHashMap();
+        final Map<Integer,List<TranscriptProteinData>> proteinDataMap = Maps.newLinkedHashMap();
+        final Map<Integer,Integer> spliceAcceptorMap = Maps.newLinkedHashMap();
+
+        // chromosomes are stored without a 'chr' prefix and converted to the required version on load
+        if(!EnsemblDataLoader.loadEnsemblGeneData(dataPath, Lists.newArrayList(), chrGeneDataMap, RefGenomeVersion.HG37, true))
+            return false;
+
+        if(!EnsemblDataLoader.loadTranscriptData(dataPath, transcriptDataMap, Lists.newArrayList(), true, false))
+            return false;
+
+        boolean hasProteinData = EnsemblDataLoader.loadTranscriptProteinData(dataPath, proteinDataMap, Lists.newArrayList());
+        boolean hasSpliceData = EnsemblDataLoader.loadTranscriptSpliceAcceptorData(dataPath, spliceAcceptorMap, Lists.newArrayList());
+
+        final Map<String,Integer> stringIds = Maps.newHashMap();
+        final List<byte[]> strings = Lists.newArrayList();
+
+        final List<int[]> genes = Lists.newArrayList();
+        final List<int[]> geneTrans = Lists.newArrayList();
+        final List<int[]> transcripts = Lists.newArrayList();
+        final List<int[]> exons = Lists.newArrayList();
+        final List<int[]> proteins = Lists.newArrayList();
+        final List<int[]> spliceAcceptors = Lists.newArrayList();
+
+        for(List<EnsemblGeneData> geneDataList : chrGeneDataMap.values())
+        {
+            for(EnsemblGeneData geneData : geneDataList)
+            {
+                genes.add(new int[] {
+                        stringId(geneData.GeneId, stringIds, strings), stringId(geneData.GeneName, stringIds, strings),
+                        stringId(geneData.Chromosome, stringIds, strings), geneData.Strand, geneData.GeneStart, geneData.GeneEnd,
+                        stringId(geneData.KaryotypeBand, stringIds, strings), stringId(geneData.getSynonyms(), stringIds, strings) });
+            }
+        }
+
+        for(Map.Entry<String,List<TranscriptData>> entry : transcriptDataMap.entrySet())
+        {
+            geneTrans.add(new int[] { stringId(entry.getKey(), stringIds, strings), transcripts.size(), entry.getValue().size() });
+
+            for(TranscriptData transData : entry.getValue())
+            {
+                transcripts.add(new int[] {
+                        transData.TransId, stringId(transData.TransName, stringIds, strings), transData.IsCanonical ? 1 : 0,
+                        transData.Strand, transData.TransStart, transData.TransEnd,
+                        transData.CodingStart != null ? transData.CodingStart : NULL_CODING_POS,
+                        transData.CodingEnd != null ? transData.CodingEnd : NULL_CODING_POS,
+                        stringId(transData.BioType, stringIds, strings), exons.size(), transData.exons().size() });
+
+                for(ExonData exon : transData.exons())
+                {
+                    exons.add(new int[] { exon.ExonStart, exon.ExonEnd, exon.ExonRank, exon.ExonPhase, exon.ExonPhaseEnd });
+                }
+            }
+        }
+
+        for(List<TranscriptProteinData> proteinDataList : proteinDataMap.values())
+        {
+            for(TranscriptProteinData proteinData : proteinDataList)
+            {
+                proteins.add(new int[] {
+                        proteinData.TranscriptId, proteinData.TranslationId, proteinData.ProteinFeatureId,
+                        proteinData.SeqStart, proteinData.SeqEnd, stringId(proteinData.HitDescription, stringIds, strings) });
+            }
+        }
+
+        spliceAcceptorMap.forEach((transId, position) -> spliceAcceptors.add(new int[] { transId, position }));
+
+        final File snapshotFile = new File(dataPath + ENSEMBL_SNAPSHOT_FILE);
+        final File tempFile = new File(dataPath + ENSEMBL_SNAPSHOT_FILE + ".tmp");
+
+        try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile))))
+        {
+            int stringDataLength = strings.stream().mapToInt(x -> x.length).sum();
+
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeInt(strings.size());
+            output.writeInt(genes.size());
+            output.writeInt(geneTrans.size());
+            output.writeInt(transcripts.size());
+            output.writeInt(exons.size());
+            output.writeInt(proteins.size());
+            output.writeInt(spliceAcceptors.size());
+            output.writeInt((hasProteinData ? 1 : 0) | (hasSpliceData ? 2 : 0));
+            output.writeInt(stringDataLength);
+
+            int stringOffset = 0;
+            output.writeInt(stringOffset);
+
+            for(byte[] string : strings)
+            {
+                stringOffset += string.length;
+                output.writeInt(stringOffset);
+            }
+
+            for(byte[] string : strings)
+            {
+                output.write(string);
+            }
+
+            for(List<int[]> section : Lists.newArrayList(genes, geneTrans, transcripts, exons, proteins, spliceAcceptors))
+            {
+                for(int[] record : section)
+                {
+                    for(int value : record)
+                    {
+                        output.writeInt(value);
+                    }
+                }
+            }
+        }
+        catch(IOException e)
+        {
+            LOGGER.error("failed to write Ensembl data snapshot({}): {}", snapshotFile, e.toString());
+            return false;
+        }
+
+        try
+        {
+            Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch(IOException e)
+        {
+            LOGGER.error("failed to write Ensembl data snapshot({}): {}", snapshotFile, e.toString());
+            return false;
+        }
+
+        LOGGER.info("written Ensembl data snapshot({}) with {} genes, {} transcripts and {} exons",
+                snapshotFile, genes.size(), transcripts.size(), exons.size());
+
+        return true;
+    }
+
+    private static int stringId(final String value, final Map<String,Integer> stringIds, final List<byte[]> strings)
+    {
+        return stringIds.computeIfAbsent(value, k ->
+        {
+            strings.add(k.getBytes(StandardCharsets.UTF_8));
+            return strings.size() - 1;
+        });
+    }
+}
@@ -0,0 +1,106 @@
+package com.hartwig.hmftools.common.ensemblcache;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.Lists;
+
+// an augmented interval tree laid out implicitly over the items sorted by start position - each node is the mid-point of its
+// range and records the maximum end position of its sub-tree, so overlap queries are O(log n + matches)
+// once built it is not modified, so it can be shared between threads
+public class IntervalIndex<T>
+{
+    private final List<T> mSource;
+    private final int mSourceSize;
+
+    private final int[] mOrder; // index into the source list, sorted by start position
+    private final int[] mStarts;
+    private final int[] mEnds;
+    private final int[] mMaxEnds;
+
+    public IntervalIndex(final List<T> items, final ToIntFunction<T> start, final ToIntFunction<T> end)
+    {
+        mSource = items;
+        mSourceSize = items.size();
+
+        mOrder = IntStream.range(0, mSourceSize).boxed()
+                .sorted(Comparator.comparingInt(x -> start.applyAsInt(items.get(x))))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        mStarts = new int[mSourceSize];
+        mEnds = new int[mSourceSize];
+        mMaxEnds = new int[mSourceSize];
+
+        for(int i = 0; i < mSourceSize; ++i)
+        {
+            final T item = items.get(mOrder[i]);
+            mStarts[i] = start.applyAsInt(item);
+            mEnds[i] = end.applyAsInt(item);
+        }
+
+        buildMaxEnds(0, mSourceSize - 1);
+    }
+
+    // whether the index was built from this list in its current state
+    public boolean indexes(final List<T> items)
+    {
+        return items == mSource && items.size() == mSourceSize;
+    }
+
+    // items where start <= posEnd and end >= posStart, in their original list order
+    public List<T> findOverlapping(int posStart, int posEnd)
+    {
+        final List<Integer> matched = Lists.newArrayList();
+        findOverlapping(0, mSourceSize - 1, posStart, posEnd, matched);
+
+        final int[] indices = matched.stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(indices);
+
+        final List<T> results = Lists.newArrayListWithExpectedSize(indices.length);
+
+        for(int index : indices)
+        {
+            results.add(mSource.get(index));
+        }
+
+        return results;
+    }
+
+    private int buildMaxEnds(int low, int high)
+    {
+        if(low > high)
+            return Integer.MIN_VALUE;
+
+        int mid = (low + high) >>> 1;
+        int maxEnd = Math.max(mEnds[mid], Math.max(buildMaxEnds(low, mid - 1), buildMaxEnds(mid + 1, high)));
+        mMaxEnds[mid] = maxEnd;
+        return maxEnd;
+    }
+
+    private void findOverlapping(int low, int high, int posStart, int posEnd, final List<Integer> matched)
+    {
+        if(low > high)
+            return;
+
+        int mid = (low + high) >>> 1;
+
+        // nothing in this sub-tree reaches the start of the query
+        if(mMaxEnds[mid] < posStart)
+            return;
+
+        findOverlapping(low, mid - 1, posStart, posEnd, matched);
+
+        // this item and everything to its right start after the query
+        if(mStarts[mid] > posEnd)
+            return;
+
+        if(mEnds[mid] >= posStart)
+            matched.add(mOrder[mid]);
+
+        findOverlapping(mid + 1, high, posStart, posEnd, matched);
+    }
+}
@@ -52,6 +52,11 @@ public abstract class PurityAdjuster {
     }
 
     public double purityAdjustedCopyNumber(final double tumorRatio, final double normalRatio) {
+        return purityAdjustedCopyNumber(purity, normFactor, tumorRatio, normalRatio);
+    }
+
+    public static double purityAdjustedCopyNumber(final double purity, final double normFactor, final double tumorRatio,
+            final double normalRatio) {
         return Doubles.isZero(tumorRatio) ? 0 : 2 * normalRatio + 2 * (tumorRatio - normalRatio * normFactor) / purity / normFactor;
     }
 
@@ -61,11 +66,15 @@ public abstract class PurityAdjuster {
     }
 
     public double purityAdjustedBAFSimple(final String chromosome, final double copyNumber, final double observedFrequency) {
-        double typicalCopyNumber = germlineCopyNumber(chromosome);
+        return purityAdjustedBAFSimple(purity, germlineCopyNumber(chromosome), copyNumber, observedFrequency);
+    }
+
+    public static double purityAdjustedBAFSimple(final double purity, final double typicalCopyNumber, final double copyNumber,
+            final double observedFrequency) {
         if (typicalCopyNumber < 2 || Doubles.lessOrEqual(copyNumber, 1)) {
             return 1;
         }
-        return purityAdjustedFrequency(2, 1, copyNumber, observedFrequency);
+        return purityAdjustedPloidy(purity, 2, 1, copyNumber, observedFrequency) / copyNumber;
     }
 
     double purityAdjustedFrequency(final double normalCopyNumber, final double normalPloidy, final double tumorCopyNumber,
@@ -75,6 +84,11 @@ public abstract class PurityAdjuster {
 
     public double purityAdjustedPloidy(final double normalCopyNumber, final double normalPloidy, final double tumorCopyNumber,
             final double observedFrequency) {
+        return purityAdjustedPloidy(purity, normalCopyNumber, normalPloidy, tumorCopyNumber, observedFrequency);
+    }
+
+    private static double purityAdjustedPloidy(final double purity, final double normalCopyNumber, final double normalPloidy,
+            final double tumorCopyNumber, final double observedFrequency) {
         double totalObservations = purity * tumorCopyNumber + normalCopyNumber * (1 - purity);
         double normalObservations = normalPloidy * (1 - purity);
         return (observedFrequency * totalObservations - normalObservations) / purity;
@@ -1,7 +1,10 @@
 package com.hartwig.hmftools.common.purple.gender;
 
+import java.util.Map;
+
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.amber.AmberBAFColumns;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 
@@ -14,10 +17,32 @@ public enum Gender {
 
     private static final int MIN_BAF_COUNT = 1000;
 
+    // BAF points on X are only counted outside the pseudo-autosomal regions
+    private static final long X_PAR1_END = 2_699_520;
+    private static final long X_PAR2_START = 155_260_560;
+
     @NotNull
     public static Gender fromAmber(@NotNull final Multimap<Chromosome, AmberBAF> bafs) {
-        return bafs.get(HumanChromosome._X).stream().filter(x -> x.position() > 2_699_520 && x.position() < 155_260_560).count()
+        return bafs.get(HumanChromosome._X).stream().filter(x -> isOutsideParRegions(x.position())).count()
                 > MIN_BAF_COUNT ? FEMALE : MALE;
     }
 
+    @NotNull
+    public static Gender fromAmber(@NotNull final Map<Chromosome, AmberBAFColumns> bafs) {
+        final AmberBAFColumns columns = bafs.get(HumanChromosome._X);
+        int count = 0;
+        if (columns != null) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (isOutsideParRegions(columns.position(i))) {
+                    count++;
+                }
+            }
+        }
+        return count > MIN_BAF_COUNT ? FEMALE : MALE;
+    }
+
+    private static boolean isOutsideParRegions(long position) {
+        return position > X_PAR1_END && position < X_PAR2_START;
+    }
+
 }
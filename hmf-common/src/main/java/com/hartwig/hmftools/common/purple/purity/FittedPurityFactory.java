@@ -6,23 +6,29 @@ import static com.hartwig.hmftools.common.utils.Doubles.positiveOrZero;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosome;
 import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosomes;
 import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
 import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
 import com.hartwig.hmftools.common.purple.PurityAdjuster;
 import com.hartwig.hmftools.common.purple.PurityAdjusterAbnormalChromosome;
-import com.hartwig.hmftools.common.purple.region.FittedRegion;
 import com.hartwig.hmftools.common.purple.region.FittedRegionFactory;
 import com.hartwig.hmftools.common.purple.region.GermlineStatus;
 import com.hartwig.hmftools.common.purple.region.ObservedRegion;
+import com.hartwig.hmftools.common.purple.region.ObservedRegionColumns;
+import com.hartwig.hmftools.common.purple.region.RegionFits;
 import com.hartwig.hmftools.common.utils.Doubles;
 import com.hartwig.hmftools.common.utils.collection.Downsample;
 import com.hartwig.hmftools.common.variant.SomaticVariant;
@@ -34,10 +40,15 @@ public class FittedPurityFactory {
     private static final int MAX_SOMATICS_TO_FIT = 1000;
     private static final double MAX_TUMOR_RATIO_TO_FIT = 3;
 
+    // Adaptive search starts on every 8th purity and ploidy and halves the step around the best candidates until the full grid
+    private static final int ADAPTIVE_COARSE_STEP = 8;
+    private static final int ADAPTIVE_CANDIDATES = 10;
+
     private final double minPurity;
     private final double maxPurity;
     private final double purityIncrements;
     private final double somaticPenaltyWeight;
+    private final boolean adaptiveSearch;
     private final CobaltChromosomes cobaltChromosomes;
 
     private final int totalBAFCount;
@@ -50,11 +61,17 @@ public class FittedPurityFactory {
 
     private final List<FittedPurity> all = Lists.newArrayList();
     private final List<ObservedRegion> filteredRegions = Lists.newArrayList();
+    private final ObservedRegionColumns filteredColumns;
     private final List<Double> ploidyRange;
 
+    // Fitted variants grouped by filtered region, those of region i are at [regionVariantOffset[i], regionVariantOffset[i + 1])
+    private final List<SomaticVariant> regionVariants = Lists.newArrayList();
+    private final int[] regionVariantOffset;
+
     public FittedPurityFactory(final ExecutorService executorService, final CobaltChromosomes cobaltChromosomes, final double minPurity,
             final double maxPurity, final double purityIncrements, final double minPloidy, final double maxPloidy,
-            final double somaticPenaltyWeight, final boolean tumorOnlyMode, @NotNull final FittedRegionFactory fittedRegionFactory,
+            final double somaticPenaltyWeight, final boolean tumorOnlyMode, final boolean adaptiveSearch,
+            @NotNull final FittedRegionFactory fittedRegionFactory,
             @NotNull final Collection<ObservedRegion> observedRegions, @NotNull final Collection<SomaticVariant> variants)
             throws ExecutionException, InterruptedException {
         this.executorService = executorService;
@@ -62,6 +79,7 @@ public class FittedPurityFactory {
         this.maxPurity = maxPurity;
         this.purityIncrements = purityIncrements;
         this.somaticPenaltyWeight = somaticPenaltyWeight;
+        this.adaptiveSearch = adaptiveSearch;
         this.fittedRegionFactory = fittedRegionFactory;
         this.cobaltChromosomes = cobaltChromosomes;
         this.ploidyRange = ploidyRange(minPloidy, maxPloidy);
@@ -83,6 +101,15 @@ public class FittedPurityFactory {
         this.totalBAFCount = accumulatedBafCount;
         this.averageFittingRatio = accumulatedWeightedRatio / accumulatedBafCount;
         this.variants = Downsample.downsample(MAX_SOMATICS_TO_FIT, filteredVariants);
+        this.filteredColumns = new ObservedRegionColumns(cobaltChromosomes, filteredRegions);
+
+        final GenomePositionSelector<SomaticVariant> fittedVariantSelector = GenomePositionSelectorFactory.create(this.variants);
+        this.regionVariantOffset = new int[filteredRegions.size() + 1];
+        for (int i = 0; i < filteredRegions.size(); i++) {
+            regionVariantOffset[i] = regionVariants.size();
+            fittedVariantSelector.select(filteredRegions.get(i), regionVariants::add);
+        }
+        regionVariantOffset[filteredRegions.size()] = regionVariants.size();
 
         fitPurity();
     }
@@ -122,36 +149,142 @@ public class FittedPurityFactory {
     }
 
     private void fitPurity() throws ExecutionException, InterruptedException {
+        if (adaptiveSearch) {
+            adaptiveFitPurity();
+        } else {
+            gridFitPurity();
+        }
+
+        Collections.sort(all);
+    }
+
+    private void gridFitPurity() throws ExecutionException, InterruptedException {
         final List<Future<List<FittedPurity>>> futures = Lists.newArrayList();
         for (double purity = minPurity; lessOrEqual(purity, maxPurity); purity += purityIncrements) {
-            futures.add(executorService.submit(callableFitPurity(purity)));
+            futures.add(executorService.submit(callableFitPurity(purity, ploidyRange)));
         }
 
         for (Future<List<FittedPurity>> future : futures) {
             List<FittedPurity> fittedPurities = future.get();
 
             if (!fittedPurities.isEmpty()) {
+                Collections.sort(fittedPurities);
                 all.addAll(fittedPurities);
             }
         }
+    }
 
-        Collections.sort(all);
+    private void adaptiveFitPurity() throws ExecutionException, InterruptedException {
+        final List<Double> purityRange = Lists.newArrayList();
+        for (double purity = minPurity; lessOrEqual(purity, maxPurity); purity += purityIncrements) {
+            purityRange.add(purity);
+        }
+
+        // Grid points are keyed by purityIndex * ploidyCount + ploidyIndex
+        final int ploidyCount = ploidyRange.size();
+        final Map<Integer, FittedPurity> evaluated = Maps.newTreeMap();
+        final Set<Integer> points = Sets.newTreeSet();
+
+        int step = ADAPTIVE_COARSE_STEP;
+        for (int purityIndex : lattice(0, purityRange.size() - 1, step)) {
+            for (int ploidyIndex : lattice(0, ploidyCount - 1, step)) {
+                points.add(purityIndex * ploidyCount + ploidyIndex);
+            }
+        }
+        fitPoints(purityRange, points, evaluated);
+
+        while (step > 1) {
+            final int radius = step;
+            step /= 2;
+
+            final List<Integer> candidates = evaluated.entrySet()
+                    .stream()
+                    .sorted(Map.Entry.comparingByValue())
+                    .limit(ADAPTIVE_CANDIDATES)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+
+            points.clear();
+            for (int candidate : candidates) {
+                final int purityIndex = candidate / ploidyCount;
+                final int ploidyIndex = candidate % ploidyCount;
+                for (int i : lattice(purityIndex - radius, purityIndex + radius, step, purityRange.size() - 1)) {
+                    for (int j : lattice(ploidyIndex - radius, ploidyIndex + radius, step, ploidyCount - 1)) {
+                        final int point = i * ploidyCount + j;
+                        if (!evaluated.containsKey(point)) {
+                            points.add(point);
+                        }
+                    }
+                }
+            }
+            fitPoints(purityRange, points, evaluated);
+        }
+
+        all.addAll(evaluated.values());
+    }
+
+    private void fitPoints(@NotNull final List<Double> purityRange, @NotNull final Set<Integer> sortedPoints,
+            @NotNull final Map<Integer, FittedPurity> evaluated) throws ExecutionException, InterruptedException {
+        final int ploidyCount = ploidyRange.size();
+        final List<List<Integer>> purityPoints = Lists.newArrayList();
+        final List<Future<List<FittedPurity>>> futures = Lists.newArrayList();
+
+        int currentPurityIndex = -1;
+        for (int point : sortedPoints) {
+            if (point / ploidyCount != currentPurityIndex) {
+                currentPurityIndex = point / ploidyCount;
+                purityPoints.add(Lists.newArrayList());
+            }
+            purityPoints.get(purityPoints.size() - 1).add(point);
+        }
+
+        for (List<Integer> points : purityPoints) {
+            final double purity = purityRange.get(points.get(0) / ploidyCount);
+            final List<Double> ploidies = points.stream().map(x -> ploidyRange.get(x % ploidyCount)).collect(Collectors.toList());
+            futures.add(executorService.submit(callableFitPurity(purity, ploidies)));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            final List<Integer> points = purityPoints.get(i);
+            final List<FittedPurity> fittedPurities = futures.get(i).get();
+            for (int j = 0; j < points.size(); j++) {
+                evaluated.put(points.get(j), fittedPurities.get(j));
+            }
+        }
+    }
+
+    // Indices of the step lattice within [min, max], always including the last index of the range if covered
+    @NotNull
+    private static List<Integer> lattice(int min, int max, int step, int lastIndex) {
+        final List<Integer> result = Lists.newArrayList();
+        for (int i = Math.max(0, min); i <= Math.min(max, lastIndex); i++) {
+            if (i % step == 0 || i == lastIndex) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static List<Integer> lattice(int min, int lastIndex, int step) {
+        return lattice(min, lastIndex, step, lastIndex);
     }
 
     @NotNull
-    private Callable<List<FittedPurity>> callableFitPurity(final double purity) {
-        return () -> fitPurity(purity);
+    private Callable<List<FittedPurity>> callableFitPurity(final double purity, @NotNull final List<Double> ploidies) {
+        return () -> fitPurity(purity, ploidies);
     }
 
+    // Fits are returned in the order of the ploidies
     @NotNull
-    private List<FittedPurity> fitPurity(final double purity) {
+    private List<FittedPurity> fitPurity(final double purity, @NotNull final List<Double> ploidies) {
+        final RegionFits fits = new RegionFits(filteredColumns);
         final List<FittedPurity> fittedPurities = Lists.newArrayList();
-        for (Double ploidy : ploidyRange) {
+        for (Double ploidy : ploidies) {
             double impliedNormFactor = PurityAdjuster.impliedNormFactor(averageFittingRatio, purity, ploidy);
-            fittedPurities.add(fitPurity(purity, impliedNormFactor));
+            fittedPurities.add(fitPurity(purity, impliedNormFactor, fits));
         }
 
-        Collections.sort(fittedPurities);
         return fittedPurities;
     }
 
@@ -160,39 +293,62 @@ public class FittedPurityFactory {
     }
 
     @NotNull
-    private FittedPurity fitPurity(final double purity, final double normFactor) {
-        ImmutableFittedPurity.Builder builder = ImmutableFittedPurity.builder().purity(purity).normFactor(normFactor);
+    private FittedPurity fitPurity(final double purity, final double normFactor, @NotNull final RegionFits fits) {
+        fittedRegionFactory.fitRegions(purity, normFactor, filteredColumns, fits);
+
         double eventPenalty = 0;
         double deviationPenalty = 0;
         double diploidProportion = 0;
         double averagePloidy = 0;
-
-        final List<FittedRegion> fittedRegions = Lists.newArrayList();
-        for (final ObservedRegion enrichedRegion : filteredRegions) {
-            final FittedRegion fittedRegion = fittedRegionFactory.fitRegion(purity, normFactor, enrichedRegion);
-            eventPenalty += weightWithBaf(fittedRegion.eventPenalty(), enrichedRegion.bafCount());
-            deviationPenalty += weightWithBaf(fittedRegion.deviationPenalty(), enrichedRegion.bafCount());
-            averagePloidy += weightWithBaf(fittedRegion.tumorCopyNumber(), enrichedRegion.bafCount());
-            if (fittedRegion.isDiploid()) {
-                diploidProportion += weightWithBaf(1, enrichedRegion.bafCount());
+        for (int i = 0; i < filteredColumns.size(); i++) {
+            final int bafCount = filteredColumns.bafCount(i);
+            eventPenalty += weightWithBaf(fits.eventPenalty(i), bafCount);
+            deviationPenalty += weightWithBaf(fits.deviationPenalty(i), bafCount);
+            averagePloidy += weightWithBaf(fits.tumorCopyNumber(i), bafCount);
+            if (fits.isDiploid(i)) {
+                diploidProportion += weightWithBaf(1, bafCount);
             }
-
-            fittedRegions.add(fittedRegion);
         }
 
-        final PurityAdjuster purityAdjuster = new PurityAdjusterAbnormalChromosome(purity, normFactor, cobaltChromosomes.chromosomes());
-        final double somaticPenalty = Doubles.greaterThan(somaticPenaltyWeight, 0) ? somaticPenaltyWeight * SomaticPenaltyFactory.penalty(
-                purityAdjuster,
-                fittedRegions,
-                variants) : 0;
+        final double somaticPenalty = Doubles.greaterThan(somaticPenaltyWeight, 0) ? somaticPenaltyWeight * somaticPenalty(purity,
+                normFactor,
+                fits) : 0;
 
-        return builder.score(eventPenalty * deviationPenalty + somaticPenalty)
+        return ImmutableFittedPurity.builder()
+                .purity(purity)
+                .normFactor(normFactor)
+                .score(eventPenalty * deviationPenalty + somaticPenalty)
                 .diploidProportion(diploidProportion)
                 .ploidy(averagePloidy)
                 .somaticPenalty(somaticPenalty)
                 .build();
     }
 
+    private double somaticPenalty(final double purity, final double normFactor, @NotNull final RegionFits fits) {
+        if (regionVariants.isEmpty()) {
+            return 0;
+        }
+
+        final SomaticDeviation somaticDeviation = SomaticDeviation.INSTANCE;
+        final PurityAdjuster purityAdjuster = new PurityAdjusterAbnormalChromosome(purity, normFactor, cobaltChromosomes.chromosomes());
+
+        double score = 0;
+        for (int i = 0; i < filteredColumns.size(); i++) {
+            final double normalCopyNumber = filteredColumns.germlineCopyNumber(i);
+            final double constrainedMajorAllelePloidy = Math.max(0, fits.majorAlleleCopyNumber(i));
+            final double constrainedTumorCopyNumber = Math.max(0, fits.tumorCopyNumber(i));
+            for (int j = regionVariantOffset[i]; j < regionVariantOffset[i + 1]; j++) {
+                score += somaticDeviation.deviationFromMax(purityAdjuster,
+                        normalCopyNumber,
+                        regionVariants.get(j),
+                        constrainedTumorCopyNumber,
+                        constrainedMajorAllelePloidy);
+            }
+        }
+
+        return score / regionVariants.size();
+    }
+
     @NotNull
     static List<Double> ploidyRange(double minPloidy, double maxPloidy) {
         List<Double> results = Lists.newArrayList();
@@ -41,9 +41,13 @@ public abstract class FittedRegion implements ObservedRegion {
     public abstract double fittedBAF();
 
     public boolean isDiploid() {
-        return Doubles.greaterOrEqual(majorAlleleCopyNumber(), MIN_DIPLOID_COPY_NUMBER) && Doubles.lessOrEqual(majorAlleleCopyNumber(),
-                MAX_DIPLOID_COPY_NUMBER) && Doubles.greaterOrEqual(minorAlleleCopyNumber(), MIN_DIPLOID_COPY_NUMBER) && Doubles.lessOrEqual(
-                minorAlleleCopyNumber(), MAX_DIPLOID_COPY_NUMBER);
+        return isDiploid(majorAlleleCopyNumber(), minorAlleleCopyNumber());
+    }
+
+    public static boolean isDiploid(double majorAlleleCopyNumber, double minorAlleleCopyNumber) {
+        return Doubles.greaterOrEqual(majorAlleleCopyNumber, MIN_DIPLOID_COPY_NUMBER) && Doubles.lessOrEqual(majorAlleleCopyNumber,
+                MAX_DIPLOID_COPY_NUMBER) && Doubles.greaterOrEqual(minorAlleleCopyNumber, MIN_DIPLOID_COPY_NUMBER) && Doubles.lessOrEqual(
+                minorAlleleCopyNumber, MAX_DIPLOID_COPY_NUMBER);
     }
 
 }
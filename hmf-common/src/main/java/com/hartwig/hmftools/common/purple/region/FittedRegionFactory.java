@@ -12,4 +12,10 @@ public interface FittedRegionFactory {
 
     @NotNull
     List<FittedRegion> fitRegion(final double purity, final double normFactor, @NotNull final Collection<ObservedRegion> observedRegions);
+
+    /**
+     * Fits every region of the columns into the reusable fits without creating any FittedRegion.
+     */
+    void fitRegions(final double purity, final double normFactor, @NotNull final ObservedRegionColumns regions,
+            @NotNull final RegionFits fits);
 }
@@ -10,7 +10,6 @@ import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosome;
 import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosomes;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.purple.PurityAdjuster;
-import com.hartwig.hmftools.common.purple.PurityAdjusterAbnormalChromosome;
 import com.hartwig.hmftools.common.purple.baf.ExpectedBAF;
 import com.hartwig.hmftools.common.utils.Doubles;
 
@@ -52,14 +51,19 @@ public class FittedRegionFactoryV2 implements FittedRegionFactory {
     @Override
     @NotNull
     public FittedRegion fitRegion(final double purity, final double normFactor, final @NotNull ObservedRegion observedRegion) {
-        final PurityAdjuster purityAdjuster = new PurityAdjusterAbnormalChromosome(purity, normFactor, cobaltChromosomes.chromosomes());
+        final String chromosome = observedRegion.chromosome();
+        final boolean isContained = cobaltChromosomes.contains(chromosome);
+        final CobaltChromosome cobaltChromosome = isContained ? cobaltChromosomes.get(chromosome) : null;
+        final double germlineRatio = isContained ? cobaltChromosome.actualRatio() : 0;
+        final boolean isNormalDiploid = isContained && cobaltChromosome.isNormal() && cobaltChromosome.isDiploid();
 
         double observedTumorRatio = observedRegion.observedTumorRatio();
-        double impliedCopyNumber = purityAdjuster.purityAdjustedCopyNumber(observedRegion.chromosome(), observedTumorRatio);
+        double impliedCopyNumber = PurityAdjuster.purityAdjustedCopyNumber(purity, normFactor, observedTumorRatio, germlineRatio);
         double observedBAF = observedRegion.observedBAF();
-        double impliedBAF = impliedBaf(purityAdjuster, observedRegion.chromosome(), impliedCopyNumber, observedBAF);
+        double impliedBAF = impliedBaf(purity, normFactor, isNormalDiploid, germlineRatio, impliedCopyNumber, observedBAF);
 
-        double refNormalisedCopyNumber = purityAdjuster.purityAdjustedCopyNumber(observedTumorRatio, observedRegion.observedNormalRatio());
+        double refNormalisedCopyNumber =
+                PurityAdjuster.purityAdjustedCopyNumber(purity, normFactor, observedTumorRatio, observedRegion.observedNormalRatio());
 
         double majorAllelePloidy = impliedBAF * impliedCopyNumber;
         double minorAllelePloidy = impliedCopyNumber - majorAllelePloidy;
@@ -85,25 +89,48 @@ public class FittedRegionFactoryV2 implements FittedRegionFactory {
         return builder.build();
     }
 
-    private double impliedBaf(final PurityAdjuster purityAdjuster, final String chromosome, final double copyNumber,
-            final double observedBAF) {
-        if (!cobaltChromosomes.contains(chromosome)) {
-            return 1;
+    @Override
+    public void fitRegions(final double purity, final double normFactor, @NotNull final ObservedRegionColumns regions,
+            @NotNull final RegionFits fits) {
+        for (int i = 0; i < regions.size(); i++) {
+            final double germlineRatio = regions.germlineRatio(i);
+            final double observedBAF = regions.observedBAF(i);
+            final double impliedCopyNumber =
+                    PurityAdjuster.purityAdjustedCopyNumber(purity, normFactor, regions.observedTumorRatio(i), germlineRatio);
+            final double impliedBAF =
+                    impliedBaf(purity, normFactor, regions.isNormalDiploidChromosome(i), germlineRatio, impliedCopyNumber, observedBAF);
+
+            final double majorAllelePloidy = impliedBAF * impliedCopyNumber;
+            final double minorAllelePloidy = impliedCopyNumber - majorAllelePloidy;
+
+            final double majorAllelePloidyDeviation = ploidyDeviation.majorAlleleDeviation(purity, normFactor, majorAllelePloidy);
+            final double minorAllelePloidyDeviation = ploidyDeviation.minorAlleleDeviation(purity, normFactor, minorAllelePloidy);
+
+            fits.tumorCopyNumber[i] = impliedCopyNumber;
+            fits.tumorBAF[i] = impliedBAF;
+            fits.deviationPenalty[i] = (minorAllelePloidyDeviation + majorAllelePloidyDeviation) * observedBAF;
+            fits.eventPenalty[i] = EventPenalty.penalty(ploidyPenaltyFactor, majorAllelePloidy, minorAllelePloidy);
         }
+    }
 
-        CobaltChromosome cobaltChromosome = cobaltChromosomes.get(chromosome);
-        if (!cobaltChromosome.isNormal() || !cobaltChromosome.isDiploid()  || Doubles.lessOrEqual(copyNumber, 1)) {
+    private double impliedBaf(final double purity, final double normFactor, final boolean isNormalDiploidChromosome,
+            final double germlineRatio, final double copyNumber, final double observedBAF) {
+        if (!isNormalDiploidChromosome || Doubles.lessOrEqual(copyNumber, 1)) {
             return 1;
         }
 
+        final double germlineCopyNumber = germlineRatio * 2;
         return Doubles.lessOrEqual(observedBAF, ambiguousBaf)
-                ? bafToMinimiseDeviation(purityAdjuster, chromosome, copyNumber)
-                : purityAdjuster.purityAdjustedBAFSimple(chromosome, copyNumber, observedBAF);
+                ? bafToMinimiseDeviation(purity, normFactor, germlineCopyNumber, copyNumber)
+                : PurityAdjuster.purityAdjustedBAFSimple(purity, germlineCopyNumber, copyNumber, observedBAF);
     }
 
-    private double bafToMinimiseDeviation(final PurityAdjuster purityAdjuster, final String chromosome, double impliedCopyNumber) {
-        final double minBAF = Math.max(0, Math.min(1, purityAdjuster.purityAdjustedBAFSimple(chromosome, impliedCopyNumber, 0.5)));
-        final double maxBAF = Math.max(0, Math.min(1, purityAdjuster.purityAdjustedBAFSimple(chromosome, impliedCopyNumber, ambiguousBaf)));
+    private double bafToMinimiseDeviation(final double purity, final double normFactor, final double germlineCopyNumber,
+            double impliedCopyNumber) {
+        final double minBAF =
+                Math.max(0, Math.min(1, PurityAdjuster.purityAdjustedBAFSimple(purity, germlineCopyNumber, impliedCopyNumber, 0.5)));
+        final double maxBAF = Math.max(0,
+                Math.min(1, PurityAdjuster.purityAdjustedBAFSimple(purity, germlineCopyNumber, impliedCopyNumber, ambiguousBaf)));
 
         // Major Ploidy
         final double minBAFMajorAllelePloidy = minBAF * impliedCopyNumber;
@@ -127,9 +154,6 @@ public class FittedRegionFactoryV2 implements FittedRegionFactory {
             return 1 - maxBAFMinorAllelePloidyCeil / impliedCopyNumber;
         }
 
-        double purity = purityAdjuster.purity();
-        double normFactor = purityAdjuster.normFactor();
-
         // Minimise
         final double minBAFTotalDeviation =
                 ploidyDeviation.majorAlleleDeviation(purity, normFactor, minBAFMajorAllelePloidy) + ploidyDeviation.minorAlleleDeviation(
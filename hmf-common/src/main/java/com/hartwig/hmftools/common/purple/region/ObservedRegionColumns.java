@@ -0,0 +1,70 @@
+package com.hartwig.hmftools.common.purple.region;
+
+import java.util.List;
+
+import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosome;
+import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosomes;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The observations of a list of regions needed to fit purity and ploidy, flattened into primitive columns so that each point of
+ * the fit grid can be scored without creating objects.
+ */
+public class ObservedRegionColumns {
+
+    private final int[] bafCount;
+    private final double[] observedBAF;
+    private final double[] observedTumorRatio;
+    private final double[] germlineRatio;
+    private final boolean[] normalDiploidChromosome;
+
+    public ObservedRegionColumns(@NotNull final CobaltChromosomes cobaltChromosomes, @NotNull final List<? extends ObservedRegion> regions) {
+        final int size = regions.size();
+        bafCount = new int[size];
+        observedBAF = new double[size];
+        observedTumorRatio = new double[size];
+        germlineRatio = new double[size];
+        normalDiploidChromosome = new boolean[size];
+
+        for (int i = 0; i < size; i++) {
+            final ObservedRegion region = regions.get(i);
+            bafCount[i] = region.bafCount();
+            observedBAF[i] = region.observedBAF();
+            observedTumorRatio[i] = region.observedTumorRatio();
+            if (cobaltChromosomes.contains(region.chromosome())) {
+                final CobaltChromosome chromosome = cobaltChromosomes.get(region.chromosome());
+                germlineRatio[i] = chromosome.actualRatio();
+                normalDiploidChromosome[i] = chromosome.isNormal() && chromosome.isDiploid();
+            }
+        }
+    }
+
+    public int size() {
+        return bafCount.length;
+    }
+
+    public int bafCount(int index) {
+        return bafCount[index];
+    }
+
+    public double observedBAF(int index) {
+        return observedBAF[index];
+    }
+
+    public double observedTumorRatio(int index) {
+        return observedTumorRatio[index];
+    }
+
+    public double germlineRatio(int index) {
+        return germlineRatio[index];
+    }
+
+    public double germlineCopyNumber(int index) {
+        return germlineRatio[index] * 2;
+    }
+
+    public boolean isNormalDiploidChromosome(int index) {
+        return normalDiploidChromosome[index];
+    }
+}
@@ -3,16 +3,20 @@ package com.hartwig.hmftools.common.purple.region;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.amber.AmberBAFColumns;
 import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioColumns;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosome;
 import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosomes;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.gc.GCProfile;
 import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
 import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
@@ -58,30 +62,77 @@ public class ObservedRegionFactory {
             cobaltSelector.select(region, cobalt);
             gcSelector.select(region, gc);
 
-            double tumorRatio = cobalt.tumorMeanRatio();
-            double normalRatio = cobalt.referenceMeanRatio();
-            final ModifiableEnrichedRegion observedRegion = ModifiableEnrichedRegion.create()
-                    .from(region)
-                    .setBafCount(baf.count())
-                    .setObservedBAF(baf.medianBaf())
-                    .setObservedTumorRatio(tumorRatio)
-                    .setObservedNormalRatio(normalRatio)
-                    .setUnnormalisedObservedNormalRatio(cobalt.unnormalisedReferenceMeanRatio())
-                    .setRatioSupport(region.ratioSupport())
-                    .setSupport(region.support())
-                    .setDepthWindowCount(cobalt.tumorCount())
-                    .setGcContent(gc.averageGCContent())
-                    .setStatus(statusFactory.status(region, normalRatio, tumorRatio))
-                    .setSvCluster(region.svCluster())
-                    .setMinStart(region.minStart())
-                    .setMaxStart(region.maxStart());
-
-            result.add(observedRegion);
+            result.add(observedRegion(region, baf, cobalt, gc));
         }
 
         return extendMinSupport(result);
     }
 
+    /**
+     * As above but reading the BAFs and ratios of each region directly from their primitive columns.
+     */
+    @NotNull
+    public List<ObservedRegion> combine(@NotNull final List<PurpleSegment> regions, @NotNull final Map<Chromosome, AmberBAFColumns> bafs,
+            @NotNull final Map<Chromosome, CobaltRatioColumns> ratios, @NotNull final Multimap<Chromosome, GCProfile> gcProfiles) {
+        final List<ModifiableEnrichedRegion> result = Lists.newArrayList();
+
+        final GenomeRegionSelector<GCProfile> gcSelector = GenomeRegionSelectorFactory.createImproved(gcProfiles);
+
+        for (final PurpleSegment region : regions) {
+            final BAFAccumulator baf = new BAFAccumulator();
+            final CobaltAccumulator cobalt = new CobaltAccumulator(windowSize, region);
+            final GCAccumulator gc = new GCAccumulator(region);
+
+            final Chromosome chromosome = HumanChromosome.fromString(region.chromosome());
+
+            final AmberBAFColumns bafColumns = bafs.get(chromosome);
+            if (bafColumns != null) {
+                for (int i = bafColumns.firstIndex(region.start()); i < bafColumns.size() && bafColumns.position(i) <= region.end(); i++) {
+                    baf.accept(bafColumns.contig(), bafColumns.tumorModifiedBAF(i));
+                }
+            }
+
+            final CobaltRatioColumns ratioColumns = ratios.get(chromosome);
+            if (ratioColumns != null) {
+                for (int i = ratioColumns.firstIndex(region.start()); i < ratioColumns.size() && ratioColumns.position(i) <= region.end();
+                        i++) {
+                    cobalt.accept(ratioColumns.position(i),
+                            ratioColumns.referenceGCDiploidRatio(i),
+                            ratioColumns.referenceGCRatio(i),
+                            ratioColumns.tumorGCRatio(i));
+                }
+            }
+
+            gcSelector.select(region, gc);
+
+            result.add(observedRegion(region, baf, cobalt, gc));
+        }
+
+        return extendMinSupport(result);
+    }
+
+    @NotNull
+    private ModifiableEnrichedRegion observedRegion(@NotNull final PurpleSegment region, @NotNull final BAFAccumulator baf,
+            @NotNull final CobaltAccumulator cobalt, @NotNull final GCAccumulator gc) {
+        double tumorRatio = cobalt.tumorMeanRatio();
+        double normalRatio = cobalt.referenceMeanRatio();
+        return ModifiableEnrichedRegion.create()
+                .from(region)
+                .setBafCount(baf.count())
+                .setObservedBAF(baf.medianBaf())
+                .setObservedTumorRatio(tumorRatio)
+                .setObservedNormalRatio(normalRatio)
+                .setUnnormalisedObservedNormalRatio(cobalt.unnormalisedReferenceMeanRatio())
+                .setRatioSupport(region.ratioSupport())
+                .setSupport(region.support())
+                .setDepthWindowCount(cobalt.tumorCount())
+                .setGcContent(gc.averageGCContent())
+                .setStatus(statusFactory.status(region, normalRatio, tumorRatio))
+                .setSvCluster(region.svCluster())
+                .setMinStart(region.minStart())
+                .setMaxStart(region.maxStart());
+    }
+
     @NotNull
     static List<ObservedRegion> extendMinSupport(@NotNull final List<ModifiableEnrichedRegion> modifiables) {
         for (int i = 0; i < modifiables.size(); i++) {
@@ -110,11 +161,15 @@ public class ObservedRegionFactory {
 
         @Override
         public void accept(final AmberBAF baf) {
-            if (cobaltChromosomes.contains(baf.chromosome())) {
-                CobaltChromosome cobaltChromosome = cobaltChromosomes.get(baf.chromosome());
-                if (cobaltChromosome.isNormal() && cobaltChromosome.isDiploid() && !Double.isNaN(baf.tumorModifiedBAF())) {
+            accept(baf.chromosome(), baf.tumorModifiedBAF());
+        }
+
+        private void accept(@NotNull final String chromosome, double tumorModifiedBAF) {
+            if (cobaltChromosomes.contains(chromosome)) {
+                CobaltChromosome cobaltChromosome = cobaltChromosomes.get(chromosome);
+                if (cobaltChromosome.isNormal() && cobaltChromosome.isDiploid() && !Double.isNaN(tumorModifiedBAF)) {
                     count++;
-                    bafs.add(baf.tumorModifiedBAF());
+                    bafs.add(tumorModifiedBAF);
                 }
             }
         }
@@ -165,10 +220,14 @@ public class ObservedRegionFactory {
 
         @Override
         public void accept(final CobaltRatio ratio) {
-            if (window.end(ratio.position()) <= region.end()) {
-                referenceAccumulator.accept(ratio.referenceGCDiploidRatio());
-                unnormalisedReferenceAccumulator.accept(ratio.referenceGCRatio());
-                tumorAccumulator.accept(ratio.tumorGCRatio());
+            accept(ratio.position(), ratio.referenceGCDiploidRatio(), ratio.referenceGCRatio(), ratio.tumorGCRatio());
+        }
+
+        void accept(long position, double referenceGCDiploidRatio, double referenceGCRatio, double tumorGCRatio) {
+            if (window.end(position) <= region.end()) {
+                referenceAccumulator.accept(referenceGCDiploidRatio);
+                unnormalisedReferenceAccumulator.accept(referenceGCRatio);
+                tumorAccumulator.accept(tumorGCRatio);
             }
         }
     }
@@ -1,14 +1,12 @@
 package com.hartwig.hmftools.common.purple.region;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.hartwig.hmftools.common.utils.Doubles;
 
-import org.apache.commons.math3.distribution.NormalDistribution;
-
 class PloidyDeviation {
 
     private final double standardDeviation;
     private final double minStandardDeviationPerPloidyPoint;
-    private final NormalDistribution dist = new NormalDistribution();
 
     private final double majorAlleleSubOnePenaltyMultiplier;
     private final double majorAlleleSubMinAdditionalPenalty;
@@ -43,7 +41,46 @@ class PloidyDeviation {
                 : Doubles.absDistanceFromInteger(ploidy);
 
         double standardDeviationsPerPloidy = Math.max(minStandardDeviationPerPloidyPoint, purity * normFactor / 2 / standardDeviation);
-        return 2 * dist.cumulativeProbability(ploidyDistanceFromInteger * standardDeviationsPerPloidy) - 1 + Math.max(-0.5 - ploidy, 0);
+        return 2 * cumulativeProbability(ploidyDistanceFromInteger * standardDeviationsPerPloidy) - 1 + Math.max(-0.5 - ploidy, 0);
+    }
+
+    // Standard normal distribution function using the double precision approximation of Hart (1968) as given by West (2005).
+    // Agrees with commons math to within 1e-15 at a fraction of the cost which matters as it is evaluated twice per region per fit.
+    @VisibleForTesting
+    static double cumulativeProbability(double x) {
+        final double absX = Math.abs(x);
+        final double lowerTail;
+        if (absX > 37) {
+            lowerTail = 0;
+        } else {
+            final double exponential = Math.exp(-absX * absX / 2);
+            if (absX < 7.07106781186547) {
+                double numerator = 3.52624965998911E-02 * absX + 0.700383064443688;
+                numerator = numerator * absX + 6.37396220353165;
+                numerator = numerator * absX + 33.912866078383;
+                numerator = numerator * absX + 112.079291497871;
+                numerator = numerator * absX + 221.213596169931;
+                numerator = numerator * absX + 220.206867912376;
+
+                double denominator = 8.83883476483184E-02 * absX + 1.75566716318264;
+                denominator = denominator * absX + 16.064177579207;
+                denominator = denominator * absX + 86.7807322029461;
+                denominator = denominator * absX + 296.564248779674;
+                denominator = denominator * absX + 637.333633378831;
+                denominator = denominator * absX + 793.826512519948;
+                denominator = denominator * absX + 440.413735824752;
+                lowerTail = exponential * numerator / denominator;
+            } else {
+                double fraction = absX + 0.65;
+                fraction = absX + 4 / fraction;
+                fraction = absX + 3 / fraction;
+                fraction = absX + 2 / fraction;
+                fraction = absX + 1 / fraction;
+                lowerTail = exponential / fraction / 2.506628274631;
+            }
+        }
+
+        return x > 0 ? 1 - lowerTail : lowerTail;
     }
 
     private double subMinAdditionalPenalty(final double minPloidy, final double ploidy) {
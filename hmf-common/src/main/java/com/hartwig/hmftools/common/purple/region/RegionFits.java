@@ -0,0 +1,50 @@
+package com.hartwig.hmftools.common.purple.region;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Reusable output columns of fitting every region of an ObservedRegionColumns at a single purity and norm factor.
+ */
+public class RegionFits {
+
+    final double[] tumorCopyNumber;
+    final double[] tumorBAF;
+    final double[] deviationPenalty;
+    final double[] eventPenalty;
+
+    public RegionFits(@NotNull final ObservedRegionColumns regions) {
+        final int size = regions.size();
+        tumorCopyNumber = new double[size];
+        tumorBAF = new double[size];
+        deviationPenalty = new double[size];
+        eventPenalty = new double[size];
+    }
+
+    public double tumorCopyNumber(int index) {
+        return tumorCopyNumber[index];
+    }
+
+    public double tumorBAF(int index) {
+        return tumorBAF[index];
+    }
+
+    public double majorAlleleCopyNumber(int index) {
+        return tumorBAF[index] * tumorCopyNumber[index];
+    }
+
+    public double minorAlleleCopyNumber(int index) {
+        return tumorCopyNumber[index] - majorAlleleCopyNumber(index);
+    }
+
+    public double deviationPenalty(int index) {
+        return deviationPenalty[index];
+    }
+
+    public double eventPenalty(int index) {
+        return eventPenalty[index];
+    }
+
+    public boolean isDiploid(int index) {
+        return FittedRegion.isDiploid(majorAlleleCopyNumber(index), minorAlleleCopyNumber(index));
+    }
+}
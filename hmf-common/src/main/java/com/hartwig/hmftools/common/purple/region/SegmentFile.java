@@ -5,9 +5,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.text.DecimalFormat;
 import java.util.Collection;
+import java.util.List;
 import java.util.StringJoiner;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.purple.segment.SegmentSupport;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -29,6 +32,16 @@ public enum SegmentFile {
         Files.write(new File(filePath).toPath(), lines);
     }
 
+    @NotNull
+    public static List<ObservedRegion> read(@NotNull final String filePath) throws IOException {
+        return fromLines(Files.readAllLines(new File(filePath).toPath()));
+    }
+
+    @NotNull
+    static List<ObservedRegion> fromLines(@NotNull List<String> lines) {
+        return lines.stream().filter(x -> !x.startsWith("chromosome")).map(SegmentFile::fromString).collect(Collectors.toList());
+    }
+
     @NotNull
     private static String header() {
         return new StringJoiner(DELIMITER, "", "").add("chromosome")
@@ -92,4 +105,27 @@ public enum SegmentFile {
                 .add(String.valueOf(copyNumber.maxStart()))
                 .toString();
     }
+
+    @NotNull
+    private static ObservedRegion fromString(@NotNull final String line) {
+        String[] values = line.split(DELIMITER);
+        return ImmutableEnrichedRegion.builder()
+                .chromosome(values[0])
+                .start(Long.parseLong(values[1]))
+                .end(Long.parseLong(values[2]))
+                .status(GermlineStatus.valueOf(values[3]))
+                .bafCount(Integer.parseInt(values[4]))
+                .observedBAF(Double.parseDouble(values[5]))
+                .observedTumorRatio(Double.parseDouble(values[8]))
+                .observedNormalRatio(Double.parseDouble(values[9]))
+                .unnormalisedObservedNormalRatio(Double.parseDouble(values[10]))
+                .ratioSupport(Boolean.parseBoolean(values[18]))
+                .support(SegmentSupport.valueOf(values[19]))
+                .depthWindowCount(Integer.parseInt(values[20]))
+                .gcContent(Double.parseDouble(values[22]))
+                .svCluster(Boolean.parseBoolean(values[23]))
+                .minStart(Long.parseLong(values[25]))
+                .maxStart(Long.parseLong(values[26]))
+                .build();
+    }
 }
@@ -3,6 +3,9 @@ package com.hartwig.hmftools.common.purple.segment;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ArrayListMultimap;
@@ -10,6 +13,7 @@ import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioColumns;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.common.genome.window.Window;
@@ -22,6 +26,8 @@ import org.jetbrains.annotations.NotNull;
 
 class ClusterFactory {
 
+    private static final CobaltRatioColumns NO_RATIOS = CobaltRatioColumns.fromRatios("", Collections.emptyList());
+
     private final long windowSize;
     private final Window window;
 
@@ -37,13 +43,28 @@ class ClusterFactory {
         return cluster(positions, pcfPositions, ratios);
     }
 
+    @NotNull
+    public ListMultimap<Chromosome, Cluster> cluster(@NotNull final List<StructuralVariant> variants,
+            @NotNull final Multimap<Chromosome, PCFPosition> pcfPositions, @NotNull final Map<Chromosome, CobaltRatioColumns> ratios) {
+        final Multimap<Chromosome, SVSegment> positions = Multimaps.fromPositions(SVSegmentFactory.create(variants));
+        return cluster(positions, pcfPositions, ratios::get);
+    }
+
     @NotNull
     private ListMultimap<Chromosome, Cluster> cluster(@NotNull final Multimap<Chromosome, SVSegment> variantPositions,
             @NotNull final Multimap<Chromosome, PCFPosition> pcfPositions, @NotNull final ListMultimap<Chromosome, CobaltRatio> ratios) {
+        return cluster(variantPositions, pcfPositions, chromosome -> ratios.containsKey(chromosome)
+                ? CobaltRatioColumns.fromRatios(ratios.get(chromosome).get(0).chromosome(), ratios.get(chromosome))
+                : null);
+    }
+
+    @NotNull
+    private ListMultimap<Chromosome, Cluster> cluster(@NotNull final Multimap<Chromosome, SVSegment> variantPositions,
+            @NotNull final Multimap<Chromosome, PCFPosition> pcfPositions, @NotNull final Function<Chromosome, CobaltRatioColumns> ratios) {
         ListMultimap<Chromosome, Cluster> clusters = ArrayListMultimap.create();
         for (Chromosome chromosome : pcfPositions.keySet()) {
             final Collection<PCFPosition> chromosomePcfPositions = pcfPositions.get(chromosome);
-            final List<CobaltRatio> chromosomeRatios = ratios.containsKey(chromosome) ? ratios.get(chromosome) : Lists.newArrayList();
+            final CobaltRatioColumns chromosomeRatios = Optional.ofNullable(ratios.apply(chromosome)).orElse(NO_RATIOS);
             final Collection<SVSegment> chromosomeVariants =
                     variantPositions.containsKey(chromosome) ? variantPositions.get(chromosome) : Lists.newArrayList();
             clusters.putAll(chromosome, cluster(chromosomeVariants, chromosomePcfPositions, chromosomeRatios));
@@ -56,6 +77,12 @@ class ClusterFactory {
     @VisibleForTesting
     List<Cluster> cluster(@NotNull final Collection<SVSegment> variantPositions,
             @NotNull final Collection<PCFPosition> pcfPositions, @NotNull final List<CobaltRatio> cobaltRatios) {
+        return cluster(variantPositions, pcfPositions, CobaltRatioColumns.fromRatios(NO_RATIOS.contig(), cobaltRatios));
+    }
+
+    @NotNull
+    private List<Cluster> cluster(@NotNull final Collection<SVSegment> variantPositions,
+            @NotNull final Collection<PCFPosition> pcfPositions, @NotNull final CobaltRatioColumns cobaltRatios) {
         final List<GenomePosition> allPositions = Lists.newArrayList();
         allPositions.addAll(variantPositions);
         allPositions.addAll(pcfPositions);
@@ -70,7 +97,7 @@ class ClusterFactory {
                 continue;
             }
 
-            while (cobaltIndex < cobaltRatios.size() - 1 && cobaltRatios.get(cobaltIndex).position() < position.position()) {
+            while (cobaltIndex < cobaltRatios.size() - 1 && cobaltRatios.position(cobaltIndex) < position.position()) {
                 cobaltIndex++;
             }
 
@@ -102,13 +129,16 @@ class ClusterFactory {
 
     @VisibleForTesting
     long earliestDetectableCopyNumberChangePosition(long position, int index, @NotNull final List<CobaltRatio> ratios) {
+        return earliestDetectableCopyNumberChangePosition(position, index, CobaltRatioColumns.fromRatios(NO_RATIOS.contig(), ratios));
+    }
+
+    private long earliestDetectableCopyNumberChangePosition(long position, int index, @NotNull final CobaltRatioColumns ratios) {
         assert (index <= ratios.size());
         final long min = window.start(position) - windowSize + 1;
-        if (!ratios.isEmpty()) {
+        if (ratios.size() > 0) {
             for (int i = index; i >= 0; i--) {
-                final CobaltRatio ratio = ratios.get(i);
-                if (ratio.position() <= min && Doubles.greaterThan(ratio.tumorGCRatio(), -1)) {
-                    return ratio.position() + 1;
+                if (ratios.position(i) <= min && Doubles.greaterThan(ratios.tumorGCRatio(i), -1)) {
+                    return ratios.position(i) + 1;
                 }
             }
         }
@@ -11,6 +11,7 @@ import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioColumns;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.common.utils.pcf.PCFPosition;
@@ -39,6 +40,12 @@ public final class PurpleSegmentFactory {
         return segmentCluster(clusterMap);
     }
 
+    public List<PurpleSegment> segment(@NotNull final List<StructuralVariant> variants,
+            @NotNull final Multimap<Chromosome, PCFPosition> pcfPositions, @NotNull Map<Chromosome, CobaltRatioColumns> ratios) {
+        final Multimap<Chromosome, Cluster> clusterMap = new ClusterFactory(windowSize).cluster(variants, pcfPositions, ratios);
+        return segmentCluster(clusterMap);
+    }
+
     @NotNull
     private List<PurpleSegment> segmentCluster(@NotNull final Multimap<Chromosome, Cluster> clusters) {
         final List<PurpleSegment> results = Lists.newArrayList();
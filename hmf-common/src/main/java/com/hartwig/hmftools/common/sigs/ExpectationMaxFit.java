@@ -92,7 +92,7 @@ public final class ExpectationMaxFit
 
             lastResiduals = residuals.Total;
 
-            if(residuals.Percent < RESIDUALS_EXIT_PERC)
+            if(residuals.Percent < minResidualsPerc)
                 break;
 
             for(int transId = 0; transId < definitionCount; ++transId)
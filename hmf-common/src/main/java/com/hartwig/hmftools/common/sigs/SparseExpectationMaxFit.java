@@ -0,0 +1,311 @@
+package com.hartwig.hmftools.common.sigs;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.sqrt;
+
+import static com.hartwig.hmftools.common.sigs.VectorUtils.sumVector;
+
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class SparseExpectationMaxFit
+{
+    // the same fit as ExpectationMaxFit but over the non-zero definition ratios only, held in compressed sparse column form,
+    // and with work buffers kept between fits - an instance is not thread-safe
+    private final boolean mAccelerate;
+
+    private int mDefinitionCount;
+    private int mCategoryCount;
+    private int[] mColumnStarts;
+    private int[] mRowIndices;
+    private double[] mRatios;
+
+    private double[] mAllocations;
+    private double[] mNewAllocations;
+    private double[] mAllocFactors;
+    private double[] mFittedCounts;
+
+    // SQUAREM state: the 2 EM steps taken from the current allocations, and the best plain EM result for fallback
+    private double[] mStep1;
+    private double[] mStep2;
+
+    private final SigResiduals mResiduals;
+    private int mIterations;
+
+    private static final int MAX_ITERATIONS = 20;
+    private static final double RESIDUALS_EXIT_PERC = 0.001;
+
+    private static final Logger LOGGER = LogManager.getLogger(SparseExpectationMaxFit.class);
+
+    public SparseExpectationMaxFit(boolean accelerate)
+    {
+        mAccelerate = accelerate;
+        mDefinitionCount = 0;
+        mCategoryCount = 0;
+        mColumnStarts = new int[1];
+        mRowIndices = new int[0];
+        mRatios = new double[0];
+        mAllocations = new double[0];
+        mNewAllocations = new double[0];
+        mStep1 = new double[0];
+        mStep2 = new double[0];
+        mAllocFactors = new double[0];
+        mFittedCounts = new double[0];
+        mResiduals = new SigResiduals();
+        mIterations = 0;
+    }
+
+    public SparseExpectationMaxFit()
+    {
+        this(false);
+    }
+
+    public final SigResiduals residuals() { return mResiduals; }
+    public int iterations() { return mIterations; }
+
+    public double[] performFit(final double[] counts, final SigMatrix definitions)
+    {
+        return performFit(counts, definitions, RESIDUALS_EXIT_PERC, MAX_ITERATIONS);
+    }
+
+    public double[] performFit(final double[] counts, final SigMatrix definitions, double minResidualsPerc, int maxIterations)
+    {
+        setDefinitions(definitions);
+        return performFit(counts, minResidualsPerc, maxIterations);
+    }
+
+    public void setDefinitions(final SigMatrix definitions)
+    {
+        mDefinitionCount = definitions.Cols;
+        mCategoryCount = definitions.Rows;
+
+        final double[][] data = definitions.getData();
+
+        int nonZeroCount = 0;
+
+        for(int catId = 0; catId < mCategoryCount; ++catId)
+        {
+            for(int defId = 0; defId < mDefinitionCount; ++defId)
+            {
+                if(data[catId][defId] != 0)
+                    ++nonZeroCount;
+            }
+        }
+
+        if(mColumnStarts.length < mDefinitionCount + 1)
+            mColumnStarts = new int[mDefinitionCount + 1];
+
+        if(mRowIndices.length < nonZeroCount)
+        {
+            mRowIndices = new int[nonZeroCount];
+            mRatios = new double[nonZeroCount];
+        }
+
+        int index = 0;
+
+        for(int defId = 0; defId < mDefinitionCount; ++defId)
+        {
+            mColumnStarts[defId] = index;
+
+            for(int catId = 0; catId < mCategoryCount; ++catId)
+            {
+                double ratio = data[catId][defId];
+
+                if(ratio == 0)
+                    continue;
+
+                mRowIndices[index] = catId;
+                mRatios[index] = ratio;
+                ++index;
+            }
+        }
+
+        mColumnStarts[mDefinitionCount] = index;
+
+        if(mAllocations.length < mDefinitionCount)
+        {
+            mAllocations = new double[mDefinitionCount];
+            mNewAllocations = new double[mDefinitionCount];
+            mStep1 = new double[mDefinitionCount];
+            mStep2 = new double[mDefinitionCount];
+        }
+
+        if(mAllocFactors.length < mCategoryCount)
+        {
+            mAllocFactors = new double[mCategoryCount];
+            mFittedCounts = new double[mCategoryCount];
+        }
+    }
+
+    public double[] performFit(final double[] counts, double minResidualsPerc, int maxIterations)
+    {
+        double totalCounts = sumVector(counts);
+        double initialAlloc = 1 / (double)mDefinitionCount;
+
+        Arrays.fill(mAllocations, 0, mDefinitionCount, initialAlloc);
+
+        mIterations = 0;
+
+        if(mAccelerate)
+            fitAccelerated(counts, totalCounts, minResidualsPerc, maxIterations);
+        else
+            fit(counts, totalCounts, minResidualsPerc, maxIterations);
+
+        return Arrays.copyOf(mNewAllocations, mDefinitionCount);
+    }
+
+    private void fit(final double[] counts, double totalCounts, double minResidualsPerc, int maxIterations)
+    {
+        while(mIterations < maxIterations)
+        {
+            applyStep(counts, totalCounts, mAllocations);
+
+            if(mResiduals.Percent < minResidualsPerc)
+                break;
+
+            for(int defId = 0; defId < mDefinitionCount; ++defId)
+            {
+                mAllocations[defId] = mNewAllocations[defId] / totalCounts;
+            }
+        }
+    }
+
+    private void fitAccelerated(final double[] counts, double totalCounts, double minResidualsPerc, int maxIterations)
+    {
+        // SQUAREM: 2 EM steps give a direction and its change, from which an extrapolated point is taken and then stabilised by
+        // the first EM step of the next cycle, falling back to the plain EM result if the extrapolation worsens the fit
+        double lastStepResiduals = -1;
+
+        while(mIterations < maxIterations)
+        {
+            applyStep(counts, totalCounts, mAllocations);
+
+            if(mResiduals.Percent < minResidualsPerc || mIterations >= maxIterations)
+                break;
+
+            if(lastStepResiduals >= 0 && mResiduals.Total > lastStepResiduals)
+            {
+                // restart from the plain EM result kept from the previous cycle
+                System.arraycopy(mStep2, 0, mAllocations, 0, mDefinitionCount);
+                applyStep(counts, totalCounts, mAllocations);
+
+                if(mResiduals.Percent < minResidualsPerc || mIterations >= maxIterations)
+                    break;
+            }
+
+            setAllocations(mStep1, totalCounts);
+
+            applyStep(counts, totalCounts, mStep1);
+
+            if(mResiduals.Percent < minResidualsPerc || mIterations >= maxIterations)
+                break;
+
+            setAllocations(mStep2, totalCounts);
+            lastStepResiduals = mResiduals.Total;
+
+            double rSquared = 0;
+            double vSquared = 0;
+
+            for(int defId = 0; defId < mDefinitionCount; ++defId)
+            {
+                double r = mStep1[defId] - mAllocations[defId];
+                double v = mStep2[defId] - 2 * mStep1[defId] + mAllocations[defId];
+                rSquared += r * r;
+                vSquared += v * v;
+            }
+
+            if(vSquared == 0)
+            {
+                System.arraycopy(mStep2, 0, mAllocations, 0, mDefinitionCount);
+                continue;
+            }
+
+            // a step length of -1 gives the plain 2-step EM result
+            double alpha = Math.min(-sqrt(rSquared / vSquared), -1);
+
+            for(int defId = 0; defId < mDefinitionCount; ++defId)
+            {
+                double r = mStep1[defId] - mAllocations[defId];
+                double v = mStep2[defId] - 2 * mStep1[defId] + mAllocations[defId];
+                mAllocations[defId] = Math.max(mAllocations[defId] - 2 * alpha * r + alpha * alpha * v, 0);
+            }
+        }
+    }
+
+    private void setAllocations(final double[] allocations, double totalCounts)
+    {
+        for(int defId = 0; defId < mDefinitionCount; ++defId)
+        {
+            allocations[defId] = mNewAllocations[defId] / totalCounts;
+        }
+    }
+
+    private void applyStep(final double[] counts, double totalCounts, final double[] allocations)
+    {
+        Arrays.fill(mAllocFactors, 0, mCategoryCount, 0);
+
+        for(int defId = 0; defId < mDefinitionCount; ++defId)
+        {
+            double defAlloc = allocations[defId];
+
+            for(int i = mColumnStarts[defId]; i < mColumnStarts[defId + 1]; ++i)
+            {
+                mAllocFactors[mRowIndices[i]] += defAlloc * mRatios[i];
+            }
+        }
+
+        for(int defId = 0; defId < mDefinitionCount; ++defId)
+        {
+            double defAlloc = allocations[defId];
+            double newAlloc = 0;
+
+            for(int i = mColumnStarts[defId]; i < mColumnStarts[defId + 1]; ++i)
+            {
+                int catId = mRowIndices[i];
+
+                if(mAllocFactors[catId] == 0)
+                    continue;
+
+                newAlloc += counts[catId] * mRatios[i] * defAlloc / mAllocFactors[catId];
+            }
+
+            mNewAllocations[defId] = newAlloc;
+        }
+
+        Arrays.fill(mFittedCounts, 0, mCategoryCount, 0);
+
+        for(int defId = 0; defId < mDefinitionCount; ++defId)
+        {
+            double newAlloc = mNewAllocations[defId];
+
+            for(int i = mColumnStarts[defId]; i < mColumnStarts[defId + 1]; ++i)
+            {
+                mFittedCounts[mRowIndices[i]] += newAlloc * mRatios[i];
+            }
+        }
+
+        mResiduals.Total = 0;
+        mResiduals.Excess = 0;
+
+        for(int catId = 0; catId < mCategoryCount; ++catId)
+        {
+            double diff = mFittedCounts[catId] - counts[catId];
+            mResiduals.Total += abs(diff);
+
+            if(diff > 0)
+                mResiduals.Excess += diff;
+        }
+
+        mResiduals.Percent = mResiduals.Total / totalCounts;
+
+        if(LOGGER.isTraceEnabled())
+        {
+            LOGGER.trace(String.format("totalCount(%.0f) residuals(%.0f perc=%.3f) iteration(%d)",
+                    totalCounts, mResiduals.Total, mResiduals.Percent, mIterations));
+        }
+
+        ++mIterations;
+    }
+}
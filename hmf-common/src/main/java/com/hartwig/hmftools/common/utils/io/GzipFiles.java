@@ -0,0 +1,60 @@
+package com.hartwig.hmftools.common.utils.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Line readers and writers for text files which may be gzip compressed. Compressed input is detected from the gzip magic
+ * bytes rather than the file name, whereas output is compressed when the file name ends with .gz.
+ */
+public final class GzipFiles {
+
+    public static final String GZIP_EXTENSION = ".gz";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private GzipFiles() {
+    }
+
+    @NotNull
+    public static BufferedReader reader(@NotNull final String filename) throws IOException {
+        final InputStream input = new BufferedInputStream(new FileInputStream(filename), BUFFER_SIZE);
+        try {
+            input.mark(2);
+            final boolean compressed = input.read() == (GZIPInputStream.GZIP_MAGIC & 0xFF)
+                    && input.read() == (GZIPInputStream.GZIP_MAGIC >> 8);
+            input.reset();
+
+            final InputStream decoded = compressed ? new GZIPInputStream(input, BUFFER_SIZE) : input;
+            return new BufferedReader(new InputStreamReader(decoded, StandardCharsets.UTF_8), BUFFER_SIZE);
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    @NotNull
+    public static BufferedWriter writer(@NotNull final String filename) throws IOException {
+        final OutputStream output = new FileOutputStream(filename);
+        try {
+            final OutputStream encoded = filename.endsWith(GZIP_EXTENSION) ? new GZIPOutputStream(output, BUFFER_SIZE) : output;
+            return new BufferedWriter(new OutputStreamWriter(encoded, StandardCharsets.UTF_8), BUFFER_SIZE);
+        } catch (IOException e) {
+            output.close();
+            throw e;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.hartwig.hmftools.common.utils.pcf;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.text.DecimalFormat;
+import java.util.Collection;
 import java.util.List;
+import java.util.StringJoiner;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
@@ -13,6 +17,7 @@ import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.genome.window.Window;
+import com.hartwig.hmftools.common.utils.io.GzipFiles;
 
 import org.apache.logging.log4j.util.Strings;
 import org.jetbrains.annotations.NotNull;
@@ -24,6 +29,7 @@ public final class PCFFile {
     private static final String HEADER_PREFIX = "sampleID";
     private static final String RATIO_EXTENSION = ".cobalt.ratio.pcf";
     private static final String BAF_EXTENSION = ".amber.baf.pcf";
+    private static final DecimalFormat FORMAT = new DecimalFormat("0.####");
 
     private PCFFile() {
     }
@@ -41,6 +47,26 @@ public final class PCFFile {
     @NotNull
     public static ListMultimap<Chromosome, PCFPosition> readPositions(int windowSize, @NotNull PCFSource source,
             @NotNull final String filename) throws IOException {
+        return positions(windowSize, source, readSegments(filename));
+    }
+
+    @NotNull
+    public static List<PCFSegment> readSegments(@NotNull final String filename) throws IOException {
+        final List<PCFSegment> segments = Lists.newArrayList();
+        try (BufferedReader reader = GzipFiles.reader(filename)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.startsWith(HEADER_PREFIX)) {
+                    segments.add(segmentFromString(line));
+                }
+            }
+        }
+
+        return segments;
+    }
+
+    @NotNull
+    public static ListMultimap<Chromosome, PCFPosition> positions(int windowSize, @NotNull PCFSource source,
+            @NotNull final Collection<PCFSegment> segments) {
         ListMultimap<Chromosome, PCFPosition> result = ArrayListMultimap.create();
         final Window window = new Window(windowSize);
         @Nullable
@@ -50,44 +76,41 @@ public final class PCFFile {
         long minPosition = 1;
         List<ModifiablePCFPosition> chromosomeResult = Lists.newArrayList();
 
-        for (String line : Files.readAllLines(new File(filename).toPath())) {
-            if (!line.startsWith(HEADER_PREFIX)) {
-                String[] values = line.split(DELIMITER);
-                final String chromosomeName = values[1];
-                if (HumanChromosome.contains(chromosomeName)) {
-
-                    if (!chromosomeName.equals(prevChromosome)) {
-                        if (builder != null) {
-                            chromosomeResult.add(builder);
-                            result.putAll(HumanChromosome.fromString(prevChromosome), PCFMerge.merge(chromosomeResult));
-                        }
-                        chromosomeResult.clear();
-                        builder = null;
-                        minPosition = 1;
-                        prevChromosome = chromosomeName;
-                    }
+        for (PCFSegment segment : segments) {
+            final String chromosomeName = segment.chromosome();
+            if (HumanChromosome.contains(chromosomeName)) {
 
-                    long start = window.start(Long.parseLong(values[3]));
-                    long end = window.start(Long.parseLong(values[4])) + windowSize;
+                if (!chromosomeName.equals(prevChromosome)) {
                     if (builder != null) {
-                        chromosomeResult.add(builder.setMaxPosition(start));
+                        chromosomeResult.add(builder);
+                        result.putAll(HumanChromosome.fromString(prevChromosome), PCFMerge.merge(chromosomeResult));
                     }
+                    chromosomeResult.clear();
+                    builder = null;
+                    minPosition = 1;
+                    prevChromosome = chromosomeName;
+                }
 
-                    chromosomeResult.add(ModifiablePCFPosition.create()
-                            .setChromosome(chromosomeName)
-                            .setSource(source)
-                            .setPosition(start)
-                            .setMinPosition(minPosition)
-                            .setMaxPosition(start));
-
-                    minPosition = end;
-                    builder = ModifiablePCFPosition.create()
-                            .setChromosome(chromosomeName)
-                            .setSource(source)
-                            .setPosition(end)
-                            .setMinPosition(end)
-                            .setMaxPosition(end);
+                long start = window.start(segment.start());
+                long end = window.start(segment.end()) + windowSize;
+                if (builder != null) {
+                    chromosomeResult.add(builder.setMaxPosition(start));
                 }
+
+                chromosomeResult.add(ModifiablePCFPosition.create()
+                        .setChromosome(chromosomeName)
+                        .setSource(source)
+                        .setPosition(start)
+                        .setMinPosition(minPosition)
+                        .setMaxPosition(start));
+
+                minPosition = end;
+                builder = ModifiablePCFPosition.create()
+                        .setChromosome(chromosomeName)
+                        .setSource(source)
+                        .setPosition(end)
+                        .setMinPosition(end)
+                        .setMaxPosition(end);
             }
         }
 
@@ -99,18 +122,64 @@ public final class PCFFile {
         return result;
     }
 
+    public static void write(@NotNull final String filename, @NotNull final String sampleId, @NotNull final Collection<PCFSegment> segments)
+            throws IOException {
+        try (BufferedWriter writer = GzipFiles.writer(filename)) {
+            writer.write(header());
+            writer.newLine();
+            for (PCFSegment segment : segments) {
+                writer.write(toString(sampleId, segment));
+                writer.newLine();
+            }
+        }
+    }
+
     @NotNull
-    public static Multimap<String, GenomeRegion> read(int windowSize, @NotNull final String filename) throws IOException {
-        return fromLines(windowSize, Files.readAllLines(new File(filename).toPath()));
+    private static String header() {
+        return new StringJoiner(DELIMITER, "", "").add(HEADER_PREFIX)
+                .add("chrom")
+                .add("arm")
+                .add("start.pos")
+                .add("end.pos")
+                .add("n.probes")
+                .add("mean")
+                .toString();
+    }
+
+    @NotNull
+    private static String toString(@NotNull final String sampleId, @NotNull final PCFSegment segment) {
+        return new StringJoiner(DELIMITER).add(sampleId)
+                .add(segment.chromosome())
+                .add(segment.arm())
+                .add(String.valueOf(segment.start()))
+                .add(String.valueOf(segment.end()))
+                .add(String.valueOf(segment.probes()))
+                .add(FORMAT.format(segment.mean()))
+                .toString();
     }
 
     @NotNull
-    private static Multimap<String, GenomeRegion> fromLines(int windowSize, @NotNull List<String> lines) {
+    private static PCFSegment segmentFromString(@NotNull final String line) {
+        String[] values = line.split(DELIMITER);
+        return ImmutablePCFSegment.builder()
+                .chromosome(values[1])
+                .arm(values[2])
+                .start(Long.parseLong(values[3]))
+                .end(Long.parseLong(values[4]))
+                .probes(Integer.parseInt(values[5]))
+                .mean(Double.parseDouble(values[6]))
+                .build();
+    }
+
+    @NotNull
+    public static Multimap<String, GenomeRegion> read(int windowSize, @NotNull final String filename) throws IOException {
         Multimap<String, GenomeRegion> result = ArrayListMultimap.create();
-        for (String line : lines) {
-            if (!line.startsWith(HEADER_PREFIX)) {
-                final PCFRegion region = fromString(windowSize, line);
-                result.put(region.chromosome(), region);
+        try (BufferedReader reader = GzipFiles.reader(filename)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.startsWith(HEADER_PREFIX)) {
+                    final PCFRegion region = fromString(windowSize, line);
+                    result.put(region.chromosome(), region);
+                }
             }
         }
         return result;
@@ -0,0 +1,23 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+
+import org.immutables.value.Value;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A single row of a pcf file, ie a run of probes on one chromosome arm fitted to a constant mean. Start and end are the
+ * positions of the first and last probe.
+ */
+@Value.Immutable
+@Value.Style(passAnnotations = { NotNull.class, Nullable.class })
+public abstract class PCFSegment implements GenomeRegion {
+
+    @NotNull
+    public abstract String arm();
+
+    public abstract int probes();
+
+    public abstract double mean();
+}
@@ -0,0 +1,168 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * In process equivalent of pcf(data, gamma = 100, kmin = 1) from the R copynumber package. Each chromosome arm is fitted
+ * independently on primitive arrays, in parallel across chromosomes, with gamma scaled by the genome wide noise variance.
+ */
+public class PCFSegmentation {
+
+    public static final double DEFAULT_GAMMA = 100;
+    public static final int DEFAULT_KMIN = 1;
+
+    private static final int MAD_HALF_WIDTH = 25;
+    private static final double MIN_RATIO = 0.001;
+    private static final double MEAN_PRECISION = 10_000;
+
+    private final ExecutorService executorService;
+    private final Map<Chromosome, Long> centromeres;
+    private final double gamma;
+    private final int kmin;
+
+    public PCFSegmentation(@NotNull final ExecutorService executorService, @NotNull final Map<Chromosome, Long> centromeres) {
+        this(executorService, centromeres, DEFAULT_GAMMA, DEFAULT_KMIN);
+    }
+
+    public PCFSegmentation(@NotNull final ExecutorService executorService, @NotNull final Map<Chromosome, Long> centromeres,
+            double gamma, int kmin) {
+        this.executorService = executorService;
+        this.centromeres = centromeres;
+        this.gamma = gamma;
+        this.kmin = kmin;
+    }
+
+    /**
+     * Segments the value of each position. Positions must be sorted within each chromosome and non finite values are ignored.
+     */
+    @NotNull
+    public <T extends GenomePosition> ListMultimap<Chromosome, PCFSegment> segment(@NotNull final Multimap<Chromosome, T> data,
+            @NotNull final ToDoubleFunction<T> value) throws ExecutionException, InterruptedException {
+        final List<ChromosomeData> chromosomes = Lists.newArrayList();
+        int total = 0;
+        for (HumanChromosome chromosome : HumanChromosome.values()) {
+            final Collection<T> positions = data.get(chromosome);
+            if (!positions.isEmpty()) {
+                final ChromosomeData chromosomeData = new ChromosomeData(chromosome, positions, value);
+                if (chromosomeData.size > 0) {
+                    chromosomes.add(chromosomeData);
+                    total += chromosomeData.size;
+                }
+            }
+        }
+
+        final double[] allValues = new double[total];
+        int offset = 0;
+        for (ChromosomeData chromosomeData : chromosomes) {
+            System.arraycopy(chromosomeData.values, 0, allValues, offset, chromosomeData.size);
+            offset += chromosomeData.size;
+        }
+
+        final double sd = PiecewiseConstantFit.mad(allValues, MAD_HALF_WIDTH);
+        final double scaledGamma = sd > 0 ? gamma * sd * sd : gamma;
+
+        final List<Future<List<PCFSegment>>> futures = Lists.newArrayList();
+        for (ChromosomeData chromosomeData : chromosomes) {
+            futures.add(executorService.submit(() -> chromosomeData.segment(scaledGamma)));
+        }
+
+        final ListMultimap<Chromosome, PCFSegment> result = ArrayListMultimap.create();
+        for (int i = 0; i < chromosomes.size(); i++) {
+            result.putAll(chromosomes.get(i).chromosome, futures.get(i).get());
+        }
+
+        return result;
+    }
+
+    /**
+     * The value segmented for a read depth ratio, as per ratioSegmentation.R: negative ratios are missing and others are floored
+     * at 0.001 before taking log2.
+     */
+    public static double log2Ratio(double ratio) {
+        if (ratio < 0) {
+            return Double.NaN;
+        }
+
+        return Math.log(Math.max(ratio, MIN_RATIO)) / Math.log(2);
+    }
+
+    private class ChromosomeData {
+
+        private final Chromosome chromosome;
+        private final String contig;
+        private final long[] positions;
+        private final double[] values;
+        private final int size;
+
+        private <T extends GenomePosition> ChromosomeData(@NotNull final Chromosome chromosome, @NotNull final Collection<T> data,
+                @NotNull final ToDoubleFunction<T> value) {
+            this.chromosome = chromosome;
+            this.contig = data.iterator().next().chromosome();
+            this.positions = new long[data.size()];
+            this.values = new double[data.size()];
+
+            int i = 0;
+            for (T position : data) {
+                final double positionValue = value.applyAsDouble(position);
+                if (Double.isFinite(positionValue)) {
+                    positions[i] = position.position();
+                    values[i] = positionValue;
+                    i++;
+                }
+            }
+            this.size = i;
+        }
+
+        @NotNull
+        private List<PCFSegment> segment(double scaledGamma) {
+            final List<PCFSegment> result = Lists.newArrayList();
+            final long centromere = centromeres.getOrDefault(chromosome, 0L);
+
+            int armStart = 0;
+            while (armStart < size) {
+                final boolean pArm = positions[armStart] < centromere;
+                int armEnd = armStart;
+                while (armEnd < size && (positions[armEnd] < centromere) == pArm) {
+                    armEnd++;
+                }
+
+                final double[] armValues = Arrays.copyOfRange(values, armStart, armEnd);
+                final int[] starts = PiecewiseConstantFit.segmentStarts(armValues, scaledGamma, kmin);
+                for (int i = 0; i < starts.length; i++) {
+                    final int start = starts[i];
+                    final int end = i + 1 < starts.length ? starts[i + 1] : armValues.length;
+                    final double mean = PiecewiseConstantFit.mean(armValues, start, end);
+                    result.add(ImmutablePCFSegment.builder()
+                            .chromosome(contig)
+                            .arm(pArm ? "p" : "q")
+                            .start(positions[armStart + start])
+                            .end(positions[armStart + end - 1])
+                            .probes(end - start)
+                            .mean(Math.round(mean * MEAN_PRECISION) / MEAN_PRECISION)
+                            .build());
+                }
+
+                armStart = armEnd;
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Least squares piecewise constant fit of a sequence with a penalty of gamma per breakpoint and a minimum segment length of
+ * kmin, ie the objective of exactPcf in the R copynumber package. The optimum is found exactly using PELT pruning of the
+ * candidate breakpoints which keeps the search close to linear for real copy number data.
+ */
+public final class PiecewiseConstantFit {
+
+    private static final double MAD_SCALE = 1.4826;
+
+    private PiecewiseConstantFit() {
+    }
+
+    /**
+     * Returns the index of the first value of each segment. The first segment always starts at 0.
+     */
+    @NotNull
+    public static int[] segmentStarts(@NotNull final double[] values, double gamma, int kmin) {
+        final int n = values.length;
+        if (n == 0) {
+            return new int[0];
+        }
+
+        if (n < 2 * kmin) {
+            return new int[] { 0 };
+        }
+
+        final double[] sum = new double[n + 1];
+        final double[] sumSquares = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            sum[i + 1] = sum[i] + values[i];
+            sumSquares[i + 1] = sumSquares[i] + values[i] * values[i];
+        }
+
+        // bestCost[t] is the optimal cost of values[0, t) with a gamma per breakpoint
+        final double[] bestCost = new double[n + 1];
+        final int[] bestSplit = new int[n + 1];
+        Arrays.fill(bestCost, Double.POSITIVE_INFINITY);
+        bestCost[0] = -gamma;
+
+        // Candidates pruned at t may still be optimal until t + kmin as t itself is not yet eligible as a split
+        int[] candidates = new int[64];
+        int[] prunedAt = new int[64];
+        int candidateCount = 0;
+
+        for (int t = kmin; t <= n; t++) {
+            final int newCandidate = t - kmin;
+            if (!Double.isInfinite(bestCost[newCandidate])) {
+                if (candidateCount == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                    prunedAt = Arrays.copyOf(prunedAt, candidateCount * 2);
+                }
+                candidates[candidateCount] = newCandidate;
+                prunedAt[candidateCount] = Integer.MAX_VALUE;
+                candidateCount++;
+            }
+
+            if (t < 2 * kmin) {
+                // Too short to hold two segments of kmin
+                bestCost[t] = cost(sum, sumSquares, 0, t);
+                continue;
+            }
+
+            double best = Double.POSITIVE_INFINITY;
+            int split = 0;
+            int retained = 0;
+            for (int i = 0; i < candidateCount; i++) {
+                final int tau = candidates[i];
+                if ((long) prunedAt[i] + kmin <= t) {
+                    continue;
+                }
+
+                candidates[retained] = tau;
+                prunedAt[retained] = prunedAt[i];
+                retained++;
+
+                final double candidateCost = bestCost[tau] + cost(sum, sumSquares, tau, t) + gamma;
+                if (candidateCost < best) {
+                    best = candidateCost;
+                    split = tau;
+                }
+            }
+            candidateCount = retained;
+
+            bestCost[t] = best;
+            bestSplit[t] = split;
+
+            for (int i = 0; i < candidateCount; i++) {
+                final int tau = candidates[i];
+                if (prunedAt[i] == Integer.MAX_VALUE && bestCost[tau] + cost(sum, sumSquares, tau, t) > best) {
+                    prunedAt[i] = t;
+                }
+            }
+        }
+
+        int segments = 0;
+        for (int t = n; t > 0; t = bestSplit[t]) {
+            segments++;
+        }
+
+        final int[] result = new int[segments];
+        for (int t = n; t > 0; t = bestSplit[t]) {
+            result[--segments] = bestSplit[t];
+        }
+        return result;
+    }
+
+    /**
+     * Robust estimate of the noise standard deviation as the scaled median absolute deviation of the values from their running
+     * median, excluding zeros, as per getMad in the R copynumber package.
+     */
+    public static double mad(@NotNull final double[] values, int k) {
+        final double[] nonZero = Arrays.stream(values).filter(x -> x != 0).toArray();
+        final int n = nonZero.length;
+        if (n == 0) {
+            return 0;
+        }
+
+        final double[] runMedian = runningMedian(nonZero, k);
+        final double[] difference = new double[n];
+        for (int i = 0; i < n; i++) {
+            difference[i] = nonZero[i] - runMedian[i];
+        }
+
+        final double center = median(difference.clone());
+        final double[] deviation = new double[n];
+        for (int i = 0; i < n; i++) {
+            deviation[i] = Math.abs(difference[i] - center);
+        }
+
+        return MAD_SCALE * median(deviation);
+    }
+
+    @NotNull
+    static double[] runningMedian(@NotNull final double[] values, int k) {
+        final int n = values.length;
+        int halfWidth = k;
+        if (2 * halfWidth + 1 > n) {
+            halfWidth = (n % 2 == 0 ? n - 1 : n) / 2;
+        }
+
+        // Windows are shrunk symmetrically towards the ends
+        final double[] result = new double[n];
+        final double[] window = new double[2 * halfWidth + 1];
+        for (int i = 0; i < n; i++) {
+            final int width = Math.min(halfWidth, Math.min(i, n - 1 - i));
+            final int length = 2 * width + 1;
+            System.arraycopy(values, i - width, window, 0, length);
+            Arrays.sort(window, 0, length);
+            result[i] = window[width];
+        }
+
+        return result;
+    }
+
+    public static double mean(@NotNull final double[] values, int start, int end) {
+        double sum = 0;
+        for (int i = start; i < end; i++) {
+            sum += values[i];
+        }
+        return sum / (end - start);
+    }
+
+    private static double median(@NotNull final double[] values) {
+        Arrays.sort(values);
+        final int n = values.length;
+        return n % 2 == 1 ? values[n / 2] : (values[n / 2 - 1] + values[n / 2]) / 2;
+    }
+
+    private static double cost(@NotNull final double[] sum, @NotNull final double[] sumSquares, int start, int end) {
+        final double segmentSum = sum[end] - sum[start];
+        return sumSquares[end] - sumSquares[start] - segmentSum * segmentSum / (end - start);
+    }
+}
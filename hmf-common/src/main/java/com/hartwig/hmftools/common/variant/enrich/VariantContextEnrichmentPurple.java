@@ -1,9 +1,15 @@
 package com.hartwig.hmftools.common.variant.enrich;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.Futures;
 import com.hartwig.hmftools.common.drivercatalog.panel.DriverGenePanel;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.region.CanonicalTranscript;
@@ -19,57 +25,195 @@ import htsjdk.samtools.reference.IndexedFastaSequenceFile;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFHeader;
 
+/**
+ * Variants are enriched in batches. Each batch is split into one contiguous chunk per reference file and the per variant
+ * enrichments (hotspot, snpEff, ref context, purity and subclonal likelihood) of each chunk run on the executor. Kataegis
+ * needs to see the variants in order so it runs on the calling thread along with the downstream consumer, overlapping
+ * with the enrichment of the following batch.
+ */
 public class VariantContextEnrichmentPurple implements VariantContextEnrichment {
 
-    private final VariantContextEnrichment purityEnrichment;
-    private final VariantContextEnrichment hotspotEnrichment;
+    private static final int DEFAULT_BATCH_SIZE = 10000;
+
+    private final int batchSize;
+    private final ExecutorService executorService;
+    private final List<Lane> lanes;
     private final VariantContextEnrichment kataegisEnrichment;
-    private final VariantContextEnrichment somaticRefContextEnrichment;
-    private final VariantContextEnrichment subclonalLikelihoodEnrichment;
-    private final VariantContextEnrichment snpEffEnrichment;
-
-    public VariantContextEnrichmentPurple(boolean hotspotEnabled, double clonalityMaxPloidy, double clonalityBinWidth,
-            @NotNull final String purpleVersion, @NotNull final String tumorSample, @NotNull final IndexedFastaSequenceFile reference,
-            @NotNull final PurityAdjuster purityAdjuster, @NotNull final DriverGenePanel genePanel,
-            @NotNull final List<PurpleCopyNumber> copyNumbers, @NotNull final List<FittedRegion> fittedRegions,
-            @NotNull final List<PeakModel> peakModel, @NotNull final Multimap<Chromosome, VariantHotspot> hotspots, @NotNull final List<CanonicalTranscript> transcripts,
+
+    private List<VariantContext> batch;
+    private List<Future<List<VariantContext>>> inProgress = Collections.emptyList();
+
+    public VariantContextEnrichmentPurple(@NotNull final ExecutorService executorService, boolean hotspotEnabled, double clonalityMaxPloidy,
+            double clonalityBinWidth, @NotNull final String purpleVersion, @NotNull final String tumorSample,
+            @NotNull final List<IndexedFastaSequenceFile> references, @NotNull final PurityAdjuster purityAdjuster,
+            @NotNull final DriverGenePanel genePanel, @NotNull final List<PurpleCopyNumber> copyNumbers,
+            @NotNull final List<FittedRegion> fittedRegions, @NotNull final List<PeakModel> peakModel,
+            @NotNull final Multimap<Chromosome, VariantHotspot> hotspots, @NotNull final List<CanonicalTranscript> transcripts,
             @NotNull final Consumer<VariantContext> consumer) {
-        subclonalLikelihoodEnrichment = new SubclonalLikelihoodEnrichment(clonalityMaxPloidy, clonalityBinWidth, peakModel, consumer);
-        purityEnrichment =
-                new PurityEnrichment(purpleVersion, tumorSample, purityAdjuster, copyNumbers, fittedRegions, subclonalLikelihoodEnrichment);
-        kataegisEnrichment = new KataegisEnrichment(purityEnrichment);
-        somaticRefContextEnrichment = new SomaticRefContextEnrichment(reference, kataegisEnrichment);
-        snpEffEnrichment = new SnpEffEnrichment(genePanel.driverGenes(), transcripts, somaticRefContextEnrichment);
-        if (hotspotEnabled) {
-            hotspotEnrichment = new VariantHotspotEnrichment(hotspots, snpEffEnrichment);
-        } else {
-            hotspotEnrichment = VariantContextEnrichmentFactory.noEnrichment().create(snpEffEnrichment);
+        this(DEFAULT_BATCH_SIZE,
+                executorService,
+                hotspotEnabled,
+                clonalityMaxPloidy,
+                clonalityBinWidth,
+                purpleVersion,
+                tumorSample,
+                references,
+                purityAdjuster,
+                genePanel,
+                copyNumbers,
+                fittedRegions,
+                peakModel,
+                hotspots,
+                transcripts,
+                consumer);
+    }
+
+    @VisibleForTesting
+    VariantContextEnrichmentPurple(int batchSize, @NotNull final ExecutorService executorService, boolean hotspotEnabled,
+            double clonalityMaxPloidy, double clonalityBinWidth, @NotNull final String purpleVersion, @NotNull final String tumorSample,
+            @NotNull final List<IndexedFastaSequenceFile> references, @NotNull final PurityAdjuster purityAdjuster,
+            @NotNull final DriverGenePanel genePanel, @NotNull final List<PurpleCopyNumber> copyNumbers,
+            @NotNull final List<FittedRegion> fittedRegions, @NotNull final List<PeakModel> peakModel,
+            @NotNull final Multimap<Chromosome, VariantHotspot> hotspots, @NotNull final List<CanonicalTranscript> transcripts,
+            @NotNull final Consumer<VariantContext> consumer) {
+        if (references.isEmpty()) {
+            throw new IllegalArgumentException("At least one reference file is required");
+        }
+
+        this.batchSize = batchSize;
+        this.batch = Lists.newArrayListWithExpectedSize(batchSize);
+        this.executorService = executorService;
+        this.kataegisEnrichment = new KataegisEnrichment(consumer);
+        this.lanes = Lists.newArrayList();
+        for (IndexedFastaSequenceFile reference : references) {
+            lanes.add(new Lane(hotspotEnabled,
+                    clonalityMaxPloidy,
+                    clonalityBinWidth,
+                    purpleVersion,
+                    tumorSample,
+                    reference,
+                    purityAdjuster,
+                    genePanel,
+                    copyNumbers,
+                    fittedRegions,
+                    peakModel,
+                    hotspots,
+                    transcripts));
         }
     }
 
     @Override
     public void flush() {
-        hotspotEnrichment.flush();
-        snpEffEnrichment.flush();
-        somaticRefContextEnrichment.flush();
+        dispatch();
+        final List<Future<List<VariantContext>>> complete = inProgress;
+        inProgress = Collections.emptyList();
+        complete.forEach(this::consume);
+
+        for (Lane lane : lanes) {
+            lane.flush();
+            lane.drain().forEach(kataegisEnrichment);
+        }
         kataegisEnrichment.flush();
-        purityEnrichment.flush();
-        subclonalLikelihoodEnrichment.flush();
     }
 
     @NotNull
     @Override
     public VCFHeader enrichHeader(@NotNull final VCFHeader template) {
-        VCFHeader header = somaticRefContextEnrichment.enrichHeader(template);
+        final Lane lane = lanes.get(0);
+        VCFHeader header = lane.somaticRefContextEnrichment.enrichHeader(template);
         header = kataegisEnrichment.enrichHeader(header);
-        header = subclonalLikelihoodEnrichment.enrichHeader(header);
-        header = hotspotEnrichment.enrichHeader(header);
-        header = snpEffEnrichment.enrichHeader(header);
-        return purityEnrichment.enrichHeader(header);
+        header = lane.subclonalLikelihoodEnrichment.enrichHeader(header);
+        header = lane.hotspotEnrichment.enrichHeader(header);
+        header = lane.snpEffEnrichment.enrichHeader(header);
+        return lane.purityEnrichment.enrichHeader(header);
     }
 
     @Override
     public void accept(@NotNull final VariantContext context) {
-        hotspotEnrichment.accept(context);
+        // Genotypes are decoded lazily by the codec of the reader which is not thread safe
+        context.getGenotypes().getSampleNames();
+
+        batch.add(context);
+        if (batch.size() >= batchSize) {
+            dispatch();
+        }
+    }
+
+    private void dispatch() {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Each lane is single threaded so the previous batch must be finished before the next is submitted
+        final List<List<VariantContext>> previous = Lists.newArrayList();
+        for (Future<List<VariantContext>> future : inProgress) {
+            previous.add(Futures.getUnchecked(future));
+        }
+
+        final int chunkSize = (batch.size() + lanes.size() - 1) / lanes.size();
+        final List<Future<List<VariantContext>>> submitted = Lists.newArrayList();
+        for (int i = 0; i < lanes.size() && i * chunkSize < batch.size(); i++) {
+            final Lane lane = lanes.get(i);
+            final List<VariantContext> chunk = batch.subList(i * chunkSize, Math.min(batch.size(), (i + 1) * chunkSize));
+            submitted.add(executorService.submit(() -> lane.enrich(chunk)));
+        }
+
+        inProgress = submitted;
+        batch = Lists.newArrayListWithExpectedSize(batchSize);
+
+        previous.forEach(x -> x.forEach(kataegisEnrichment));
+    }
+
+    private void consume(@NotNull final Future<List<VariantContext>> future) {
+        Futures.getUnchecked(future).forEach(kataegisEnrichment);
+    }
+
+    private static class Lane {
+
+        private final List<VariantContext> output = Lists.newArrayList();
+        private final VariantContextEnrichment subclonalLikelihoodEnrichment;
+        private final VariantContextEnrichment purityEnrichment;
+        private final VariantContextEnrichment somaticRefContextEnrichment;
+        private final VariantContextEnrichment snpEffEnrichment;
+        private final VariantContextEnrichment hotspotEnrichment;
+
+        Lane(boolean hotspotEnabled, double clonalityMaxPloidy, double clonalityBinWidth, @NotNull final String purpleVersion,
+                @NotNull final String tumorSample, @NotNull final IndexedFastaSequenceFile reference,
+                @NotNull final PurityAdjuster purityAdjuster, @NotNull final DriverGenePanel genePanel,
+                @NotNull final List<PurpleCopyNumber> copyNumbers, @NotNull final List<FittedRegion> fittedRegions,
+                @NotNull final List<PeakModel> peakModel, @NotNull final Multimap<Chromosome, VariantHotspot> hotspots,
+                @NotNull final List<CanonicalTranscript> transcripts) {
+            subclonalLikelihoodEnrichment = new SubclonalLikelihoodEnrichment(clonalityMaxPloidy, clonalityBinWidth, peakModel, output::add);
+            purityEnrichment =
+                    new PurityEnrichment(purpleVersion, tumorSample, purityAdjuster, copyNumbers, fittedRegions, subclonalLikelihoodEnrichment);
+            somaticRefContextEnrichment = new SomaticRefContextEnrichment(reference, purityEnrichment);
+            snpEffEnrichment = new SnpEffEnrichment(genePanel.driverGenes(), transcripts, somaticRefContextEnrichment);
+            if (hotspotEnabled) {
+                hotspotEnrichment = new VariantHotspotEnrichment(hotspots, snpEffEnrichment);
+            } else {
+                hotspotEnrichment = VariantContextEnrichmentFactory.noEnrichment().create(snpEffEnrichment);
+            }
+        }
+
+        @NotNull
+        List<VariantContext> enrich(@NotNull final List<VariantContext> chunk) {
+            chunk.forEach(hotspotEnrichment);
+            return drain();
+        }
+
+        @NotNull
+        List<VariantContext> drain() {
+            final List<VariantContext> result = Lists.newArrayList(output);
+            output.clear();
+            return result;
+        }
+
+        void flush() {
+            hotspotEnrichment.flush();
+            snpEffEnrichment.flush();
+            somaticRefContextEnrichment.flush();
+            purityEnrichment.flush();
+            subclonalLikelihoodEnrichment.flush();
+        }
     }
 }
@@ -4,9 +4,12 @@ import static org.junit.Assert.assertEquals;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
 import com.google.common.io.Resources;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 
 import org.junit.Test;
@@ -37,6 +40,24 @@ public class AmberBAFFileTest {
         }
     }
 
+    @Test
+    public void testColumnsMatchBafs() throws IOException {
+        final Multimap<Chromosome, AmberBAF> bafs = AmberBAFFile.read(NEW_AMBER_BAF_PATH);
+        final Map<Chromosome, AmberBAFColumns> victim = AmberBAFFile.readColumns(NEW_AMBER_BAF_PATH);
+
+        final List<AmberBAF> expected = Lists.newArrayList(bafs.get(HumanChromosome._1));
+        final AmberBAFColumns columns = victim.get(HumanChromosome._1);
+        assertEquals(expected.size(), columns.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), columns.baf(i));
+            assertEquals(expected.get(i).tumorModifiedBAF(), columns.tumorModifiedBAF(i), EPSILON);
+        }
+
+        final List<AmberBAF> all = AmberBAFColumns.asList(victim.values());
+        assertEquals(bafs.size(), all.size());
+        assertEquals(columns.baf(columns.size() - 1), all.get(columns.size() - 1));
+    }
+
     @Test
     public void testHG38Compatibility() throws IOException {
         final List<AmberBAF> hg38 = Lists.newArrayList(AmberBAFFile.read(HG38_PATH).get(HumanChromosome._1));
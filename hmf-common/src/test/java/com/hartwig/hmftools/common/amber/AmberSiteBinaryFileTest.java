@@ -0,0 +1,60 @@
+package com.hartwig.hmftools.common.amber;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class AmberSiteBinaryFileTest {
+
+    @Test
+    public void testReadWrite() throws IOException {
+        final ListMultimap<Chromosome, AmberSite> sites = ArrayListMultimap.create();
+        sites.put(HumanChromosome._1, site("1", 100, "A", "G", false));
+        sites.put(HumanChromosome._1, site("1", 100, "A", "T", true));
+        sites.put(HumanChromosome._1, site("1", 248_000_000, "C", "T", false));
+        sites.put(HumanChromosome._X, site("X", 5, "G", "C", true));
+
+        final byte[] bytes = AmberSiteBinaryFile.toBytes(sites);
+        assertEquals(sites, AmberSiteBinaryFile.fromBuffer(ByteBuffer.wrap(bytes), null));
+
+        final ListMultimap<Chromosome, AmberSite> subset =
+                AmberSiteBinaryFile.fromBuffer(ByteBuffer.wrap(bytes), Collections.singleton(HumanChromosome._X));
+        assertEquals(1, subset.size());
+        assertEquals(sites.get(HumanChromosome._X), subset.get(HumanChromosome._X));
+    }
+
+    @Test
+    public void testReadChromosomeSubsetFromFile() throws IOException {
+        final ListMultimap<Chromosome, AmberSite> sites = ArrayListMultimap.create();
+        sites.put(HumanChromosome._1, site("1", 100, "A", "G", false));
+        sites.put(HumanChromosome._2, site("2", 200, "C", "T", true));
+        sites.put(HumanChromosome._2, site("2", 300, "G", "A", false));
+        sites.put(HumanChromosome._X, site("X", 5, "G", "C", true));
+
+        final File file = File.createTempFile("amber", AmberSiteBinaryFile.EXTENSION);
+        file.deleteOnExit();
+        AmberSiteBinaryFile.write(file.getPath(), sites);
+
+        assertEquals(sites, AmberSiteBinaryFile.read(file.getPath()));
+
+        final ListMultimap<Chromosome, AmberSite> subset = AmberSiteBinaryFile.read(file.getPath(), Collections.singleton(HumanChromosome._2));
+        assertEquals(2, subset.size());
+        assertEquals(sites.get(HumanChromosome._2), subset.get(HumanChromosome._2));
+    }
+
+    @NotNull
+    private static AmberSite site(@NotNull String contig, long position, @NotNull String ref, @NotNull String alt, boolean snpCheck) {
+        return ImmutableAmberSite.builder().chromosome(contig).position(position).ref(ref).alt(alt).snpCheck(snpCheck).build();
+    }
+}
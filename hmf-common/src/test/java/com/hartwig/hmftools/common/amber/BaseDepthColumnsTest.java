@@ -0,0 +1,40 @@
+package com.hartwig.hmftools.common.amber;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.BitSet;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class BaseDepthColumnsTest {
+
+    @Test
+    public void testFirstIndex() {
+        final BaseDepthColumns victim = BaseDepthColumns.fromSites("1", Lists.newArrayList(site(100), site(200), site(200), site(300)));
+        assertEquals(0, victim.firstIndex(1));
+        assertEquals(0, victim.firstIndex(100));
+        assertEquals(1, victim.firstIndex(101));
+        assertEquals(1, victim.firstIndex(200));
+        assertEquals(3, victim.firstIndex(201));
+        assertEquals(4, victim.firstIndex(301));
+    }
+
+    @Test
+    public void testSelect() {
+        final BaseDepthColumns victim = BaseDepthColumns.fromSites("1", Lists.newArrayList(site(100), site(200), site(300)));
+        final BitSet mask = victim.filter(i -> victim.position(i) != 200);
+        final List<BaseDepth> selected = victim.select(mask);
+        assertEquals(2, selected.size());
+        assertEquals(100, selected.get(0).position());
+        assertEquals(BaseDepth.Base.A, selected.get(0).ref());
+        assertEquals(BaseDepth.Base.G, selected.get(0).alt());
+        assertEquals(300, selected.get(1).position());
+    }
+
+    private static AmberSite site(long position) {
+        return ImmutableAmberSite.builder().chromosome("1").position(position).ref("A").alt("G").snpCheck(false).build();
+    }
+}
@@ -2,11 +2,15 @@ package com.hartwig.hmftools.common.cobalt;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.List;
 
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.io.Resources;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 
 import org.junit.Test;
@@ -27,4 +31,42 @@ public class CobaltRatioFileTest {
         final List<CobaltRatio> hg19 = Lists.newArrayList(CobaltRatioFile.read(HG19_PATH).get(HumanChromosome._1));
         assertEquals(4, hg19.size());
     }
+
+    @Test
+    public void testColumnsMatchRatios() throws IOException {
+        final List<CobaltRatio> ratios = CobaltRatioFile.read(HG38_PATH).get(HumanChromosome._1);
+        final CobaltRatioColumns victim = CobaltRatioFile.readColumns(HG38_PATH).get(HumanChromosome._1);
+
+        assertEquals(ratios.size(), victim.size());
+        for (int i = 0; i < ratios.size(); i++) {
+            assertEquals(ratios.get(i), victim.ratio(i));
+        }
+        assertEquals(1, victim.firstIndex(ratios.get(0).position() + 1));
+    }
+
+    @Test
+    public void testCompressedRoundTrip() throws IOException {
+        final File file = File.createTempFile("sample", ".cobalt.ratio.tsv.gz");
+        file.deleteOnExit();
+
+        final ListMultimap<Chromosome, CobaltRatio> expected = CobaltRatioFile.read(HG19_PATH);
+        CobaltRatioFile.write(file.getPath(), expected);
+
+        assertEquals(expected, CobaltRatioFile.read(file.getPath()));
+    }
+
+    @Test
+    public void testCompressedOutputIsFoundForReading() throws IOException {
+        final File directory = Files.createTempDirectory("cobalt").toFile();
+        directory.deleteOnExit();
+
+        final String filename = CobaltRatioFile.generateFilenameForWriting(directory.getPath(), "S1", true);
+        new File(filename).deleteOnExit();
+        final ListMultimap<Chromosome, CobaltRatio> expected = CobaltRatioFile.read(HG19_PATH);
+        CobaltRatioFile.write(filename, expected);
+
+        assertEquals(CobaltRatioFile.generateFilenameForWriting(directory.getPath(), "S1") + ".gz", filename);
+        assertEquals(filename, CobaltRatioFile.generateFilenameForReading(directory.getPath(), "S1"));
+        assertEquals(expected, CobaltRatioFile.read(filename));
+    }
 }
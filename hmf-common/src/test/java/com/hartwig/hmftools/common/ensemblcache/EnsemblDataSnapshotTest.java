@@ -0,0 +1,169 @@
+package com.hartwig.hmftools.common.ensemblcache;
+
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_GENE_DATA_FILE;
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_PROTEIN_FEATURE_DATA_FILE;
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_TRANS_EXON_DATA_FILE;
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_TRANS_SPLICE_DATA_FILE;
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataSnapshot.ENSEMBL_SNAPSHOT_FILE;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
+
+import org.junit.Test;
+
+public class EnsemblDataSnapshotTest
+{
+    @Test
+    public void testSnapshotMatchesCsvData() throws IOException
+    {
+        final String dataPath = writeCsvFiles();
+
+        assertNull(EnsemblDataSnapshot.open(dataPath));
+
+        final EnsemblDataCache csvCache = new EnsemblDataCache(dataPath, RefGenomeVersion.HG38);
+        csvCache.setRequiredData(false, true, true, false);
+        csvCache.setRequireGeneSynonyms();
+        assertTrue(csvCache.load(false));
+
+        assertTrue(EnsemblDataSnapshot.write(dataPath));
+        assertNotNull(EnsemblDataSnapshot.open(dataPath));
+
+        final EnsemblDataCache victim = new EnsemblDataCache(dataPath, RefGenomeVersion.HG38);
+        victim.setRequiredData(false, true, true, false);
+        victim.setRequireGeneSynonyms();
+        assertTrue(victim.load(false));
+
+        assertEquals(csvCache.getChrGeneDataMap().keySet(), victim.getChrGeneDataMap().keySet());
+
+        for(Map.Entry<String,List<EnsemblGeneData>> entry : csvCache.getChrGeneDataMap().entrySet())
+        {
+            final List<EnsemblGeneData> genes = victim.getChrGeneDataMap().get(entry.getKey());
+            assertEquals(entry.getValue().size(), genes.size());
+
+            for(int i = 0; i < genes.size(); ++i)
+            {
+                assertEquals(entry.getValue().get(i).toString(), genes.get(i).toString());
+                assertEquals(entry.getValue().get(i).KaryotypeBand, genes.get(i).KaryotypeBand);
+                assertEquals(entry.getValue().get(i).getSynonyms(), genes.get(i).getSynonyms());
+            }
+        }
+
+        // a single gene is read on request, then the rest on iteration
+        final List<TranscriptData> transcripts = victim.getTranscripts("ENSG02");
+        assertEquals(2, transcripts.size());
+        assertNull(transcripts.get(0).CodingStart);
+        assertTrue(transcripts.get(0).exons().isEmpty()); // exons only kept for canonical transcripts
+
+        assertEquals(csvCache.getTranscriptDataMap().size(), victim.getTranscriptDataMap().size());
+
+        for(Map.Entry<String,List<TranscriptData>> entry : csvCache.getTranscriptDataMap().entrySet())
+        {
+            final List<TranscriptData> transDataList = victim.getTranscripts(entry.getKey());
+            assertEquals(entry.getValue().size(), transDataList.size());
+
+            for(int i = 0; i < transDataList.size(); ++i)
+            {
+                final TranscriptData expected = entry.getValue().get(i);
+                final TranscriptData trans = transDataList.get(i);
+
+                assertEquals(expected.toString(), trans.toString());
+                assertEquals(expected.CodingStart, trans.CodingStart);
+                assertEquals(expected.CodingEnd, trans.CodingEnd);
+                assertEquals(expected.BioType, trans.BioType);
+
+                for(int e = 0; e < trans.exons().size(); ++e)
+                {
+                    assertEquals(expected.exons().get(e).toString(), trans.exons().get(e).toString());
+                }
+            }
+        }
+
+        assertEquals(csvCache.getTranscriptProteinDataMap().size(), victim.getTranscriptProteinDataMap().size());
+        assertEquals("desc", victim.getTranscriptProteinDataMap().get(1).get(0).HitDescription);
+        assertEquals(csvCache.getTransSpliceAcceptorPosDataMap(), victim.getTransSpliceAcceptorPosDataMap());
+        assertEquals("TRANS01A", victim.getTranscriptData("ENSG01", "").TransName);
+    }
+
+    @Test
+    public void testRestrictedTranscriptsAccumulate() throws IOException
+    {
+        final String dataPath = writeCsvFiles();
+        assertTrue(EnsemblDataSnapshot.write(dataPath));
+
+        final EnsemblDataCache victim = new EnsemblDataCache(dataPath, RefGenomeVersion.HG37);
+        assertTrue(victim.load(true));
+        assertNull(victim.getTranscripts("ENSG01"));
+
+        victim.loadTranscriptData(Lists.newArrayList("ENSG01"));
+        assertEquals(2, victim.getTranscripts("ENSG01").size());
+        assertNull(victim.getTranscripts("ENSG02"));
+        assertEquals(1, victim.getTranscriptDataMap().size());
+
+        victim.loadTranscriptData(Lists.newArrayList("ENSG02"));
+        assertEquals(2, victim.getTranscriptDataMap().size());
+        assertTrue(victim.getChrGeneDataMap().containsKey("1"));
+    }
+
+    private static String writeCsvFiles() throws IOException
+    {
+        final File dir = Files.createTempDirectory("ensembl_cache").toFile();
+        dir.deleteOnExit();
+
+        final String dataPath = dir.getPath() + File.separator;
+
+        write(dataPath + ENSEMBL_GENE_DATA_FILE,
+                "GeneId,GeneName,Chromosome,Strand,GeneStart,GeneEnd,EntrezIds,KaryotypeBand,Synonyms",
+                "ENSG01,GENE01,1,1,1000,5000,1,p1.1,ALT01;ALT01B",
+                "ENSG02,GENE02,1,-1,8000,12000,2,p1.2,ALT02",
+                "ENSG03,GENE03,2,1,100,900,3,q2.1,ALT03");
+
+        write(dataPath + ENSEMBL_TRANS_EXON_DATA_FILE,
+                "GeneId,CanonicalTranscriptId,Strand,TransId,TransName,BioType,TransStart,TransEnd,ExonRank,ExonStart,ExonEnd,"
+                        + "ExonPhase,ExonEndPhase,CodingStart,CodingEnd",
+                "ENSG01,1,1,1,TRANS01A,protein_coding,1000,5000,1,1000,1200,-1,1,1100,4500",
+                "ENSG01,1,1,1,TRANS01A,protein_coding,1000,5000,2,3000,5000,1,-1,1100,4500",
+                "ENSG01,1,1,2,TRANS01B,retained_intron,1100,4000,1,1100,4000,-1,-1,NULL,NULL",
+                "ENSG02,4,-1,3,TRANS02A,lincRNA,8000,11000,1,8000,9000,-1,-1,NULL,NULL",
+                "ENSG02,4,-1,3,TRANS02A,lincRNA,8000,11000,2,10000,11000,-1,-1,NULL,NULL",
+                "ENSG02,4,-1,4,TRANS02B,protein_coding,8500,12000,1,8500,12000,0,0,9000,11000",
+                "ENSG03,5,1,5,TRANS03A,protein_coding,100,900,1,100,900,-1,-1,200,800");
+
+        write(dataPath + ENSEMBL_PROTEIN_FEATURE_DATA_FILE,
+                "TranscriptId,TranslationId,ProteinFeatureId,SeqStart,SeqEnd,HitDescription",
+                "1,10,100,5,50,desc",
+                "1,10,101,60,90,other",
+                "5,11,102,10,20,desc");
+
+        write(dataPath + ENSEMBL_TRANS_SPLICE_DATA_FILE,
+                "GeneId,TransId,TransName,TransStartPos,PreSpliceAcceptorPosition,Distance",
+                "ENSG01,1,TRANS01A,1000,500,500",
+                "ENSG02,4,TRANS02B,12000,13000,1000");
+
+        // make sure the snapshot written by the test is newer than the CSVs at file system time resolution
+        for(File file : dir.listFiles())
+        {
+            file.setLastModified(System.currentTimeMillis() - 10000);
+            file.deleteOnExit();
+        }
+
+        new File(dataPath + ENSEMBL_SNAPSHOT_FILE).deleteOnExit();
+
+        return dataPath;
+    }
+
+    private static void write(final String filename, final String... lines) throws IOException
+    {
+        Files.write(new File(filename).toPath(), Lists.newArrayList(lines));
+    }
+}
@@ -0,0 +1,59 @@
+package com.hartwig.hmftools.common.ensemblcache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class IntervalIndexTest
+{
+    @Test
+    public void testOverlapsMatchLinearScan()
+    {
+        final Random random = new Random(0);
+        final List<EnsemblGeneData> genes = Lists.newArrayList();
+
+        for(int i = 0; i < 500; ++i)
+        {
+            int start = random.nextInt(1000000);
+            int length = random.nextInt(10) == 0 ? random.nextInt(200000) : random.nextInt(5000);
+            genes.add(GeneTestUtils.createEnsemblGeneData("ENSG" + i, "GENE" + i, "1", 1, start, start + length));
+        }
+
+        final IntervalIndex<EnsemblGeneData> index = new IntervalIndex<>(genes, x -> x.GeneStart, x -> x.GeneEnd);
+
+        for(int i = 0; i < 1000; ++i)
+        {
+            int posStart = random.nextInt(1100000) - 50000;
+            int posEnd = posStart + (random.nextBoolean() ? 0 : random.nextInt(100000));
+
+            final List<EnsemblGeneData> expected = genes.stream()
+                    .filter(x -> posStart <= x.GeneEnd && posEnd >= x.GeneStart)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, index.findOverlapping(posStart, posEnd));
+        }
+    }
+
+    @Test
+    public void testDetectsReplacedList()
+    {
+        final List<EnsemblGeneData> genes = Lists.newArrayList(GeneTestUtils.createEnsemblGeneData("ENSG1", "GENE1", "1", 1, 100, 200));
+        final IntervalIndex<EnsemblGeneData> index = new IntervalIndex<>(genes, x -> x.GeneStart, x -> x.GeneEnd);
+
+        assertTrue(index.indexes(genes));
+        assertTrue(index.findOverlapping(201, 300).isEmpty());
+        assertEquals(1, index.findOverlapping(200, 300).size());
+
+        genes.add(GeneTestUtils.createEnsemblGeneData("ENSG2", "GENE2", "1", 1, 250, 400));
+        assertFalse(index.indexes(genes));
+        assertFalse(index.indexes(Lists.newArrayList(genes.get(0))));
+    }
+}
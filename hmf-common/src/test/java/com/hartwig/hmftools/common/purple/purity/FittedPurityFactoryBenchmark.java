@@ -0,0 +1,140 @@
+package com.hartwig.hmftools.common.purple.purity;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosomes;
+import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosomesTest;
+import com.hartwig.hmftools.common.purple.PurityAdjuster;
+import com.hartwig.hmftools.common.purple.PurpleDatamodelTest;
+import com.hartwig.hmftools.common.purple.region.FittedRegion;
+import com.hartwig.hmftools.common.purple.region.FittedRegionFactoryV2;
+import com.hartwig.hmftools.common.purple.region.ObservedRegion;
+import com.hartwig.hmftools.common.utils.Doubles;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Single threaded purity and ploidy search over the default grid, scoring with the column kernel against fitting one
+ * FittedRegion per region and grid point, and the adaptive search. Run with main from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class FittedPurityFactoryBenchmark {
+
+    private static final double MIN_PURITY = 0.08;
+    private static final double MAX_PURITY = 1.0;
+    private static final double PURITY_INCREMENT = 0.01;
+    private static final double MIN_PLOIDY = 1;
+    private static final double MAX_PLOIDY = 8;
+
+    @Param({ "2000", "20000" })
+    public int regionCount;
+
+    private final CobaltChromosomes cobaltChromosomes = CobaltChromosomesTest.female();
+    private final FittedRegionFactoryV2 fittedRegionFactory = new FittedRegionFactoryV2(cobaltChromosomes, 100, 0.4, 0.05, 1.5, 1, 1.5, 0.1);
+    private final ExecutorService executorService = MoreExecutors.newDirectExecutorService();
+
+    private List<ObservedRegion> regions;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        regions = Lists.newArrayList();
+        for (int i = 0; i < regionCount; i++) {
+            final String chromosome = String.valueOf(1 + i * 22 / regionCount);
+            regions.add(PurpleDatamodelTest.createDefaultFittedRegion(chromosome, i * 10_000L + 1, i * 10_000L + 10_000)
+                    .observedTumorRatio(0.5 + random.nextDouble())
+                    .observedBAF(0.5 + random.nextDouble() / 2)
+                    .bafCount(1 + random.nextInt(200))
+                    .build());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdown();
+    }
+
+    @Benchmark
+    public List<FittedPurity> columnKernel() throws ExecutionException, InterruptedException {
+        return fit(false);
+    }
+
+    @Benchmark
+    public List<FittedPurity> adaptiveSearch() throws ExecutionException, InterruptedException {
+        return fit(true);
+    }
+
+    @NotNull
+    private List<FittedPurity> fit(boolean adaptiveSearch) throws ExecutionException, InterruptedException {
+        return new FittedPurityFactory(executorService,
+                cobaltChromosomes,
+                MIN_PURITY,
+                MAX_PURITY,
+                PURITY_INCREMENT,
+                MIN_PLOIDY,
+                MAX_PLOIDY,
+                0,
+                false,
+                adaptiveSearch,
+                fittedRegionFactory,
+                regions,
+                Collections.emptyList()).all();
+    }
+
+    @Benchmark
+    public void fittedRegionPerGridPoint(final Blackhole blackhole) {
+        int totalBafCount = 0;
+        double weightedRatio = 0;
+        for (ObservedRegion region : regions) {
+            totalBafCount += region.bafCount();
+            weightedRatio += region.bafCount() * region.observedTumorRatio();
+        }
+        final double averageRatio = weightedRatio / totalBafCount;
+
+        for (double purity = MIN_PURITY; Doubles.lessOrEqual(purity, MAX_PURITY); purity += PURITY_INCREMENT) {
+            for (double ploidy : FittedPurityFactory.ploidyRange(MIN_PLOIDY, MAX_PLOIDY)) {
+                final double normFactor = PurityAdjuster.impliedNormFactor(averageRatio, purity, ploidy);
+                double eventPenalty = 0;
+                double deviationPenalty = 0;
+                for (ObservedRegion region : regions) {
+                    final FittedRegion fittedRegion = fittedRegionFactory.fitRegion(purity, normFactor, region);
+                    eventPenalty += fittedRegion.eventPenalty() * region.bafCount() / totalBafCount;
+                    deviationPenalty += fittedRegion.deviationPenalty() * region.bafCount() / totalBafCount;
+                }
+                blackhole.consume(eventPenalty * deviationPenalty);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FittedPurityFactoryBenchmark.class.getSimpleName()).build()).run();
+    }
+}
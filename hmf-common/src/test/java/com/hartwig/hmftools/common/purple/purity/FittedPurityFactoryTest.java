@@ -1,9 +1,23 @@
 package com.hartwig.hmftools.common.purple.purity;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosomes;
+import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosomesTest;
+import com.hartwig.hmftools.common.purple.PurpleDatamodelTest;
+import com.hartwig.hmftools.common.purple.region.FittedRegionFactoryV2;
+import com.hartwig.hmftools.common.purple.region.ObservedRegion;
+
+import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
 public class FittedPurityFactoryTest {
@@ -43,4 +57,62 @@ public class FittedPurityFactoryTest {
         assertEquals(fixedPloidy, fixed.get(0), EPSILON);
     }
 
+    @Test
+    public void testAdaptiveSearchFindsGridBestFit() throws ExecutionException, InterruptedException {
+        final CobaltChromosomes cobaltChromosomes = CobaltChromosomesTest.female();
+        final FittedRegionFactoryV2 fittedRegionFactory = new FittedRegionFactoryV2(cobaltChromosomes, 100, 0.4, 0.05, 1.5, 1, 1.5, 0.1);
+        final ExecutorService executorService = MoreExecutors.newDirectExecutorService();
+
+        for (double[] tumor : new double[][] { { 0.35, 1 }, { 0.7, 1 }, { 0.9, 2 } }) {
+            final List<ObservedRegion> regions = simulatedTumor(tumor[0], (int) tumor[1]);
+            final FittedPurity grid = fit(executorService, cobaltChromosomes, fittedRegionFactory, regions, false).get(0);
+            final List<FittedPurity> adaptive = fit(executorService, cobaltChromosomes, fittedRegionFactory, regions, true);
+
+            assertEquals(grid, adaptive.get(0));
+            assertTrue(adaptive.size() < FittedPurityFactory.ploidyRange(1, 8).size() * 93 / 5);
+        }
+    }
+
+    @NotNull
+    private static List<FittedPurity> fit(@NotNull ExecutorService executorService, @NotNull CobaltChromosomes cobaltChromosomes,
+            @NotNull FittedRegionFactoryV2 fittedRegionFactory, @NotNull List<ObservedRegion> regions, boolean adaptiveSearch)
+            throws ExecutionException, InterruptedException {
+        return new FittedPurityFactory(executorService,
+                cobaltChromosomes,
+                0.08,
+                1.0,
+                0.01,
+                1,
+                8,
+                0,
+                false,
+                adaptiveSearch,
+                fittedRegionFactory,
+                regions,
+                Collections.emptyList()).all();
+    }
+
+    // Regions of a tumor of the given purity with copy number states around a base ploidy of 2 times the doubling
+    @NotNull
+    private static List<ObservedRegion> simulatedTumor(double purity, int doubling) {
+        final int[][] states = { { 1, 1 }, { 2, 0 }, { 2, 1 }, { 1, 0 }, { 3, 1 }, { 2, 2 } };
+        final Random random = new Random(0);
+        final List<ObservedRegion> result = Lists.newArrayList();
+        for (int i = 0; i < 300; i++) {
+            final int[] state = states[random.nextInt(states.length)];
+            final int major = state[0] * doubling;
+            final int minor = state[1] * doubling;
+            final int copyNumber = major + minor;
+
+            final double ratio = 1 - purity + purity * copyNumber / 2d;
+            final double baf = (purity * major + 1 - purity) / (purity * copyNumber + 2 * (1 - purity));
+            final String chromosome = String.valueOf(1 + i * 22 / 300);
+            result.add(PurpleDatamodelTest.createDefaultFittedRegion(chromosome, i * 10_000L + 1, i * 10_000L + 10_000)
+                    .observedTumorRatio(ratio * (1 + random.nextGaussian() * 0.02))
+                    .observedBAF(Math.max(0.5, baf + random.nextGaussian() * 0.01))
+                    .bafCount(50 + random.nextInt(100))
+                    .build());
+        }
+        return result;
+    }
 }
@@ -1,12 +1,18 @@
 package com.hartwig.hmftools.common.purple.region;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosomes;
 import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosomesTest;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+import com.hartwig.hmftools.common.purple.PurpleDatamodelTest;
 
 import org.junit.Test;
 
@@ -15,7 +21,6 @@ public class FittedRegionFactoryTest {
     private final CobaltChromosomes male = CobaltChromosomesTest.male();
     private final CobaltChromosomes female = CobaltChromosomesTest.female();
 
-
     @Test
     public void testFitYChromosome() {
         final GenomeRegion region = GenomeRegions.create("Y", 1, 100);
@@ -30,4 +35,35 @@ public class FittedRegionFactoryTest {
         assertTrue(FittedRegionFactoryV2.isAllowedRegion(female, region));
     }
 
+    @Test
+    public void testColumnFitMatchesRegionFit() {
+        final FittedRegionFactoryV2 victim = new FittedRegionFactoryV2(male, 100, 0.4, 0.05, 1.5, 1, 1.5, 0.1);
+        final Random random = new Random(0);
+        final String[] chromosomes = { "1", "2", "X", "Y" };
+
+        final List<ObservedRegion> regions = Lists.newArrayList();
+        for (int i = 0; i < 200; i++) {
+            regions.add(PurpleDatamodelTest.createDefaultFittedRegion(chromosomes[i % chromosomes.length], i * 1000 + 1, i * 1000 + 1000)
+                    .observedTumorRatio(random.nextDouble() * 3)
+                    .observedBAF(0.5 + random.nextDouble() / 2)
+                    .bafCount(random.nextInt(100))
+                    .build());
+        }
+
+        final ObservedRegionColumns columns = new ObservedRegionColumns(male, regions);
+        final RegionFits fits = new RegionFits(columns);
+        for (double purity : new double[] { 0.08, 0.5, 1 }) {
+            for (double normFactor : new double[] { 0.6, 1, 1.4 }) {
+                victim.fitRegions(purity, normFactor, columns, fits);
+                for (int i = 0; i < regions.size(); i++) {
+                    final FittedRegion expected = victim.fitRegion(purity, normFactor, regions.get(i));
+                    assertEquals(expected.tumorCopyNumber(), fits.tumorCopyNumber(i), 0);
+                    assertEquals(expected.tumorBAF(), fits.tumorBAF(i), 0);
+                    assertEquals(expected.deviationPenalty(), fits.deviationPenalty(i), 0);
+                    assertEquals(expected.eventPenalty(), fits.eventPenalty(i), 0);
+                    assertEquals(expected.isDiploid(), fits.isDiploid(i));
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,104 @@
+package com.hartwig.hmftools.common.purple.region;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.amber.AmberBAFColumns;
+import com.hartwig.hmftools.common.amber.ImmutableAmberBAF;
+import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioColumns;
+import com.hartwig.hmftools.common.cobalt.ImmutableCobaltRatio;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosomesTest;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.purple.segment.ImmutablePurpleSegment;
+import com.hartwig.hmftools.common.purple.segment.PurpleSegment;
+import com.hartwig.hmftools.common.purple.segment.SegmentSupport;
+
+import org.junit.Test;
+
+public class ObservedRegionFactoryTest {
+
+    private static final int WINDOW = 1000;
+    private static final double EPSILON = 1e-10;
+
+    @Test
+    public void testColumnsMatchMultimaps() {
+        final Random random = new Random(0);
+        final ListMultimap<Chromosome, AmberBAF> bafs = ArrayListMultimap.create();
+        final ListMultimap<Chromosome, CobaltRatio> ratios = ArrayListMultimap.create();
+        final List<PurpleSegment> segments = Lists.newArrayList();
+
+        for (String contig : new String[] { "1", "2", "X" }) {
+            final Chromosome chromosome = HumanChromosome.fromString(contig);
+            for (int position = 1; position < 1_000_000; position += 1 + random.nextInt(3000)) {
+                bafs.put(chromosome, ImmutableAmberBAF.builder()
+                        .chromosome(contig)
+                        .position(position)
+                        .tumorBAF(random.nextDouble())
+                        .tumorDepth(random.nextInt(100))
+                        .normalBAF(0.5)
+                        .normalDepth(random.nextInt(100))
+                        .build());
+            }
+
+            for (int position = 1; position < 1_000_000; position += WINDOW) {
+                ratios.put(chromosome, ImmutableCobaltRatio.builder()
+                        .chromosome(contig)
+                        .position(position)
+                        .referenceReadCount(random.nextInt(100))
+                        .tumorReadCount(random.nextInt(100))
+                        .referenceGCRatio(random.nextInt(10) == 0 ? -1 : random.nextDouble() * 2)
+                        .referenceGCDiploidRatio(random.nextDouble() * 2)
+                        .tumorGCRatio(random.nextDouble() * 2)
+                        .build());
+            }
+
+            for (int start = 1; start < 1_000_000; start += 100_000) {
+                segments.add(ImmutablePurpleSegment.builder()
+                        .chromosome(contig)
+                        .start(start)
+                        .end(start + 100_000 - 1)
+                        .ratioSupport(true)
+                        .support(SegmentSupport.BND)
+                        .svCluster(false)
+                        .minStart(start)
+                        .maxStart(start)
+                        .build());
+            }
+        }
+
+        final Map<Chromosome, AmberBAFColumns> bafColumns = Maps.newHashMap();
+        bafs.keySet().forEach(x -> bafColumns.put(x, AmberBAFColumns.fromBafs(bafs.get(x).get(0).chromosome(), bafs.get(x))));
+        final Map<Chromosome, CobaltRatioColumns> ratioColumns = Maps.newHashMap();
+        ratios.keySet().forEach(x -> ratioColumns.put(x, CobaltRatioColumns.fromRatios(ratios.get(x).get(0).chromosome(), ratios.get(x))));
+
+        final ObservedRegionFactory victim = new ObservedRegionFactory(WINDOW, CobaltChromosomesTest.female());
+        final List<ObservedRegion> expected = victim.combine(segments, bafs, ratios, ArrayListMultimap.create());
+        final List<ObservedRegion> actual = victim.combine(segments, bafColumns, ratioColumns, ArrayListMultimap.create());
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final ObservedRegion left = expected.get(i);
+            final ObservedRegion right = actual.get(i);
+            assertTrue(left.bafCount() > 0);
+            assertEquals(left.bafCount(), right.bafCount());
+            assertEquals(left.observedBAF(), right.observedBAF(), EPSILON);
+            assertEquals(left.observedTumorRatio(), right.observedTumorRatio(), EPSILON);
+            assertEquals(left.observedNormalRatio(), right.observedNormalRatio(), EPSILON);
+            assertEquals(left.unnormalisedObservedNormalRatio(), right.unnormalisedObservedNormalRatio(), EPSILON);
+            assertEquals(left.depthWindowCount(), right.depthWindowCount());
+            assertEquals(left.status(), right.status());
+            assertEquals(left.minStart(), right.minStart());
+        }
+    }
+}
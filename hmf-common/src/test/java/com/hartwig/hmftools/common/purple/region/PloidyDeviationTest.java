@@ -2,12 +2,22 @@ package com.hartwig.hmftools.common.purple.region;
 
 import static org.junit.Assert.assertEquals;
 
+import org.apache.commons.math3.distribution.NormalDistribution;
 import org.junit.Test;
 
 public class PloidyDeviationTest {
 
     private static final double EPSILON = 1e-3;
 
+    @Test
+    public void testCumulativeProbability() {
+        final NormalDistribution distribution = new NormalDistribution();
+        for (int i = -40_000; i <= 40_000; i++) {
+            final double x = i / 1000d;
+            assertEquals(distribution.cumulativeProbability(x), PloidyDeviation.cumulativeProbability(x), 1e-15);
+        }
+    }
+
     @Test
     public void testLowPurity() {
         final PloidyDeviation victim = new PloidyDeviation(0.03, 0, 1, 1, 0);
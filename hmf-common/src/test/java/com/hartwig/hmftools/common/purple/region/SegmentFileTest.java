@@ -0,0 +1,37 @@
+package com.hartwig.hmftools.common.purple.region;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.purple.PurpleDatamodelTest;
+import com.hartwig.hmftools.common.purple.segment.SegmentSupport;
+
+import org.junit.Test;
+
+public class SegmentFileTest {
+
+    @Test
+    public void testReadObservedRegion() {
+        final FittedRegion region = PurpleDatamodelTest.createDefaultFittedRegion("7", 1001, 2000)
+                .status(GermlineStatus.AMPLIFICATION)
+                .bafCount(12)
+                .observedBAF(0.6123)
+                .observedTumorRatio(1.2345)
+                .observedNormalRatio(0.9876)
+                .unnormalisedObservedNormalRatio(0.9512)
+                .ratioSupport(false)
+                .support(SegmentSupport.BND)
+                .depthWindowCount(9)
+                .gcContent(0.4321)
+                .svCluster(true)
+                .minStart(900)
+                .maxStart(1001)
+                .build();
+
+        final List<ObservedRegion> victim = SegmentFile.fromLines(Lists.newArrayList("chromosome\tstart", SegmentFile.toString(region)));
+        assertEquals(1, victim.size());
+        assertEquals(ImmutableEnrichedRegion.builder().from((ObservedRegion) region).build(), victim.get(0));
+    }
+}
@@ -0,0 +1,94 @@
+package com.hartwig.hmftools.common.sigs;
+
+import static com.hartwig.hmftools.common.sigs.SparseExpectationMaxFitTest.createCounts;
+import static com.hartwig.hmftools.common.sigs.SparseExpectationMaxFitTest.createTranscriptDefinitions;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Fits a batch of gene collections shaped like Isofox expected rates with the dense and sparse EM fits, the latter with and
+ * without SQUAREM acceleration. Run with main from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ExpectationMaxFitBenchmark
+{
+    private static final int GENE_COLLECTIONS = 200;
+
+    @Param({ "10", "100" })
+    public int transcriptCount;
+
+    private final List<SigMatrix> mDefinitions = Lists.newArrayList();
+    private final List<double[]> mCounts = Lists.newArrayList();
+    private final SparseExpectationMaxFit mSparseFit = new SparseExpectationMaxFit(false);
+    private final SparseExpectationMaxFit mAcceleratedFit = new SparseExpectationMaxFit(true);
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(0);
+
+        for(int i = 0; i < GENE_COLLECTIONS; ++i)
+        {
+            SigMatrix definitions = createTranscriptDefinitions(random, 1 + random.nextInt(transcriptCount));
+            mDefinitions.add(definitions);
+            mCounts.add(createCounts(random, definitions));
+        }
+    }
+
+    @Benchmark
+    public void denseFit(final Blackhole blackhole)
+    {
+        for(int i = 0; i < mDefinitions.size(); ++i)
+        {
+            blackhole.consume(ExpectationMaxFit.performFit(mCounts.get(i), mDefinitions.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void sparseFit(final Blackhole blackhole)
+    {
+        for(int i = 0; i < mDefinitions.size(); ++i)
+        {
+            blackhole.consume(mSparseFit.performFit(mCounts.get(i), mDefinitions.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void acceleratedFit(final Blackhole blackhole)
+    {
+        for(int i = 0; i < mDefinitions.size(); ++i)
+        {
+            blackhole.consume(mAcceleratedFit.performFit(mCounts.get(i), mDefinitions.get(i)));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(ExpectationMaxFitBenchmark.class.getSimpleName()).build()).run();
+    }
+}
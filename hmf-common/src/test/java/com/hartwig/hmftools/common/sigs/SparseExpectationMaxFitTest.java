@@ -0,0 +1,126 @@
+package com.hartwig.hmftools.common.sigs;
+
+import static com.hartwig.hmftools.common.sigs.SigUtils.calcResiduals;
+import static com.hartwig.hmftools.common.sigs.SigUtils.calculateFittedCounts;
+import static com.hartwig.hmftools.common.sigs.VectorUtils.sumVector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SparseExpectationMaxFitTest
+{
+    @Test
+    public void testMatchesDenseFit()
+    {
+        SigMatrix sigs = new SigMatrix(3, 2);
+        sigs.setCol(0, new double[] {0.2, 0.8, 0});
+        sigs.setCol(1, new double[] {0.4, 0, 0.6});
+
+        SparseExpectationMaxFit victim = new SparseExpectationMaxFit();
+
+        double[] allocations = victim.performFit(new double[] {5, 4, 6}, sigs);
+        assertEquals(5.002, allocations[0], 0.001);
+        assertEquals(9.998, allocations[1], 0.001);
+
+        Random random = new Random(1);
+
+        for(int i = 0; i < 10; ++i)
+        {
+            // buffers are reused across differently sized fits
+            SigMatrix definitions = createTranscriptDefinitions(random, 5 + random.nextInt(40));
+            double[] counts = createCounts(random, definitions);
+
+            double[] expected = ExpectationMaxFit.performFit(counts, definitions);
+            double[] actual = victim.performFit(counts, definitions);
+
+            assertEquals(expected.length, actual.length);
+
+            for(int j = 0; j < expected.length; ++j)
+            {
+                assertEquals(expected[j], actual[j], 0);
+            }
+
+            SigResiduals residuals = calcResiduals(counts, calculateFittedCounts(definitions, actual), sumVector(counts));
+            assertEquals(residuals.Total, victim.residuals().Total, 1e-9);
+        }
+    }
+
+    @Test
+    public void testAcceleratedFit()
+    {
+        Random random = new Random(2);
+        SparseExpectationMaxFit plainFit = new SparseExpectationMaxFit(false);
+        SparseExpectationMaxFit victim = new SparseExpectationMaxFit(true);
+
+        for(int i = 0; i < 10; ++i)
+        {
+            SigMatrix definitions = createTranscriptDefinitions(random, 20 + random.nextInt(30));
+            double[] counts = createCounts(random, definitions);
+
+            plainFit.performFit(counts, definitions, 0.0001, 200);
+            double[] allocations = victim.performFit(counts, definitions, 0.0001, 200);
+
+            assertEquals(sumVector(counts), sumVector(allocations), sumVector(counts) * 0.01);
+            assertTrue(allocations.length == definitions.Cols);
+
+            // converges at least as far as plain EM within the same number of steps
+            assertTrue(victim.residuals().Total <= plainFit.residuals().Total * 1.05);
+        }
+    }
+
+    public static SigMatrix createTranscriptDefinitions(final Random random, int transcriptCount)
+    {
+        // in the shape of Isofox expected rates: many more transcript combination categories than transcripts, each
+        // transcript contributing to a few of them plus shared unspliced and gene-level categories
+        int categoryCount = transcriptCount * 4 + 2;
+        SigMatrix definitions = new SigMatrix(categoryCount, transcriptCount);
+
+        for(int transId = 0; transId < transcriptCount; ++transId)
+        {
+            double[] ratios = new double[categoryCount];
+            ratios[0] = random.nextDouble();
+            ratios[1] = random.nextDouble() * 0.2;
+
+            int categories = 2 + random.nextInt(5);
+
+            for(int i = 0; i < categories; ++i)
+            {
+                ratios[2 + random.nextInt(categoryCount - 2)] += random.nextDouble();
+            }
+
+            double total = sumVector(ratios);
+
+            for(int catId = 0; catId < categoryCount; ++catId)
+            {
+                ratios[catId] /= total;
+            }
+
+            definitions.setCol(transId, ratios);
+        }
+
+        return definitions;
+    }
+
+    public static double[] createCounts(final Random random, final SigMatrix definitions)
+    {
+        double[] abundances = new double[definitions.Cols];
+
+        for(int transId = 0; transId < abundances.length; ++transId)
+        {
+            abundances[transId] = random.nextInt(4) == 0 ? 0 : random.nextDouble() * 5000;
+        }
+
+        double[] counts = calculateFittedCounts(definitions, abundances);
+
+        for(int catId = 0; catId < counts.length; ++catId)
+        {
+            counts[catId] = Math.round(counts[catId] * (0.9 + random.nextDouble() * 0.2));
+        }
+
+        return counts;
+    }
+}
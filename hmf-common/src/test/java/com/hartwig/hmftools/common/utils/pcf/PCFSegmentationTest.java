@@ -0,0 +1,149 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ToDoubleFunction;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.io.Resources;
+import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.amber.AmberBAFFile;
+import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioFile;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+import com.hartwig.hmftools.common.genome.position.GenomePositions;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenome;
+
+import org.jetbrains.annotations.NotNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PCFSegmentationTest {
+
+    private static final int WINDOW = 1000;
+    private static final String R_PATH = Resources.getResource("pcf/r").getPath() + File.separator;
+    private static final double MEAN_EPSILON = 1.0001e-4;
+
+    private ExecutorService executorService;
+    private PCFSegmentation victim;
+
+    @Before
+    public void setup() {
+        executorService = Executors.newFixedThreadPool(2);
+        final Map<Chromosome, Long> centromeres = ImmutableMap.of(HumanChromosome._1, 500_000L, HumanChromosome._2, 500_000L);
+        victim = new PCFSegmentation(executorService, centromeres);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdown();
+    }
+
+    @Test
+    public void testSegmentsSplitAtCentromere() throws ExecutionException, InterruptedException {
+        final ListMultimap<Chromosome, GenomePosition> data = ArrayListMultimap.create();
+        final Map<GenomePosition, Double> values = Maps.newHashMap();
+        final Random random = new Random(0);
+        for (String contig : new String[] { "1", "2" }) {
+            for (int i = 0; i < 1000; i++) {
+                final GenomePosition position = GenomePositions.create(contig, i * WINDOW + 1);
+                data.put(HumanChromosome.fromString(contig), position);
+                final double level = contig.equals("1") && i >= 700 && i < 800 ? 1 : 0;
+                values.put(position, i == 5 ? Double.NaN : level + random.nextGaussian() * 0.1);
+            }
+        }
+
+        final ListMultimap<Chromosome, PCFSegment> result = victim.segment(data, values::get);
+
+        final List<PCFSegment> chromosomeOne = result.get(HumanChromosome._1);
+        assertEquals(4, chromosomeOne.size());
+        assertSegment("p", 1, 499001, 499, chromosomeOne.get(0));
+        assertSegment("q", 500001, 699001, 200, chromosomeOne.get(1));
+        assertSegment("q", 700001, 799001, 100, chromosomeOne.get(2));
+        assertSegment("q", 800001, 999001, 200, chromosomeOne.get(3));
+        assertEquals(1, chromosomeOne.get(2).mean(), 0.05);
+
+        assertEquals(2, result.get(HumanChromosome._2).size());
+    }
+
+    @Test
+    public void testWriteAndReadPositions() throws ExecutionException, InterruptedException, IOException {
+        final ListMultimap<Chromosome, GenomePosition> data = ArrayListMultimap.create();
+        for (int i = 0; i < 1000; i++) {
+            data.put(HumanChromosome._1, GenomePositions.create("1", i * WINDOW + 1));
+        }
+
+        final ListMultimap<Chromosome, PCFSegment> segments = victim.segment(data, x -> x.position() > 600_000 ? 1 : 0);
+
+        final File file = File.createTempFile("segmentation", ".pcf");
+        file.deleteOnExit();
+        PCFFile.write(file.getPath(), "S1", segments.values());
+
+        final ListMultimap<Chromosome, PCFPosition> expected = PCFFile.positions(WINDOW, PCFSource.TUMOR_RATIO, segments.values());
+        final ListMultimap<Chromosome, PCFPosition> actual = PCFFile.readPositions(WINDOW, PCFSource.TUMOR_RATIO, file.getPath());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testMatchesRTumorRatioSegmentation() throws ExecutionException, InterruptedException, IOException {
+        final Multimap<Chromosome, CobaltRatio> ratios = CobaltRatioFile.read(R_PATH + "SAMPLE.cobalt.ratio.tsv");
+        assertMatchesR("SAMPLE.tumor.cobalt.ratio.pcf", ratios, x -> PCFSegmentation.log2Ratio(x.tumorGCRatio()));
+    }
+
+    @Test
+    public void testMatchesRReferenceRatioSegmentation() throws ExecutionException, InterruptedException, IOException {
+        final Multimap<Chromosome, CobaltRatio> ratios = CobaltRatioFile.read(R_PATH + "SAMPLE.cobalt.ratio.tsv");
+        assertMatchesR("SAMPLE.reference.cobalt.ratio.pcf", ratios, x -> PCFSegmentation.log2Ratio(x.referenceGCDiploidRatio()));
+    }
+
+    @Test
+    public void testMatchesRBAFSegmentation() throws ExecutionException, InterruptedException, IOException {
+        final Multimap<Chromosome, AmberBAF> bafs = AmberBAFFile.read(R_PATH + "SAMPLE.amber.baf.tsv");
+        assertMatchesR("SAMPLE.amber.baf.pcf", bafs, AmberBAF::tumorModifiedBAF);
+    }
+
+    // Expected segmentations are written by the production R scripts with pcf/r/generate.sh, which needs R with copynumber
+    private <T extends GenomePosition> void assertMatchesR(@NotNull final String expectedFile, @NotNull final Multimap<Chromosome, T> data,
+            @NotNull final ToDoubleFunction<T> value) throws ExecutionException, InterruptedException, IOException {
+        final File expectedR = new File(R_PATH + expectedFile);
+        assumeTrue("R segmentation " + expectedFile + " has not been generated", expectedR.exists());
+
+        final PCFSegmentation segmentation = new PCFSegmentation(executorService, RefGenome.HG19.centromeres());
+        final List<PCFSegment> expected = PCFFile.readSegments(expectedR.getPath());
+        final List<PCFSegment> actual = Lists.newArrayList(segmentation.segment(data, value).values());
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final PCFSegment expectedSegment = expected.get(i);
+            final PCFSegment actualSegment = actual.get(i);
+            assertEquals(expectedSegment.chromosome(), actualSegment.chromosome());
+            assertSegment(expectedSegment.arm(), expectedSegment.start(), expectedSegment.end(), expectedSegment.probes(), actualSegment);
+            assertEquals(expectedSegment.mean(), actualSegment.mean(), MEAN_EPSILON);
+        }
+    }
+
+    private static void assertSegment(String arm, long start, long end, int probes, PCFSegment segment) {
+        assertEquals(arm, segment.arm());
+        assertEquals(start, segment.start());
+        assertEquals(end, segment.end());
+        assertEquals(probes, segment.probes());
+    }
+}
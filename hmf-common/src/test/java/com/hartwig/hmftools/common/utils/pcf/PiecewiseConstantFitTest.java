@@ -0,0 +1,120 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class PiecewiseConstantFitTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void testEmptyAndShort() {
+        assertArrayEquals(new int[0], PiecewiseConstantFit.segmentStarts(new double[0], 1, 1));
+        assertArrayEquals(new int[] { 0 }, PiecewiseConstantFit.segmentStarts(new double[] { 1 }, 1, 1));
+        assertArrayEquals(new int[] { 0 }, PiecewiseConstantFit.segmentStarts(new double[] { 0, 10, 0 }, 0, 2));
+    }
+
+    @Test
+    public void testSingleOutlierIsOwnSegmentWithKminOne() {
+        final double[] values = { 0, 0, 0, 0, 5, 0, 0, 0 };
+        assertArrayEquals(new int[] { 0, 4, 5 }, PiecewiseConstantFit.segmentStarts(values, 1, 1));
+        assertArrayEquals(new int[] { 0 }, PiecewiseConstantFit.segmentStarts(values, 100, 1));
+    }
+
+    @Test
+    public void testRecoversSteps() {
+        final Random random = new Random(0);
+        final double[] values = new double[3000];
+        for (int i = 0; i < values.length; i++) {
+            final double level = i < 1000 ? 0 : i < 2200 ? 1 : -0.5;
+            values[i] = level + random.nextGaussian() * 0.1;
+        }
+
+        assertArrayEquals(new int[] { 0, 1000, 2200 }, PiecewiseConstantFit.segmentStarts(values, 100 * 0.01, 1));
+    }
+
+    @Test
+    public void testMatchesExactPcf() {
+        final Random random = new Random(1);
+        for (int kmin : new int[] { 1, 3, 5 }) {
+            for (int iteration = 0; iteration < 20; iteration++) {
+                final double[] values = new double[200 + random.nextInt(200)];
+                double level = 0;
+                for (int i = 0; i < values.length; i++) {
+                    if (random.nextInt(40) == 0) {
+                        level = random.nextGaussian();
+                    }
+                    values[i] = level + random.nextGaussian() * 0.3;
+                }
+
+                final double gamma = 0.5 + random.nextDouble() * 5;
+                assertArrayEquals(exactPcf(values, gamma, kmin), PiecewiseConstantFit.segmentStarts(values, gamma, kmin));
+            }
+        }
+    }
+
+    @Test
+    public void testMad() {
+        final double[] values = new double[1001];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 2 == 0 ? 1 : -1;
+        }
+
+        // An odd window over alternating values is dominated by the opposite sign so every difference is +-2
+        assertEquals(2 * 1.4826, PiecewiseConstantFit.mad(values, 25), EPSILON);
+        assertEquals(0, PiecewiseConstantFit.mad(new double[] { 0, 0 }, 25), EPSILON);
+    }
+
+    @Test
+    public void testRunningMedianShrinksAtEnds() {
+        final double[] values = { 5, 1, 3, 2, 4 };
+        assertArrayEquals(new double[] { 5, 3, 2, 3, 4 }, PiecewiseConstantFit.runningMedian(values, 1), EPSILON);
+        assertArrayEquals(new double[] { 5, 3, 3, 3, 4 }, PiecewiseConstantFit.runningMedian(values, 2), EPSILON);
+    }
+
+    // Quadratic search over every admissible split as in exactPcf of the R copynumber package
+    @NotNull
+    private static int[] exactPcf(@NotNull final double[] values, double gamma, int kmin) {
+        final int n = values.length;
+        final double[] bestCost = new double[n + 1];
+        final int[] bestSplit = new int[n + 1];
+        bestCost[0] = -gamma;
+        for (int t = kmin; t <= n; t++) {
+            bestCost[t] = Double.POSITIVE_INFINITY;
+            for (int tau = 0; tau <= t - kmin; tau++) {
+                if (tau != 0 && tau < kmin) {
+                    continue;
+                }
+
+                double sum = 0;
+                double sumSquares = 0;
+                for (int i = tau; i < t; i++) {
+                    sum += values[i];
+                    sumSquares += values[i] * values[i];
+                }
+
+                final double cost = bestCost[tau] + sumSquares - sum * sum / (t - tau) + gamma;
+                if (cost < bestCost[t]) {
+                    bestCost[t] = cost;
+                    bestSplit[t] = tau;
+                }
+            }
+        }
+
+        int segments = 0;
+        for (int t = n; t > 0; t = bestSplit[t]) {
+            segments++;
+        }
+
+        final int[] result = new int[segments];
+        for (int t = n; t > 0; t = bestSplit[t]) {
+            result[--segments] = bestSplit[t];
+        }
+        return result;
+    }
+}
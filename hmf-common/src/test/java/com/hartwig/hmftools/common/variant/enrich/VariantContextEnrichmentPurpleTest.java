@@ -0,0 +1,142 @@
+package com.hartwig.hmftools.common.variant.enrich;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.hartwig.hmftools.common.drivercatalog.panel.DriverGenePanelFactoryTest;
+import com.hartwig.hmftools.common.purple.PurityAdjusterTypicalChromosome;
+import com.hartwig.hmftools.common.purple.PurpleDatamodelTest;
+import com.hartwig.hmftools.common.purple.gender.Gender;
+import com.hartwig.hmftools.common.variant.SomaticVariantHeader;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
+import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderVersion;
+
+public class VariantContextEnrichmentPurpleTest {
+
+    private static final String SAMPLE = "TUMOR";
+    private static final String BASES = "ACGT";
+    private static final int LENGTH = 20000;
+
+    @Test
+    public void testParallelLanesMatchSingleLane() throws IOException {
+        final File fasta = createReference();
+        final List<String> lines = createVariants(fasta);
+
+        final List<VariantContext> expected = enrich(fasta, lines, 1, lines.size());
+        final List<VariantContext> victim = enrich(fasta, lines, 3, 50);
+
+        assertEquals(lines.size(), expected.size());
+        assertEquals(expected.size(), victim.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getStart(), victim.get(i).getStart());
+            assertEquals(expected.get(i).getAttributes(), victim.get(i).getAttributes());
+        }
+
+        assertTrue(victim.stream().allMatch(x -> x.hasAttribute(SomaticVariantHeader.PURPLE_CN_INFO)));
+        assertTrue(victim.stream().anyMatch(x -> x.hasAttribute(KataegisEnrichment.KATAEGIS_FLAG)));
+    }
+
+    @NotNull
+    private static List<VariantContext> enrich(@NotNull final File fasta, @NotNull final List<String> lines, int lanes, int batchSize)
+            throws IOException {
+        final ExecutorService executorService = Executors.newFixedThreadPool(lanes);
+        final List<IndexedFastaSequenceFile> references = Lists.newArrayList();
+        for (int i = 0; i < lanes; i++) {
+            references.add(new IndexedFastaSequenceFile(fasta));
+        }
+
+        final List<VariantContext> result = Lists.newArrayList();
+        try {
+            final VariantContextEnrichmentPurple victim = new VariantContextEnrichmentPurple(batchSize,
+                    executorService,
+                    true,
+                    10,
+                    0.05,
+                    "test",
+                    SAMPLE,
+                    references,
+                    new PurityAdjusterTypicalChromosome(Gender.FEMALE, 0.5, 1),
+                    DriverGenePanelFactoryTest.testGenePanel(),
+                    Collections.singletonList(PurpleDatamodelTest.createCopyNumber("1", 1, LENGTH, 3).build()),
+                    Collections.emptyList(),
+                    Collections.emptyList(),
+                    ArrayListMultimap.create(),
+                    Collections.emptyList(),
+                    result::add);
+
+            final VCFCodec codec = new VCFCodec();
+            codec.setVCFHeader(new VCFHeader(Sets.newHashSet(), Sets.newHashSet(SAMPLE)), VCFHeaderVersion.VCF4_2);
+            lines.stream().map(codec::decode).forEach(victim);
+            victim.flush();
+        } finally {
+            executorService.shutdown();
+            for (IndexedFastaSequenceFile reference : references) {
+                reference.close();
+            }
+        }
+
+        return result;
+    }
+
+    @NotNull
+    private static List<String> createVariants(@NotNull final File fasta) throws IOException {
+        final Random random = new Random(0);
+        final List<String> lines = Lists.newArrayList();
+        try (IndexedFastaSequenceFile reference = new IndexedFastaSequenceFile(fasta)) {
+            final String sequence = reference.getSequence("1").getBaseString();
+            for (int position = 200; position < LENGTH - 200; position += 1 + random.nextInt(60)) {
+                final char ref = sequence.charAt(position - 1);
+                final char alt = BASES.charAt((BASES.indexOf(ref) + 1 + random.nextInt(3)) % 4);
+                final int refDepth = 20 + random.nextInt(20);
+                final int altDepth = 5 + random.nextInt(20);
+                lines.add("1\t" + position + "\t.\t" + ref + "\t" + alt + "\t.\tPASS\t.\tGT:AD:DP\t0/1:" + refDepth + "," + altDepth
+                        + ":" + (refDepth + altDepth));
+            }
+        }
+        return lines;
+    }
+
+    @NotNull
+    private static File createReference() throws IOException {
+        final File fasta = File.createTempFile("enrichment", ".fasta");
+        final File index = new File(fasta.getPath() + ".fai");
+        final File dictionary = new File(fasta.getPath().replace(".fasta", ".dict"));
+        fasta.deleteOnExit();
+        index.deleteOnExit();
+        dictionary.deleteOnExit();
+
+        // Bias towards TC context so that kataegis is detected
+        final Random random = new Random(0);
+        final StringBuilder builder = new StringBuilder(">1\n");
+        for (int i = 0; i < LENGTH; i++) {
+            builder.append(random.nextInt(3) == 0 ? BASES.charAt(random.nextInt(4)) : i % 2 == 0 ? 'T' : 'C');
+            if (i % 60 == 59) {
+                builder.append('\n');
+            }
+        }
+
+        Files.write(fasta.toPath(), builder.toString().getBytes());
+        Files.write(index.toPath(), ("1\t" + LENGTH + "\t3\t60\t61\n").getBytes());
+        Files.write(dictionary.toPath(), ("@HD\tVN:1.5\n@SQ\tSN:1\tLN:" + LENGTH + "\n").getBytes());
+        return fasta;
+    }
+}
@@ -0,0 +1,11 @@
+#!/usr/bin/env bash
+# Writes the expected segmentation of each input in this directory using the production R scripts of COBALT and AMBER.
+# Requires Rscript with the copynumber package. PCFSegmentationTest compares the Java segmentation against these files.
+set -e
+
+dir=$(cd "$(dirname "$0")" && pwd)
+root=$(cd "${dir}/../../../../../.." && pwd)
+
+Rscript "${root}/count-bam-lines/src/main/resources/r/ratioSegmentation.R" "${dir}/SAMPLE.cobalt.ratio.tsv" tumorGCRatio "${dir}/SAMPLE.tumor.cobalt.ratio.pcf"
+Rscript "${root}/count-bam-lines/src/main/resources/r/ratioSegmentation.R" "${dir}/SAMPLE.cobalt.ratio.tsv" referenceGCDiploidRatio "${dir}/SAMPLE.reference.cobalt.ratio.pcf"
+Rscript "${root}/amber/src/main/resources/r/bafSegmentation.R" "${dir}/SAMPLE.amber.baf.tsv" "${dir}/SAMPLE.amber.baf.pcf"
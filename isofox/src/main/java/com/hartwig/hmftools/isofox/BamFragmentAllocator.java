@@ -92,6 +92,7 @@ public class BamFragmentAllocator
     // state relating to the current gene
     private GeneCollection mCurrentGenes;
     private final FragmentTracker mFragmentReads; // delay processing of read until both have been read
+    private int mNextMateEvictionCount;
 
     private int mGeneReadCount;
     private int mTotalBamReadCount;
@@ -131,6 +132,7 @@ public class BamFragmentAllocator
         mGeneReadCount = 0;
         mTotalBamReadCount = 0;
         mNextGeneCountLog = 0;
+        mNextMateEvictionCount = MATE_EVICTION_COUNT;
         mEnrichedGeneFragments = 0;
         mExcludedRegion = null;
         mValidReadStartRegion = new int[SE_PAIR];
@@ -177,6 +179,7 @@ public class BamFragmentAllocator
     public final ChimericReadTracker getChimericReadTracker() { return mChimericReads; }
 
     private static int GENE_LOG_COUNT = 100000;
+    private static final int MATE_EVICTION_COUNT = 50000;
 
     public void clearCache()
     {
@@ -208,6 +211,7 @@ public class BamFragmentAllocator
 
         mGeneReadCount = 0;
         mNextGeneCountLog = GENE_LOG_COUNT;
+        mNextMateEvictionCount = MATE_EVICTION_COUNT;
         mEnrichedGeneFragments = 0;
 
         // and width around the base depth region to pick up junctions outside the gene
@@ -375,6 +379,13 @@ public class BamFragmentAllocator
             return true;
         }
 
+        if(!mRunFusions && mFragmentReads.readsCount() >= mNextMateEvictionCount)
+        {
+            // lone reads are only used for fusions, so flush any whose mate has been passed and so won't arrive in this slice
+            mFragmentReads.evictMates(read.PosStart);
+            mNextMateEvictionCount = max(mFragmentReads.readsCount() * 2, MATE_EVICTION_COUNT);
+        }
+
         return false;
     }
 
@@ -1,5 +1,7 @@
 package com.hartwig.hmftools.isofox;
 
+import static java.lang.Math.max;
+
 import static com.hartwig.hmftools.common.utils.sv.SvRegion.positionsOverlap;
 import static com.hartwig.hmftools.isofox.IsofoxConfig.ISF_LOGGER;
 import static com.hartwig.hmftools.isofox.IsofoxFunction.FUSIONS;
@@ -59,6 +61,9 @@ public class BamFragmentReader implements Callable
     private final ExpectedCountsCache mExpectedCountsCache;
 
     private final List<EnsemblGeneData> mGeneDataList;
+    private int mGeneStartIndex; // range of genes processed by this task, by default the whole chromosome
+    private int mGeneEndIndex;
+    private int mLastGeneCollectionEndPosition;
     private int mCollectionId;
     private int mCurrentGeneIndex;
     private int mGenesProcessed;
@@ -100,6 +105,9 @@ public class BamFragmentReader implements Callable
         mResultsWriter = resultsWriter;
 
         mGeneDataList = geneDataList;
+        mGeneStartIndex = 0;
+        mGeneEndIndex = geneDataList.size();
+        mLastGeneCollectionEndPosition = 1;
         mCollectionId = 0;
 
         mCurrentGeneIndex = 0;
@@ -152,6 +160,19 @@ public class BamFragmentReader implements Callable
 
     public void setTaskType(TaskType taskType) { mCurrentTaskType = taskType; }
 
+    public void setGeneRange(int startIndex, int endIndex, int startCollectionId, int previousCollectionEndPosition)
+    {
+        // gene indices must fall on gene collection boundaries so each collection is processed by a single task
+        mGeneStartIndex = startIndex;
+        mGeneEndIndex = endIndex;
+        mCurrentGeneIndex = startIndex;
+        mCollectionId = startCollectionId;
+        mLastGeneCollectionEndPosition = previousCollectionEndPosition;
+    }
+
+    public int geneStartIndex() { return mGeneStartIndex; }
+    public int geneCount() { return mGeneEndIndex - mGeneStartIndex; }
+
     @Override
     public Long call()
     {
@@ -180,56 +201,26 @@ public class BamFragmentReader implements Callable
 
     public void assignTranscriptCounts()
     {
-        if(mGeneDataList.size() > 10)
+        int geneCount = geneCount();
+
+        if(geneCount > 10)
         {
-            ISF_LOGGER.info("processing {} genes for chromosome({})", mGeneDataList.size(), mChromosome);
+            ISF_LOGGER.info("processing {} genes for chromosome({})", geneCount, mChromosome);
         }
 
-        mCurrentGeneIndex = 0;
         final List<EnsemblGeneData> overlappingGenes = Lists.newArrayList();
         int nextLogCount = 100;
-        int lastGeneCollectionEndPosition = 1;
-
-        boolean genesFiltered = !mConfig.RestrictedGeneIds.isEmpty() || !mConfig.SpecificRegions.isEmpty();
 
-        while(mCurrentGeneIndex < mGeneDataList.size())
+        while(true)
         {
-            mCurrentGeneIndex = findNextOverlappingGenes(mGeneDataList, mCurrentGeneIndex, overlappingGenes);
-
-            if(!mConfig.ExcludedGeneIds.isEmpty() && overlappingGenes.stream().anyMatch(x -> mConfig.ExcludedGeneIds.contains(x.GeneId)))
-                continue;
-
-            final List<GeneReadData> geneReadDataList = createGeneReadData(overlappingGenes, mGeneTransCache);
-
-            GeneCollection geneCollection = new GeneCollection(mCollectionId++, geneReadDataList);
-            geneCollection.markEnrichedAndExcludedGenes(mConfig, mGeneTransCache);
+            final GeneCollection geneCollection = nextGeneCollection(overlappingGenes);
 
-            if(!genesFiltered) // reads will be taken from the previous gene collection's end
-            {
-                geneCollection.setNonGenicPosition(SE_START, lastGeneCollectionEndPosition);
-
-                if(mCurrentGeneIndex < mGeneDataList.size())
-                {
-                    final EnsemblGeneData nextGeneData = mGeneDataList.get(mCurrentGeneIndex);
-                    geneCollection.setNonGenicPosition(SE_END, nextGeneData.GeneStart - 1);
-                }
-                else
-                {
-                    geneCollection.setNonGenicPosition(SE_END, (int)getChromosomeLength(mChromosome) - 1000);
-                    geneCollection.setEndOfChromosome();
-                }
-            }
-            else
-            {
-                // the buffer is to be able to test out pre and post gene region reads
-                geneCollection.setNonGenicPosition(SE_START, geneCollection.regionBounds()[SE_START] - 10000);
-                geneCollection.setNonGenicPosition(SE_END, geneCollection.regionBounds()[SE_END] + 10000);
-            }
+            if(geneCollection == null)
+                break;
 
             if(geneCollection.containsExcludedGene() || (mConfig.runFusionsOnly() && geneCollection.containsEnrichedRegion()))
             {
                 // skip past this gene collection - enriched regions are not used for fusion calling
-                lastGeneCollectionEndPosition = geneCollection.regionBounds()[SE_END] + 1;
                 continue;
             }
 
@@ -241,17 +232,15 @@ public class BamFragmentReader implements Callable
             mPerfCounters[PERF_TOTAL].stop();
 
             ISF_LOGGER.debug("chr({}) gene({}) processed({} of {})",
-                    mChromosome, geneCollection.geneNames(10), mCurrentGeneIndex, mGeneDataList.size());
+                    mChromosome, geneCollection.geneNames(10), mCurrentGeneIndex - mGeneStartIndex, geneCount);
 
             mGenesProcessed += geneCollection.genes().size();
             mTotalReadsProcessed = mBamFragmentAllocator.totalReadCount();
 
-            lastGeneCollectionEndPosition = geneCollection.regionBounds()[SE_END] + 1;
-
             if (mGenesProcessed >= nextLogCount)
             {
                 nextLogCount += 100;
-                ISF_LOGGER.info("chr({}) processed {} of {} genes", mChromosome, mGenesProcessed, mGeneDataList.size());
+                ISF_LOGGER.info("chr({}) processed {} of {} genes", mChromosome, mGenesProcessed, geneCount);
 
                 if(mConfig.runFunction(FUSIONS))
                     ISF_LOGGER.debug("chr({}) chimeric data: {}", mChromosome, mChimericStats);
@@ -293,6 +282,73 @@ public class BamFragmentReader implements Callable
         }
     }
 
+    // returns the next gene collection in this task's gene range with its non-genic positions set, or null once the range is done
+    GeneCollection nextGeneCollection(final List<EnsemblGeneData> overlappingGenes)
+    {
+        boolean genesFiltered = !mConfig.RestrictedGeneIds.isEmpty() || !mConfig.SpecificRegions.isEmpty();
+
+        while(mCurrentGeneIndex < mGeneEndIndex)
+        {
+            mCurrentGeneIndex = findNextOverlappingGenes(mGeneDataList, mCurrentGeneIndex, overlappingGenes);
+
+            if(isExcludedGeneCollection(mConfig, overlappingGenes))
+                continue;
+
+            final List<GeneReadData> geneReadDataList = createGeneReadData(overlappingGenes, mGeneTransCache);
+
+            GeneCollection geneCollection = new GeneCollection(mCollectionId++, geneReadDataList);
+            geneCollection.markEnrichedAndExcludedGenes(mConfig, mGeneTransCache);
+
+            if(!genesFiltered) // reads will be taken from the previous gene collection's end
+            {
+                geneCollection.setNonGenicPosition(SE_START, mLastGeneCollectionEndPosition);
+
+                if(mCurrentGeneIndex < mGeneDataList.size())
+                {
+                    final EnsemblGeneData nextGeneData = mGeneDataList.get(mCurrentGeneIndex);
+                    geneCollection.setNonGenicPosition(SE_END, nextGeneData.GeneStart - 1);
+                }
+                else
+                {
+                    geneCollection.setNonGenicPosition(SE_END, (int)getChromosomeLength(mChromosome) - 1000);
+                    geneCollection.setEndOfChromosome();
+                }
+            }
+            else
+            {
+                // the buffer is to be able to test out pre and post gene region reads
+                geneCollection.setNonGenicPosition(SE_START, geneCollection.regionBounds()[SE_START] - 10000);
+                geneCollection.setNonGenicPosition(SE_END, geneCollection.regionBounds()[SE_END] + 10000);
+            }
+
+            mLastGeneCollectionEndPosition = geneCollection.regionBounds()[SE_END] + 1;
+            return geneCollection;
+        }
+
+        return null;
+    }
+
+    public static boolean isExcludedGeneCollection(final IsofoxConfig config, final List<EnsemblGeneData> overlappingGenes)
+    {
+        return !config.ExcludedGeneIds.isEmpty() && overlappingGenes.stream().anyMatch(x -> config.ExcludedGeneIds.contains(x.GeneId));
+    }
+
+    public static int geneCollectionEndPosition(final List<EnsemblGeneData> overlappingGenes, final EnsemblDataCache geneTransCache)
+    {
+        // the end of a gene collection's region bounds, ie its furthest transcript end rather than gene end
+        int regionEnd = 0;
+
+        for(EnsemblGeneData geneData : overlappingGenes)
+        {
+            final List<TranscriptData> transcripts = geneTransCache.getTranscripts(geneData.GeneId);
+
+            if(transcripts != null)
+                regionEnd = max(regionEnd, transcripts.stream().mapToInt(x -> x.TransEnd).max().orElse(0));
+        }
+
+        return regionEnd;
+    }
+
     public static int findNextOverlappingGenes(
             final List<EnsemblGeneData> geneDataList, int currentIndex, final List<EnsemblGeneData> overlappingGenes)
     {
@@ -4,8 +4,13 @@ import static java.lang.Math.max;
 
 import static com.hartwig.hmftools.common.sigs.SigUtils.convertToPercentages;
 import static com.hartwig.hmftools.common.sigs.VectorUtils.copyVector;
+import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion.stripChromosome;
+import static com.hartwig.hmftools.common.utils.sv.SvCommonUtils.chromosomeRank;
 import static com.hartwig.hmftools.common.utils.sv.SvRegion.positionsOverlap;
 import static com.hartwig.hmftools.isofox.BamFragmentReader.PERF_FIT;
+import static com.hartwig.hmftools.isofox.BamFragmentReader.findNextOverlappingGenes;
+import static com.hartwig.hmftools.isofox.BamFragmentReader.geneCollectionEndPosition;
+import static com.hartwig.hmftools.isofox.BamFragmentReader.isExcludedGeneCollection;
 import static com.hartwig.hmftools.isofox.IsofoxConfig.GENE_TRANSCRIPTS_DIR;
 import static com.hartwig.hmftools.isofox.IsofoxConfig.LOG_DEBUG;
 import static com.hartwig.hmftools.isofox.IsofoxConfig.ISF_LOGGER;
@@ -26,6 +31,7 @@ import static com.hartwig.hmftools.isofox.adjusts.GcRatioCounts.writeReadGcRatio
 import static com.hartwig.hmftools.isofox.results.SummaryStats.createSummaryStats;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -71,10 +77,15 @@ public class Isofox
     private final ExpectedCountsCache mExpectedCountsCache;
     private final GcTranscriptCalculator mGcTranscriptCalcs;
     private final FusionTaskManager mFusionTaskManager;
+    private final TaskExecutor mTaskExecutor;
 
     private int mMaxObservedReadLength;
     private final List<FragmentSize> mFragmentLengthDistribution;
 
+    // chromosomes are split into work units of roughly this many per thread so large chromosomes don't leave threads idle
+    private static final int WORK_UNITS_PER_THREAD = 4;
+    private static final int MIN_WORK_UNIT_GENES = 100;
+
     public Isofox(final IsofoxConfig config, final CommandLine cmd)
     {
         mConfig = config;
@@ -98,11 +109,23 @@ public class Isofox
 
         mFusionTaskManager = mConfig.runFunction(FUSIONS) ? new FusionTaskManager(mConfig, mGeneTransCache) : null;
 
+        mTaskExecutor = new TaskExecutor(mConfig.Threads);
+
+        if(mFusionTaskManager != null)
+            mFusionTaskManager.setTaskExecutor(mTaskExecutor);
+
         mMaxObservedReadLength = 0;
         mFragmentLengthDistribution = Lists.newArrayList();
     }
 
     public boolean runAnalysis()
+    {
+        boolean status = runFunctions();
+        mTaskExecutor.shutdown();
+        return status;
+    }
+
+    private boolean runFunctions()
     {
         if(mConfig.runFunction(FUSIONS) && mConfig.Fusions.ChimericReadsFile != null)
         {
@@ -166,22 +189,18 @@ public class Isofox
             }
         }
 
-        final List<BamFragmentReader> chrTasks = Lists.newArrayList();
-        final List<Callable> callableList = Lists.newArrayList();
+        // tasks are kept in chromosome and position order for merging results, and run largest first
+        final List<BamFragmentReader> chrTasks = createBamFragmentReaders(chrGeneMap);
 
-        for(Map.Entry<String,List<EnsemblGeneData>> entry : chrGeneMap.entrySet())
-        {
-            BamFragmentReader bamReaderTask = new BamFragmentReader(
-                    mConfig, entry.getKey(), entry.getValue(), mGeneTransCache, mResultsWriter,
-                    mFusionTaskManager, mExpectedCountsCache, mGcTranscriptCalcs);
+        final List<Callable> callableList = chrTasks.stream()
+                .sorted((x, y) -> Integer.compare(y.geneCount(), x.geneCount()))
+                .collect(Collectors.toList());
 
-            chrTasks.add(bamReaderTask);
-            callableList.add(bamReaderTask);
-        }
+        ISF_LOGGER.debug("split {} chromosomes into {} BAM read tasks", chrGeneMap.size(), chrTasks.size());
 
         chrTasks.forEach(x -> x.setTaskType(TRANSCRIPT_COUNTS));
 
-        if(!TaskExecutor.executeChromosomeTask(callableList, mConfig.Threads))
+        if(!mTaskExecutor.executeTasks(callableList))
             return false;
 
         int totalReadsProcessed = chrTasks.stream().mapToInt(x -> x.totalReadCount()).sum();
@@ -209,6 +228,85 @@ public class Isofox
         return true;
     }
 
+    private List<BamFragmentReader> createBamFragmentReaders(final Map<String,List<EnsemblGeneData>> chrGeneMap)
+    {
+        // fusion calling tracks chimeric reads across all of a chromosome's gene collections so cannot be split
+        int totalGenes = chrGeneMap.values().stream().mapToInt(x -> x.size()).sum();
+        boolean splitChromosomes = mConfig.Threads > 1 && !mConfig.runFunction(FUSIONS);
+        int workUnitGenes = splitChromosomes ? max(totalGenes / (mConfig.Threads * WORK_UNITS_PER_THREAD), MIN_WORK_UNIT_GENES) : 0;
+
+        final List<String> chromosomes = chrGeneMap.keySet().stream()
+                .sorted(Comparator.comparingInt((String x) -> chromosomeRank(stripChromosome(x))).thenComparing(x -> x))
+                .collect(Collectors.toList());
+
+        final List<BamFragmentReader> chrTasks = Lists.newArrayList();
+
+        for(final String chromosome : chromosomes)
+        {
+            final List<EnsemblGeneData> geneDataList = chrGeneMap.get(chromosome);
+
+            if(workUnitGenes == 0 || geneDataList.size() <= workUnitGenes)
+            {
+                chrTasks.add(createBamFragmentReader(chromosome, geneDataList));
+                continue;
+            }
+
+            for(final int[] geneRange : splitGeneRanges(mConfig, mGeneTransCache, geneDataList, workUnitGenes))
+            {
+                BamFragmentReader bamReaderTask = createBamFragmentReader(chromosome, geneDataList);
+                bamReaderTask.setGeneRange(geneRange[0], geneRange[1], geneRange[2], geneRange[3]);
+                chrTasks.add(bamReaderTask);
+            }
+        }
+
+        return chrTasks;
+    }
+
+    static List<int[]> splitGeneRanges(
+            final IsofoxConfig config, final EnsemblDataCache geneTransCache, final List<EnsemblGeneData> geneDataList, int workUnitGenes)
+    {
+        // split on the same gene collection boundaries as the reader, carrying forward the collection ID and previous collection
+        // end position as a single reader would track them - each range is gene start and end index, collection ID and position
+        final List<int[]> geneRanges = Lists.newArrayList();
+        final List<EnsemblGeneData> overlappingGenes = Lists.newArrayList();
+
+        int geneIndex = 0;
+        int startIndex = 0;
+        int collectionId = 0;
+        int startCollectionId = 0;
+        int lastCollectionEnd = 1;
+        int startCollectionEnd = 1;
+
+        while(geneIndex < geneDataList.size())
+        {
+            geneIndex = findNextOverlappingGenes(geneDataList, geneIndex, overlappingGenes);
+
+            if(!isExcludedGeneCollection(config, overlappingGenes))
+            {
+                ++collectionId;
+                lastCollectionEnd = geneCollectionEndPosition(overlappingGenes, geneTransCache) + 1;
+            }
+
+            if(geneIndex - startIndex < workUnitGenes && geneIndex < geneDataList.size())
+                continue;
+
+            geneRanges.add(new int[] { startIndex, geneIndex, startCollectionId, startCollectionEnd });
+
+            startIndex = geneIndex;
+            startCollectionId = collectionId;
+            startCollectionEnd = lastCollectionEnd;
+        }
+
+        return geneRanges;
+    }
+
+    private BamFragmentReader createBamFragmentReader(final String chromosome, final List<EnsemblGeneData> geneDataList)
+    {
+        return new BamFragmentReader(
+                mConfig, chromosome, geneDataList, mGeneTransCache, mResultsWriter,
+                mFusionTaskManager, mExpectedCountsCache, mGcTranscriptCalcs);
+    }
+
     private void processBamFragments(final List<BamFragmentReader> chrTasks, final List<Callable> callableList)
     {
         int[] totalCounts = new int[typeAsInt(FragmentType.MAX)];
@@ -292,7 +390,7 @@ public class Isofox
 
         // now re-fit all transcripts
         chrTasks.forEach(x -> x.setTaskType(APPLY_GC_ADJUSTMENT));
-        TaskExecutor.executeChromosomeTask(callableList, mConfig.Threads);
+        mTaskExecutor.executeTasks(callableList);
     }
 
     private Map<String,List<EnsemblGeneData>> getChromosomeGeneLists()
@@ -340,7 +438,7 @@ public class Isofox
         }
 
         final List<Callable> callableList = fragSizeCalcs.stream().collect(Collectors.toList());
-        boolean validExecution = TaskExecutor.executeChromosomeTask(callableList, mConfig.Threads);
+        boolean validExecution = mTaskExecutor.executeTasks(callableList);
 
         if(!validExecution)
             return;
@@ -391,7 +489,7 @@ public class Isofox
             callableList.add(gcCalcs);
         }
 
-        boolean taskStatus = TaskExecutor.executeChromosomeTask(callableList, mConfig.Threads);
+        boolean taskStatus = mTaskExecutor.executeTasks(callableList);
         mGcTranscriptCalcs.close();
         return taskStatus;
     }
@@ -411,7 +509,7 @@ public class Isofox
             callableList.add(expressionTask);
         }
 
-        return TaskExecutor.executeChromosomeTask(callableList, mConfig.Threads);
+        return mTaskExecutor.executeTasks(callableList);
     }
 
     private boolean countBamReads(final Map<String,List<EnsemblGeneData>> chrGeneMap)
@@ -429,7 +527,7 @@ public class Isofox
             callableList.add(bamReaderTask);
         }
 
-        return TaskExecutor.executeChromosomeTask(callableList, mConfig.Threads);
+        return mTaskExecutor.executeTasks(callableList);
     }
 
     public static void main(@NotNull final String[] args) throws ParseException
@@ -1,68 +1,225 @@
 package com.hartwig.hmftools.isofox.common;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
-import com.google.common.collect.Maps;
+import com.google.common.collect.Lists;
 
 public class FragmentTracker
 {
-    private final Map<String,Object> mReadMap;
+    // open-addressing table keyed by a 64-bit hash of the read ID, using linear probing and with the read ID kept to
+    // verify a match in the event of a hash collision - parallel arrays avoid a map entry object per unpaired read
+    private long[] mHashes;
+    private String[] mReadIds;
+    private Object[] mValues;
+    private int[] mMatePositions;
+    private int mCount;
+    private int mMask;
+
+    public static final int UNKNOWN_MATE_POSITION = Integer.MAX_VALUE; // never evicted
+    public static final int NO_MATE_POSITION = -1; // mate is unmapped or on another chromosome, so evicted by any sweep
+
+    private static final Object READ_ID_MARKER = new Object();
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_RETAINED_CAPACITY = INITIAL_CAPACITY * 64;
 
     public FragmentTracker()
     {
-        mReadMap = Maps.newHashMap();
+        allocate(INITIAL_CAPACITY);
     }
 
-    public List<Object> getValues() { return mReadMap.values().stream().collect(Collectors.toList()); }
+    public List<Object> getValues()
+    {
+        final List<Object> values = Lists.newArrayListWithExpectedSize(mCount);
+
+        for(int i = 0; i < mReadIds.length; ++i)
+        {
+            if(mReadIds[i] != null)
+                values.add(mValues[i]);
+        }
+
+        return values;
+    }
 
-    public int readsCount() { return mReadMap.size(); }
+    public int readsCount() { return mCount; }
 
     public boolean checkReadId(final String readId)
     {
-        Integer count = (Integer) mReadMap.get(readId);
+        return checkRead(readId, READ_ID_MARKER, UNKNOWN_MATE_POSITION) != null;
+    }
+
+    public ReadRecord checkRead(final ReadRecord read)
+    {
+        int matePosition = read.isMateUnmapped() || read.isTranslocation() ? NO_MATE_POSITION : read.mateStartPosition();
+        return (ReadRecord)checkRead(read.Id, read, matePosition);
+    }
 
-        if(count == null)
+    public Object checkRead(final String readId, final Object store)
+    {
+        return checkRead(readId, store, UNKNOWN_MATE_POSITION);
+    }
+
+    public Object checkRead(final String readId, final Object store, int matePosition)
+    {
+        // returns the stored mate and removes it if present, otherwise caches this read until its mate arrives
+        long hash = readIdHash(readId);
+        int slot = findSlot(readId, hash);
+
+        if(mReadIds[slot] != null)
         {
-            mReadMap.put(readId, 1);
-            return false;
+            Object otherStore = mValues[slot];
+            removeSlot(slot);
+            return otherStore;
         }
 
-        mReadMap.remove(readId);
-        return true;
+        mHashes[slot] = hash;
+        mReadIds[slot] = readId;
+        mValues[slot] = store;
+        mMatePositions[slot] = matePosition;
+        ++mCount;
+
+        if(mCount > (mReadIds.length >> 1) + (mReadIds.length >> 2))
+            rebuild(mReadIds.length * 2, Integer.MIN_VALUE);
+
+        return null;
     }
 
-    public ReadRecord checkRead(final ReadRecord read)
+    public int evictMates(int position)
     {
-        ReadRecord otherRead = (ReadRecord)mReadMap.get(read.Id);
+        // with reads arriving in position order, a mate starting before this position which has not been seen cannot now arrive
+        int prevCount = mCount;
+        int survivors = 0;
 
-        if(otherRead == null)
+        for(int i = 0; i < mReadIds.length; ++i)
         {
-            mReadMap.put(read.Id, read);
-            return null;
+            if(mReadIds[i] != null && mMatePositions[i] >= position)
+                ++survivors;
         }
 
-        mReadMap.remove(read.Id);
-        return otherRead;
+        if(survivors == prevCount)
+            return 0;
+
+        int capacity = INITIAL_CAPACITY;
+
+        while(capacity < survivors * 2)
+        {
+            capacity *= 2;
+        }
+
+        rebuild(capacity, position);
+        return prevCount - mCount;
     }
 
-    public Object checkRead(final String readId, final Object store)
+    public void clear()
+    {
+        if(mReadIds.length > MAX_RETAINED_CAPACITY)
+        {
+            // release the memory from a highly expressed gene collection
+            allocate(INITIAL_CAPACITY);
+            return;
+        }
+
+        Arrays.fill(mReadIds, null);
+        Arrays.fill(mValues, null);
+        mCount = 0;
+    }
+
+    public static long readIdHash(final String readId)
     {
-        Object otherStore = mReadMap.get(readId);
+        // FNV-1a, then a final mix so the low bits used for the slot index depend on the whole read ID
+        long hash = 0xcbf29ce484222325L;
 
-        if(otherStore == null)
+        for(int i = 0; i < readId.length(); ++i)
         {
-            mReadMap.put(readId, store);
-            return null;
+            hash ^= readId.charAt(i);
+            hash *= 0x100000001b3L;
         }
 
-        mReadMap.remove(readId);
-        return otherStore;
+        hash ^= (hash >>> 33);
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= (hash >>> 33);
+        return hash;
     }
 
-    public void clear()
+    private int findSlot(final String readId, long hash)
+    {
+        int slot = (int)hash & mMask;
+
+        while(mReadIds[slot] != null)
+        {
+            if(mHashes[slot] == hash && mReadIds[slot].equals(readId))
+                return slot;
+
+            slot = (slot + 1) & mMask;
+        }
+
+        return slot;
+    }
+
+    private void removeSlot(int slot)
+    {
+        // shift any following entries in the probe sequence back into the gap so no deletion markers are required
+        int gap = slot;
+        int next = (slot + 1) & mMask;
+
+        while(mReadIds[next] != null)
+        {
+            int home = (int)mHashes[next] & mMask;
+
+            if(((next - home) & mMask) >= ((next - gap) & mMask))
+            {
+                mHashes[gap] = mHashes[next];
+                mReadIds[gap] = mReadIds[next];
+                mValues[gap] = mValues[next];
+                mMatePositions[gap] = mMatePositions[next];
+                gap = next;
+            }
+
+            next = (next + 1) & mMask;
+        }
+
+        mReadIds[gap] = null;
+        mValues[gap] = null;
+        --mCount;
+    }
+
+    private void rebuild(int capacity, int minMatePosition)
+    {
+        final long[] hashes = mHashes;
+        final String[] readIds = mReadIds;
+        final Object[] values = mValues;
+        final int[] matePositions = mMatePositions;
+
+        allocate(capacity);
+
+        for(int i = 0; i < readIds.length; ++i)
+        {
+            if(readIds[i] == null || matePositions[i] < minMatePosition)
+                continue;
+
+            int slot = (int)hashes[i] & mMask;
+
+            while(mReadIds[slot] != null)
+            {
+                slot = (slot + 1) & mMask;
+            }
+
+            mHashes[slot] = hashes[i];
+            mReadIds[slot] = readIds[i];
+            mValues[slot] = values[i];
+            mMatePositions[slot] = matePositions[i];
+            ++mCount;
+        }
+    }
+
+    private void allocate(int capacity)
     {
-        mReadMap.clear();
+        mHashes = new long[capacity];
+        mReadIds = new String[capacity];
+        mValues = new Object[capacity];
+        mMatePositions = new int[capacity];
+        mMask = capacity - 1;
+        mCount = 0;
     }
 }
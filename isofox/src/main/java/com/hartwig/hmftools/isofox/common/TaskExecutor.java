@@ -14,9 +14,22 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 public class TaskExecutor
 {
-    public static boolean executeChromosomeTask(final List<Callable> tasks, int threadCount)
+    private final int mThreadCount;
+
+    // created on first use and then shared by each phase until shutdown
+    private ExecutorService mExecutorService;
+
+    public TaskExecutor(int threadCount)
+    {
+        mThreadCount = threadCount;
+        mExecutorService = null;
+    }
+
+    public int threadCount() { return mThreadCount; }
+
+    public boolean executeTasks(final List<Callable> tasks)
     {
-        if(threadCount <= 1)
+        if(mThreadCount <= 1)
         {
             for(Callable task : tasks)
             {
@@ -34,9 +47,13 @@ public class TaskExecutor
             return true;
         }
 
-        final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("Isofox-%d").build();
+        if(mExecutorService == null)
+        {
+            final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("Isofox-%d").build();
+            mExecutorService = Executors.newFixedThreadPool(mThreadCount, namedThreadFactory);
+        }
 
-        ExecutorService executorService = Executors.newFixedThreadPool(threadCount, namedThreadFactory);
+        // idle threads take the next queued task, so callers should order tasks from largest to smallest
         List<FutureTask> threadTaskList = new ArrayList<FutureTask>();
 
         for(Callable task : tasks)
@@ -44,14 +61,27 @@ public class TaskExecutor
             FutureTask futureTask = new FutureTask(task);
 
             threadTaskList.add(futureTask);
-            executorService.execute(futureTask);
+            mExecutorService.execute(futureTask);
         }
 
-        if(!checkThreadCompletion(threadTaskList))
-            return false;
+        return checkThreadCompletion(threadTaskList);
+    }
 
-        executorService.shutdown();
-        return true;
+    public void shutdown()
+    {
+        if(mExecutorService != null)
+        {
+            mExecutorService.shutdown();
+            mExecutorService = null;
+        }
+    }
+
+    public static boolean executeChromosomeTask(final List<Callable> tasks, int threadCount)
+    {
+        final TaskExecutor taskExecutor = new TaskExecutor(threadCount);
+        boolean status = taskExecutor.executeTasks(tasks);
+        taskExecutor.shutdown();
+        return status;
     }
 
     private static boolean checkThreadCompletion(final List<FutureTask> taskList)
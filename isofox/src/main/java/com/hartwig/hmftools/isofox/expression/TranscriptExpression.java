@@ -4,7 +4,6 @@ import static java.lang.Math.abs;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 
-import static com.hartwig.hmftools.common.sigs.SigUtils.calcResiduals;
 import static com.hartwig.hmftools.common.sigs.SigUtils.calculateFittedCounts;
 import static com.hartwig.hmftools.common.sigs.VectorUtils.sumVector;
 import static com.hartwig.hmftools.common.utils.Strings.appendStrList;
@@ -26,8 +25,8 @@ import java.util.Map;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.ensemblcache.TranscriptData;
-import com.hartwig.hmftools.common.sigs.ExpectationMaxFit;
 import com.hartwig.hmftools.common.sigs.SigResiduals;
+import com.hartwig.hmftools.common.sigs.SparseExpectationMaxFit;
 import com.hartwig.hmftools.isofox.IsofoxConfig;
 import com.hartwig.hmftools.isofox.adjusts.FragmentSize;
 import com.hartwig.hmftools.isofox.adjusts.GcRatioCounts;
@@ -45,6 +44,7 @@ public class TranscriptExpression
 
     private final Map<String,ExpectedRatesData> mExpectedRatesDataMap; // cached computed results for this chromosome
     private ExpectedRatesData mCurrentExpRatesData;
+    private final SparseExpectationMaxFit mExpectationMaxFit;
 
     private final List<Double> mFragmentFrequencyRates;
 
@@ -56,6 +56,7 @@ public class TranscriptExpression
         mCache = cache;
         mExpectedRatesDataMap = Maps.newHashMap();
         mCurrentExpRatesData = null;
+        mExpectationMaxFit = new SparseExpectationMaxFit();
 
         // convert fragment distribution counts to rates
         double totalFrequencyFrags = mConfig.FragmentSizeData.stream().mapToDouble(x -> x.Frequency).sum();
@@ -119,11 +120,10 @@ public class TranscriptExpression
 
         final List<String> transcriptIds = mCurrentExpRatesData.TranscriptIds;
 
-        final double[] fitAllocations = ExpectationMaxFit.performFit(transComboCounts, mCurrentExpRatesData.getTranscriptDefinitions());
-        final double[] fittedCounts = calculateFittedCounts(mCurrentExpRatesData.getTranscriptDefinitions(), fitAllocations);
+        final double[] fitAllocations = mExpectationMaxFit.performFit(transComboCounts, mCurrentExpRatesData.getTranscriptDefinitions());
         double fitTotal = sumVector(fitAllocations);
 
-        SigResiduals residuals = calcResiduals(transComboCounts, fittedCounts, totalCounts);
+        final SigResiduals residuals = mExpectationMaxFit.residuals();
 
         ISF_LOGGER.debug(String.format("gene(%s) totalFragments(%.0f) fitTotal(%.0f) residuals(%.0f perc=%.3f)",
                 geneSummaryData.GeneNames, totalCounts, fitTotal, residuals.Total, residuals.Percent));
@@ -149,6 +149,8 @@ public class TranscriptExpression
 
         if(mConfig.WriteTransComboData)
         {
+            final double[] fittedCounts = calculateFittedCounts(mCurrentExpRatesData.getTranscriptDefinitions(), fitAllocations);
+
             writeCategoryCounts(mResultsWriter.getCategoryCountsWriter(), geneSummaryData.ChrId, mCurrentExpRatesData.Categories,
                     geneSummaryData.TransCategoryCounts, transComboCounts, fittedCounts, mConfig.ApplyGcBiasAdjust);
         }
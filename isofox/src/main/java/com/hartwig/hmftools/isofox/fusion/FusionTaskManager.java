@@ -36,6 +36,7 @@ public class FusionTaskManager
     private final Map<String,Map<String,ReadGroup>> mIncompleteReadGroups; // keyed by chromosome then readId
 
     private final PerformanceCounter mPerfCounter;
+    private TaskExecutor mTaskExecutor;
 
     public FusionTaskManager(final IsofoxConfig config, final EnsemblDataCache geneTransCache)
     {
@@ -51,8 +52,11 @@ public class FusionTaskManager
 
         mPerfCounter = new PerformanceCounter("Fusions");
         mFusionWriter = new FusionWriter(mConfig);
+        mTaskExecutor = null;
     }
 
+    public void setTaskExecutor(final TaskExecutor taskExecutor) { mTaskExecutor = taskExecutor; }
+
     public FusionFinder createFusionFinder(final String id)
     {
         return new FusionFinder(id, mConfig, mGeneTransCache, mGeneFilters, mFusionWriter);
@@ -251,7 +255,11 @@ public class FusionTaskManager
         else
         {
             final List<Callable> callableList = mFusionTasks.stream().collect(Collectors.toList());
-            TaskExecutor.executeChromosomeTask(callableList, mConfig.Threads);
+            if(mTaskExecutor != null)
+                mTaskExecutor.executeTasks(callableList);
+            else
+                TaskExecutor.executeChromosomeTask(callableList, mConfig.Threads);
+
             logPerformanceStats();
         }
 
@@ -0,0 +1,113 @@
+package com.hartwig.hmftools.isofox;
+
+import static com.hartwig.hmftools.common.ensemblcache.GeneTestUtils.addGeneData;
+import static com.hartwig.hmftools.common.ensemblcache.GeneTestUtils.addTransExonData;
+import static com.hartwig.hmftools.common.ensemblcache.GeneTestUtils.createEnsemblGeneData;
+import static com.hartwig.hmftools.common.ensemblcache.GeneTestUtils.createGeneDataCache;
+import static com.hartwig.hmftools.common.ensemblcache.GeneTestUtils.createTransExons;
+import static com.hartwig.hmftools.common.ensemblcache.GeneTestUtils.generateExonStarts;
+import static com.hartwig.hmftools.common.ensemblcache.TranscriptProteinData.BIOTYPE_PROTEIN_CODING;
+import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_END;
+import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_START;
+import static com.hartwig.hmftools.isofox.TestUtils.CHR_1;
+import static com.hartwig.hmftools.isofox.TestUtils.EXON_LENGTH;
+import static com.hartwig.hmftools.isofox.TestUtils.POS_STRAND;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
+import com.hartwig.hmftools.common.ensemblcache.EnsemblGeneData;
+import com.hartwig.hmftools.common.ensemblcache.TranscriptData;
+import com.hartwig.hmftools.isofox.common.GeneCollection;
+import com.hartwig.hmftools.isofox.results.ResultsWriter;
+
+import org.junit.Test;
+
+public class GeneRangeSplitTest
+{
+    @Test
+    public void testSplitGeneRangesMatchSingleReader()
+    {
+        IsofoxConfig config = new IsofoxConfig();
+        EnsemblDataCache geneTransCache = createGeneDataCache();
+
+        List<EnsemblGeneData> geneList = Lists.newArrayList();
+
+        addGene(geneTransCache, geneList, "ENSG0001", 1000, 1500, 3);
+        addGene(geneTransCache, geneList, "ENSG0002", 3000, 3500, 3);
+        addGene(geneTransCache, geneList, "ENSG0003", 3300, 3800, 3); // overlaps the previous gene
+        addGene(geneTransCache, geneList, "ENSG0004", 6000, 6500, 3); // excluded
+        addGene(geneTransCache, geneList, "ENSG0005", 8000, 8200, 5); // transcript extends past the gene end
+        addGene(geneTransCache, geneList, "ENSG0006", 10000, 10500, 3);
+        addGene(geneTransCache, geneList, "ENSG0007", 12000, 12500, 3); // excluded
+        addGene(geneTransCache, geneList, "ENSG0008", 14000, 14500, 3);
+        addGene(geneTransCache, geneList, "ENSG0009", 16000, 16500, 3);
+        addGene(geneTransCache, geneList, "ENSG0010", 18000, 18500, 3);
+        addGeneData(geneTransCache, CHR_1, geneList);
+
+        config.ExcludedGeneIds.add("ENSG0004");
+        config.ExcludedGeneIds.add("ENSG0007");
+
+        final List<String> expectedCollections = geneCollections(createReader(config, geneTransCache, geneList));
+        assertEquals(7, expectedCollections.size());
+
+        for(int workUnitGenes = 1; workUnitGenes <= 4; ++workUnitGenes)
+        {
+            final List<int[]> geneRanges = Isofox.splitGeneRanges(config, geneTransCache, geneList, workUnitGenes);
+            assertTrue(geneRanges.size() > 1);
+
+            final List<String> splitCollections = Lists.newArrayList();
+
+            for(final int[] geneRange : geneRanges)
+            {
+                BamFragmentReader reader = createReader(config, geneTransCache, geneList);
+                reader.setGeneRange(geneRange[0], geneRange[1], geneRange[2], geneRange[3]);
+                splitCollections.addAll(geneCollections(reader));
+            }
+
+            assertEquals(expectedCollections, splitCollections);
+        }
+    }
+
+    private static void addGene(
+            final EnsemblDataCache geneTransCache, final List<EnsemblGeneData> geneList,
+            final String geneId, int geneStart, int geneEnd, int exonCount)
+    {
+        geneList.add(createEnsemblGeneData(geneId, geneId, CHR_1, POS_STRAND, geneStart, geneEnd));
+
+        TranscriptData transData = createTransExons(
+                geneId, geneList.size(), POS_STRAND, generateExonStarts(geneStart, exonCount, EXON_LENGTH, 100),
+                EXON_LENGTH, null, null, true, BIOTYPE_PROTEIN_CODING);
+
+        addTransExonData(geneTransCache, geneId, Lists.newArrayList(transData));
+    }
+
+    private static BamFragmentReader createReader(
+            final IsofoxConfig config, final EnsemblDataCache geneTransCache, final List<EnsemblGeneData> geneList)
+    {
+        return new BamFragmentReader(config, CHR_1, geneList, geneTransCache, new ResultsWriter(config), null, null, null);
+    }
+
+    private static List<String> geneCollections(final BamFragmentReader reader)
+    {
+        // each gene collection's ID, genes and non-genic read region, as used to slice the BAM
+        final List<String> geneCollections = Lists.newArrayList();
+        final List<EnsemblGeneData> overlappingGenes = Lists.newArrayList();
+
+        GeneCollection geneCollection = reader.nextGeneCollection(overlappingGenes);
+
+        while(geneCollection != null)
+        {
+            geneCollections.add(String.format("%s %s %d-%d", geneCollection.chrId(), geneCollection.geneIds(),
+                    geneCollection.getNonGenicPositions()[SE_START], geneCollection.getNonGenicPositions()[SE_END]));
+
+            geneCollection = reader.nextGeneCollection(overlappingGenes);
+        }
+
+        return geneCollections;
+    }
+}
@@ -170,6 +170,48 @@ public class ReadUtilsTest
         assertEquals(read3, fragTracker.checkRead(read3b));
 
         assertEquals(0, fragTracker.readsCount());
+
+        // enough reads to grow the table, then remove every other one to exercise probe sequences
+        for(int i = 0; i < 5000; ++i)
+        {
+            assertEquals(null, fragTracker.checkRead(String.valueOf(i), i));
+        }
+
+        assertEquals(5000, fragTracker.readsCount());
+
+        for(int i = 0; i < 5000; i += 2)
+        {
+            assertEquals(i, fragTracker.checkRead(String.valueOf(i), -1));
+        }
+
+        assertEquals(2500, fragTracker.readsCount());
+
+        for(int i = 1; i < 5000; i += 2)
+        {
+            assertEquals(i, fragTracker.checkRead(String.valueOf(i), -1));
+        }
+
+        assertEquals(0, fragTracker.readsCount());
+
+        // lone reads are evicted once their mate's position has been passed
+        ReadRecord read4 = createReadRecord(4, "1", 300, 400, REF_BASE_STR_1, createCigar(0, 50, 0), 0, "1", 250);
+        ReadRecord read5 = createReadRecord(5, "1", 300, 400, REF_BASE_STR_1, createCigar(0, 50, 0), 0, "1", 500);
+        ReadRecord read6 = createReadRecord(6, "1", 300, 400, REF_BASE_STR_1, createCigar(0, 50, 0), 0, "2", 100);
+
+        fragTracker.checkRead(read4);
+        fragTracker.checkRead(read5);
+        fragTracker.checkRead(read6);
+        fragTracker.checkRead("read7", read1);
+
+        assertEquals(2, fragTracker.evictMates(300));
+        assertEquals(2, fragTracker.readsCount());
+        assertEquals(0, fragTracker.evictMates(400));
+        assertTrue(fragTracker.getValues().contains(read5));
+        assertTrue(fragTracker.getValues().contains(read1));
+
+        fragTracker.clear();
+        assertEquals(0, fragTracker.readsCount());
+        assertTrue(fragTracker.getValues().isEmpty());
     }
 
     @Test
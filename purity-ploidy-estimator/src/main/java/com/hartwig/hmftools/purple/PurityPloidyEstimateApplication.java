@@ -11,6 +11,7 @@ import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -18,8 +19,7 @@ import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Multimap;
-import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.amber.AmberBAFColumns;
 import com.hartwig.hmftools.common.drivercatalog.CNADrivers;
 import com.hartwig.hmftools.common.drivercatalog.DriverCatalog;
 import com.hartwig.hmftools.common.drivercatalog.DriverCatalogFile;
@@ -130,7 +130,7 @@ public class PurityPloidyEstimateApplication {
 
             // Load Amber Data
             final Gender amberGender = configSupplier.amberData().gender();
-            final Multimap<Chromosome, AmberBAF> bafs = configSupplier.amberData().bafs();
+            final Map<Chromosome, AmberBAFColumns> bafs = configSupplier.amberData().bafs();
             int averageTumorDepth = configSupplier.amberData().averageTumorDepth();
 
             // Load Cobalt Data
@@ -220,7 +220,7 @@ public class PurityPloidyEstimateApplication {
             final List<PeakModel> somaticPeaks = modelSomaticPeaks(configSupplier.somaticConfig(), enrichedSomatics);
 
             LOGGER.info("Enriching somatic variants");
-            final SomaticStream somaticStream = new SomaticStream(configSupplier);
+            final SomaticStream somaticStream = new SomaticStream(configSupplier, executorService, threads);
             somaticStream.processAndWrite(purityAdjuster, copyNumbers, enrichedFittedRegions, somaticPeaks);
 
             final PurityContext purityContext = ImmutablePurityContext.builder()
@@ -286,7 +286,7 @@ public class PurityPloidyEstimateApplication {
                     enrichedSomatics,
                     structuralVariants.variants(),
                     fittedRegions,
-                    Lists.newArrayList(bafs.values()));
+                    AmberBAFColumns.asList(bafs.values()));
 
         } finally {
             executorService.shutdown();
@@ -328,6 +328,7 @@ public class PurityPloidyEstimateApplication {
                 fittingConfig.maxPloidy(),
                 somaticFitConfig.somaticPenaltyWeight(),
                 configSupplier.commonConfig().tumorOnly(),
+                fittingConfig.adaptiveFit(),
                 fittedRegionFactory,
                 observedRegions,
                 snpSomatics);
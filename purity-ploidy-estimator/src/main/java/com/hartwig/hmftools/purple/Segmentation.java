@@ -2,11 +2,11 @@ package com.hartwig.hmftools.purple;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
-import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
-import com.hartwig.hmftools.common.amber.AmberBAF;
-import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.amber.AmberBAFColumns;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioColumns;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.gc.GCProfile;
 import com.hartwig.hmftools.common.genome.gc.GCProfileFactory;
@@ -29,10 +29,10 @@ class Segmentation {
     private static final Logger LOGGER = LogManager.getLogger(Segmentation.class);
 
     private final CommonConfig config;
-    private final Multimap<Chromosome, AmberBAF> bafs;
+    private final Map<Chromosome, AmberBAFColumns> bafs;
     private final Multimap<Chromosome, PCFPosition> pcfPositions;
     private final Multimap<Chromosome, GCProfile> gcProfiles;
-    private final ListMultimap<Chromosome, CobaltRatio> ratios;
+    private final Map<Chromosome, CobaltRatioColumns> ratios;
     private final ConfigSupplier configSupplier;
 
     public Segmentation(@NotNull final ConfigSupplier configSupplier) throws IOException {
@@ -3,9 +3,11 @@ package com.hartwig.hmftools.purple.config;
 import java.io.File;
 import java.io.IOException;
 import java.text.DecimalFormat;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 import com.google.common.collect.Multimap;
-import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.amber.AmberBAFColumns;
 import com.hartwig.hmftools.common.amber.AmberBAFFile;
 import com.hartwig.hmftools.common.amber.qc.AmberQCFile;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
@@ -33,7 +35,7 @@ public interface AmberData {
     Gender gender();
 
     @NotNull
-    Multimap<Chromosome, AmberBAF> bafs();
+    Map<Chromosome, AmberBAFColumns> bafs();
 
     @NotNull
     Multimap<Chromosome, PCFPosition> tumorSegments();
@@ -65,7 +67,7 @@ public interface AmberData {
         final double contamination = AmberQCFile.read(qcFile).contamination();
 
         LOGGER.info("Reading amber bafs from {}", amberFilename);
-        final Multimap<Chromosome, AmberBAF> bafs = AmberBAFFile.read(amberFilename);
+        final Map<Chromosome, AmberBAFColumns> bafs = AmberBAFFile.readColumns(amberFilename);
 
         LOGGER.info("Reading amber pcfs from {}", pcfFilename);
         final Multimap<Chromosome, PCFPosition> tumorSegments =
@@ -73,7 +75,7 @@ public interface AmberData {
 
         int averageTumorDepth = (int) Math.round(bafs.values()
                 .stream()
-                .mapToInt(AmberBAF::tumorDepth)
+                .flatMapToInt(x -> IntStream.range(0, x.size()).map(x::tumorDepth))
                 .filter(x -> x > 0)
                 .average()
                 .orElse(DEFAULT_READ_DEPTH));
@@ -3,10 +3,10 @@ package com.hartwig.hmftools.purple.config;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
-import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
-import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioColumns;
 import com.hartwig.hmftools.common.cobalt.CobaltRatioFile;
 import com.hartwig.hmftools.common.cobalt.MedianRatio;
 import com.hartwig.hmftools.common.cobalt.MedianRatioFactory;
@@ -34,7 +34,7 @@ public interface CobaltData {
     CobaltChromosomes cobaltChromosomes();
 
     @NotNull
-    ListMultimap<Chromosome, CobaltRatio> ratios();
+    Map<Chromosome, CobaltRatioColumns> ratios();
 
     @NotNull
     Multimap<Chromosome, PCFPosition> tumorSegments();
@@ -67,9 +67,9 @@ public interface CobaltData {
         }
 
         LOGGER.info("Reading cobalt ratios from {}", cobaltFilename);
-        final ListMultimap<Chromosome, CobaltRatio> ratios = commonConfig.tumorOnly()
-                ? CobaltRatioFile.readTumorOnly(cobaltFilename, amberGender)
-                : CobaltRatioFile.read(cobaltFilename);
+        final Map<Chromosome, CobaltRatioColumns> ratios = commonConfig.tumorOnly()
+                ? CobaltRatioFile.readTumorOnlyColumns(cobaltFilename, amberGender)
+                : CobaltRatioFile.readColumns(cobaltFilename);
 
         LOGGER.info("Reading cobalt reference segments from {}", referenceSegmentFile);
         final Multimap<Chromosome, PCFPosition> referenceSegments =
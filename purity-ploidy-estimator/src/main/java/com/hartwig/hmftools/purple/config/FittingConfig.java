@@ -17,6 +17,7 @@ public interface FittingConfig {
     String PURITY_INCREMENT = "purity_increment";
     String MIN_PLOIDY = "min_ploidy";
     String MAX_PLOIDY = "max_ploidy";
+    String ADAPTIVE_FIT = "adaptive_fit";
 
     double MIN_PURITY_DEFAULT = 0.08;
     double MAX_PURITY_DEFAULT = 1.0;
@@ -31,6 +32,7 @@ public interface FittingConfig {
 
         options.addOption(MIN_PLOIDY, true, "Minimum ploidy (default " + MIN_PLOIDY_DEFAULT + ")");
         options.addOption(MAX_PLOIDY, true, "Maximum ploidy (default " + MAX_PLOIDY_DEFAULT + ")");
+        options.addOption(ADAPTIVE_FIT, false, "Search purity and ploidy coarse to fine rather than over every increment");
     }
 
     double minPurity();
@@ -43,6 +45,7 @@ public interface FittingConfig {
 
     double maxPloidy();
 
+    boolean adaptiveFit();
 
     @NotNull
     static FittingConfig createConfig(@NotNull final CommandLine cmd) {
@@ -58,6 +61,7 @@ public interface FittingConfig {
                 .purityIncrement(purityIncrement)
                 .minPloidy(minPloidy)
                 .maxPloidy(maxPloidy)
+                .adaptiveFit(cmd.hasOption(ADAPTIVE_FIT))
                 .build();
 
     }
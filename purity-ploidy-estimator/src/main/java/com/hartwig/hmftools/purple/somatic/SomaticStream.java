@@ -5,8 +5,11 @@ import static com.hartwig.hmftools.common.variant.SomaticVariantHeader.REPORTED_
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 
+import com.google.common.collect.Lists;
+
 import com.hartwig.hmftools.common.drivercatalog.DriverCatalog;
 import com.hartwig.hmftools.common.drivercatalog.SomaticVariantDrivers;
 import com.hartwig.hmftools.common.drivercatalog.panel.DriverGenePanel;
@@ -55,8 +58,12 @@ public class SomaticStream {
     private final RChartData rChartData;
     private final List<CanonicalTranscript> transcripts;
     private final DriverGenePanel genePanel;
+    private final ExecutorService executorService;
+    private final int threads;
 
-    public SomaticStream(final ConfigSupplier configSupplier) {
+    public SomaticStream(final ConfigSupplier configSupplier, final ExecutorService executorService, int threads) {
+        this.executorService = executorService;
+        this.threads = threads;
         this.genePanel = configSupplier.driverCatalogConfig().genePanel();
         this.somaticFitConfig = configSupplier.somaticConfig();
         this.commonConfig = configSupplier.commonConfig();
@@ -119,21 +126,26 @@ public class SomaticStream {
                 });
 
         if (enabled) {
-            try (IndexedFastaSequenceFile indexedFastaSequenceFile = new IndexedFastaSequenceFile(new File(refGenomeData.refGenome()));
-                    VCFFileReader vcfReader = new VCFFileReader(new File(inputVCF), false);
+            final List<IndexedFastaSequenceFile> references = Lists.newArrayList();
+            try (VCFFileReader vcfReader = new VCFFileReader(new File(inputVCF), false);
                     VariantContextWriter writer = new VariantContextWriterBuilder().setOutputFile(outputVCF)
                             .setOption(htsjdk.variant.variantcontext.writer.Options.ALLOW_MISSING_FIELDS_IN_HEADER)
                             .build()) {
 
+                for (int i = 0; i < Math.max(1, threads); i++) {
+                    references.add(new IndexedFastaSequenceFile(new File(refGenomeData.refGenome())));
+                }
+
                 final Consumer<VariantContext> consumer =
                         microsatelliteIndels.andThen(driverConsumer).andThen(writer::add).andThen(rChartData);
 
-                final VariantContextEnrichmentPurple enricher = new VariantContextEnrichmentPurple(driverCatalogConfig.enabled(),
+                final VariantContextEnrichmentPurple enricher = new VariantContextEnrichmentPurple(executorService,
+                        driverCatalogConfig.enabled(),
                         somaticFitConfig.clonalityMaxPloidy(),
                         somaticFitConfig.clonalityBinWidth(),
                         commonConfig.version(),
                         commonConfig.tumorSample(),
-                        indexedFastaSequenceFile,
+                        references,
                         purityAdjuster,
                         genePanel,
                         copyNumbers,
@@ -152,6 +164,10 @@ public class SomaticStream {
 
                 enricher.flush();
                 rChartData.write();
+            } finally {
+                for (IndexedFastaSequenceFile reference : references) {
+                    reference.close();
+                }
             }
         }
     }
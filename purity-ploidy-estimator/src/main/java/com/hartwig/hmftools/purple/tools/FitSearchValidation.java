@@ -0,0 +1,215 @@
+package com.hartwig.hmftools.purple.tools;
+
+import static com.hartwig.hmftools.purple.config.FitScoreConfig.PLOIDY_PENALTY_FACTOR_DEFAULT;
+import static com.hartwig.hmftools.purple.config.FitScoreConfig.PLOIDY_PENALTY_MIN_DEFAULT;
+import static com.hartwig.hmftools.purple.config.FitScoreConfig.PLOIDY_PENALTY_MIN_STANDARD_DEVIATION_DEFAULT;
+import static com.hartwig.hmftools.purple.config.FitScoreConfig.PLOIDY_PENALTY_STANDARD_DEVIATION_DEFAULT;
+import static com.hartwig.hmftools.purple.config.FitScoreConfig.PLOIDY_PENALTY_SUB_MIN_ADDITIONAL_DEFAULT;
+import static com.hartwig.hmftools.purple.config.FitScoreConfig.PLOIDY_PENALTY_SUB_ONE_MAJOR_ALLELE_MULTIPLIER_DEFAULT;
+import static com.hartwig.hmftools.purple.config.FittingConfig.MAX_PLOIDY_DEFAULT;
+import static com.hartwig.hmftools.purple.config.FittingConfig.MAX_PURITY_DEFAULT;
+import static com.hartwig.hmftools.purple.config.FittingConfig.MIN_PLOIDY_DEFAULT;
+import static com.hartwig.hmftools.purple.config.FittingConfig.MIN_PURITY_DEFAULT;
+import static com.hartwig.hmftools.purple.config.FittingConfig.PURITY_INCREMENT_DEFAULT;
+import static com.hartwig.hmftools.purple.config.SomaticFitConfig.HIGHLY_DIPLOID_PERCENTAGE_DEFAULT;
+import static com.hartwig.hmftools.purple.config.SomaticFitConfig.SOMATIC_MIN_PEAK_DEFAULT;
+import static com.hartwig.hmftools.purple.config.SomaticFitConfig.SOMATIC_MIN_PURITY_DEFAULT;
+import static com.hartwig.hmftools.purple.config.SomaticFitConfig.SOMATIC_MIN_PURITY_SPREAD_DEFAULT;
+import static com.hartwig.hmftools.purple.config.SomaticFitConfig.SOMATIC_MIN_VARIANTS_DEFAULT;
+import static com.hartwig.hmftools.purple.config.SomaticFitConfig.SOMATIC_PENALTY_WEIGHT_DEFAULT;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.DecimalFormat;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hartwig.hmftools.common.amber.AmberBAFFile;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioFile;
+import com.hartwig.hmftools.common.cobalt.MedianRatioFactory;
+import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosomes;
+import com.hartwig.hmftools.common.purple.purity.BestFit;
+import com.hartwig.hmftools.common.purple.purity.BestFitFactory;
+import com.hartwig.hmftools.common.purple.purity.FittedPurity;
+import com.hartwig.hmftools.common.purple.purity.FittedPurityFactory;
+import com.hartwig.hmftools.common.purple.region.FittedRegionFactory;
+import com.hartwig.hmftools.common.purple.region.FittedRegionFactoryV2;
+import com.hartwig.hmftools.common.purple.region.ObservedRegion;
+import com.hartwig.hmftools.common.purple.region.SegmentFile;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Re-fits the segments of a regression cohort with both the full grid and the adaptive purity/ploidy search and reports
+ * whether they arrive at the same best fit. Each line of the cohort file is: sample, purple dir, amber dir, cobalt dir.
+ */
+public class FitSearchValidation {
+
+    private static final Logger LOGGER = LogManager.getLogger(FitSearchValidation.class);
+    private static final DecimalFormat FORMAT = new DecimalFormat("0.0000");
+
+    private static final String COHORT = "cohort";
+    private static final String THREADS = "threads";
+    private static final int DEFAULT_READ_DEPTH = 100;
+
+    public static void main(String[] args) throws ParseException, IOException, ExecutionException, InterruptedException {
+        final Options options = createOptions();
+        final CommandLine cmd = createCommandLine(args, options);
+        final String cohortFile = cmd.getOptionValue(COHORT);
+
+        if (cohortFile == null) {
+            final HelpFormatter formatter = new HelpFormatter();
+            formatter.printHelp("FitSearchValidation", options);
+            System.exit(1);
+        }
+
+        final int threads = cmd.hasOption(THREADS) ? Integer.parseInt(cmd.getOptionValue(THREADS)) : 1;
+        final ExecutorService executorService =
+                Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("-%d").build());
+
+        int samples = 0;
+        int matches = 0;
+        try {
+            for (String line : Files.readAllLines(new File(cohortFile).toPath())) {
+                final String[] values = line.split("\t");
+                if (values.length < 4 || values[0].startsWith("#")) {
+                    continue;
+                }
+
+                samples++;
+                if (validate(executorService, values[0], values[1], values[2], values[3])) {
+                    matches++;
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        LOGGER.info("Adaptive search matched grid best fit in {} of {} samples", matches, samples);
+        if (matches != samples) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean validate(@NotNull final ExecutorService executorService, @NotNull final String sample,
+            @NotNull final String purpleDir, @NotNull final String amberDir, @NotNull final String cobaltDir)
+            throws IOException, ExecutionException, InterruptedException {
+
+        final List<ObservedRegion> regions = SegmentFile.read(SegmentFile.generateFilename(purpleDir, sample));
+        final CobaltChromosomes cobaltChromosomes = new CobaltChromosomes(MedianRatioFactory.create(CobaltRatioFile.readColumns(
+                CobaltRatioFile.generateFilenameForReading(cobaltDir, sample))));
+        final int averageTumorDepth = (int) Math.round(AmberBAFFile.readColumns(AmberBAFFile.generateAmberFilenameForReading(amberDir,
+                sample))
+                .values()
+                .stream()
+                .flatMapToInt(x -> IntStream.range(0, x.size()).map(x::tumorDepth))
+                .filter(x -> x > 0)
+                .average()
+                .orElse(DEFAULT_READ_DEPTH));
+
+        final FittedRegionFactory fittedRegionFactory = new FittedRegionFactoryV2(cobaltChromosomes,
+                averageTumorDepth,
+                PLOIDY_PENALTY_FACTOR_DEFAULT,
+                PLOIDY_PENALTY_STANDARD_DEVIATION_DEFAULT,
+                PLOIDY_PENALTY_MIN_STANDARD_DEVIATION_DEFAULT,
+                PLOIDY_PENALTY_SUB_ONE_MAJOR_ALLELE_MULTIPLIER_DEFAULT,
+                PLOIDY_PENALTY_SUB_MIN_ADDITIONAL_DEFAULT,
+                PLOIDY_PENALTY_MIN_DEFAULT);
+
+        long start = System.currentTimeMillis();
+        final FittedPurityFactory grid = fit(executorService, cobaltChromosomes, fittedRegionFactory, regions, false);
+        final long gridTime = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        final FittedPurityFactory adaptive = fit(executorService, cobaltChromosomes, fittedRegionFactory, regions, true);
+        final long adaptiveTime = System.currentTimeMillis() - start;
+
+        final FittedPurity gridFit = bestFit(grid).fit();
+        final FittedPurity adaptiveFit = bestFit(adaptive).fit();
+        final boolean match = Double.compare(gridFit.purity(), adaptiveFit.purity()) == 0
+                && Double.compare(gridFit.ploidy(), adaptiveFit.ploidy()) == 0;
+
+        LOGGER.info("{} grid[purity={}, ploidy={}, score={}, evaluated={}, millis={}] adaptive[purity={}, ploidy={}, score={}, "
+                        + "evaluated={}, millis={}] {}",
+                sample,
+                FORMAT.format(gridFit.purity()),
+                FORMAT.format(gridFit.ploidy()),
+                FORMAT.format(gridFit.score()),
+                grid.all().size(),
+                gridTime,
+                FORMAT.format(adaptiveFit.purity()),
+                FORMAT.format(adaptiveFit.ploidy()),
+                FORMAT.format(adaptiveFit.score()),
+                adaptive.all().size(),
+                adaptiveTime,
+                match ? "MATCH" : "MISMATCH");
+
+        return match;
+    }
+
+    @NotNull
+    private static FittedPurityFactory fit(@NotNull final ExecutorService executorService,
+            @NotNull final CobaltChromosomes cobaltChromosomes, @NotNull final FittedRegionFactory fittedRegionFactory,
+            @NotNull final List<ObservedRegion> regions, boolean adaptiveSearch) throws ExecutionException, InterruptedException {
+        return new FittedPurityFactory(executorService,
+                cobaltChromosomes,
+                MIN_PURITY_DEFAULT,
+                MAX_PURITY_DEFAULT,
+                PURITY_INCREMENT_DEFAULT,
+                MIN_PLOIDY_DEFAULT,
+                MAX_PLOIDY_DEFAULT,
+                SOMATIC_PENALTY_WEIGHT_DEFAULT,
+                false,
+                adaptiveSearch,
+                fittedRegionFactory,
+                regions,
+                Collections.emptyList());
+    }
+
+    @NotNull
+    private static BestFit bestFit(@NotNull final FittedPurityFactory factory) {
+        return new BestFitFactory(false,
+                0,
+                0,
+                MIN_PURITY_DEFAULT,
+                MAX_PURITY_DEFAULT,
+                SOMATIC_MIN_VARIANTS_DEFAULT,
+                SOMATIC_MIN_PEAK_DEFAULT,
+                HIGHLY_DIPLOID_PERCENTAGE_DEFAULT,
+                SOMATIC_MIN_PURITY_DEFAULT,
+                SOMATIC_MIN_PURITY_SPREAD_DEFAULT,
+                1000,
+                5000,
+                factory.all(),
+                Collections.emptyList(),
+                Collections.emptyList()).bestFit();
+    }
+
+    @NotNull
+    private static Options createOptions() {
+        final Options options = new Options();
+        options.addOption(COHORT, true, "Tab separated file of sample, purple dir, amber dir and cobalt dir");
+        options.addOption(THREADS, true, "Number of threads (default 1)");
+        return options;
+    }
+
+    @NotNull
+    private static CommandLine createCommandLine(@NotNull final String[] args, @NotNull final Options options) throws ParseException {
+        final CommandLineParser parser = new DefaultParser();
+        return parser.parse(options, args);
+    }
+}
@@ -27,6 +27,7 @@ import com.hartwig.hmftools.sage.pipeline.AdditionalReferencePipeline;
 import com.hartwig.hmftools.sage.pipeline.ChromosomePartition;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationSupplier;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.vcf.SageVCF;
 
 import org.apache.commons.cli.CommandLine;
@@ -74,6 +75,7 @@ public class SageAppendApplication implements AutoCloseable {
     private final ExecutorService executorService;
     private final IndexedFastaSequenceFile refGenome;
     private final QualityRecalibrationSupplier qualityRecalibrationSupplier;
+    private final SamReaderPool samReaderPool;
     private final AbstractFeatureReader<VariantContext, LineIterator> inputReader;
     private final long timeStamp = System.currentTimeMillis();
 
@@ -87,7 +89,8 @@ public class SageAppendApplication implements AutoCloseable {
         final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("SAGE-%d").build();
         executorService = Executors.newFixedThreadPool(config.threads(), namedThreadFactory);
         refGenome = new IndexedFastaSequenceFile(new File(config.refGenome()));
-        qualityRecalibrationSupplier = new QualityRecalibrationSupplier(executorService, refGenome, config);
+        samReaderPool = new SamReaderPool(config.refGenome());
+        qualityRecalibrationSupplier = new QualityRecalibrationSupplier(executorService, refGenome, config, samReaderPool);
 
         final String inputVcf = config.inputFile();
         inputReader = AbstractFeatureReader.getFeatureReader(inputVcf, new VCFCodec(), false);
@@ -107,7 +110,7 @@ public class SageAppendApplication implements AutoCloseable {
         final SAMSequenceDictionary dictionary = dictionary();
         final List<Future<List<VariantContext>>> futures = Lists.newArrayList();
         final Map<String, QualityRecalibrationMap> recalibrationMap = qualityRecalibrationSupplier.get();
-        final AdditionalReferencePipeline pipeline = new AdditionalReferencePipeline(config, executorService, refGenome, recalibrationMap);
+        final AdditionalReferencePipeline pipeline = new AdditionalReferencePipeline(config, executorService, refGenome, recalibrationMap, samReaderPool);
 
         for (final SAMSequenceRecord samSequenceRecord : dictionary.getSequences()) {
             final String contig = samSequenceRecord.getSequenceName();
@@ -137,6 +140,7 @@ public class SageAppendApplication implements AutoCloseable {
         outputVCF.close();
         refGenome.close();
         executorService.shutdown();
+        samReaderPool.close();
         long timeTaken = System.currentTimeMillis() - timeStamp;
         LOGGER.info("Completed in {} seconds", timeTaken / 1000);
     }
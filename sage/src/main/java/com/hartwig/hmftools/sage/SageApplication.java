@@ -2,15 +2,20 @@ package com.hartwig.hmftools.sage;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.collect.SortedSetMultimap;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -29,8 +34,10 @@ import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.coverage.Coverage;
 import com.hartwig.hmftools.sage.coverage.GeneDepthFile;
 import com.hartwig.hmftools.sage.pipeline.ChromosomePipeline;
+import com.hartwig.hmftools.sage.pipeline.ChromosomeReorderBuffer;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationSupplier;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.vcf.SageVCF;
 
 import org.apache.commons.cli.CommandLine;
@@ -49,6 +56,7 @@ import htsjdk.samtools.SamReader;
 import htsjdk.samtools.SamReaderFactory;
 import htsjdk.samtools.cram.ref.ReferenceSource;
 import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.variant.variantcontext.VariantContext;
 
 public class SageApplication implements AutoCloseable {
 
@@ -59,6 +67,7 @@ public class SageApplication implements AutoCloseable {
     private final ExecutorService executorService;
     private final IndexedFastaSequenceFile refGenome;
     private final QualityRecalibrationSupplier qualityRecalibrationSupplier;
+    private final SamReaderPool samReaderPool;
 
     private final ListMultimap<Chromosome, NamedBed> panelWithoutHotspots;
     private final ListMultimap<Chromosome, GenomeRegion> panelWithHotspots;
@@ -91,7 +100,8 @@ public class SageApplication implements AutoCloseable {
         final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("SAGE-%d").build();
         executorService = Executors.newFixedThreadPool(config.threads(), namedThreadFactory);
         refGenome = new IndexedFastaSequenceFile(new File(config.refGenome()));
-        qualityRecalibrationSupplier = new QualityRecalibrationSupplier(executorService, refGenome, config);
+        samReaderPool = new SamReaderPool(config.refGenome());
+        qualityRecalibrationSupplier = new QualityRecalibrationSupplier(executorService, refGenome, config, samReaderPool);
 
         vcf = new SageVCF(refGenome, config);
         LOGGER.info("Writing to file: {}", config.outputFile());
@@ -113,17 +123,79 @@ public class SageApplication implements AutoCloseable {
         final Coverage coverage = createCoverage();
 
         final Map<String, QualityRecalibrationMap> recalibrationMap = qualityRecalibrationSupplier.get();
-        final SAMSequenceDictionary dictionary = dictionary();
-        for (final SAMSequenceRecord samSequenceRecord : dictionary.getSequences()) {
+        final List<String> contigs = Lists.newArrayList();
+        for (final SAMSequenceRecord samSequenceRecord : dictionary().getSequences()) {
             final String contig = samSequenceRecord.getSequenceName();
             if (config.chromosomes().isEmpty() || config.chromosomes().contains(contig)) {
                 if (HumanChromosome.contains(contig) || MitochondrialChromosome.contains(contig)) {
-                    try (final ChromosomePipeline pipeline = createChromosomePipeline(contig, coverage, recalibrationMap)) {
-                        pipeline.process();
+                    contigs.add(contig);
+                }
+            }
+        }
+
+        // Regions of all chromosomes share the executor so it does not idle at the tail of each chromosome.
+        // Each chromosome is still phased in order and the reorder buffer keeps the vcf in dictionary order.
+        final ChromosomeReorderBuffer<VariantContext> reorderBuffer = new ChromosomeReorderBuffer<>(contigs, vcf::write);
+        final Semaphore regionsInFlight = new Semaphore(config.maxRegionsInFlight());
+        final List<ChromosomePipeline> pipelines = Lists.newArrayList();
+        final List<CompletableFuture<?>> chromosomes = Lists.newArrayList();
+        try {
+            for (final String contig : contigs) {
+                if (reorderBuffer.failed()) {
+                    break;
+                }
+
+                final ChromosomePipeline pipeline =
+                        createChromosomePipeline(contig, coverage, recalibrationMap, reorderBuffer.consumer(contig));
+                pipelines.add(pipeline);
+
+                // A region holds its permit until its output has been written rather than buffered, which bounds the reorder buffer.
+                // The current chromosome is always fully submitted before blocking here so its completion frees the held permits.
+                // A failed chromosome releases all held permits, after which no further regions are submitted.
+                for (final GenomeRegion region : pipeline.partition()) {
+                    regionsInFlight.acquire();
+                    if (reorderBuffer.failed()) {
+                        regionsInFlight.release();
+                        break;
+                    }
+
+                    pipeline.submit(region).whenComplete((aVoid, error) -> {
+                        if (error != null) {
+                            regionsInFlight.release();
+                        } else {
+                            reorderBuffer.release(contig, regionsInFlight::release);
+                        }
+                    });
+                }
+
+                chromosomes.add(pipeline.complete().whenComplete((complete, error) -> {
+                    if (error != null) {
+                        reorderBuffer.fail();
+                    } else {
+                        reorderBuffer.complete(contig);
+                    }
+                }));
+            }
+
+            // Wait for every submitted chromosome before closing the pipelines, then surface the first error
+            ExecutionException firstError = null;
+            for (final CompletableFuture<?> chromosome : chromosomes) {
+                try {
+                    chromosome.get();
+                } catch (ExecutionException e) {
+                    if (firstError == null) {
+                        firstError = e;
                     }
-                    System.gc();
                 }
             }
+
+            if (firstError != null) {
+                throw firstError;
+            }
+        } finally {
+            for (final ChromosomePipeline pipeline : pipelines) {
+                pipeline.close();
+            }
         }
 
         //                createChromosomePipeline("10", recalibrationMap).process(130404941, 130405950);
@@ -147,7 +219,8 @@ public class SageApplication implements AutoCloseable {
     }
 
     private ChromosomePipeline createChromosomePipeline(@NotNull final String contig, @NotNull final Coverage coverage,
-            @NotNull Map<String, QualityRecalibrationMap> qualityRecalibrationMap) throws IOException {
+            @NotNull Map<String, QualityRecalibrationMap> qualityRecalibrationMap, @NotNull final Consumer<VariantContext> consumer)
+            throws IOException {
         final Chromosome chromosome =
                 HumanChromosome.contains(contig) ? HumanChromosome.fromString(contig) : MitochondrialChromosome.fromString(contig);
         return new ChromosomePipeline(contig,
@@ -158,7 +231,8 @@ public class SageApplication implements AutoCloseable {
                 highConfidence.get(chromosome),
                 qualityRecalibrationMap,
                 coverage,
-                vcf::write);
+                samReaderPool,
+                consumer);
     }
 
     @Override
@@ -166,6 +240,7 @@ public class SageApplication implements AutoCloseable {
         vcf.close();
         refGenome.close();
         executorService.shutdown();
+        samReaderPool.close();
     }
 
     @NotNull
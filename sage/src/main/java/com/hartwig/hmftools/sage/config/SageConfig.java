@@ -54,6 +54,8 @@ public interface SageConfig {
     String MNV = "mnv_enabled";
     String READ_CONTEXT_FLANK_SIZE = "read_context_flank_size";
     String PANEL_COVERAGE = "panel_coverage";
+    String FUSED_EVIDENCE = "fused_evidence";
+    String ADAPTIVE_PARTITION = "adaptive_partition";
 
     int DEFAULT_THREADS = 2;
     int DEFAULT_MIN_MAP_QUALITY = 10;
@@ -79,6 +81,8 @@ public interface SageConfig {
         options.addOption(PANEL_ONLY, false, "Only examine panel for variants");
         options.addOption(HOTSPOTS, true, "Hotspots");
         options.addOption(PANEL_COVERAGE, true, "Create panel coverage states [" + DEFAULT_PANEL_COVERAGE + "]");
+        options.addOption(FUSED_EVIDENCE, false, "Read each tumor slice once for both candidates and read context evidence");
+        options.addOption(ADAPTIVE_PARTITION, false, "Size regions by read density estimated from the tumor bam index");
         commonOptions().getOptions().forEach(options::addOption);
         FilterConfig.createOptions().getOptions().forEach(options::addOption);
         return options;
@@ -165,6 +169,10 @@ public interface SageConfig {
 
     boolean mnvEnabled();
 
+    boolean fusedEvidence();
+
+    boolean adaptivePartition();
+
     @NotNull
     String hotspots();
 
@@ -198,6 +206,18 @@ public interface SageConfig {
         return 50;
     }
 
+    default int maxRegionsInFlight() {
+        return 4 * threads();
+    }
+
+    default int maxFusedEvidenceReads() {
+        return 500_000;
+    }
+
+    default int maxEvidenceCandidates() {
+        return 1_000;
+    }
+
     int readContextFlankSize();
 
     @NotNull
@@ -322,6 +342,8 @@ public interface SageConfig {
                 .qualityConfig(QualityConfig.createConfig(cmd, transcripts))
                 .baseQualityRecalibrationConfig(BaseQualityRecalibrationConfig.createConfig(cmd))
                 .panelOnly(Configs.containsFlag(cmd, PANEL_ONLY))
+                .fusedEvidence(Configs.containsFlag(cmd, FUSED_EVIDENCE))
+                .adaptivePartition(Configs.containsFlag(cmd, ADAPTIVE_PARTITION))
                 .build();
     }
 }
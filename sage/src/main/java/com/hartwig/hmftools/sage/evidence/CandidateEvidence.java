@@ -1,8 +1,6 @@
 package com.hartwig.hmftools.sage.evidence;
 
-import java.io.File;
 import java.util.List;
-import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 
 import com.google.common.collect.Lists;
@@ -16,6 +14,8 @@ import com.hartwig.hmftools.sage.context.RefContextFactory;
 import com.hartwig.hmftools.sage.coverage.Coverage;
 import com.hartwig.hmftools.sage.coverage.GeneCoverage;
 import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+import com.hartwig.hmftools.sage.sam.SamRecordBuffer;
 import com.hartwig.hmftools.sage.sam.SamSlicer;
 import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 
@@ -24,10 +24,6 @@ import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
 import htsjdk.samtools.SAMRecord;
-import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.cram.ref.ReferenceSource;
-import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 public class CandidateEvidence {
 
@@ -36,29 +32,54 @@ public class CandidateEvidence {
     private final SageConfig config;
     private final List<VariantHotspot> hotspots;
     private final List<GenomeRegion> panel;
-    private final ReferenceSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
     private final SamSlicerFactory samSlicerFactory;
     private final Coverage coverage;
 
     public CandidateEvidence(@NotNull final SageConfig config, @NotNull final List<VariantHotspot> hotspots, final List<GenomeRegion> panel,
-            @NotNull final SamSlicerFactory samSlicerFactory, @NotNull final ReferenceSequenceFile refGenome, final Coverage coverage) {
+            @NotNull final SamSlicerFactory samSlicerFactory, @NotNull final SamReaderPool samReaderPool, final Coverage coverage) {
         this.config = config;
         this.panel = panel;
         this.samSlicerFactory = samSlicerFactory;
         this.hotspots = hotspots;
-        this.refGenome = refGenome;
+        this.samReaderPool = samReaderPool;
         this.coverage = coverage;
     }
 
     @NotNull
     public List<AltContext> get(@NotNull final String sample, @NotNull final String bamFile, @NotNull final RefSequence refSequence,
             @NotNull final GenomeRegion bounds) {
+        final RefContextFactory candidates = new RefContextFactory(config, sample, hotspots, panel);
+        final Consumer<SAMRecord> consumer = consumer(sample, refSequence, bounds, candidates);
+
+        return get(bamFile, samSlicerFactory.create(bounds), consumer, candidates);
+    }
+
+    @NotNull
+    public List<AltContext> get(@NotNull final String sample, @NotNull final String bamFile, @NotNull final RefSequence refSequence,
+            @NotNull final GenomeRegion bounds, @NotNull final SamRecordBuffer recordBuffer) {
+        final RefContextFactory candidates = new RefContextFactory(config, sample, hotspots, panel);
+        final Consumer<SAMRecord> consumer = consumer(sample, refSequence, bounds, candidates);
+
+        // Slice the wider buffer bounds so the same records can later serve the read context evidence
+        final Consumer<SAMRecord> bufferingConsumer = record -> {
+            recordBuffer.accept(record);
+            if (record.getAlignmentStart() <= bounds.end() && record.getAlignmentEnd() >= bounds.start()) {
+                consumer.accept(record);
+            }
+        };
+
+        return get(bamFile, new SamSlicer(0, recordBuffer.bounds()), bufferingConsumer, candidates);
+    }
+
+    @NotNull
+    private Consumer<SAMRecord> consumer(@NotNull final String sample, @NotNull final RefSequence refSequence,
+            @NotNull final GenomeRegion bounds, @NotNull final RefContextFactory candidates) {
         LOGGER.debug("Variant candidates {} position {}:{}", sample, bounds.chromosome(), bounds.start());
         final List<GeneCoverage> geneCoverage = coverage.coverage(sample, bounds.chromosome());
-        final RefContextFactory candidates = new RefContextFactory(config, sample, hotspots, panel);
         final RefContextConsumer refContextConsumer = new RefContextConsumer(config, bounds, refSequence, candidates);
 
-        final Consumer<SAMRecord> consumer = record -> {
+        return record -> {
             refContextConsumer.accept(record);
             if (!geneCoverage.isEmpty()) {
                 final GenomeRegion alignment =
@@ -66,28 +87,18 @@ public class CandidateEvidence {
                 geneCoverage.forEach(x -> x.accept(alignment));
             }
         };
-
-        return get(bamFile, bounds, consumer, candidates);
     }
 
     @NotNull
-    private List<AltContext> get(@NotNull final String bamFile, @NotNull final GenomeRegion bounds,
+    private List<AltContext> get(@NotNull final String bamFile, @NotNull final SamSlicer slicer,
             @NotNull final Consumer<SAMRecord> recordConsumer, @NotNull final RefContextFactory candidates) {
         final List<AltContext> altContexts = Lists.newArrayList();
 
-        final SamSlicer slicer = samSlicerFactory.create(bounds);
-        try (final SamReader tumorReader = SamReaderFactory.makeDefault()
-                .referenceSource(new ReferenceSource(refGenome))
-                .open(new File(bamFile))) {
-
-            // First parse
-            slicer.slice(tumorReader, recordConsumer);
+        // First parse
+        slicer.slice(samReaderPool.reader(bamFile), recordConsumer);
 
-            // Add all valid alt contexts
-            altContexts.addAll(candidates.altContexts());
-        } catch (Exception e) {
-            throw new CompletionException(e);
-        }
+        // Add all valid alt contexts
+        altContexts.addAll(candidates.altContexts());
 
         return altContexts;
     }
@@ -1,10 +1,8 @@
 package com.hartwig.hmftools.sage.evidence;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.genome.region.GenomeRegions;
@@ -13,28 +11,28 @@ import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.read.ReadContextCounter;
 import com.hartwig.hmftools.sage.read.ReadContextCounterFactory;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+import com.hartwig.hmftools.sage.sam.SamRecordBuffer;
 import com.hartwig.hmftools.sage.sam.SamSlicer;
 import com.hartwig.hmftools.sage.samtools.NumberEvents;
 import com.hartwig.hmftools.sage.select.SamRecordSelector;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.cram.ref.ReferenceSource;
-import htsjdk.samtools.reference.ReferenceSequenceFile;
+import htsjdk.samtools.SAMRecord;
 
 public class ReadContextEvidence {
 
     private final int typicalReadLength;
     private final SageConfig sageConfig;
-    private final ReferenceSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
     private final ReadContextCounterFactory factory;
 
-    public ReadContextEvidence(@NotNull final SageConfig config, @NotNull final ReferenceSequenceFile refGenome,
+    public ReadContextEvidence(@NotNull final SageConfig config, @NotNull final SamReaderPool samReaderPool,
             final Map<String, QualityRecalibrationMap> qualityRecalibrationMap) {
         this.sageConfig = config;
-        this.refGenome = refGenome;
+        this.samReaderPool = samReaderPool;
         this.factory = new ReadContextCounterFactory(config, qualityRecalibrationMap);
         this.typicalReadLength = config.typicalReadLength();
     }
@@ -42,6 +40,12 @@ public class ReadContextEvidence {
     @NotNull
     public List<ReadContextCounter> get(@NotNull final List<Candidate> candidates, @NotNull final String sample,
             @NotNull final String bam) {
+        return get(candidates, sample, bam, null);
+    }
+
+    @NotNull
+    public List<ReadContextCounter> get(@NotNull final List<Candidate> candidates, @NotNull final String sample,
+            @NotNull final String bam, @Nullable final SamRecordBuffer recordBuffer) {
         final List<ReadContextCounter> counters = factory.create(sample, candidates);
         if (candidates.isEmpty()) {
             return counters;
@@ -54,23 +58,20 @@ public class ReadContextEvidence {
                 Math.max(firstCandidate.position() - typicalReadLength, 1),
                 lastCandidate.position() + typicalReadLength);
 
-        final SamSlicer slicer = new SamSlicer(0, bounds);
-
         final SamRecordSelector<ReadContextCounter> consumerSelector = new SamRecordSelector<>(counters);
+        final Consumer<SAMRecord> consumer = samRecord -> {
+            int numberOfEvents = NumberEvents.numberOfEvents(samRecord);
+            consumerSelector.select(samRecord, x -> x.accept(samRecord, sageConfig, numberOfEvents));
+        };
 
-        try (final SamReader tumorReader = SamReaderFactory.makeDefault()
-                .referenceSource(new ReferenceSource(refGenome))
-                .open(new File(bam))) {
-            slicer.slice(tumorReader, samRecord -> {
-
-                int numberOfEvents = NumberEvents.numberOfEvents(samRecord);
-                consumerSelector.select(samRecord, x -> x.accept(samRecord, sageConfig, numberOfEvents));
-
-            });
-        } catch (IOException e) {
-            throw new CompletionException(e);
+        if (recordBuffer != null && recordBuffer.contains(bounds)) {
+            recordBuffer.replay(bounds, consumer);
+            return counters;
         }
 
+        final SamSlicer slicer = new SamSlicer(0, bounds);
+        slicer.slice(samReaderPool.reader(bam), consumer);
+
         return counters;
     }
 }
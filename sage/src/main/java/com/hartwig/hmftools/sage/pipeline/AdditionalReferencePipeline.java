@@ -18,6 +18,7 @@ import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.read.ReadContextCounter;
 import com.hartwig.hmftools.sage.read.ReadContextCounters;
 import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.variant.SageVariantContextFactory;
 
 import org.apache.logging.log4j.LogManager;
@@ -37,10 +38,10 @@ public class AdditionalReferencePipeline {
     private final Executor executor;
 
     public AdditionalReferencePipeline(@NotNull final SageConfig config, @NotNull final Executor executor, ReferenceSequenceFile refGenome,
-            @NotNull final Map<String, QualityRecalibrationMap> qualityRecalibrationMap) {
+            @NotNull final Map<String, QualityRecalibrationMap> qualityRecalibrationMap, @NotNull final SamReaderPool samReaderPool) {
         this.config = config;
         this.refGenome = refGenome;
-        this.evidenceStage = new EvidenceStage(config, refGenome, qualityRecalibrationMap);
+        this.evidenceStage = new EvidenceStage(config, executor, samReaderPool, qualityRecalibrationMap);
         this.executor = executor;
 
     }
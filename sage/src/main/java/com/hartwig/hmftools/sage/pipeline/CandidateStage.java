@@ -1,24 +1,27 @@
 package com.hartwig.hmftools.sage.pipeline;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.sage.candidate.Candidate;
 import com.hartwig.hmftools.sage.candidate.Candidates;
 import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.context.AltContext;
 import com.hartwig.hmftools.sage.coverage.Coverage;
 import com.hartwig.hmftools.sage.evidence.CandidateEvidence;
 import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+import com.hartwig.hmftools.sage.sam.SamRecordBuffer;
 import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
-import htsjdk.samtools.reference.ReferenceSequenceFile;
-
 public class CandidateStage {
 
     private static final Logger LOGGER = LogManager.getLogger(CandidateStage.class);
@@ -28,8 +31,9 @@ public class CandidateStage {
     private final List<GenomeRegion> panelRegions;
     private final CandidateEvidence candidateEvidence;
     private final List<GenomeRegion> highConfidenceRegions;
+    private final boolean fusedEvidence;
 
-    public CandidateStage(@NotNull final SageConfig config, @NotNull final ReferenceSequenceFile refGenome,
+    public CandidateStage(@NotNull final SageConfig config, @NotNull final SamReaderPool samReaderPool,
             @NotNull final List<VariantHotspot> hotspots, @NotNull final List<GenomeRegion> panelRegions,
             @NotNull final List<GenomeRegion> highConfidenceRegions, final Coverage coverage) {
 
@@ -38,12 +42,15 @@ public class CandidateStage {
         this.hotspots = hotspots;
         this.panelRegions = panelRegions;
         this.highConfidenceRegions = highConfidenceRegions;
-        this.candidateEvidence = new CandidateEvidence(config, hotspots, panelRegions, samSlicerFactory, refGenome, coverage);
+        this.candidateEvidence = new CandidateEvidence(config, hotspots, panelRegions, samSlicerFactory, samReaderPool, coverage);
+
+        // Panel only slices exclude reads outside the panel so cannot be reused for read context evidence
+        this.fusedEvidence = config.fusedEvidence() && !config.panelOnly();
     }
 
     @NotNull
     public CompletableFuture<List<Candidate>> candidates(@NotNull final GenomeRegion region,
-            final CompletableFuture<RefSequence> refSequenceFuture) {
+            final CompletableFuture<RefSequence> refSequenceFuture, @NotNull final Map<String, SamRecordBuffer> recordBuffers) {
         return refSequenceFuture.thenCompose(refSequence -> {
             if (region.start() == 1) {
                 LOGGER.info("Processing chromosome {}", region.chromosome());
@@ -56,11 +63,28 @@ public class CandidateStage {
             for (int i = 0; i < config.tumor().size(); i++) {
                 final String sample = config.tumor().get(i);
                 final String sampleBam = config.tumorBam().get(i);
-                done = done.thenApply(aVoid -> candidateEvidence.get(sample, sampleBam, refSequence, region))
+                done = done.thenApply(aVoid -> altContexts(sample, sampleBam, refSequence, region, recordBuffers))
                         .thenAccept(initialCandidates::add);
             }
             return done.thenApply(y -> initialCandidates.candidates());
         });
     }
 
+    @NotNull
+    private List<AltContext> altContexts(@NotNull final String sample, @NotNull final String sampleBam,
+            @NotNull final RefSequence refSequence, @NotNull final GenomeRegion region,
+            @NotNull final Map<String, SamRecordBuffer> recordBuffers) {
+        if (!fusedEvidence) {
+            return candidateEvidence.get(sample, sampleBam, refSequence, region);
+        }
+
+        final GenomeRegion bufferBounds = GenomeRegions.create(region.chromosome(),
+                Math.max(region.start() - config.typicalReadLength(), 1),
+                region.end() + config.typicalReadLength());
+        final SamRecordBuffer recordBuffer = new SamRecordBuffer(config.maxFusedEvidenceReads(), bufferBounds);
+        recordBuffers.put(sample, recordBuffer);
+
+        return candidateEvidence.get(sample, sampleBam, refSequence, region, recordBuffer);
+    }
+
 }
@@ -6,18 +6,31 @@ import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.genome.region.GenomeRegions;
 import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.sam.BamIndexDensity;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 public class ChromosomePartition {
+
+    // Limits how far a region can stretch over sparse sequence such as centromeres
+    private static final int MAX_ADAPTIVE_SLICE_MULTIPLE = 4;
+
     private final SageConfig config;
     private final ReferenceSequenceFile refGenome;
+    @Nullable
+    private final BamIndexDensity density;
 
     public ChromosomePartition(final SageConfig config, final ReferenceSequenceFile refGenome) {
+        this(config, refGenome, null);
+    }
+
+    public ChromosomePartition(final SageConfig config, final ReferenceSequenceFile refGenome, @Nullable final BamIndexDensity density) {
         this.config = config;
         this.refGenome = refGenome;
+        this.density = density;
     }
 
     @NotNull
@@ -27,11 +40,22 @@ public class ChromosomePartition {
 
     @NotNull
     public List<GenomeRegion> partition(String contig, int minPosition, int maxPosition) {
-        final List<GenomeRegion> results = Lists.newArrayList();
-
         int dynamicSliceSize = maxPosition / Math.min(config.threads(), 4) + 1;
-
         final int regionSliceSize = Math.min(dynamicSliceSize, config.regionSliceSize());
+
+        if (density != null && regionSliceSize >= 2 * BamIndexDensity.WINDOW_SIZE) {
+            final long[] windowWork = density.density(contig, minPosition, maxPosition);
+            if (windowWork != null) {
+                return adaptivePartition(contig, minPosition, maxPosition, regionSliceSize, windowWork);
+            }
+        }
+
+        return fixedPartition(contig, minPosition, maxPosition, regionSliceSize);
+    }
+
+    @NotNull
+    static List<GenomeRegion> fixedPartition(String contig, int minPosition, int maxPosition, int regionSliceSize) {
+        final List<GenomeRegion> results = Lists.newArrayList();
         for (int i = 0; ; i++) {
             int start = minPosition + i * regionSliceSize;
             int end = Math.min(start + regionSliceSize - 1, maxPosition);
@@ -43,4 +67,36 @@ public class ChromosomePartition {
         return results;
     }
 
+    /**
+     * Cuts the same number of regions as the fixed partition but at window boundaries that give each region roughly equal work.
+     */
+    @NotNull
+    static List<GenomeRegion> adaptivePartition(String contig, int minPosition, int maxPosition, int regionSliceSize,
+            @NotNull final long[] windowWork) {
+        final int regionCount = (maxPosition - minPosition) / regionSliceSize + 1;
+        final int maxWindowsPerRegion = Math.max(1, MAX_ADAPTIVE_SLICE_MULTIPLE * regionSliceSize / BamIndexDensity.WINDOW_SIZE);
+
+        long totalWork = 0;
+        for (long work : windowWork) {
+            totalWork += work;
+        }
+        final double targetWork = (double) totalWork / regionCount;
+
+        final List<GenomeRegion> results = Lists.newArrayList();
+        int regionStartWindow = 0;
+        long regionWork = 0;
+        for (int i = 0; i < windowWork.length; i++) {
+            regionWork += windowWork[i];
+            boolean last = i == windowWork.length - 1;
+            if (last || regionWork >= targetWork || i - regionStartWindow + 1 >= maxWindowsPerRegion) {
+                int start = minPosition + regionStartWindow * BamIndexDensity.WINDOW_SIZE;
+                int end = last ? maxPosition : minPosition + (i + 1) * BamIndexDensity.WINDOW_SIZE - 1;
+                results.add(GenomeRegions.create(contig, start, end));
+                regionStartWindow = i + 1;
+                regionWork = 0;
+            }
+        }
+
+        return results;
+    }
 }
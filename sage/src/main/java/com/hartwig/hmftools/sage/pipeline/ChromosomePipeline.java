@@ -2,9 +2,7 @@ package com.hartwig.hmftools.sage.pipeline;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Comparator;
 import java.util.EnumSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -13,7 +11,6 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
-import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.chromosome.MitochondrialChromosome;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
@@ -22,6 +19,8 @@ import com.hartwig.hmftools.sage.coverage.Coverage;
 import com.hartwig.hmftools.sage.phase.Phase;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.read.ReadContextCounter;
+import com.hartwig.hmftools.sage.sam.BamIndexDensity;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.variant.SageVariant;
 import com.hartwig.hmftools.sage.variant.SageVariantContextFactory;
 import com.hartwig.hmftools.sage.variant.SageVariantTier;
@@ -40,17 +39,19 @@ public class ChromosomePipeline implements AutoCloseable {
 
     private final String chromosome;
     private final SageConfig config;
-    private final List<RegionFuture<List<SageVariant>>> regions = Lists.newArrayList();
     private final IndexedFastaSequenceFile refGenome;
     private final SageVariantPipeline sageVariantPipeline;
     private final Consumer<VariantContext> consumer;
     private final ChromosomePartition partition;
     private final Phase phase;
 
+    private CompletableFuture<Void> phased = CompletableFuture.completedFuture(null);
+
     public ChromosomePipeline(@NotNull final String chromosome, @NotNull final SageConfig config, @NotNull final Executor executor,
             @NotNull final List<VariantHotspot> hotspots, @NotNull final List<GenomeRegion> panelRegions,
             @NotNull final List<GenomeRegion> highConfidenceRegions, final Map<String, QualityRecalibrationMap> qualityRecalibrationMap,
-            @NotNull final Coverage coverage, final Consumer<VariantContext> consumer) throws IOException {
+            @NotNull final Coverage coverage, @NotNull final SamReaderPool samReaderPool, final Consumer<VariantContext> consumer)
+            throws IOException {
         this.chromosome = chromosome;
         this.config = config;
         this.refGenome = new IndexedFastaSequenceFile(new File(config.refGenome()));
@@ -62,8 +63,11 @@ public class ChromosomePipeline implements AutoCloseable {
                 panelRegions,
                 highConfidenceRegions,
                 qualityRecalibrationMap,
-                coverage);
-        this.partition = new ChromosomePartition(config, refGenome);
+                coverage,
+                samReaderPool);
+        this.partition = config.adaptivePartition()
+                ? new ChromosomePartition(config, refGenome, new BamIndexDensity(samReaderPool, config.tumorBam()))
+                : new ChromosomePartition(config, refGenome);
         this.phase = new Phase(config, chromosome, this::write);
     }
 
@@ -73,46 +77,46 @@ public class ChromosomePipeline implements AutoCloseable {
     }
 
     public void process() throws ExecutionException, InterruptedException {
-        for (GenomeRegion region : partition.partition(chromosome)) {
-            final CompletableFuture<List<SageVariant>> future = sageVariantPipeline.variants(region);
-            final RegionFuture<List<SageVariant>> regionFuture = new RegionFuture<>(region, future);
-            regions.add(regionFuture);
+        for (GenomeRegion region : partition()) {
+            submit(region);
         }
 
-        submit().get();
+        complete().get();
     }
 
     public void process(int minPosition, int maxPosition) throws ExecutionException, InterruptedException {
         for (GenomeRegion region : partition.partition(chromosome, minPosition, maxPosition)) {
-            final CompletableFuture<List<SageVariant>> future = sageVariantPipeline.variants(region);
-            final RegionFuture<List<SageVariant>> regionFuture = new RegionFuture<>(region, future);
-            regions.add(regionFuture);
+            submit(region);
         }
 
-        submit().get();
+        complete().get();
     }
 
     @NotNull
-    private CompletableFuture<ChromosomePipeline> submit() {
-        // Even if regions were executed out of order, they must be phased in order
-        regions.sort(Comparator.comparing(RegionFuture::region));
+    public List<GenomeRegion> partition() {
+        return partition.partition(chromosome);
+    }
+
+    /**
+     * Regions must be submitted in order. The returned future completes once the region has been phased.
+     */
+    @NotNull
+    public CompletableFuture<Void> submit(@NotNull final GenomeRegion region) {
+        final CompletableFuture<List<SageVariant>> future = sageVariantPipeline.variants(region);
 
         // Phasing must be done in order but we can do it eagerly as each new region comes in.
         // It is not necessary to wait for the entire chromosome to be finished to start.
-        CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
-        final Iterator<RegionFuture<List<SageVariant>>> regionsIterator = regions.iterator();
-        while (regionsIterator.hasNext()) {
-            CompletableFuture<List<SageVariant>> region = regionsIterator.next().future();
-            done = done.thenCombine(region, (aVoid, sageVariants) -> {
-
-                sageVariants.forEach(phase);
-                return null;
-            });
+        phased = phased.thenCombine(future, (aVoid, sageVariants) -> {
+            sageVariants.forEach(phase);
+            return null;
+        });
 
-            regionsIterator.remove();
-        }
+        return phased;
+    }
 
-        return done.thenApply(aVoid -> {
+    @NotNull
+    public CompletableFuture<ChromosomePipeline> complete() {
+        return phased.thenApply(aVoid -> {
             phase.flush();
             LOGGER.info("Processing chromosome {} complete", chromosome);
             return ChromosomePipeline.this;
@@ -162,23 +166,4 @@ public class ChromosomePipeline implements AutoCloseable {
     public void close() throws IOException {
         refGenome.close();
     }
-
-    private static class RegionFuture<T> {
-
-        private final CompletableFuture<T> future;
-        private final GenomeRegion region;
-
-        public RegionFuture(final GenomeRegion region, final CompletableFuture<T> future) {
-            this.region = region;
-            this.future = future;
-        }
-
-        public CompletableFuture<T> future() {
-            return future;
-        }
-
-        public GenomeRegion region() {
-            return region;
-        }
-    }
 }
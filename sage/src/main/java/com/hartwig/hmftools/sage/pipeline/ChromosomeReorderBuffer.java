@@ -0,0 +1,97 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Passes entries of the current chromosome straight through and holds back entries of later chromosomes until all the
+ * chromosomes before them are complete, so output stays in dictionary order while chromosomes are processed concurrently.
+ */
+public class ChromosomeReorderBuffer<T> {
+
+    private final List<String> contigs;
+    private final Consumer<T> consumer;
+    private final Map<String, Integer> contigIndex = Maps.newHashMap();
+    private final ListMultimap<String, T> buffer = ArrayListMultimap.create();
+    private final ListMultimap<String, Runnable> pendingRelease = ArrayListMultimap.create();
+    private final Set<String> completed = Sets.newHashSet();
+
+    private int current;
+    private boolean failed;
+
+    public ChromosomeReorderBuffer(@NotNull final List<String> contigs, @NotNull final Consumer<T> consumer) {
+        this.contigs = contigs;
+        this.consumer = consumer;
+        for (int i = 0; i < contigs.size(); i++) {
+            contigIndex.put(contigs.get(i), i);
+        }
+    }
+
+    @NotNull
+    public Consumer<T> consumer(@NotNull final String contig) {
+        if (!contigIndex.containsKey(contig)) {
+            throw new IllegalArgumentException("Unexpected contig " + contig);
+        }
+
+        return entry -> accept(contig, entry);
+    }
+
+    private synchronized void accept(@NotNull final String contig, @NotNull final T entry) {
+        if (failed) {
+            return;
+        }
+
+        if (contigIndex.get(contig) == current) {
+            consumer.accept(entry);
+        } else {
+            buffer.put(contig, entry);
+        }
+    }
+
+    /**
+     * Runs the release once entries of the contig are no longer held back, ie immediately for the current or an earlier contig,
+     * otherwise once all contigs before it are complete. Used to keep work of later contigs counted until its output is written.
+     */
+    public synchronized void release(@NotNull final String contig, @NotNull final Runnable release) {
+        if (failed || contigIndex.get(contig) <= current) {
+            release.run();
+        } else {
+            pendingRelease.put(contig, release);
+        }
+    }
+
+    public synchronized void complete(@NotNull final String contig) {
+        completed.add(contig);
+        while (current < contigs.size() && completed.contains(contigs.get(current))) {
+            current++;
+            if (current < contigs.size()) {
+                buffer.removeAll(contigs.get(current)).forEach(consumer);
+                pendingRelease.removeAll(contigs.get(current)).forEach(Runnable::run);
+            }
+        }
+    }
+
+    /**
+     * Called when a contig will never complete. Held back entries are dropped and pending and later releases run immediately, so
+     * nothing waits on the failed contig.
+     */
+    public synchronized void fail() {
+        failed = true;
+        buffer.clear();
+        pendingRelease.values().forEach(Runnable::run);
+        pendingRelease.clear();
+    }
+
+    public synchronized boolean failed() {
+        return failed;
+    }
+}
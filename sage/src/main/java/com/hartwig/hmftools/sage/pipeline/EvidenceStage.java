@@ -1,30 +1,47 @@
 package com.hartwig.hmftools.sage.pipeline;
 
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import com.google.common.collect.Lists;
 import com.hartwig.hmftools.sage.candidate.Candidate;
 import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.evidence.ReadContextEvidence;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
+import com.hartwig.hmftools.sage.read.ReadContextCounter;
 import com.hartwig.hmftools.sage.read.ReadContextCounters;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+import com.hartwig.hmftools.sage.sam.SamRecordBuffer;
 
 import org.jetbrains.annotations.NotNull;
-
-import htsjdk.samtools.reference.ReferenceSequenceFile;
+import org.jetbrains.annotations.Nullable;
 
 public class EvidenceStage {
 
+    private final int maxCandidates;
+    private final Executor executor;
     private final ReadContextEvidence readContextEvidence;
 
-    public EvidenceStage(@NotNull final SageConfig config, @NotNull final ReferenceSequenceFile refGenome,
+    public EvidenceStage(@NotNull final SageConfig config, @NotNull final Executor executor, @NotNull final SamReaderPool samReaderPool,
             @NotNull final Map<String, QualityRecalibrationMap> qualityRecalibrationMap) {
-        this.readContextEvidence = new ReadContextEvidence(config, refGenome, qualityRecalibrationMap);
+        this.maxCandidates = config.maxEvidenceCandidates();
+        this.executor = executor;
+        this.readContextEvidence = new ReadContextEvidence(config, samReaderPool, qualityRecalibrationMap);
     }
 
     @NotNull
     public CompletableFuture<ReadContextCounters> evidence(@NotNull final List<String> samples, @NotNull final List<String> sampleBams, @NotNull final CompletableFuture<List<Candidate>> candidates) {
+        return evidence(samples, sampleBams, candidates, Collections.emptyMap());
+    }
+
+    @NotNull
+    public CompletableFuture<ReadContextCounters> evidence(@NotNull final List<String> samples, @NotNull final List<String> sampleBams,
+            @NotNull final CompletableFuture<List<Candidate>> candidates, @NotNull final Map<String, SamRecordBuffer> recordBuffers) {
         // Scan tumors for evidence
         return candidates.thenCompose(initialCandidates -> {
             final String primarySample = samples.isEmpty() ? "PRIMARY" : samples.get(0);
@@ -36,11 +53,35 @@ public class EvidenceStage {
                 final String sample = samples.get(i);
                 final String sampleBam = sampleBams.get(i);
 
-                done = done.thenApply(x -> readContextEvidence.get(initialCandidates, sample, sampleBam)).thenAccept(result::addCounters);
+                final SamRecordBuffer recordBuffer = recordBuffers.get(sample);
+
+                done = done.thenCompose(x -> counters(initialCandidates, sample, sampleBam, recordBuffer)).thenAccept(result::addCounters);
             }
 
             return done.thenApply(x -> result);
         });
     }
 
+    @NotNull
+    private CompletableFuture<List<ReadContextCounter>> counters(@NotNull final List<Candidate> candidates, @NotNull final String sample,
+            @NotNull final String sampleBam, @Nullable final SamRecordBuffer recordBuffer) {
+        if (candidates.size() <= maxCandidates) {
+            return CompletableFuture.completedFuture(readContextEvidence.get(candidates, sample, sampleBam, recordBuffer));
+        }
+
+        // Dense regions are split into sub-regions of candidates that are sliced concurrently.
+        // The split is keyed off the final candidate count rather than the occupancy of the EvictingArray in RefContextFactory.
+        // That array is a rolling window of at most 256 positions so its occupancy is capped, whereas every candidate it
+        // evicts ends up in this list, which therefore measures the evidence work of the whole region.
+        final List<CompletableFuture<List<ReadContextCounter>>> futures = Lists.newArrayList();
+        for (List<Candidate> partition : Lists.partition(candidates, maxCandidates)) {
+            futures.add(supplyAsync(() -> readContextEvidence.get(partition, sample, sampleBam, recordBuffer), executor));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(aVoid -> {
+            final List<ReadContextCounter> result = Lists.newArrayListWithCapacity(candidates.size());
+            futures.forEach(x -> result.addAll(x.join()));
+            return result;
+        });
+    }
 }
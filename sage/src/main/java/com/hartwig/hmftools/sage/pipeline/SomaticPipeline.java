@@ -8,6 +8,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.sage.candidate.Candidate;
@@ -17,6 +18,8 @@ import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.read.ReadContextCounter;
 import com.hartwig.hmftools.sage.read.ReadContextCounters;
 import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+import com.hartwig.hmftools.sage.sam.SamRecordBuffer;
 import com.hartwig.hmftools.sage.variant.SageVariant;
 import com.hartwig.hmftools.sage.variant.SageVariantFactory;
 
@@ -40,23 +43,26 @@ public class SomaticPipeline implements SageVariantPipeline {
             @NotNull final List<VariantHotspot> hotspots, @NotNull final List<GenomeRegion> panelRegions,
             @NotNull final List<GenomeRegion> highConfidenceRegions,
             @NotNull final Map<String, QualityRecalibrationMap> qualityRecalibrationMap,
-            @NotNull final Coverage coverage) {
+            @NotNull final Coverage coverage, @NotNull final SamReaderPool samReaderPool) {
         this.config = config;
         this.executor = executor;
         this.refGenome = refGenome;
-        this.candidateState = new CandidateStage(config, refGenome, hotspots, panelRegions, highConfidenceRegions, coverage);
-        this.evidenceStage = new EvidenceStage(config, refGenome, qualityRecalibrationMap);
+        this.candidateState = new CandidateStage(config, samReaderPool, hotspots, panelRegions, highConfidenceRegions, coverage);
+        this.evidenceStage = new EvidenceStage(config, executor, samReaderPool, qualityRecalibrationMap);
     }
 
     @NotNull
     public CompletableFuture<List<SageVariant>> variants(@NotNull final GenomeRegion region) {
         final CompletableFuture<RefSequence> refSequenceFuture = supplyAsync(() -> new RefSequence(region, refGenome), executor);
 
-        final CompletableFuture<List<Candidate>> initialCandidates = candidateState.candidates(region, refSequenceFuture);
+        // Tumor records are only buffered in fused evidence mode and are released once the tumor evidence is complete
+        final Map<String, SamRecordBuffer> tumorRecords = Maps.newConcurrentMap();
+        final CompletableFuture<List<Candidate>> initialCandidates = candidateState.candidates(region, refSequenceFuture, tumorRecords);
         final CompletableFuture<ReadContextCounters> tumorEvidence =
-                evidenceStage.evidence(config.tumor(), config.tumorBam(), initialCandidates);
+                evidenceStage.evidence(config.tumor(), config.tumorBam(), initialCandidates, tumorRecords);
 
-        final CompletableFuture<List<Candidate>> finalCandidates = filteredCandidates(tumorEvidence);
+        final CompletableFuture<List<Candidate>> finalCandidates =
+                filteredCandidates(tumorEvidence.whenComplete((counters, error) -> tumorRecords.clear()));
         final CompletableFuture<ReadContextCounters> normalEvidence =
                 evidenceStage.evidence(config.reference(), config.referenceBam(), finalCandidates);
 
@@ -1,15 +1,5 @@
 package com.hartwig.hmftools.sage.quality;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
-
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.sage.read.IndexedBases;
 import com.hartwig.hmftools.sage.ref.RefSequence;
@@ -25,59 +15,67 @@ import htsjdk.samtools.SAMRecord;
 class QualityCounterCigarHandler implements CigarHandler {
 
     private static final CigarElement SINGLE = new CigarElement(1, CigarOperator.M);
-    private static final byte N = (byte) 'N';
+
+    private static final int INITIAL_CAPACITY = 512;
+    private static final int INITIAL_SLOT_WIDTH = 16;
 
     private final IndexedBases refGenome;
     private final GenomeRegion bounds;
     private final int maxAltCount;
-
-    private final Set<Integer> indelPositions = Sets.newHashSet();
-    private final Map<QualityCounterKey, QualityCounter> qualityMap = Maps.newHashMap();
+    private final QualityCounterTable table = new QualityCounterTable();
+    private final int[] altCounts = new int[4];
+
+    // Counts are held per position until no further read can cover it, ie until a read starts beyond it.
+    // Only then is it known whether the position is an indel or has too many alts to count towards the table.
+    // Each position slot holds a short list of (alt, qual) cells with their counts.
+    private int windowStart;
+    private int windowEnd;
+    private int capacity;
+    private int slotWidth;
+    private int[] cellKeys;
+    private int[] cellCounts;
+    private int[] cellSize;
+    private boolean[] indel;
 
     public QualityCounterCigarHandler(final RefSequence refGenome, final GenomeRegion bounds, final int maxAltCount) {
         this.refGenome = refGenome.alignment();
         this.bounds = bounds;
         this.maxAltCount = maxAltCount;
+        this.windowStart = (int) bounds.start();
+        this.windowEnd = windowStart - 1;
+        allocate(INITIAL_CAPACITY, INITIAL_SLOT_WIDTH);
     }
 
     public void processRecord(@NotNull final SAMRecord record) {
+        // Records arrive in coordinate order so no subsequent record can cover a position before this alignment start
+        flush(record.getAlignmentStart() - 1);
         CigarTraversal.traverseCigar(record, this);
     }
 
     @NotNull
-    public Collection<QualityCounter> counts() {
-        final Set<QualityCounterKey> altsToRemove = groupByAlt(qualityMap.values()).stream()
-                .filter(x -> x.ref() != x.alt())
-                .filter(x -> x.count() > maxAltCount)
-                .map(QualityCounter::key)
-                .collect(Collectors.toSet());
-
-        final Set<QualityCounter> result = Sets.newHashSet();
-        for (QualityCounter count : qualityMap.values()) {
-            final QualityCounterKey altKey = altKey(count);
-            if (!indelPositions.contains(count.position()) && !altsToRemove.contains(altKey)) {
-                result.add(count);
-            }
-        }
-
-        return result;
+    public QualityCounterTable counts() {
+        flush(windowEnd);
+        return table;
     }
 
     @Override
     public void handleInsert(@NotNull final SAMRecord record, @NotNull final CigarElement e, final int readIndex, final int refPos) {
         // Need to add one because indel is actually AFTER this by convention
-        indelPositions.add(refPos + 1);
+        markIndel(refPos + 1);
         handleAlignment(record, SINGLE, readIndex, refPos);
     }
 
     @Override
     public void handleDelete(@NotNull final SAMRecord record, @NotNull final CigarElement e, final int readIndex, final int refPos) {
-        indelPositions.add(refPos + 1);
+        markIndel(refPos + 1);
         handleAlignment(record, SINGLE, readIndex, refPos);
     }
 
     @Override
     public void handleAlignment(@NotNull final SAMRecord r, @NotNull final CigarElement e, final int startReadIndex, final int refPos) {
+        final byte[] readBases = r.getReadBases();
+        final byte[] readQualities = r.getBaseQualities();
+
         for (int i = 0; i < e.getLength(); i++) {
             int readIndex = startReadIndex + i;
             int position = refPos + i;
@@ -86,54 +84,123 @@ class QualityCounterCigarHandler implements CigarHandler {
                 return;
             }
 
-            if (position < bounds.start()) {
+            if (position < bounds.start() || position < windowStart) {
                 continue;
             }
 
-            byte ref = refGenome.base(position);
-            byte alt = r.getReadBases()[readIndex];
-            byte quality = r.getBaseQualities()[readIndex];
-            byte[] trinucleotideContext = refGenome.trinucleotideContext(position);
-
-            if (alt != N && isValid(trinucleotideContext)) {
-                final QualityCounterKey key = ImmutableQualityCounterKey.builder()
-                        .ref(ref)
-                        .alt(alt)
-                        .qual(quality)
-                        .position(position)
-                        .trinucleotideContext(trinucleotideContext)
-                        .build();
-                qualityMap.computeIfAbsent(key, QualityCounter::new).increment();
+            int altIndex = QualityRecalibrationIndex.baseIndex(readBases[readIndex]);
+            byte quality = readQualities[readIndex];
+            if (altIndex >= 0 && QualityRecalibrationIndex.isValidQual(quality)) {
+                increment(position, altIndex * QualityRecalibrationIndex.QUAL_COUNT + quality);
             }
         }
     }
 
-    private static boolean isValid(byte[] trinucleotideContext) {
-        for (byte b : trinucleotideContext) {
-            if (b == N) {
-                return false;
+    private void markIndel(int position) {
+        if (position >= windowStart && position <= bounds.end()) {
+            indel[slot(position)] = true;
+        }
+    }
+
+    private void increment(int position, int cellKey) {
+        final int slot = slot(position);
+        final int offset = slot * slotWidth;
+        final int size = cellSize[slot];
+        for (int i = 0; i < size; i++) {
+            if (cellKeys[offset + i] == cellKey) {
+                cellCounts[offset + i]++;
+                return;
             }
         }
-        return trinucleotideContext.length == 3;
+
+        if (size == slotWidth) {
+            allocate(capacity, slotWidth * 2);
+            increment(position, cellKey);
+            return;
+        }
+
+        cellKeys[offset + size] = cellKey;
+        cellCounts[offset + size] = 1;
+        cellSize[slot] = size + 1;
     }
 
-    @NotNull
-    private static List<QualityCounter> groupByAlt(final Collection<QualityCounter> quality) {
-        final Map<QualityCounterKey, QualityCounter> map = Maps.newHashMap();
+    private int slot(int position) {
+        while (position - windowStart >= capacity) {
+            allocate(capacity * 2, slotWidth);
+        }
+
+        windowEnd = Math.max(windowEnd, position);
+        return position & (capacity - 1);
+    }
 
-        for (QualityCounter count : quality) {
-            final QualityCounterKey key = altKey(count);
-            map.computeIfAbsent(key, QualityCounter::new).increment(count.count());
+    private void flush(int lastPosition) {
+        final int end = Math.min(lastPosition, windowEnd);
+        for (int position = windowStart; position <= end; position++) {
+            final int slot = position & (capacity - 1);
+            if (!indel[slot]) {
+                flushPosition(position, slot);
+            }
+
+            cellSize[slot] = 0;
+            indel[slot] = false;
+        }
+
+        windowStart = Math.max(windowStart, lastPosition + 1);
+    }
+
+    private void flushPosition(int position, int slot) {
+        final int size = cellSize[slot];
+        if (size == 0) {
+            return;
+        }
+
+        final int refIndex = QualityRecalibrationIndex.baseIndex(refGenome.base(position));
+        final int tri0Index = QualityRecalibrationIndex.baseIndex(refGenome.base(position - 1));
+        final int tri2Index = QualityRecalibrationIndex.baseIndex(refGenome.base(position + 1));
+        if (refIndex < 0 || tri0Index < 0 || tri2Index < 0) {
+            return;
         }
 
-        final List<QualityCounter> result = Lists.newArrayList(map.values());
-        Collections.sort(result);
+        final int offset = slot * slotWidth;
+        altCounts[0] = altCounts[1] = altCounts[2] = altCounts[3] = 0;
+        for (int i = 0; i < size; i++) {
+            altCounts[cellKeys[offset + i] / QualityRecalibrationIndex.QUAL_COUNT] += cellCounts[offset + i];
+        }
+
+        for (int i = 0; i < size; i++) {
+            final int altIndex = cellKeys[offset + i] / QualityRecalibrationIndex.QUAL_COUNT;
+            final int qual = cellKeys[offset + i] % QualityRecalibrationIndex.QUAL_COUNT;
 
-        return result;
+            // Positions with many alts are likely germline or real variants rather than sequencing errors
+            if (altIndex == refIndex || altCounts[altIndex] <= maxAltCount) {
+                table.increment(QualityRecalibrationIndex.index(refIndex, altIndex, tri0Index, refIndex, tri2Index, qual),
+                        cellCounts[offset + i]);
+            }
+        }
     }
 
-    @NotNull
-    public static QualityCounterKey altKey(@NotNull final QualityCounter count) {
-        return ImmutableQualityCounterKey.builder().from(count).qual((byte) 0).trinucleotideContext().build();
+    private void allocate(int newCapacity, int newSlotWidth) {
+        final int[] newKeys = new int[newCapacity * newSlotWidth];
+        final int[] newCounts = new int[newCapacity * newSlotWidth];
+        final int[] newSize = new int[newCapacity];
+        final boolean[] newIndel = new boolean[newCapacity];
+
+        if (cellKeys != null) {
+            for (int position = windowStart; position <= windowEnd; position++) {
+                final int oldSlot = position & (capacity - 1);
+                final int newSlot = position & (newCapacity - 1);
+                System.arraycopy(cellKeys, oldSlot * slotWidth, newKeys, newSlot * newSlotWidth, cellSize[oldSlot]);
+                System.arraycopy(cellCounts, oldSlot * slotWidth, newCounts, newSlot * newSlotWidth, cellSize[oldSlot]);
+                newSize[newSlot] = cellSize[oldSlot];
+                newIndel[newSlot] = indel[oldSlot];
+            }
+        }
+
+        this.capacity = newCapacity;
+        this.slotWidth = newSlotWidth;
+        this.cellKeys = newKeys;
+        this.cellCounts = newCounts;
+        this.cellSize = newSize;
+        this.indel = newIndel;
     }
 }
@@ -1,22 +1,16 @@
 package com.hartwig.hmftools.sage.quality;
 
-import java.io.File;
-import java.util.Collection;
-import java.util.concurrent.CompletionException;
-
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.sage.SageApplication;
 import com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig;
 import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.sam.SamSlicer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
-import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.cram.ref.ReferenceSource;
 import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 class QualityCounterFactory {
@@ -25,31 +19,25 @@ class QualityCounterFactory {
 
     private final String bamFile;
     private final ReferenceSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
     private final BaseQualityRecalibrationConfig config;
 
-    public QualityCounterFactory(final BaseQualityRecalibrationConfig config, final String bamFile, final ReferenceSequenceFile refGenome ) {
+    public QualityCounterFactory(final BaseQualityRecalibrationConfig config, final String bamFile, final ReferenceSequenceFile refGenome,
+            final SamReaderPool samReaderPool) {
         this.bamFile = bamFile;
         this.refGenome = refGenome;
+        this.samReaderPool = samReaderPool;
         this.config = config;
     }
 
     @NotNull
-    public Collection<QualityCounter> regionCount(@NotNull final GenomeRegion bounds) {
+    public QualityCounterTable regionCount(@NotNull final GenomeRegion bounds) {
         LOGGER.debug("Processing bqr region {}", bounds);
 
         final RefSequence refSequence = new RefSequence(bounds, refGenome);
         final QualityCounterCigarHandler counter = new QualityCounterCigarHandler(refSequence, bounds, config.maxAltCount());
         final SamSlicer slicer = new SamSlicer(config.minMapQuality(), bounds);
-        try (final SamReader tumorReader = SamReaderFactory.makeDefault()
-                .referenceSource(new ReferenceSource(refGenome))
-                .open(new File(bamFile))) {
-
-            // First parse
-            slicer.slice(tumorReader, counter::processRecord);
-
-        } catch (Exception e) {
-            throw new CompletionException(e);
-        }
+        slicer.slice(samReaderPool.reader(bamFile), counter::processRecord);
 
         return counter.counts();
     }
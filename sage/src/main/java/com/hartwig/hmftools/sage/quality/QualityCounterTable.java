@@ -0,0 +1,49 @@
+package com.hartwig.hmftools.sage.quality;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+
+class QualityCounterTable {
+
+    private final int[] counts = new int[QualityRecalibrationIndex.SIZE];
+
+    public void increment(int index, int count) {
+        counts[index] += count;
+    }
+
+    public int count(int index) {
+        return counts[index];
+    }
+
+    public synchronized void add(@NotNull final QualityCounterTable other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    @NotNull
+    public synchronized List<QualityCounter> counters() {
+        final List<QualityCounter> result = Lists.newArrayList();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                final QualityCounterKey key = ImmutableQualityCounterKey.builder()
+                        .ref(QualityRecalibrationIndex.ref(i))
+                        .alt(QualityRecalibrationIndex.alt(i))
+                        .qual(QualityRecalibrationIndex.qual(i))
+                        .position(0)
+                        .trinucleotideContext(new byte[] { QualityRecalibrationIndex.tri0(i), QualityRecalibrationIndex.tri1(i),
+                                QualityRecalibrationIndex.tri2(i) })
+                        .build();
+
+                final QualityCounter counter = new QualityCounter(key);
+                counter.increment(counts[i]);
+                result.add(counter);
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,87 @@
+package com.hartwig.hmftools.sage.quality;
+
+final class QualityRecalibrationIndex {
+
+    private static final byte[] BASES = { 'A', 'C', 'G', 'T' };
+
+    static final int QUAL_COUNT = 128;
+    static final int SIZE = BASES.length * BASES.length * BASES.length * BASES.length * BASES.length * QUAL_COUNT;
+
+    private QualityRecalibrationIndex() {
+    }
+
+    static int baseIndex(byte base) {
+        switch (base) {
+            case 'A':
+                return 0;
+            case 'C':
+                return 1;
+            case 'G':
+                return 2;
+            case 'T':
+                return 3;
+            default:
+                return -1;
+        }
+    }
+
+    static boolean isValidQual(byte qual) {
+        return qual >= 0 && qual < QUAL_COUNT;
+    }
+
+    /**
+     * Returns the dense table index of the key or -1 if any base is not one of ACGT or the quality is out of range
+     */
+    static int index(byte ref, byte alt, byte[] trinucleotideContext, byte qual) {
+        if (trinucleotideContext.length != 3) {
+            return -1;
+        }
+
+        return index(ref, alt, trinucleotideContext[0], trinucleotideContext[1], trinucleotideContext[2], qual);
+    }
+
+    static int index(byte ref, byte alt, byte tri0, byte tri1, byte tri2, byte qual) {
+        int refIndex = baseIndex(ref);
+        int altIndex = baseIndex(alt);
+        int tri0Index = baseIndex(tri0);
+        int tri1Index = baseIndex(tri1);
+        int tri2Index = baseIndex(tri2);
+        if (refIndex < 0 || altIndex < 0 || tri0Index < 0 || tri1Index < 0 || tri2Index < 0 || !isValidQual(qual)) {
+            return -1;
+        }
+
+        return index(refIndex, altIndex, tri0Index, tri1Index, tri2Index, qual);
+    }
+
+    static int index(int refIndex, int altIndex, int tri0Index, int tri1Index, int tri2Index, int qual) {
+        return ((((refIndex * 4 + altIndex) * 4 + tri0Index) * 4 + tri1Index) * 4 + tri2Index) * QUAL_COUNT + qual;
+    }
+
+    static byte qual(int index) {
+        return (byte) (index % QUAL_COUNT);
+    }
+
+    static byte tri2(int index) {
+        return base(index / QUAL_COUNT);
+    }
+
+    static byte tri1(int index) {
+        return base(index / QUAL_COUNT / 4);
+    }
+
+    static byte tri0(int index) {
+        return base(index / QUAL_COUNT / 16);
+    }
+
+    static byte alt(int index) {
+        return base(index / QUAL_COUNT / 64);
+    }
+
+    static byte ref(int index) {
+        return base(index / QUAL_COUNT / 256);
+    }
+
+    private static byte base(int value) {
+        return BASES[value % 4];
+    }
+}
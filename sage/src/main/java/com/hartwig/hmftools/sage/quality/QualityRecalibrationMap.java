@@ -1,25 +1,35 @@
 package com.hartwig.hmftools.sage.quality;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.jetbrains.annotations.NotNull;
 
 public class QualityRecalibrationMap {
 
     @NotNull
-    private final Map<QualityRecalibrationKey, QualityRecalibrationRecord> map;
+    private final double[] table;
 
     public QualityRecalibrationMap(@NotNull final List<QualityRecalibrationRecord> records) {
-        this.map = records.stream().collect(Collectors.toMap(QualityRecalibrationRecord::key, x -> x));
+        this.table = new double[QualityRecalibrationIndex.SIZE];
+        Arrays.fill(table, Double.NaN);
+
+        for (QualityRecalibrationRecord record : records) {
+            final QualityRecalibrationKey key = record.key();
+            int index = QualityRecalibrationIndex.index(key.ref(), key.alt(), key.trinucleotideContext(), key.qual());
+            if (index >= 0) {
+                table[index] = record.recalibratedQual();
+            }
+        }
     }
 
     public double quality(byte ref, byte alt, byte[] trinucleotideContext, byte qual) {
-        final QualityRecalibrationKey key =
-                ImmutableQualityRecalibrationKey.builder().ref(ref).alt(alt).qual(qual).trinucleotideContext(trinucleotideContext).build();
+        int index = QualityRecalibrationIndex.index(ref, alt, trinucleotideContext, qual);
+        if (index < 0) {
+            return qual;
+        }
 
-        return Optional.ofNullable(map.get(key)).map(QualityRecalibrationRecord::recalibratedQual).orElse(qual * 1d);
+        double recalibratedQual = table[index];
+        return Double.isNaN(recalibratedQual) ? qual : recalibratedQual;
     }
 }
@@ -14,6 +14,7 @@ import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.utils.r.RExecutor;
 import com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig;
 import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -28,11 +29,14 @@ public class QualityRecalibrationSupplier implements Supplier<Map<String, Qualit
     private final ExecutorService executorService;
     private final IndexedFastaSequenceFile refGenome;
     private final SageConfig config;
+    private final SamReaderPool samReaderPool;
 
-    public QualityRecalibrationSupplier(final ExecutorService executorService, final IndexedFastaSequenceFile refGenome, final SageConfig config) {
+    public QualityRecalibrationSupplier(final ExecutorService executorService, final IndexedFastaSequenceFile refGenome, final SageConfig config,
+            final SamReaderPool samReaderPool) {
         this.executorService = executorService;
         this.refGenome = refGenome;
         this.config = config;
+        this.samReaderPool = samReaderPool;
     }
 
     @NotNull
@@ -45,7 +49,7 @@ public class QualityRecalibrationSupplier implements Supplier<Map<String, Qualit
         final Map<String, QualityRecalibrationMap> result = Maps.newHashMap();
         LOGGER.info("Beginning quality recalibration");
 
-        final QualityRecalibration qualityRecalibration = new QualityRecalibration(bqrConfig, executorService, refGenome);
+        final QualityRecalibration qualityRecalibration = new QualityRecalibration(bqrConfig, executorService, refGenome, samReaderPool);
         final List<CompletableFuture<Void>> done = Lists.newArrayList();
 
         final BiFunction<String, String, CompletableFuture<Void>> processSample =
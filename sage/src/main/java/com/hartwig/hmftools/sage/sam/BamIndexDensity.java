@@ -0,0 +1,80 @@
+package com.hartwig.hmftools.sage.sam;
+
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.BAMFileSpan;
+import htsjdk.samtools.BAMIndex;
+import htsjdk.samtools.Chunk;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.SamReader;
+
+/**
+ * Estimates the relative amount of work along a chromosome from the compressed bytes the bam indices map to each window.
+ * No reads are decoded so this is cheap enough to run before partitioning every chromosome.
+ */
+public class BamIndexDensity {
+
+    // Resolution of the bai linear index
+    public static final int WINDOW_SIZE = 16_384;
+
+    // Allow for the fixed cost of a window even when it holds no reads
+    private static final long MIN_WINDOW_WORK = 1_024;
+
+    private final SamReaderPool samReaderPool;
+    private final List<String> bams;
+
+    public BamIndexDensity(@NotNull final SamReaderPool samReaderPool, @NotNull final List<String> bams) {
+        this.samReaderPool = samReaderPool;
+        this.bams = bams;
+    }
+
+    /**
+     * Returns the estimated work of each window of WINDOW_SIZE bases from minPosition to maxPosition inclusive, or null if any bam
+     * is not indexed.
+     */
+    @Nullable
+    public long[] density(@NotNull final String contig, int minPosition, int maxPosition) {
+        final int windows = (maxPosition - minPosition) / WINDOW_SIZE + 1;
+        final long[] result = new long[windows];
+        for (int i = 0; i < windows; i++) {
+            result[i] = MIN_WINDOW_WORK;
+        }
+
+        for (String bam : bams) {
+            final SamReader reader = samReaderPool.reader(bam);
+            if (!reader.hasIndex()) {
+                return null;
+            }
+
+            final SAMSequenceRecord sequence = reader.getFileHeader().getSequenceDictionary().getSequence(contig);
+            if (sequence == null) {
+                continue;
+            }
+
+            final BAMIndex index = reader.indexing().getIndex();
+            for (int i = 0; i < windows; i++) {
+                int start = minPosition + i * WINDOW_SIZE;
+                int end = Math.min(start + WINDOW_SIZE - 1, maxPosition);
+                result[i] += compressedBytes(index.getSpanOverlapping(sequence.getSequenceIndex(), start, end));
+            }
+        }
+
+        return result;
+    }
+
+    private static long compressedBytes(@Nullable final BAMFileSpan span) {
+        if (span == null) {
+            return 0;
+        }
+
+        long result = 0;
+        for (Chunk chunk : span.getChunks()) {
+            // Upper 48 bits of a virtual file offset are the offset of the compressed block
+            result += (chunk.getChunkEnd() >>> 16) - (chunk.getChunkStart() >>> 16);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+package com.hartwig.hmftools.sage.sam;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.Maps;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.cram.ref.ReferenceSource;
+
+/**
+ * Keeps one open reader per bam per thread for the duration of the run so the header, index and reference source of each
+ * reader are only loaded once. Readers must not be closed by callers and any query iterator must be closed before the thread
+ * issues another query against the same bam.
+ */
+public class SamReaderPool implements AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger(SamReaderPool.class);
+
+    private final File refGenome;
+    private final List<SamReader> readers = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Map<String, SamReader>> threadReaders = ThreadLocal.withInitial(Maps::newHashMap);
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger reused = new AtomicInteger();
+
+    public SamReaderPool(@NotNull final String refGenome) {
+        this.refGenome = new File(refGenome);
+    }
+
+    @NotNull
+    public SamReader reader(@NotNull final String bamFile) {
+        final Map<String, SamReader> map = threadReaders.get();
+        final SamReader existing = map.get(bamFile);
+        if (existing != null) {
+            reused.incrementAndGet();
+            return existing;
+        }
+
+        final SamReader reader = SamReaderFactory.makeDefault().referenceSource(new ReferenceSource(refGenome)).open(new File(bamFile));
+        map.put(bamFile, reader);
+        readers.add(reader);
+        opened.incrementAndGet();
+        return reader;
+    }
+
+    public int opened() {
+        return opened.get();
+    }
+
+    public int reused() {
+        return reused.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        LOGGER.info("Opened {} bam readers, reused {} times", opened(), reused());
+        for (SamReader reader : readers) {
+            reader.close();
+        }
+        readers.clear();
+    }
+}
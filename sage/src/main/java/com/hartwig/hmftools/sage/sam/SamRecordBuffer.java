@@ -0,0 +1,66 @@
+package com.hartwig.hmftools.sage.sam;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * Records of a single slice retained for replay. Once maxRecords is exceeded the buffer is dropped and no longer contains any region.
+ */
+public class SamRecordBuffer implements Consumer<SAMRecord> {
+
+    private final int maxRecords;
+    private final GenomeRegion bounds;
+    private final List<SAMRecord> records = Lists.newArrayList();
+
+    private boolean overflow;
+
+    public SamRecordBuffer(final int maxRecords, @NotNull final GenomeRegion bounds) {
+        this.maxRecords = maxRecords;
+        this.bounds = bounds;
+    }
+
+    @NotNull
+    public GenomeRegion bounds() {
+        return bounds;
+    }
+
+    @Override
+    public void accept(@NotNull final SAMRecord record) {
+        if (overflow) {
+            return;
+        }
+
+        if (records.size() >= maxRecords) {
+            overflow = true;
+            records.clear();
+            return;
+        }
+
+        records.add(record);
+    }
+
+    public boolean contains(@NotNull final GenomeRegion region) {
+        return !overflow && region.chromosome().equals(bounds.chromosome()) && region.start() >= bounds.start()
+                && region.end() <= bounds.end();
+    }
+
+    public void replay(@NotNull final GenomeRegion region, @NotNull final Consumer<SAMRecord> consumer) {
+        for (final SAMRecord record : records) {
+            if (record.getAlignmentStart() > region.end()) {
+                // Records are coordinate sorted so nothing further can overlap
+                return;
+            }
+
+            if (record.getAlignmentEnd() >= region.start()) {
+                consumer.accept(record);
+            }
+        }
+    }
+}
@@ -48,6 +48,8 @@ public class SageConfigTest {
     public static SageConfig testConfig() {
         return ImmutableSageConfig.builder()
                 .panelOnly(false)
+                .fusedEvidence(false)
+                .adaptivePartition(false)
                 .version("2.2")
                 .inputFile("in.vcf")
                 .outputFile("out.vcf")
@@ -0,0 +1,55 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import static com.hartwig.hmftools.sage.sam.BamIndexDensity.WINDOW_SIZE;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+
+import org.junit.Test;
+
+public class ChromosomePartitionTest {
+
+    @Test
+    public void testUniformDensityMatchesFixedRegionCount() {
+        final int maxPosition = 40 * WINDOW_SIZE;
+        final long[] density = new long[40];
+        Arrays.fill(density, 100);
+
+        final List<GenomeRegion> victim = ChromosomePartition.adaptivePartition("1", 1, maxPosition, 4 * WINDOW_SIZE, density);
+        assertEquals(10, victim.size());
+        assertContiguous(victim, maxPosition);
+    }
+
+    @Test
+    public void testDenseWindowsGetSmallerRegions() {
+        final int maxPosition = 40 * WINDOW_SIZE - 100;
+        final long[] density = new long[40];
+        Arrays.fill(density, 1);
+        density[0] = 1000;
+        density[1] = 1000;
+
+        final List<GenomeRegion> victim = ChromosomePartition.adaptivePartition("1", 1, maxPosition, 4 * WINDOW_SIZE, density);
+        assertEquals(WINDOW_SIZE, victim.get(0).bases());
+        assertEquals(WINDOW_SIZE, victim.get(1).bases());
+
+        // Sparse regions are capped in length
+        for (GenomeRegion region : victim) {
+            assertTrue(region.bases() <= 16 * WINDOW_SIZE);
+        }
+        assertContiguous(victim, maxPosition);
+    }
+
+    private static void assertContiguous(final List<GenomeRegion> regions, int maxPosition) {
+        long expectedStart = 1;
+        for (GenomeRegion region : regions) {
+            assertEquals(expectedStart, region.start());
+            expectedStart = region.end() + 1;
+        }
+        assertEquals(maxPosition, regions.get(regions.size() - 1).end());
+    }
+}
@@ -0,0 +1,121 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class ChromosomeReorderBufferTest {
+
+    @Test
+    public void testWritesInContigOrder() {
+        final List<String> output = Lists.newArrayList();
+        final ChromosomeReorderBuffer<String> victim = new ChromosomeReorderBuffer<>(Lists.newArrayList("1", "2", "3"), output::add);
+
+        final Consumer<String> one = victim.consumer("1");
+        final Consumer<String> two = victim.consumer("2");
+        final Consumer<String> three = victim.consumer("3");
+
+        three.accept("3a");
+        one.accept("1a");
+        two.accept("2a");
+        assertEquals(Lists.newArrayList("1a"), output);
+
+        victim.complete("3");
+        assertEquals(Lists.newArrayList("1a"), output);
+
+        one.accept("1b");
+        victim.complete("1");
+        assertEquals(Lists.newArrayList("1a", "1b", "2a"), output);
+
+        two.accept("2b");
+        assertEquals(Lists.newArrayList("1a", "1b", "2a", "2b"), output);
+
+        victim.complete("2");
+        assertEquals(Lists.newArrayList("1a", "1b", "2a", "2b", "3a"), output);
+    }
+
+    @Test
+    public void testReleaseWaitsUntilContigIsWritten() {
+        final List<String> released = Lists.newArrayList();
+        final ChromosomeReorderBuffer<String> victim = new ChromosomeReorderBuffer<>(Lists.newArrayList("1", "2", "3"), x -> {
+        });
+
+        victim.release("1", () -> released.add("1a"));
+        victim.release("3", () -> released.add("3a"));
+        victim.release("2", () -> released.add("2a"));
+        assertEquals(Lists.newArrayList("1a"), released);
+
+        victim.complete("1");
+        assertEquals(Lists.newArrayList("1a", "2a"), released);
+
+        victim.release("2", () -> released.add("2b"));
+        victim.release("1", () -> released.add("1b"));
+        assertEquals(Lists.newArrayList("1a", "2a", "2b", "1b"), released);
+
+        victim.complete("2");
+        assertEquals(Lists.newArrayList("1a", "2a", "2b", "1b", "3a"), released);
+    }
+
+    @Test
+    public void testFailedContigReleasesPendingPermits() {
+        final List<String> output = Lists.newArrayList();
+        final ChromosomeReorderBuffer<String> victim = new ChromosomeReorderBuffer<>(Lists.newArrayList("1", "2", "3"), output::add);
+        final Semaphore regionsInFlight = new Semaphore(3);
+
+        final CompletableFuture<Void> regionOne = new CompletableFuture<>();
+        final CompletableFuture<Void> regionTwo = new CompletableFuture<>();
+        final CompletableFuture<Void> regionThree = new CompletableFuture<>();
+        submit(victim, regionsInFlight, "1", regionOne);
+        submit(victim, regionsInFlight, "2", regionTwo);
+        submit(victim, regionsInFlight, "3", regionThree);
+
+        // Later contigs finish first and hold their permits until contig 1 is written
+        victim.consumer("2").accept("2a");
+        regionTwo.complete(null);
+        regionThree.complete(null);
+        assertEquals(0, regionsInFlight.availablePermits());
+        assertFalse(victim.failed());
+
+        // The region of contig 1 throws, so contig 1 never completes
+        regionOne.completeExceptionally(new IllegalStateException());
+        regionOne.whenComplete((aVoid, error) -> {
+            if (error != null) {
+                victim.fail();
+            } else {
+                victim.complete("1");
+            }
+        });
+
+        assertTrue(victim.failed());
+        assertEquals(3, regionsInFlight.availablePermits());
+        assertTrue(output.isEmpty());
+
+        // Anything finishing after the failure releases immediately and is not written
+        regionsInFlight.acquireUninterruptibly();
+        victim.consumer("3").accept("3a");
+        victim.release("3", regionsInFlight::release);
+        assertEquals(3, regionsInFlight.availablePermits());
+        assertTrue(output.isEmpty());
+    }
+
+    private static void submit(final ChromosomeReorderBuffer<String> victim, final Semaphore regionsInFlight, final String contig,
+            final CompletableFuture<Void> region) {
+        regionsInFlight.acquireUninterruptibly();
+        region.whenComplete((aVoid, error) -> {
+            if (error != null) {
+                regionsInFlight.release();
+            } else {
+                victim.release(contig, regionsInFlight::release);
+            }
+        });
+    }
+}
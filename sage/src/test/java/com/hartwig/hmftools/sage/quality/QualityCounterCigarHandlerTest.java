@@ -0,0 +1,281 @@
+package com.hartwig.hmftools.sage.quality;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+import com.hartwig.hmftools.sage.ref.RefSequence;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.reference.FastaReferenceWriter;
+import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
+
+public class QualityCounterCigarHandlerTest {
+
+    private static final byte[] BASES = { 'A', 'C', 'G', 'T' };
+    private static final int REF_LENGTH = 3000;
+    private static final int N_POSITION = 1500;
+    private static final GenomeRegion BOUNDS = GenomeRegions.create("1", 1001, 2000);
+    private static final byte DEFAULT_QUAL = 30;
+
+    private static byte[] refBases;
+    private static RefSequence refSequence;
+
+    @BeforeClass
+    public static void setup() throws IOException {
+        final Random random = new Random(0);
+        refBases = new byte[REF_LENGTH];
+        for (int i = 0; i < REF_LENGTH; i++) {
+            refBases[i] = BASES[random.nextInt(BASES.length)];
+        }
+        refBases[N_POSITION - 1] = 'N';
+
+        final Path directory = Files.createTempDirectory("bqr");
+        final Path fasta = directory.resolve("ref.fasta");
+        directory.toFile().deleteOnExit();
+        fasta.toFile().deleteOnExit();
+        directory.resolve("ref.fasta.fai").toFile().deleteOnExit();
+        directory.resolve("ref.dict").toFile().deleteOnExit();
+        FastaReferenceWriter.writeSingleSequenceReference(fasta, true, true, "1", null, refBases);
+
+        try (ReferenceSequenceFile refGenome = new IndexedFastaSequenceFile(fasta)) {
+            refSequence = new RefSequence(BOUNDS, refGenome);
+        }
+    }
+
+    @Test
+    public void testIndelAdjacentPositionExcluded() {
+        final List<SAMRecord> records = Lists.newArrayList();
+        records.add(refRecord(1100, 40, 1121, (byte) 20));
+        records.add(buildSamRecord(1101, "20M1I19M", bases(1101, 20) + "A" + bases(1121, 19)));
+        records.add(refRecord(1101, 40, 1121, (byte) 21));
+        records.add(refRecord(1180, 40, 1201, (byte) 22));
+        records.add(buildSamRecord(1181, "20M2D20M", bases(1181, 20) + bases(1203, 20)));
+
+        final QualityCounterTable table = assertSameCounts(records, 2);
+
+        // The base after the insert and the base after the start of the delete are excluded from every read
+        assertEquals(0, refCount(table, 1121, (byte) 20));
+        assertEquals(0, refCount(table, 1121, (byte) 21));
+        assertEquals(0, refCount(table, 1201, (byte) 22));
+    }
+
+    @Test
+    public void testAltCountAboveMaxExcluded() {
+        final List<SAMRecord> records = Lists.newArrayList();
+        for (int i = 0; i < 3; i++) {
+            records.add(altRecord(1290 + i, 30, 1300, (byte) 25));
+        }
+        for (int i = 0; i < 2; i++) {
+            records.add(altRecord(1390 + i, 30, 1400, (byte) 26));
+        }
+        records.add(refRecord(1295, 30, 1300, (byte) 27));
+        records.sort(Comparator.comparingInt(SAMRecord::getAlignmentStart));
+
+        final QualityCounterTable table = assertSameCounts(records, 2);
+
+        assertEquals(0, altCount(table, 1300, (byte) 25));
+        assertEquals(1, refCount(table, 1300, (byte) 27));
+        assertEquals(2, altCount(table, 1400, (byte) 26));
+    }
+
+    @Test
+    public void testFlushAtWindowBoundaries() {
+        final List<SAMRecord> records = Lists.newArrayList();
+
+        // Reads across both bounds, and a read starting right after the previous one ends
+        records.add(altRecord(980, 40, 1001, (byte) 10));
+        records.add(refRecord(1020, 30, 1049, (byte) 11));
+        records.add(altRecord(1050, 30, 1050, (byte) 12));
+
+        // Many qualities at one position to grow the cells of a position
+        for (int i = 0; i < 40; i++) {
+            records.add(refRecord(1060 + i / 10, 40, 1080, (byte) (2 + i)));
+        }
+
+        // A long delete to move the window beyond its initial capacity, with reads starting inside the deleted region
+        records.add(buildSamRecord(1110, "30M700D30M", bases(1110, 30) + bases(1840, 30)));
+        records.add(altRecord(1200, 30, 1210, (byte) 13));
+        records.add(altRecord(1850, 30, 1860, (byte) 14));
+        records.add(altRecord(1990, 30, 2000, (byte) 15));
+
+        records.sort(Comparator.comparingInt(SAMRecord::getAlignmentStart));
+        final QualityCounterTable table = assertSameCounts(records, 2);
+
+        assertEquals(1, altCount(table, 1001, (byte) 10));
+        assertEquals(1, refCount(table, 1049, (byte) 11));
+        assertEquals(1, altCount(table, 1050, (byte) 12));
+        assertEquals(1, altCount(table, 2000, (byte) 15));
+    }
+
+    @Test
+    public void testRandomReadsMatchMapHandler() {
+        final Random random = new Random(1);
+        final List<SAMRecord> records = Lists.newArrayList();
+        for (int i = 0; i < 2000; i++) {
+            records.add(randomRecord(random));
+        }
+        records.sort(Comparator.comparingInt(SAMRecord::getAlignmentStart));
+
+        for (int maxAltCount : new int[] { 0, 1, 3, 10 }) {
+            assertSameCounts(records, maxAltCount);
+        }
+    }
+
+    @NotNull
+    private static QualityCounterTable assertSameCounts(@NotNull final List<SAMRecord> records, int maxAltCount) {
+        final MapQualityCounterCigarHandler expectedHandler = new MapQualityCounterCigarHandler(refSequence, BOUNDS, maxAltCount);
+        final QualityCounterCigarHandler victim = new QualityCounterCigarHandler(refSequence, BOUNDS, maxAltCount);
+        for (SAMRecord record : records) {
+            expectedHandler.processRecord(record);
+            victim.processRecord(record);
+        }
+
+        final Map<Integer, Integer> expected = Maps.newHashMap();
+        for (QualityCounter counter : expectedHandler.counts()) {
+            final int index = QualityRecalibrationIndex.index(counter.ref(), counter.alt(), counter.trinucleotideContext(), counter.qual());
+            expected.merge(index, counter.count(), Integer::sum);
+        }
+
+        final QualityCounterTable table = victim.counts();
+        final Map<Integer, Integer> actual = Maps.newHashMap();
+        for (int i = 0; i < QualityRecalibrationIndex.SIZE; i++) {
+            if (table.count(i) > 0) {
+                actual.put(i, table.count(i));
+            }
+        }
+
+        assertTrue(!expected.isEmpty());
+        assertEquals(expected, actual);
+        return table;
+    }
+
+    private static int refCount(@NotNull final QualityCounterTable table, int position, byte qual) {
+        return table.count(QualityRecalibrationIndex.index(ref(position), ref(position), trinucleotideContext(position), qual));
+    }
+
+    private static int altCount(@NotNull final QualityCounterTable table, int position, byte qual) {
+        return table.count(QualityRecalibrationIndex.index(ref(position), alt(position), trinucleotideContext(position), qual));
+    }
+
+    @NotNull
+    private static SAMRecord refRecord(int start, int length, int position, byte qual) {
+        final SAMRecord record = buildSamRecord(start, length + "M", bases(start, length));
+        record.getBaseQualities()[position - start] = qual;
+        return record;
+    }
+
+    @NotNull
+    private static SAMRecord altRecord(int start, int length, int position, byte qual) {
+        final SAMRecord record = refRecord(start, length, position, qual);
+        record.getReadBases()[position - start] = alt(position);
+        return record;
+    }
+
+    @NotNull
+    private static SAMRecord randomRecord(@NotNull final Random random) {
+        final int start = 900 + random.nextInt(1200);
+        final StringBuilder cigar = new StringBuilder();
+        final StringBuilder readBases = new StringBuilder();
+
+        if (random.nextInt(4) == 0) {
+            final int softClip = 1 + random.nextInt(5);
+            cigar.append(softClip).append("S");
+            readBases.append(randomBases(random, softClip));
+        }
+
+        int position = start;
+        final int blocks = 1 + random.nextInt(3);
+        for (int block = 0; block < blocks; block++) {
+            if (block > 0) {
+                if (random.nextBoolean()) {
+                    final int insert = 1 + random.nextInt(3);
+                    cigar.append(insert).append("I");
+                    readBases.append(randomBases(random, insert));
+                } else {
+                    final int delete = 1 + random.nextInt(10);
+                    cigar.append(delete).append("D");
+                    position += delete;
+                }
+            }
+
+            final int match = 5 + random.nextInt(40);
+            cigar.append(match).append("M");
+            for (int i = 0; i < match; i++, position++) {
+                final int mutation = random.nextInt(100);
+                if (mutation == 0) {
+                    readBases.append('N');
+                } else if (mutation < 6) {
+                    readBases.append((char) alt(position));
+                } else {
+                    readBases.append((char) ref(position));
+                }
+            }
+        }
+
+        final SAMRecord record = buildSamRecord(start, cigar.toString(), readBases.toString());
+        final byte[] qualities = record.getBaseQualities();
+        for (int i = 0; i < qualities.length; i++) {
+            qualities[i] = (byte) (random.nextInt(10) == 0 ? random.nextInt(41) : 37);
+        }
+
+        return record;
+    }
+
+    @NotNull
+    private static String randomBases(@NotNull final Random random, int length) {
+        final StringBuilder result = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            result.append((char) BASES[random.nextInt(BASES.length)]);
+        }
+        return result.toString();
+    }
+
+    @NotNull
+    private static String bases(int start, int length) {
+        return new String(refBases, start - 1, length);
+    }
+
+    private static byte ref(int position) {
+        return refBases[position - 1];
+    }
+
+    private static byte alt(int position) {
+        return ref(position) == 'A' ? (byte) 'C' : (byte) 'A';
+    }
+
+    @NotNull
+    private static byte[] trinucleotideContext(int position) {
+        return Arrays.copyOfRange(refBases, position - 2, position + 1);
+    }
+
+    @NotNull
+    private static SAMRecord buildSamRecord(int alignmentStart, @NotNull final String cigar, @NotNull final String readString) {
+        final SAMRecord record = new SAMRecord(null);
+        record.setAlignmentStart(alignmentStart);
+        record.setCigarString(cigar);
+        record.setReadString(readString);
+        final byte[] qualities = new byte[readString.length()];
+        Arrays.fill(qualities, DEFAULT_QUAL);
+        record.setBaseQualities(qualities);
+        record.setMappingQuality(20);
+        return record;
+    }
+}
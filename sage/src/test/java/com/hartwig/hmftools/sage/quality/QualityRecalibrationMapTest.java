@@ -0,0 +1,49 @@
+package com.hartwig.hmftools.sage.quality;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class QualityRecalibrationMapTest {
+
+    private static final byte[] TRINUCLEOTIDE_CONTEXT = new byte[] { 'C', 'A', 'G' };
+
+    @Test
+    public void testIndexRoundTrip() {
+        int index = QualityRecalibrationIndex.index((byte) 'A', (byte) 'T', TRINUCLEOTIDE_CONTEXT, (byte) 37);
+        assertEquals('A', QualityRecalibrationIndex.ref(index));
+        assertEquals('T', QualityRecalibrationIndex.alt(index));
+        assertEquals('C', QualityRecalibrationIndex.tri0(index));
+        assertEquals('A', QualityRecalibrationIndex.tri1(index));
+        assertEquals('G', QualityRecalibrationIndex.tri2(index));
+        assertEquals(37, QualityRecalibrationIndex.qual(index));
+    }
+
+    @Test
+    public void testInvalidKeyHasNoIndex() {
+        assertEquals(-1, QualityRecalibrationIndex.index((byte) 'A', (byte) 'N', TRINUCLEOTIDE_CONTEXT, (byte) 37));
+        assertEquals(-1, QualityRecalibrationIndex.index((byte) 'A', (byte) 'T', new byte[] { 'C', 'A' }, (byte) 37));
+        assertEquals(-1, QualityRecalibrationIndex.index((byte) 'A', (byte) 'T', TRINUCLEOTIDE_CONTEXT, (byte) -1));
+    }
+
+    @Test
+    public void testQualityLookup() {
+        final QualityRecalibrationRecord record = ImmutableQualityRecalibrationRecord.builder()
+                .key(ImmutableQualityRecalibrationKey.builder()
+                        .ref((byte) 'A')
+                        .alt((byte) 'T')
+                        .qual((byte) 37)
+                        .trinucleotideContext(TRINUCLEOTIDE_CONTEXT)
+                        .build())
+                .count(10)
+                .recalibratedQual(29.5)
+                .build();
+
+        final QualityRecalibrationMap victim = new QualityRecalibrationMap(Collections.singletonList(record));
+        assertEquals(29.5, victim.quality((byte) 'A', (byte) 'T', TRINUCLEOTIDE_CONTEXT, (byte) 37), 0.001);
+        assertEquals(30, victim.quality((byte) 'A', (byte) 'T', TRINUCLEOTIDE_CONTEXT, (byte) 30), 0.001);
+        assertEquals(37, victim.quality((byte) 'A', (byte) 'N', TRINUCLEOTIDE_CONTEXT, (byte) 37), 0.001);
+    }
+}
@@ -0,0 +1,68 @@
+package com.hartwig.hmftools.sage.sam;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMRecord;
+
+public class SamRecordBufferTest {
+
+    @Test
+    public void testContains() {
+        final SamRecordBuffer victim = new SamRecordBuffer(10, GenomeRegions.create("1", 100, 200));
+        assertTrue(victim.contains(GenomeRegions.create("1", 100, 200)));
+        assertTrue(victim.contains(GenomeRegions.create("1", 150, 160)));
+        assertFalse(victim.contains(GenomeRegions.create("1", 99, 160)));
+        assertFalse(victim.contains(GenomeRegions.create("1", 150, 201)));
+        assertFalse(victim.contains(GenomeRegions.create("2", 150, 160)));
+    }
+
+    @Test
+    public void testReplayOverlapping() {
+        final SamRecordBuffer victim = new SamRecordBuffer(10, GenomeRegions.create("1", 100, 200));
+        final SAMRecord first = buildSamRecord(100);
+        final SAMRecord second = buildSamRecord(120);
+        final SAMRecord third = buildSamRecord(150);
+        victim.accept(first);
+        victim.accept(second);
+        victim.accept(third);
+
+        final List<SAMRecord> replayed = Lists.newArrayList();
+        victim.replay(GenomeRegions.create("1", 125, 145), replayed::add);
+        assertEquals(Lists.newArrayList(second), replayed);
+
+        replayed.clear();
+        victim.replay(GenomeRegions.create("1", 105, 150), replayed::add);
+        assertEquals(Lists.newArrayList(first, second, third), replayed);
+    }
+
+    @Test
+    public void testOverflowNoLongerContainsRegion() {
+        final SamRecordBuffer victim = new SamRecordBuffer(2, GenomeRegions.create("1", 100, 200));
+        victim.accept(buildSamRecord(100));
+        victim.accept(buildSamRecord(110));
+        assertTrue(victim.contains(GenomeRegions.create("1", 150, 160)));
+
+        victim.accept(buildSamRecord(120));
+        assertFalse(victim.contains(GenomeRegions.create("1", 150, 160)));
+    }
+
+    @NotNull
+    private static SAMRecord buildSamRecord(final int alignmentStart) {
+        final SAMRecord record = new SAMRecord(null);
+        record.setAlignmentStart(alignmentStart);
+        record.setCigarString("10M");
+        record.setReadString("ACGTACGTAC");
+        record.setBaseQualityString("##########");
+        return record;
+    }
+}
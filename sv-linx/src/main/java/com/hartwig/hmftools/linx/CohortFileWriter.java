@@ -0,0 +1,153 @@
+package com.hartwig.hmftools.linx;
+
+import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.createBufferedWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+public class CohortFileWriter extends BufferedWriter
+{
+    // a handle onto a cohort output file which may be shared by the sample workers in batch mode - each component writes through
+    // its own handle, lines are appended to the file whole, and only the first handle's header line is kept
+    private final SharedFile mFile;
+    private final StringBuilder mLine;
+    private boolean mHeaderPending;
+    private boolean mClosed;
+
+    private static final Map<String,SharedFile> OPEN_FILES = Maps.newHashMap();
+
+    private static class SharedFile
+    {
+        public final String Filename;
+        public final BufferedWriter Writer;
+        public boolean HasHeader;
+        public int HandleCount;
+
+        public SharedFile(final String filename, final BufferedWriter writer)
+        {
+            Filename = filename;
+            Writer = writer;
+            HasHeader = false;
+            HandleCount = 0;
+        }
+    }
+
+    private CohortFileWriter(final SharedFile file)
+    {
+        super(file.Writer, 1);
+        mFile = file;
+        mLine = new StringBuilder();
+        mHeaderPending = true;
+        mClosed = false;
+    }
+
+    public static BufferedWriter createCohortFileWriter(final String filename) throws IOException
+    {
+        // the file is created by the first handle and closed with the last, so workers must not close their writers until all
+        // workers have finished
+        synchronized(OPEN_FILES)
+        {
+            SharedFile file = OPEN_FILES.get(filename);
+
+            if(file == null)
+            {
+                file = new SharedFile(filename, createBufferedWriter(filename, false));
+                OPEN_FILES.put(filename, file);
+            }
+
+            ++file.HandleCount;
+            return new CohortFileWriter(file);
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException
+    {
+        mLine.append((char)c);
+
+        if(c == '\n')
+            writeLine();
+    }
+
+    @Override
+    public void write(final char[] cbuf, int off, int len) throws IOException
+    {
+        for(int i = off; i < off + len; ++i)
+        {
+            write(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(final String str, int off, int len) throws IOException
+    {
+        int lineStart = off;
+
+        for(int i = off; i < off + len; ++i)
+        {
+            if(str.charAt(i) == '\n')
+            {
+                mLine.append(str, lineStart, i + 1);
+                writeLine();
+                lineStart = i + 1;
+            }
+        }
+
+        mLine.append(str, lineStart, off + len);
+    }
+
+    @Override
+    public void newLine() throws IOException
+    {
+        write('\n');
+    }
+
+    private void writeLine() throws IOException
+    {
+        synchronized(mFile)
+        {
+            if(!mHeaderPending || !mFile.HasHeader)
+                mFile.Writer.write(mLine.toString());
+
+            mFile.HasHeader = true;
+        }
+
+        mHeaderPending = false;
+        mLine.setLength(0);
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        synchronized(mFile)
+        {
+            mFile.Writer.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if(mClosed)
+            return;
+
+        mClosed = true;
+
+        if(mLine.length() > 0)
+            writeLine();
+
+        synchronized(OPEN_FILES)
+        {
+            --mFile.HandleCount;
+
+            if(mFile.HandleCount == 0)
+            {
+                OPEN_FILES.remove(mFile.Filename);
+                mFile.Writer.close();
+            }
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package com.hartwig.hmftools.linx;
 
 import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.checkCreateOutputDir;
-import static com.hartwig.hmftools.common.variant.structural.StructuralVariantFactory.INFERRED;
-import static com.hartwig.hmftools.common.variant.structural.StructuralVariantFactory.PASS;
 import static com.hartwig.hmftools.linx.LinxConfig.CHECK_DRIVERS;
 import static com.hartwig.hmftools.linx.LinxConfig.CHECK_FUSIONS;
 import static com.hartwig.hmftools.linx.LinxConfig.GENE_TRANSCRIPTS_DIR;
@@ -12,28 +10,29 @@ import static com.hartwig.hmftools.linx.LinxConfig.LOG_VERBOSE;
 import static com.hartwig.hmftools.linx.LinxConfig.REF_GENOME_FILE;
 import static com.hartwig.hmftools.linx.LinxConfig.RG_VERSION;
 import static com.hartwig.hmftools.linx.LinxDataLoader.VCF_FILE;
-import static com.hartwig.hmftools.linx.LinxDataLoader.loadSvDataFromGermlineVcf;
-import static com.hartwig.hmftools.linx.LinxDataLoader.loadSvDataFromSvFile;
-import static com.hartwig.hmftools.linx.LinxDataLoader.loadSvDataFromVcf;
 import static com.hartwig.hmftools.patientdb.dao.DatabaseAccess.MIN_SAMPLE_PURITY;
 import static com.hartwig.hmftools.patientdb.dao.DatabaseAccess.addDatabaseCmdLineArgs;
 import static com.hartwig.hmftools.patientdb.dao.DatabaseAccess.createDatabaseAccess;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
 import com.hartwig.hmftools.common.utils.PerformanceCounter;
 import com.hartwig.hmftools.common.utils.version.VersionInfo;
-import com.hartwig.hmftools.common.variant.structural.StructuralVariantData;
-import com.hartwig.hmftools.linx.analysis.SampleAnalyser;
-import com.hartwig.hmftools.linx.cn.CnDataLoader;
-import com.hartwig.hmftools.linx.drivers.DriverGeneAnnotator;
 import com.hartwig.hmftools.linx.fusion.FusionDisruptionAnalyser;
 import com.hartwig.hmftools.linx.fusion.FusionFinder;
-import com.hartwig.hmftools.linx.types.SvVarData;
 import com.hartwig.hmftools.patientdb.dao.DatabaseAccess;
 
 import org.apache.commons.cli.CommandLine;
@@ -120,24 +119,10 @@ public class LinxApplication
         LNX_LOGGER.info("running SV analysis for {}",
                 config.hasMultipleSamples() ? String.format("%d samples", samplesList.size()) : samplesList.get(0));
 
-        SampleAnalyser sampleAnalyser = new SampleAnalyser(config, dbAccess);
-
-        CnDataLoader cnDataLoader = new CnDataLoader(config.PurpleDataPath, dbAccess);
-
-        if(config.hasMultipleSamples())
-            cnDataLoader.establishCaches();
-
-        sampleAnalyser.setCnDataLoader(cnDataLoader);
-
-        DriverGeneAnnotator driverGeneAnnotator = null;
         boolean checkDrivers = cmd.hasOption(CHECK_DRIVERS) && config.DriverGenes != null;
-
-        FusionDisruptionAnalyser fusionAnalyser = null;
         boolean checkFusions = cmd.hasOption(CHECK_FUSIONS);
 
         boolean selectiveGeneLoading = (samplesList.size() == 1 && !checkDrivers);
-        boolean applyPromotorDistance = checkFusions;
-        boolean purgeInvalidTranscripts = true;
 
         final EnsemblDataCache ensemblDataCache = cmd.hasOption(GENE_TRANSCRIPTS_DIR) ?
                 new EnsemblDataCache(cmd.getOptionValue(GENE_TRANSCRIPTS_DIR), RG_VERSION) : null;
@@ -180,122 +165,72 @@ public class LinxApplication
                 LNX_LOGGER.error("Ensembl data cache load failed, exiting");
                 return;
             }
+        }
 
-            sampleAnalyser.setGeneCollection(ensemblDataCache);
-            sampleAnalyser.getVisWriter().setGeneDataCache(ensemblDataCache);
+        final SampleWorker primaryWorker = new SampleWorker(config, cmd, dbAccess, ensemblDataCache, selectiveGeneLoading, null);
 
-            // always initialise since is used for transcript evaluation
-            fusionAnalyser = new FusionDisruptionAnalyser(cmd, config, ensemblDataCache, sampleAnalyser.getVisWriter());
+        if(!primaryWorker.isValid())
+            return;
 
-            if(!fusionAnalyser.validState())
-                return;
+        if(checkFusions && primaryWorker.getFusionAnalyser() != null)
+        {
+            final FusionDisruptionAnalyser fusionAnalyser = primaryWorker.getFusionAnalyser();
 
-            if(checkFusions)
+            if(fusionAnalyser.hasRnaSampleData() && samplesList.size() > 1)
             {
-                purgeInvalidTranscripts = !fusionAnalyser.hasRnaSampleData();
-
-                if(fusionAnalyser.hasRnaSampleData() && samplesList.size() > 1)
-                {
-                    samplesList.clear();
-                    samplesList.addAll(fusionAnalyser.getRnaSampleIds());
+                samplesList.clear();
+                samplesList.addAll(fusionAnalyser.getRnaSampleIds());
 
-                    LNX_LOGGER.info("running {} sample based on RNA fusion input", samplesList.size());
-                }
-            }
-
-            if(checkDrivers)
-            {
-                driverGeneAnnotator = new DriverGeneAnnotator(dbAccess, ensemblDataCache, config, cnDataLoader);
-                driverGeneAnnotator.setVisWriter(sampleAnalyser.getVisWriter());
+                LNX_LOGGER.info("running {} sample based on RNA fusion input", samplesList.size());
             }
         }
 
-        PerformanceCounter prefCounter = new PerformanceCounter("Total");
+        // in batch mode further workers each take samples from the same queue, with the Ensembl data cache and reference data
+        // shared and only read, and cohort files written through shared appenders - since a DB connection cannot be used
+        // concurrently, each worker opens its own
+        final List<SampleWorker> workers = Lists.newArrayList(primaryWorker);
 
-        int count = 0;
-        for (final String sampleId : samplesList)
+        if(config.hasMultipleSamples())
         {
-            ++count;
-
-            prefCounter.start();
-
-            final List<StructuralVariantData> svRecords = sampleDataFromFile ?
-                    loadSampleSvDataFromFile(config, sampleId, cmd) : dbAccess.readStructuralVariantData(sampleId);
-
-            final List<SvVarData> svDataList = createSvData(svRecords);
-
-            sampleAnalyser.setSampleId(sampleId);
-
-            if(svDataList.isEmpty())
-            {
-                LNX_LOGGER.info("sample({}) has no passing SVs", sampleId);
-                continue;
-            }
-
-            if(config.hasMultipleSamples())
-            {
-                LNX_LOGGER.info("sample({}) processing {} SVs, completed({})", sampleId, svDataList.size(), count - 1);
-            }
-
-            if(!config.IsGermline)
-                cnDataLoader.loadSampleData(sampleId, svRecords);
-
-            sampleAnalyser.setSampleSVs(svDataList);
-
-            if(ensemblDataCache != null)
-            {
-                sampleAnalyser.setSvGeneData(svDataList, ensemblDataCache, applyPromotorDistance, selectiveGeneLoading);
-            }
-
-            sampleAnalyser.analyse();
-
-            if(!sampleAnalyser.inValidState())
-            {
-                LNX_LOGGER.info("exiting after sample({}), in invalid state", sampleId);
-                break;
-            }
+            int workerCount = Math.min(config.Threads, samplesList.size());
 
-            if(checkDrivers || checkFusions)
+            for(int i = 1; i < workerCount; ++i)
             {
-                // when matching RNA, allow all transcripts regardless of their viability for fusions
-                fusionAnalyser.annotateTranscripts(svDataList, purgeInvalidTranscripts);
-            }
+                final DatabaseAccess workerDbAccess = dbAccess != null ? createDatabaseAccess(cmd) : null;
 
-            sampleAnalyser.annotate();
+                if(dbAccess != null && workerDbAccess == null)
+                {
+                    LNX_LOGGER.error("failed to create DB connection for sample worker, exiting");
+                    workers.forEach(x -> x.close());
+                    return;
+                }
 
-            if(checkDrivers)
-            {
-                driverGeneAnnotator.annotateSVs(sampleId, sampleAnalyser.getChrBreakendMap());
+                workers.add(new SampleWorker(config, cmd, workerDbAccess, ensemblDataCache, selectiveGeneLoading, primaryWorker));
             }
 
-            if(checkFusions)
-            {
-                fusionAnalyser.run(sampleId, svDataList, dbAccess, sampleAnalyser.getClusters(), sampleAnalyser.getChrBreakendMap());
-            }
+            if(workers.size() > 1)
+                LNX_LOGGER.info("running {} samples across {} threads", samplesList.size(), workers.size());
+        }
 
-            sampleAnalyser.writeOutput(dbAccess);
+        final Queue<String> sampleQueue = new ConcurrentLinkedQueue<>(samplesList);
+        final AtomicInteger sampleCount = new AtomicInteger();
+        workers.forEach(x -> x.setSamples(sampleQueue, sampleCount));
 
-            prefCounter.stop();
+        if(workers.size() == 1)
+            primaryWorker.call();
+        else
+            runWorkers(workers, sampleQueue);
 
-            if(config.MaxSamples > 0 && count >= config.MaxSamples)
-            {
-                LNX_LOGGER.info("exiting after max sample count {} reached", count);
-                break;
-            }
-        }
+        final PerformanceCounter perfCounter = primaryWorker.getPerfCounter();
+        workers.stream().filter(x -> x != primaryWorker).forEach(x -> perfCounter.merge(x.getPerfCounter()));
 
         if(LNX_LOGGER.isDebugEnabled() || config.hasMultipleSamples())
         {
-            prefCounter.logStats();
+            perfCounter.logStats();
         }
 
-        sampleAnalyser.close();
-
-        if(fusionAnalyser != null)
-            fusionAnalyser.close();
-
-        if(driverGeneAnnotator != null)
-            driverGeneAnnotator.close();
+        // cohort files are shared by the workers so are only closed once all have finished
+        workers.forEach(x -> x.close());
 
         if(config.isSingleSample())
         {
@@ -306,38 +241,62 @@ public class LinxApplication
                 config.hasMultipleSamples() ? String.format("%d samples", samplesList.size()) : samplesList.get(0));
     }
 
-    private static List<StructuralVariantData> loadSampleSvDataFromFile(
-            final LinxConfig config, final String sampleId, final CommandLine cmd)
+    private static void runWorkers(final List<SampleWorker> workers, final Queue<String> sampleQueue)
     {
-        if(cmd.hasOption(VCF_FILE))
-        {
-            if(config.IsGermline)
-                return loadSvDataFromGermlineVcf(cmd.getOptionValue(VCF_FILE));
-            else
-                return loadSvDataFromVcf(cmd.getOptionValue(VCF_FILE));
-        }
-        else
+        final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("Linx-%d").build();
+        final ExecutorService executorService = Executors.newFixedThreadPool(workers.size(), namedThreadFactory);
+
+        final List<FutureTask<Long>> taskList = Lists.newArrayList();
+
+        for(SampleWorker worker : workers)
         {
-            return loadSvDataFromSvFile(sampleId, config.SvDataPath);
+            FutureTask<Long> futureTask = new FutureTask<>(() ->
+            {
+                try
+                {
+                    return worker.call();
+                }
+                catch(RuntimeException e)
+                {
+                    // stop any other workers from taking further samples
+                    sampleQueue.clear();
+                    throw e;
+                }
+            });
+
+            taskList.add(futureTask);
+            executorService.execute(futureTask);
         }
-    }
 
-    private static List<SvVarData> createSvData(List<StructuralVariantData> svRecords)
-    {
-        List<SvVarData> svVarDataItems = Lists.newArrayList();
+        executorService.shutdown();
+
+        // wait for every worker, even after an error, since the cohort files they share are closed once they have all finished
+        Exception workerError = null;
 
-        for (final StructuralVariantData svRecord : svRecords)
+        for(FutureTask<Long> futureTask : taskList)
         {
-            if(svRecord.filter().isEmpty() || svRecord.filter().equals(PASS) || svRecord.filter().equals(INFERRED))
+            try
+            {
+                futureTask.get();
+            }
+            catch(ExecutionException e)
             {
-                svVarDataItems.add(new SvVarData(svRecord));
+                LNX_LOGGER.error("sample worker error", e.getCause());
+
+                if(workerError == null)
+                    workerError = e;
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
             }
         }
 
-        return svVarDataItems;
+        if(workerError != null)
+            throw new IllegalStateException(workerError);
     }
 
-
     private static List<String> getStructuralVariantSamplesList(@NotNull DatabaseAccess dbAccess, boolean filterQCPassOnly)
     {
         final List<String> sampleIds = filterQCPassOnly ? dbAccess.readPurpleSampleListPassingQC(MIN_SAMPLE_PURITY) : dbAccess.readPurpleSampleList();
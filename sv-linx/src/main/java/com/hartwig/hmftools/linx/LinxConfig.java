@@ -43,6 +43,7 @@ public class LinxConfig
     public final String ReplicationOriginsFile;
     public final String ViralHostsFile;
     public final int MaxSamples;
+    public final int Threads; // sample workers in batch mode, otherwise cluster chaining threads
     public final int ChainingSvLimit; // for analysis and chaining
     public final boolean IsGermline;
     public final boolean IndelAnnotation;
@@ -92,6 +93,7 @@ public class LinxConfig
 
     // limit batch run to first X samples
     private static final String MAX_SAMPLES = "max_samples";
+    private static final String THREADS = "threads";
 
     // global Linx logger
     public static final Logger LNX_LOGGER = LogManager.getLogger(LinxConfig.class);
@@ -141,6 +143,7 @@ public class LinxConfig
         IndelFile = cmd.getOptionValue(INDEL_FILE, "");
         RequiredAnnotations = cmd.getOptionValue(REQUIRED_ANNOTATIONS, "");
         MaxSamples = Integer.parseInt(cmd.getOptionValue(MAX_SAMPLES, "0"));
+        Threads = Math.max(Integer.parseInt(cmd.getOptionValue(THREADS, "1")), 1);
 
         DriverGenes = loadDriverGenes(cmd);
 
@@ -215,6 +218,7 @@ public class LinxConfig
         RequiredAnnotations = "";
         mSampleIds = Lists.newArrayList();
         MaxSamples = 0;
+        Threads = 1;
         LogVerbose = false;
         Output = new LinxOutput();
         ChainingSvLimit = DEFAULT_CHAINING_SV_LIMIT;
@@ -262,6 +266,7 @@ public class LinxConfig
         options.addOption(REPLICATION_ORIGINS_FILE, true, "Origins of replication file");
         options.addOption(GERMLINE, false, "Process germline SVs");
         options.addOption(MAX_SAMPLES, true, "Limit to X samples for testing");
+        options.addOption(THREADS, true, "Optional: number of samples processed in parallel in batch mode, or of clusters chained in parallel for a single sample, default 1");
         options.addOption(CHAINING_SV_LIMIT, true, "Optional: max cluster size for chaining");
         options.addOption(REQUIRED_ANNOTATIONS, true, "Optional: string list of annotations");
         options.addOption(INDEL_ANNOTATIONS, false, "Optional: annotate clusters and TIs with INDELs");
@@ -0,0 +1,259 @@
+package com.hartwig.hmftools.linx;
+
+import static com.hartwig.hmftools.common.variant.structural.StructuralVariantFactory.INFERRED;
+import static com.hartwig.hmftools.common.variant.structural.StructuralVariantFactory.PASS;
+import static com.hartwig.hmftools.linx.LinxConfig.CHECK_DRIVERS;
+import static com.hartwig.hmftools.linx.LinxConfig.CHECK_FUSIONS;
+import static com.hartwig.hmftools.linx.LinxConfig.LNX_LOGGER;
+import static com.hartwig.hmftools.linx.LinxDataLoader.VCF_FILE;
+import static com.hartwig.hmftools.linx.LinxDataLoader.loadSvDataFromGermlineVcf;
+import static com.hartwig.hmftools.linx.LinxDataLoader.loadSvDataFromSvFile;
+import static com.hartwig.hmftools.linx.LinxDataLoader.loadSvDataFromVcf;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
+import com.hartwig.hmftools.common.utils.PerformanceCounter;
+import com.hartwig.hmftools.common.variant.structural.StructuralVariantData;
+import com.hartwig.hmftools.linx.analysis.SampleAnalyser;
+import com.hartwig.hmftools.linx.cn.CnDataLoader;
+import com.hartwig.hmftools.linx.drivers.DriverGeneAnnotator;
+import com.hartwig.hmftools.linx.fusion.FusionDisruptionAnalyser;
+import com.hartwig.hmftools.linx.types.SvVarData;
+import com.hartwig.hmftools.patientdb.dao.DatabaseAccess;
+
+import org.apache.commons.cli.CommandLine;
+import org.jetbrains.annotations.Nullable;
+
+public class SampleWorker implements Callable<Long>
+{
+    // analyses samples taken from a queue shared with any other workers, with its own analyser state but sharing the read-only
+    // Ensembl data, driver gene panel and annotation reference data
+    private final LinxConfig mConfig;
+    private final CommandLine mCmd;
+    private final DatabaseAccess mDbAccess;
+    private final EnsemblDataCache mEnsemblDataCache;
+
+    private final SampleAnalyser mSampleAnalyser;
+    private final CnDataLoader mCnDataLoader;
+    private final FusionDisruptionAnalyser mFusionAnalyser;
+    private final DriverGeneAnnotator mDriverGeneAnnotator;
+
+    private final boolean mCheckDrivers;
+    private final boolean mCheckFusions;
+    private final boolean mSampleDataFromFile;
+    private final boolean mSelectiveGeneLoading;
+    private final boolean mPurgeInvalidTranscripts;
+    private final boolean mValidState;
+
+    private Queue<String> mSampleIds;
+    private AtomicInteger mSampleCount;
+
+    private final PerformanceCounter mPerfCounter;
+
+    public SampleWorker(
+            final LinxConfig config, final CommandLine cmd, @Nullable final DatabaseAccess dbAccess,
+            @Nullable final EnsemblDataCache ensemblDataCache, boolean selectiveGeneLoading, @Nullable final SampleWorker sharedWorker)
+    {
+        mConfig = config;
+        mCmd = cmd;
+        mDbAccess = dbAccess;
+        mEnsemblDataCache = ensemblDataCache;
+        mSelectiveGeneLoading = selectiveGeneLoading;
+
+        mSampleDataFromFile = !config.PurpleDataPath.isEmpty() || config.IsGermline;
+        mCheckDrivers = cmd.hasOption(CHECK_DRIVERS) && config.DriverGenes != null;
+        mCheckFusions = cmd.hasOption(CHECK_FUSIONS);
+
+        mSampleAnalyser = new SampleAnalyser(config, dbAccess, sharedWorker != null ? sharedWorker.mSampleAnalyser : null);
+
+        mCnDataLoader = new CnDataLoader(config.PurpleDataPath, dbAccess);
+
+        if(config.hasMultipleSamples())
+            mCnDataLoader.establishCaches();
+
+        mSampleAnalyser.setCnDataLoader(mCnDataLoader);
+
+        if(ensemblDataCache != null)
+        {
+            mSampleAnalyser.setGeneCollection(ensemblDataCache);
+            mSampleAnalyser.getVisWriter().setGeneDataCache(ensemblDataCache);
+
+            // always initialise since is used for transcript evaluation
+            mFusionAnalyser = new FusionDisruptionAnalyser(cmd, config, ensemblDataCache, mSampleAnalyser.getVisWriter());
+
+            // when matching RNA, allow all transcripts regardless of their viability for fusions
+            mPurgeInvalidTranscripts = !mCheckFusions || !mFusionAnalyser.hasRnaSampleData();
+
+            if(mCheckDrivers)
+            {
+                mDriverGeneAnnotator = new DriverGeneAnnotator(dbAccess, ensemblDataCache, config, mCnDataLoader);
+                mDriverGeneAnnotator.setVisWriter(mSampleAnalyser.getVisWriter());
+            }
+            else
+            {
+                mDriverGeneAnnotator = null;
+            }
+
+            mValidState = mFusionAnalyser.validState();
+        }
+        else
+        {
+            mFusionAnalyser = null;
+            mDriverGeneAnnotator = null;
+            mPurgeInvalidTranscripts = true;
+            mValidState = true;
+        }
+
+        mSampleIds = null;
+        mSampleCount = null;
+
+        mPerfCounter = new PerformanceCounter("Total");
+    }
+
+    public boolean isValid() { return mValidState; }
+    public final FusionDisruptionAnalyser getFusionAnalyser() { return mFusionAnalyser; }
+    public final PerformanceCounter getPerfCounter() { return mPerfCounter; }
+
+    public void setSamples(final Queue<String> sampleIds, final AtomicInteger sampleCount)
+    {
+        mSampleIds = sampleIds;
+        mSampleCount = sampleCount;
+    }
+
+    @Override
+    public Long call()
+    {
+        String sampleId = mSampleIds.poll();
+
+        while(sampleId != null)
+        {
+            int count = mSampleCount.incrementAndGet();
+
+            if(mConfig.MaxSamples > 0 && count > mConfig.MaxSamples)
+            {
+                LNX_LOGGER.info("exiting after max sample count {} reached", mConfig.MaxSamples);
+                break;
+            }
+
+            if(!processSample(sampleId, count))
+            {
+                // stop any other workers from taking further samples
+                mSampleIds.clear();
+                break;
+            }
+
+            sampleId = mSampleIds.poll();
+        }
+
+        return (long)0;
+    }
+
+    private boolean processSample(final String sampleId, int count)
+    {
+        mPerfCounter.start();
+
+        final List<StructuralVariantData> svRecords = mSampleDataFromFile ?
+                loadSampleSvDataFromFile(sampleId) : mDbAccess.readStructuralVariantData(sampleId);
+
+        final List<SvVarData> svDataList = createSvData(svRecords);
+
+        mSampleAnalyser.setSampleId(sampleId);
+
+        if(svDataList.isEmpty())
+        {
+            LNX_LOGGER.info("sample({}) has no passing SVs", sampleId);
+            return true;
+        }
+
+        if(mConfig.hasMultipleSamples())
+        {
+            LNX_LOGGER.info("sample({}) processing {} SVs, completed({})", sampleId, svDataList.size(), count - 1);
+        }
+
+        if(!mConfig.IsGermline)
+            mCnDataLoader.loadSampleData(sampleId, svRecords);
+
+        mSampleAnalyser.setSampleSVs(svDataList);
+
+        if(mEnsemblDataCache != null)
+        {
+            mSampleAnalyser.setSvGeneData(svDataList, mEnsemblDataCache, mCheckFusions, mSelectiveGeneLoading);
+        }
+
+        mSampleAnalyser.analyse();
+
+        if(!mSampleAnalyser.inValidState())
+        {
+            LNX_LOGGER.info("exiting after sample({}), in invalid state", sampleId);
+            return false;
+        }
+
+        if(mCheckDrivers || mCheckFusions)
+        {
+            mFusionAnalyser.annotateTranscripts(svDataList, mPurgeInvalidTranscripts);
+        }
+
+        mSampleAnalyser.annotate();
+
+        if(mCheckDrivers)
+        {
+            mDriverGeneAnnotator.annotateSVs(sampleId, mSampleAnalyser.getChrBreakendMap());
+        }
+
+        if(mCheckFusions)
+        {
+            mFusionAnalyser.run(sampleId, svDataList, mDbAccess, mSampleAnalyser.getClusters(), mSampleAnalyser.getChrBreakendMap());
+        }
+
+        mSampleAnalyser.writeOutput(mDbAccess);
+
+        mPerfCounter.stop();
+        return true;
+    }
+
+    public void close()
+    {
+        mSampleAnalyser.close();
+
+        if(mFusionAnalyser != null)
+            mFusionAnalyser.close();
+
+        if(mDriverGeneAnnotator != null)
+            mDriverGeneAnnotator.close();
+    }
+
+    private List<StructuralVariantData> loadSampleSvDataFromFile(final String sampleId)
+    {
+        if(mCmd.hasOption(VCF_FILE))
+        {
+            if(mConfig.IsGermline)
+                return loadSvDataFromGermlineVcf(mCmd.getOptionValue(VCF_FILE));
+            else
+                return loadSvDataFromVcf(mCmd.getOptionValue(VCF_FILE));
+        }
+        else
+        {
+            return loadSvDataFromSvFile(sampleId, mConfig.SvDataPath);
+        }
+    }
+
+    private static List<SvVarData> createSvData(List<StructuralVariantData> svRecords)
+    {
+        List<SvVarData> svVarDataItems = Lists.newArrayList();
+
+        for (final StructuralVariantData svRecord : svRecords)
+        {
+            if(svRecord.filter().isEmpty() || svRecord.filter().equals(PASS) || svRecord.filter().equals(INFERRED))
+            {
+                svVarDataItems.add(new SvVarData(svRecord));
+            }
+        }
+
+        return svVarDataItems;
+    }
+}
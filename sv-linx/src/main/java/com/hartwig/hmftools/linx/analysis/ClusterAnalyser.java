@@ -23,10 +23,18 @@ import static com.hartwig.hmftools.linx.types.ResolvedType.LINE;
 import static com.hartwig.hmftools.linx.types.ResolvedType.NONE;
 import static com.hartwig.hmftools.linx.types.ResolvedType.SIMPLE_GRP;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
 import com.hartwig.hmftools.common.utils.PerformanceCounter;
 import com.hartwig.hmftools.linx.LinxConfig;
@@ -56,6 +64,10 @@ public class ClusterAnalyser {
     private final List<SvVarData> mAllVariants;
     private final ChainFinder mChainFinder;
 
+    // clusters are chained independently, so can be spread across a chain finder per thread, the first being mChainFinder
+    private final List<ChainFinder> mChainFinders;
+    private ExecutorService mChainExecutor;
+
     private boolean mRunValidationChecks;
 
     PerformanceCounter mPcClustering;
@@ -89,6 +101,13 @@ public class ClusterAnalyser {
         mChainFinder.setUseAllelePloidies(true); // can probably remove and assume always in place
         mChainFinder.setLogVerbose(mConfig.LogVerbose);
 
+        mChainFinders = Lists.newArrayList(mChainFinder);
+        mChainExecutor = null;
+
+        // in batch mode the samples are already run in parallel, and verbose logging changes the global log level
+        if(mConfig.isSingleSample() && !mConfig.LogVerbose)
+            setChainingThreads(mConfig.Threads);
+
         mRunValidationChecks = false; // enabled in unit tests and after changes to merging-rule flow
 
         mPcClustering = new PerformanceCounter("Clustering");
@@ -122,6 +141,23 @@ public class ClusterAnalyser {
 
     public void setRunValidationChecks(boolean toggle) { mRunValidationChecks = toggle; }
 
+    public void setChainingThreads(int threads)
+    {
+        while(mChainFinders.size() < threads)
+        {
+            ChainFinder chainFinder = new ChainFinder();
+            chainFinder.setUseAllelePloidies(true);
+            chainFinder.setSampleId(mSampleId);
+            mChainFinders.add(chainFinder);
+        }
+
+        if(threads > 1 && mChainExecutor == null)
+        {
+            mChainExecutor = Executors.newFixedThreadPool(threads,
+                    new ThreadFactoryBuilder().setNameFormat("LinxChain-%d").setDaemon(true).build());
+        }
+    }
+
     public void setSampleData(final String sampleId, List<SvVarData> allVariants)
     {
         mSampleId = sampleId;
@@ -129,7 +165,7 @@ public class ClusterAnalyser {
         mAllVariants.addAll(allVariants);
         mClusters.clear();
         mSimpleClustering.initialise(sampleId);
-        mChainFinder.setSampleId(sampleId);
+        mChainFinders.forEach(x -> x.setSampleId(sampleId));
     }
 
     public final List<SvCluster> getClusters() { return mClusters; }
@@ -247,6 +283,9 @@ public class ClusterAnalyser {
     public void findLimitedChains()
     {
         // chain small clusters and only assembled links in larger ones
+        final List<SvCluster> simpleClusters = Lists.newArrayList();
+        final List<SvCluster> complexClusters = Lists.newArrayList();
+
         for(SvCluster cluster : mClusters)
         {
             if(isSimpleSingleSV(cluster))
@@ -263,25 +302,35 @@ public class ClusterAnalyser {
             cluster.determineRequiresReplication();
 
             if(isSimple)
+            {
                 mDmFinder.analyseCluster(cluster);
+                simpleClusters.add(cluster);
+            }
+            else
+            {
+                complexClusters.add(cluster);
+            }
+        }
 
-            // then look for fully-linked clusters, ie chains involving all SVs
-            findChains(cluster, !isSimple);
+        // then look for fully-linked clusters, ie chains involving all SVs
+        findChains(simpleClusters, false);
+        findChains(complexClusters, true);
 
-            if(isSimple)
-            {
-                setClusterResolvedState(cluster, false);
+        for(SvCluster cluster : simpleClusters)
+        {
+            setClusterResolvedState(cluster, false);
 
-                if(cluster.isFullyChained(true))
-                {
-                    LNX_LOGGER.debug("cluster({}) simple and consistent with {} SVs", cluster.id(), cluster.getSvCount());
-                }
+            if(cluster.isFullyChained(true))
+            {
+                LNX_LOGGER.debug("cluster({}) simple and consistent with {} SVs", cluster.id(), cluster.getSvCount());
             }
         }
     }
 
     private void findLinksAndChains()
     {
+        final List<SvCluster> chainClusters = Lists.newArrayList();
+
         for (SvCluster cluster : mClusters)
         {
             if (cluster.getResolvedType() == LINE) // only simple assembly links for LINE clusters
@@ -305,10 +354,14 @@ public class ClusterAnalyser {
             cluster.determineRequiresReplication();
 
             // no need to re-find assembled TIs
+            chainClusters.add(cluster);
+        }
 
-            // then look for fully-linked clusters, ie chains involving all SVs
-            findChains(cluster, false);
+        // then look for fully-linked clusters, ie chains involving all SVs
+        findChains(chainClusters, false);
 
+        for(SvCluster cluster : chainClusters)
+        {
             setClusterResolvedState(cluster, true);
             cluster.logDetails();
         }
@@ -347,7 +400,51 @@ public class ClusterAnalyser {
                 mState.getDelCutoffLength(), mState.getDupCutoffLength(), mState.getChrBreakendMap());
     }
 
-    private void findChains(SvCluster cluster, boolean assembledLinksOnly)
+    private void findChains(final List<SvCluster> clusters, boolean assembledLinksOnly)
+    {
+        if(mChainExecutor == null || clusters.size() < 2)
+        {
+            clusters.forEach(x -> findChains(mChainFinder, x, assembledLinksOnly));
+            return;
+        }
+
+        // largest clusters are taken first so that a few large complex clusters don't finish well after all the others,
+        // and since each cluster's chains and their IDs are formed independently the results don't depend on the ordering
+        final Queue<SvCluster> clusterQueue = clusters.stream()
+                .sorted(Comparator.comparingInt(SvCluster::getSvCount).reversed())
+                .collect(Collectors.toCollection(ConcurrentLinkedQueue::new));
+
+        final List<Future<?>> futures = Lists.newArrayList();
+
+        for(ChainFinder chainFinder : mChainFinders)
+        {
+            futures.add(mChainExecutor.submit(() ->
+            {
+                SvCluster cluster = clusterQueue.poll();
+
+                while(cluster != null)
+                {
+                    findChains(chainFinder, cluster, assembledLinksOnly);
+                    cluster = clusterQueue.poll();
+                }
+            }));
+        }
+
+        try
+        {
+            for(Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        catch(InterruptedException | ExecutionException e)
+        {
+            LNX_LOGGER.error("sample({}) chaining error: {}", mSampleId, e.toString());
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void findChains(final ChainFinder chainFinder, SvCluster cluster, boolean assembledLinksOnly)
     {
         if(mConfig.ChainingSvLimit > 0 && cluster.getSvCount() > mConfig.ChainingSvLimit)
         {
@@ -357,23 +454,23 @@ public class ClusterAnalyser {
         }
 
         cluster.getChains().clear();
-        mChainFinder.initialise(cluster);
-        mChainFinder.formChains(assembledLinksOnly);
-        mChainFinder.addChains(cluster);
+        chainFinder.initialise(cluster);
+        chainFinder.formChains(assembledLinksOnly);
+        chainFinder.addChains(cluster);
 
         if(!assembledLinksOnly)
-            mChainFinder.getDiagnostics().diagnoseChains();
+            chainFinder.getDiagnostics().diagnoseChains();
 
-        final long[] rangeData = mChainFinder.calcRangeData();
+        final long[] rangeData = chainFinder.calcRangeData();
 
         if(rangeData != null)
         {
-            cluster.getMetrics().ValidAlleleJcnSegmentPerc = mChainFinder.getValidAllelePloidySegmentPerc();
+            cluster.getMetrics().ValidAlleleJcnSegmentPerc = chainFinder.getValidAllelePloidySegmentPerc();
             cluster.getMetrics().TraversedRange = rangeData[RANGE_TOTAL];
             cluster.getMetrics().TotalDeleted = rangeData[DELETED_TOTAL];
         }
 
-        mChainFinder.clear(); // release any refs to clusters and SVs
+        chainFinder.clear(); // release any refs to clusters and SVs
     }
 
     public void annotateClusters()
@@ -408,6 +505,9 @@ public class ClusterAnalyser {
         mDmFinder.close();
         mChainFinder.close();
         mSimpleClustering.close();
+
+        if(mChainExecutor != null)
+            mChainExecutor.shutdown();
     }
 
     public void logStats()
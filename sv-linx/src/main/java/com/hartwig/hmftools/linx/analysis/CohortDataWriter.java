@@ -2,7 +2,6 @@ package com.hartwig.hmftools.linx.analysis;
 
 import static com.hartwig.hmftools.common.utils.Strings.appendStr;
 import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.closeBufferedWriter;
-import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.createBufferedWriter;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_END;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_START;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.isStart;
@@ -13,6 +12,7 @@ import static com.hartwig.hmftools.common.variant.structural.StructuralVariantTy
 import static com.hartwig.hmftools.common.variant.structural.StructuralVariantType.INS;
 import static com.hartwig.hmftools.common.variant.structural.StructuralVariantType.INV;
 import static com.hartwig.hmftools.common.variant.structural.StructuralVariantType.SGL;
+import static com.hartwig.hmftools.linx.CohortFileWriter.createCohortFileWriter;
 import static com.hartwig.hmftools.linx.LinxConfig.LNX_LOGGER;
 import static com.hartwig.hmftools.linx.analysis.ClusterClassification.getClusterCategory;
 import static com.hartwig.hmftools.linx.analysis.SvUtilities.formatJcn;
@@ -92,7 +92,7 @@ public class CohortDataWriter
         {
             String outputFileName = mConfig.OutputDataPath + "LNX_SVS.csv";
 
-            BufferedWriter writer = createBufferedWriter(outputFileName, false);
+            BufferedWriter writer = createCohortFileWriter(outputFileName);
 
             // definitional fields
             writer.write("SampleId,Id,Type,ClusterId,ClusterCount");
@@ -311,7 +311,7 @@ public class CohortDataWriter
         {
             String outputFileName = mConfig.OutputDataPath + "LNX_CLUSTERS.csv";
 
-            BufferedWriter writer = createBufferedWriter(outputFileName, false);
+            BufferedWriter writer = createCohortFileWriter(outputFileName);
 
             writer.write("SampleId,ClusterId,ClusterDesc,ClusterCount,Category,ResolvedType,Synthetic,FullyChained,ChainCount");
             writer.write(",DelCount,DupCount,InsCount,InvCount,BndCount,SglCount,InfCount");
@@ -440,7 +440,7 @@ public class CohortDataWriter
         {
             String outputFileName = mConfig.OutputDataPath + "LNX_LINKS.csv";
 
-            BufferedWriter writer = createBufferedWriter(outputFileName, false);
+            BufferedWriter writer = createCohortFileWriter(outputFileName);
 
             writer.write("SampleId,ClusterId,ClusterCount,ResolvedType");
             writer.write(",ChainId,ChainCount,ChainConsistent,LinkReason,LinkIndex,ChainIndex,Jcn,JcnUncertainty");
@@ -62,6 +62,8 @@ import com.hartwig.hmftools.linx.visualiser.file.VisualiserWriter;
 import com.hartwig.hmftools.patientdb.dao.DatabaseAccess;
 import com.hartwig.hmftools.patientdb.dao.DatabaseUtil;
 
+import org.jetbrains.annotations.Nullable;
+
 public class SampleAnalyser
 {
     private final LinxConfig mConfig;
@@ -90,6 +92,12 @@ public class SampleAnalyser
 
     public SampleAnalyser(final LinxConfig config, DatabaseAccess dbAccess)
     {
+        this(config, dbAccess, null);
+    }
+
+    public SampleAnalyser(final LinxConfig config, DatabaseAccess dbAccess, @Nullable final SampleAnalyser sharedAnalyser)
+    {
+        // in batch mode each sample worker has its own analyser, sharing the fragile site and LINE element data of the first
         mConfig = config;
         mSampleId = "";
 
@@ -102,11 +110,20 @@ public class SampleAnalyser
 
         mCohortDataWriter = new CohortDataWriter(config, mAnalyser);
 
-        mFragileSiteAnnotator = new FragileSiteAnnotator();
-        mFragileSiteAnnotator.loadFragileSitesFile(mConfig.FragileSiteFile);
+        if(sharedAnalyser != null)
+        {
+            mFragileSiteAnnotator = sharedAnalyser.mFragileSiteAnnotator;
+            mLineElementAnnotator = new LineElementAnnotator(mConfig.ProximityDistance, sharedAnalyser.mLineElementAnnotator);
+        }
+        else
+        {
+            mFragileSiteAnnotator = new FragileSiteAnnotator();
+            mFragileSiteAnnotator.loadFragileSitesFile(mConfig.FragileSiteFile);
+
+            mLineElementAnnotator = new LineElementAnnotator(mConfig.ProximityDistance);
+            mLineElementAnnotator.loadLineElementsFile(mConfig.LineElementFile);
+        }
 
-        mLineElementAnnotator = new LineElementAnnotator(mConfig.ProximityDistance);
-        mLineElementAnnotator.loadLineElementsFile(mConfig.LineElementFile);
         mAnalyser.setLineAnnotator(mLineElementAnnotator);
 
         mPseudoGeneFinder = new PseudoGeneFinder(mCohortDataWriter.getVisWriter());
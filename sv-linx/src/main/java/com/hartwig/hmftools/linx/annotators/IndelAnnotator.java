@@ -3,7 +3,7 @@ package com.hartwig.hmftools.linx.annotators;
 import static java.lang.Math.min;
 
 import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.closeBufferedWriter;
-import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.createBufferedWriter;
+import static com.hartwig.hmftools.linx.CohortFileWriter.createCohortFileWriter;
 import static com.hartwig.hmftools.linx.LinxConfig.LNX_LOGGER;
 import static com.hartwig.hmftools.linx.annotators.IndelData.CSV_REQUIRED_FIELDS;
 import static com.hartwig.hmftools.linx.annotators.IndelData.INDEL_COL_SAMPLE;
@@ -257,7 +257,7 @@ public class IndelAnnotator
         {
             String outputFileName = outputDir + "LNX_INDELS.csv";
 
-            mFileWriter = createBufferedWriter(outputFileName, false);
+            mFileWriter = createCohortFileWriter(outputFileName);
             mFileWriter.write("SampleId,Chromosome,Position,Ref,Alt,Microhomology,RepeatCount,Ploidy");
             mFileWriter.newLine();
         }
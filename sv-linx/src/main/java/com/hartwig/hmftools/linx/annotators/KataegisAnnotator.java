@@ -4,7 +4,7 @@ import static java.lang.Math.abs;
 import static java.lang.Math.min;
 
 import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.closeBufferedWriter;
-import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.createBufferedWriter;
+import static com.hartwig.hmftools.linx.CohortFileWriter.createCohortFileWriter;
 import static com.hartwig.hmftools.linx.LinxConfig.LNX_LOGGER;
 
 import java.io.BufferedReader;
@@ -118,7 +118,7 @@ public class KataegisAnnotator
             {
                 String outputFileName = mOutputDir + "LNX_KATAEGIS.csv";
 
-                mFileWriter = createBufferedWriter(outputFileName, false);
+                mFileWriter = createCohortFileWriter(outputFileName);
 
                 mFileWriter.write("SampleId,Chromosome,KatPosStart,KatPosEnd,KataegisId,SnvCount");
                 mFileWriter.write(",SvId,SvPosition,SvIsStart,SvOrient,Distance");
@@ -60,6 +60,15 @@ public class LineElementAnnotator {
         mLineState = new LineClusterState(proximityDistance);
     }
 
+    public LineElementAnnotator(int proximityDistance, final LineElementAnnotator sharedAnnotator)
+    {
+        // the known LINE elements are only read so can be shared with another annotator
+        mProximityDistance = proximityDistance;
+        mPseudoGeneFinder = null;
+        mKnownLineElements = sharedAnnotator.mKnownLineElements;
+        mLineState = new LineClusterState(proximityDistance);
+    }
+
     public void setPseudoGeneFinder(final PseudoGeneFinder pseudoGeneFinder)
     {
         mPseudoGeneFinder = pseudoGeneFinder;
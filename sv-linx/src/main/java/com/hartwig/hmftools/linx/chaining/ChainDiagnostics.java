@@ -2,7 +2,7 @@ package com.hartwig.hmftools.linx.chaining;
 
 import static com.hartwig.hmftools.common.utils.Strings.appendStr;
 import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.closeBufferedWriter;
-import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.createBufferedWriter;
+import static com.hartwig.hmftools.linx.CohortFileWriter.createCohortFileWriter;
 import static com.hartwig.hmftools.linx.LinxConfig.LNX_LOGGER;
 import static com.hartwig.hmftools.linx.analysis.SvUtilities.formatJcn;
 
@@ -245,7 +245,7 @@ public class ChainDiagnostics
 
                 outputFileName += "LNX_CHAINS.csv";
 
-                mFileWriter = createBufferedWriter(outputFileName, false);
+                mFileWriter = createCohortFileWriter(outputFileName);
 
                 mFileWriter.write("SampleId,ClusterId,Replication,SvCount,JcnTotal,Chains,RepeatedChains,SGLs,Warnings");
                 mFileWriter.write(",MaxJcn,UnlinksSVs,UnlinkedBEs,InvalidBEs,Foldbacks,CompDups");
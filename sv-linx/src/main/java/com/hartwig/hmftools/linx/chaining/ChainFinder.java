@@ -425,6 +425,7 @@ public class ChainFinder
             mClusterJcnLimits.determineBreakendJCNs();
 
         determinePossibleLinks();
+        mLinkAllocator.initialiseBreakendOptions();
 
         mDiagnostics.setPriorityData(Lists.newArrayList(mComplexDupCandidates.keySet()), mFoldbacks);
 
@@ -23,10 +23,12 @@ import static com.hartwig.hmftools.linx.chaining.LinkSkipType.JCN_MISMATCH;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.hartwig.hmftools.linx.cn.JcnCalcData;
 import com.hartwig.hmftools.linx.types.LinkedPair;
 import com.hartwig.hmftools.linx.types.SvBreakend;
@@ -37,11 +39,13 @@ public class ChainLinkAllocator
     private int mClusterId;
 
     private final Map<LinkedPair,LinkSkipType> mSkippedPairs;
+    private final LinkedPairIndex mSkippedPairIndex;
     private int mLinkIndex; // incrementing value for each link added to any chain
     private boolean mIsValid;
     private boolean mPairSkipped; // keep track of any excluded pair or SV without exiting the chaining routine
     private boolean mChainsSplit;
     private final List<LinkedPair> mUniquePairs; // cache of unique pairs added through chaining
+    private final LinkedPairIndex mUniquePairIndex;
     private int mNextChainId;
 
     // chaining state for each SV
@@ -54,6 +58,9 @@ public class ChainLinkAllocator
     private final Map<SvBreakend, List<LinkedPair>> mSvBreakendPossibleLinks;
     private final List<SvVarData> mDoubleMinuteSVs;
 
+    // breakends with a single possible link, kept up-to-date as possible links are removed
+    private final Set<SvBreakend> mSingleOptionBreakends;
+
     public ChainLinkAllocator(
             final ChainJcnLimits jcnLimits,
             final Map<SvBreakend, List<LinkedPair>> svBreakendPossibleLinks,
@@ -68,7 +75,10 @@ public class ChainLinkAllocator
         mSvConnections = new SvChainConnections();
         mSvCompletedConnections = Lists.newArrayList();
         mUniquePairs = Lists.newArrayList();
+        mUniquePairIndex = new LinkedPairIndex();
         mSkippedPairs = Maps.newHashMap();
+        mSkippedPairIndex = new LinkedPairIndex();
+        mSingleOptionBreakends = Sets.newHashSet();
         mIsValid = true;
         mNextChainId = 0;
     }
@@ -77,6 +87,7 @@ public class ChainLinkAllocator
     public final List<ChainState> getSvCompletedConnections() { return mSvCompletedConnections; }
 
     public final List<LinkedPair> getUniquePairs() { return mUniquePairs; }
+    public final Set<SvBreakend> getSingleOptionBreakends() { return mSingleOptionBreakends; }
 
     public int getNextChainId() { return mNextChainId; }
     public int getLinkIndex() { return mLinkIndex; }
@@ -102,9 +113,28 @@ public class ChainLinkAllocator
         mNextChainId = 0;
 
         mUniquePairs.clear();
-        mSkippedPairs.clear();
+        mUniquePairIndex.clear();
+        clearSkippedPairs();
         mSvConnections.clear();
         mSvCompletedConnections.clear();
+        mSingleOptionBreakends.clear();
+    }
+
+    public void initialiseBreakendOptions()
+    {
+        // called once the possible links have been determined
+        mSingleOptionBreakends.clear();
+        mSvBreakendPossibleLinks.keySet().forEach(x -> updateBreakendOptions(x));
+    }
+
+    private void updateBreakendOptions(final SvBreakend breakend)
+    {
+        final List<LinkedPair> possibleLinks = mSvBreakendPossibleLinks.get(breakend);
+
+        if(possibleLinks != null && possibleLinks.size() == 1)
+            mSingleOptionBreakends.add(breakend);
+        else
+            mSingleOptionBreakends.remove(breakend);
     }
 
     public static boolean belowJcnThreshold(final SvVarData var)
@@ -400,7 +430,7 @@ public class ChainLinkAllocator
         {
             if(mChainsSplit)
             {
-                mSkippedPairs.clear(); // any skipped links can now be re-evaluated
+                clearSkippedPairs(); // any skipped links can now be re-evaluated
             }
             else
             {
@@ -409,7 +439,7 @@ public class ChainLinkAllocator
                         .map(x -> x.getKey())
                         .collect(Collectors.toList());
 
-                pairsToRemove.stream().forEach(x -> mSkippedPairs.remove(x));
+                pairsToRemove.stream().forEach(x -> removeSkippedPair(x));
             }
         }
     }
@@ -896,7 +926,7 @@ public class ChainLinkAllocator
         {
             mJcnLimits.assignLinkJcn(newPair, proposedLink.jcn());
 
-            mSkippedPairs.remove(newPair);
+            removeSkippedPair(newPair);
 
             removeOppositeLinks(newPair);
 
@@ -969,6 +999,7 @@ public class ChainLinkAllocator
             if (!matchesExistingPair(newPair))
             {
                 mUniquePairs.add(newPair);
+                mUniquePairIndex.add(newPair);
             }
         }
 
@@ -1036,6 +1067,7 @@ public class ChainLinkAllocator
             return;
 
         mSvBreakendPossibleLinks.remove(breakend);
+        mSingleOptionBreakends.remove(breakend);
 
         for(LinkedPair pair : possibleLinks)
         {
@@ -1050,6 +1082,8 @@ public class ChainLinkAllocator
 
             if (otherPossibles.isEmpty())
                 mSvBreakendPossibleLinks.remove(otherBreakend);
+
+            updateBreakendOptions(otherBreakend);
         }
     }
 
@@ -1072,6 +1106,7 @@ public class ChainLinkAllocator
             if(possibleLinks.isEmpty())
             {
                 mSvBreakendPossibleLinks.remove(otherBreakend);
+                updateBreakendOptions(otherBreakend);
                 continue;
             }
 
@@ -1089,6 +1124,7 @@ public class ChainLinkAllocator
                     if (possibleLinks.isEmpty())
                         mSvBreakendPossibleLinks.remove(otherBreakend);
 
+                    updateBreakendOptions(otherBreakend);
                     break;
                 }
             }
@@ -1201,18 +1237,12 @@ public class ChainLinkAllocator
 
     public boolean matchesExistingPair(final LinkedPair pair)
     {
-        for(LinkedPair existingPair : mUniquePairs)
-        {
-            if(pair.matches(existingPair))
-                return true;
-        }
-
-        return false;
+        return mUniquePairIndex.hasMatch(pair);
     }
 
     public boolean hasSkippedPairs(final LinkedPair pair)
     {
-        return mSkippedPairs.keySet().stream().anyMatch(x -> x.matches(pair));
+        return mSkippedPairIndex.hasMatch(pair);
     }
 
     public int getSkippedPairCount(final LinkSkipType type)
@@ -1232,11 +1262,24 @@ public class ChainLinkAllocator
 
         mPairSkipped = true;
         mSkippedPairs.put(pair, type);
+        mSkippedPairIndex.add(pair);
+    }
+
+    private void removeSkippedPair(final LinkedPair pair)
+    {
+        if(mSkippedPairs.remove(pair) != null)
+            mSkippedPairIndex.remove(pair);
+    }
+
+    private void clearSkippedPairs()
+    {
+        mSkippedPairs.clear();
+        mSkippedPairIndex.clear();
     }
 
     public void removeSkippedPairs(final List<ProposedLinks> proposedLinks)
     {
-        if(proposedLinks.isEmpty() || mSkippedPairs.isEmpty())
+        if(proposedLinks.isEmpty() || mSkippedPairIndex.isEmpty())
             return;
 
         int index = 0;
@@ -4,7 +4,6 @@ import static java.lang.Math.abs;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 
-import static com.hartwig.hmftools.common.variant.structural.StructuralVariantType.INV;
 import static com.hartwig.hmftools.linx.LinxConfig.LNX_LOGGER;
 import static com.hartwig.hmftools.linx.analysis.SvUtilities.copyNumbersEqual;
 import static com.hartwig.hmftools.linx.analysis.SvUtilities.formatJcn;
@@ -30,15 +29,18 @@ import static com.hartwig.hmftools.linx.chaining.FoldbackBreakendPair.updateBrea
 import static com.hartwig.hmftools.linx.chaining.ProposedLinks.PM_MATCHED;
 import static com.hartwig.hmftools.linx.chaining.ProposedLinks.PM_NONE;
 import static com.hartwig.hmftools.linx.chaining.ProposedLinks.PM_OVERLAP;
-import static com.hartwig.hmftools.linx.types.LinkedPair.hasLinkClash;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_END;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_START;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.isStart;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.hartwig.hmftools.linx.types.DbPair;
 import com.hartwig.hmftools.linx.types.SvBreakend;
 import com.hartwig.hmftools.linx.types.LinkedPair;
@@ -225,42 +227,18 @@ public class ChainRuleSelector
             }
         }
 
-        for(Map.Entry<SvBreakend, List<LinkedPair>> entry : mSvBreakendPossibleLinks.entrySet())
+        // breakends with only a single possible link are tracked by the link allocator as links are removed
+        for(final SvBreakend limitingBreakend : mLinkAllocator.getSingleOptionBreakends())
         {
-            if(entry.getValue().isEmpty())
+            final List<LinkedPair> possibleLinks = mSvBreakendPossibleLinks.get(limitingBreakend);
+
+            if(possibleLinks == null || possibleLinks.size() != 1)
             {
-                LNX_LOGGER.warn("breakend({}) has no possibles left, should be purged", entry.getKey().toString());
+                LNX_LOGGER.warn("breakend({}) single-option state out of date", limitingBreakend);
                 continue;
             }
 
-            if(entry.getValue().size() >= 2) // disable connections to an INV for now
-                continue;
-
-            SvBreakend limitingBreakend = entry.getKey();
-
-            final LinkedPair newPair;
-
-            if(entry.getValue().size() == 2)
-            {
-                // consider a link only to an INV as a single option
-                final LinkedPair pair1 = entry.getValue().get(0);
-                final LinkedPair pair2 = entry.getValue().get(1);
-                final SvVarData otherSv1 = pair1.getOtherSV(limitingBreakend.getSV());
-                final SvVarData otherSv2 = pair2.getOtherSV(limitingBreakend.getSV());
-
-                if(otherSv1 == otherSv2 && otherSv1.type() == INV)
-                {
-                    newPair = pair1.length() < pair2.length() ? pair1 : pair2;
-                }
-                else
-                {
-                    continue;
-                }
-            }
-            else
-            {
-                newPair = entry.getValue().get(0);
-            }
+            final LinkedPair newPair = possibleLinks.get(0);
 
             if(mLinkAllocator.hasSkippedPairs(newPair))
                 continue;
@@ -880,7 +858,7 @@ public class ChainRuleSelector
                 return proposedLinks;
         }
 
-        List<LinkedPair> addedLinks = Lists.newArrayList();
+        Set<LinkedPair> addedLinks = Sets.newHashSet();
 
         for(ChainState svConn : mSvConnectionsMap.values())
         {
@@ -1086,7 +1064,7 @@ public class ChainRuleSelector
         }
 
         double currentMaxPloidy = 0;
-        List<LinkedPair> addedLinks = Lists.newArrayList();
+        Set<LinkedPair> addedLinks = Sets.newHashSet();
 
         for(ChainState svConn : mSvConnectionsMap.values())
         {
@@ -1206,53 +1184,50 @@ public class ChainRuleSelector
             }
         }
 
-        List<ProposedLinks> shortestLinks = Lists.newArrayList();
+        // for proposed links with any breakend clash, just keep the shortest - the links kept never clash with each other, so
+        // each breakend belongs to at most one of them and clashes are found through the breakends of each new link
+        final Map<SvBreakend,ProposedLinks> breakendShortestLinks = Maps.newHashMap();
+        final Set<ProposedLinks> keptLinks = Sets.newLinkedHashSet();
 
         for(final ProposedLinks proposedLink : proposedLinks)
         {
-            int index = 0;
-            boolean addNew = true;
-            while(index < shortestLinks.size())
-            {
-                final ProposedLinks otherLink = shortestLinks.get(index);
+            final Set<ProposedLinks> clashingLinks = Sets.newHashSet();
 
-                // for proposed links with any breakend clash, just keep the shortest
-                if(hasLinkClash(proposedLink.Links, otherLink.Links))
-                {
-                    if(proposedLink.shortestLinkDistance() < otherLink.shortestLinkDistance())
-                    {
-                        shortestLinks.remove(index);
-                    }
-                    else
-                    {
-                        addNew = false;
-                        break;
-                    }
-                }
-                else
+            for(final LinkedPair pair : proposedLink.Links)
+            {
+                for(int se = SE_START; se <= SE_END; ++se)
                 {
-                    ++index;
+                    final ProposedLinks otherLink = breakendShortestLinks.get(pair.getBreakend(se));
+
+                    if(otherLink != null)
+                        clashingLinks.add(otherLink);
                 }
             }
 
-            if(!addNew)
+            if(clashingLinks.stream().anyMatch(x -> proposedLink.shortestLinkDistance() >= x.shortestLinkDistance()))
                 continue;
 
-            // insert by shortest distance first
-            index = 0;
-            while(index < shortestLinks.size())
+            for(final ProposedLinks otherLink : clashingLinks)
             {
-                if(proposedLink.shortestLinkDistance() < shortestLinks.get(index).shortestLinkDistance())
-                    break;
-
-                ++index;
+                keptLinks.remove(otherLink);
+                otherLink.Links.forEach(x -> removeBreakends(breakendShortestLinks, x, otherLink));
             }
 
-            LNX_LOGGER.trace("adding shortest proposed link: {} index({})", proposedLink.toString(), index);
+            LNX_LOGGER.trace("adding shortest proposed link: {}", proposedLink.toString());
+
+            keptLinks.add(proposedLink);
 
-            shortestLinks.add(index, proposedLink);
+            for(final LinkedPair pair : proposedLink.Links)
+            {
+                breakendShortestLinks.put(pair.firstBreakend(), proposedLink);
+                breakendShortestLinks.put(pair.secondBreakend(), proposedLink);
+            }
         }
 
+        // order by shortest distance first, with equal distances kept in the order they were added
+        final List<ProposedLinks> shortestLinks = Lists.newArrayList(keptLinks);
+        shortestLinks.sort(Comparator.comparingInt(ProposedLinks::shortestLinkDistance));
+
         if(shortestLinks.size() > 1)
         {
             LNX_LOGGER.trace("found {} shortest non-clashing proposed links", shortestLinks.size());
@@ -1261,6 +1236,16 @@ public class ChainRuleSelector
         return shortestLinks;
     }
 
+    private static void removeBreakends(
+            final Map<SvBreakend,ProposedLinks> breakendLinks, final LinkedPair pair, final ProposedLinks proposedLink)
+    {
+        for(int se = SE_START; se <= SE_END; ++se)
+        {
+            if(breakendLinks.get(pair.getBreakend(se)) == proposedLink)
+                breakendLinks.remove(pair.getBreakend(se));
+        }
+    }
+
     private boolean anyLinksHaveJcnSupport(final List<ProposedLinks> proposedLinks)
     {
         return proposedLinks.stream().anyMatch(x -> x.hasRule(CA_JCN_SUPPORT));
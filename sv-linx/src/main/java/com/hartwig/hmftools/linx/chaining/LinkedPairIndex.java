@@ -0,0 +1,62 @@
+package com.hartwig.hmftools.linx.chaining;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.linx.types.LinkedPair;
+import com.hartwig.hmftools.linx.types.SvBreakend;
+
+public class LinkedPairIndex
+{
+    // pairs keyed by their first breakend, so a pair matching on the same breakends in either order is found without a full scan
+    private final Map<SvBreakend,List<LinkedPair>> mBreakendPairs;
+
+    public LinkedPairIndex()
+    {
+        mBreakendPairs = Maps.newHashMap();
+    }
+
+    public void add(final LinkedPair pair)
+    {
+        List<LinkedPair> pairs = mBreakendPairs.get(pair.firstBreakend());
+
+        if(pairs == null)
+        {
+            pairs = Lists.newArrayListWithCapacity(1);
+            mBreakendPairs.put(pair.firstBreakend(), pairs);
+        }
+
+        pairs.add(pair);
+    }
+
+    public void remove(final LinkedPair pair)
+    {
+        // removes this specific pair only, not others matching it
+        List<LinkedPair> pairs = mBreakendPairs.get(pair.firstBreakend());
+
+        if(pairs == null)
+            return;
+
+        pairs.remove(pair);
+
+        if(pairs.isEmpty())
+            mBreakendPairs.remove(pair.firstBreakend());
+    }
+
+    public boolean hasMatch(final LinkedPair pair)
+    {
+        return hasMatch(pair.firstBreakend(), pair) || hasMatch(pair.secondBreakend(), pair);
+    }
+
+    private boolean hasMatch(final SvBreakend breakend, final LinkedPair pair)
+    {
+        final List<LinkedPair> pairs = mBreakendPairs.get(breakend);
+        return pairs != null && pairs.stream().anyMatch(x -> x.matches(pair));
+    }
+
+    public boolean isEmpty() { return mBreakendPairs.isEmpty(); }
+
+    public void clear() { mBreakendPairs.clear(); }
+}
@@ -258,6 +258,9 @@ public class CnJcnCalcs
 
     public void establishReadCountCache()
     {
+        if(!mReadCountProbilities.isEmpty()) // shared by all sample workers
+            return;
+
         mReadCountProbilities.add(0, new int[] {0, 0});
 
         for(int i = 1; i <= READ_COUNT_PROB_MAX; ++i)
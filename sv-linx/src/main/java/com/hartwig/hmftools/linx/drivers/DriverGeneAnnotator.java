@@ -4,9 +4,9 @@ import static com.hartwig.hmftools.common.drivercatalog.DriverCategory.ONCO;
 import static com.hartwig.hmftools.common.drivercatalog.DriverCategory.TSG;
 import static com.hartwig.hmftools.common.drivercatalog.DriverType.PARTIAL_AMP;
 import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.closeBufferedWriter;
-import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.createBufferedWriter;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_END;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_START;
+import static com.hartwig.hmftools.linx.CohortFileWriter.createCohortFileWriter;
 import static com.hartwig.hmftools.linx.LinxConfig.LNX_LOGGER;
 import static com.hartwig.hmftools.linx.drivers.GeneCopyNumberRegion.calcGeneCopyNumberRegion;
 import static com.hartwig.hmftools.linx.fusion.DisruptionFinder.disruptionGeneIds;
@@ -263,7 +263,7 @@ public class DriverGeneAnnotator
 
                 outputFileName += "LNX_DRIVERS.csv";
 
-                mFileWriter = createBufferedWriter(outputFileName, false);
+                mFileWriter = createCohortFileWriter(outputFileName);
 
                 mFileWriter.write("SampleId,Gene,Category,DriverType,LikelihoodMethod,Likelihood");
                 mFileWriter.write(",FullyMatched,EventType,ClusterId,ClusterCount,ResolvedType");
@@ -252,6 +252,9 @@ public class FusionReportability
 
     public static void populateRequiredProteins()
     {
+        if(!mProteinsRequiredKept.isEmpty()) // already populated by another fusion finder
+            return;
+
         mProteinsRequiredLost.add("Raf-like Ras-binding");
 
         mProteinsRequiredKept.add("Ets domain");
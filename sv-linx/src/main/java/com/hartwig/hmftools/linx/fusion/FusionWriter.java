@@ -3,11 +3,11 @@ package com.hartwig.hmftools.linx.fusion;
 import static com.hartwig.hmftools.common.fusion.FusionCommon.FS_DOWNSTREAM;
 import static com.hartwig.hmftools.common.fusion.FusionCommon.FS_UPSTREAM;
 import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.closeBufferedWriter;
-import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.createBufferedWriter;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_END;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_START;
 import static com.hartwig.hmftools.common.variant.structural.linx.LinxFusion.context;
 import static com.hartwig.hmftools.common.variant.structural.linx.LinxFusion.fusionJcn;
+import static com.hartwig.hmftools.linx.CohortFileWriter.createCohortFileWriter;
 import static com.hartwig.hmftools.linx.LinxConfig.LNX_LOGGER;
 
 import java.io.BufferedWriter;
@@ -134,7 +134,7 @@ public class FusionWriter
         {
             if(mFusionWriter == null)
             {
-                mFusionWriter = createBufferedWriter(mOutputDir + "LNX_FUSIONS.csv", false);
+                mFusionWriter = createCohortFileWriter(mOutputDir + "LNX_FUSIONS.csv");
 
                 mFusionWriter.write("SampleId,Reportable,ReportableReason,KnownType,Phased,KnownExons,ClusterId,ClusterCount,ResolvedType");
 
@@ -3,8 +3,8 @@ package com.hartwig.hmftools.linx.fusion.rna;
 import static com.hartwig.hmftools.common.fusion.FusionCommon.FS_DOWNSTREAM;
 import static com.hartwig.hmftools.common.fusion.FusionCommon.FS_UPSTREAM;
 import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.closeBufferedWriter;
-import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.createBufferedWriter;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_START;
+import static com.hartwig.hmftools.linx.CohortFileWriter.createCohortFileWriter;
 import static com.hartwig.hmftools.linx.LinxConfig.LNX_LOGGER;
 import static com.hartwig.hmftools.linx.fusion.rna.RnaFusionData.NO_CLUSTER_INFO;
 
@@ -35,7 +35,7 @@ public class RnaMatchWriter
 
                 outputFilename += String.format("LNX_RNA_FUSION_MATCH_%s.csv", outputId);
 
-                mWriter = createBufferedWriter(outputFilename, false);
+                mWriter = createCohortFileWriter(outputFilename);
 
                 mWriter.write("SampleId,Source,FusionId,FusionName,ViableFusion");
                 mWriter.write(",PhaseMatched,DnaFusionMatchType,Reportable,KnownType,RnaPhaseMatched");
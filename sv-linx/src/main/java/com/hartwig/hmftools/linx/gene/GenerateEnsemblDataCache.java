@@ -1,5 +1,6 @@
 package com.hartwig.hmftools.linx.gene;
 
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataSnapshot.ENSEMBL_SNAPSHOT_FILE;
 import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.closeBufferedWriter;
 import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.createBufferedWriter;
 import static com.hartwig.hmftools.linx.LinxConfig.LNX_LOGGER;
@@ -14,6 +15,7 @@ import java.util.Map;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
+import com.hartwig.hmftools.common.ensemblcache.EnsemblDataSnapshot;
 import com.hartwig.hmftools.common.ensemblcache.EnsemblGeneData;
 import com.hartwig.hmftools.common.ensemblcache.ExonData;
 import com.hartwig.hmftools.common.ensemblcache.TranscriptData;
@@ -59,6 +61,9 @@ public class GenerateEnsemblDataCache
             return;
         }
 
+        // remove any snapshot of a previous version of the cache so the reload below reads the new CSV files
+        new File(outputDir, ENSEMBL_SNAPSHOT_FILE).delete();
+
         ensemblDAO.writeDataCacheFiles(outputDir);
 
         LNX_LOGGER.debug("reloading transcript data to generate splice acceptor positions");
@@ -70,6 +75,14 @@ public class GenerateEnsemblDataCache
         createTranscriptPreGenePositionData(
                 geneTransCache.getChrGeneDataMap(), geneTransCache.getTranscriptDataMap(), PRE_GENE_PROMOTOR_DISTANCE, outputDir);
 
+        LNX_LOGGER.debug("writing binary snapshot of Ensembl data cache");
+
+        if(!EnsemblDataSnapshot.write(outputDir.endsWith(File.separator) ? outputDir : outputDir + File.separator))
+        {
+            LNX_LOGGER.error("failed to write Ensembl data cache snapshot");
+            return;
+        }
+
         LNX_LOGGER.info("Ensembl data cache complete");
     }
 
@@ -4,9 +4,9 @@ import static java.lang.Math.max;
 import static java.lang.Math.min;
 
 import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.closeBufferedWriter;
-import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.createBufferedWriter;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_END;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_START;
+import static com.hartwig.hmftools.linx.CohortFileWriter.createCohortFileWriter;
 import static com.hartwig.hmftools.linx.LinxConfig.LNX_LOGGER;
 import static com.hartwig.hmftools.linx.fusion.FusionFinder.isIrrelevantSameGene;
 import static com.hartwig.hmftools.linx.fusion.FusionFinder.validFusionTranscript;
@@ -433,7 +433,7 @@ public class NeoEpitopeFinder
             {
                 String outputFileName = mOutputDir + "LNX_NEO_EPITOPES.csv";
 
-                mFileWriter = createBufferedWriter(outputFileName, false);
+                mFileWriter = createCohortFileWriter(outputFileName);
 
                 mFileWriter.write("SampleId,Fusion,SameGene");
                 mFileWriter.write(",UpstreamAminoAcids,DownstreamAminoAcids,NovelAminoAcid,NMDBases");
@@ -1,9 +1,9 @@
 package com.hartwig.hmftools.linx.visualiser.file;
 
 import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.closeBufferedWriter;
-import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.createBufferedWriter;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_END;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_START;
+import static com.hartwig.hmftools.linx.CohortFileWriter.createCohortFileWriter;
 import static com.hartwig.hmftools.linx.LinxConfig.LNX_LOGGER;
 import static com.hartwig.hmftools.linx.LinxConfig.RG_VERSION;
 import static com.hartwig.hmftools.linx.analysis.ClusterClassification.isFilteredResolvedType;
@@ -82,27 +82,27 @@ public class VisualiserWriter
     {
         try
         {
-            mSvFileWriter = createBufferedWriter(mOutputDir + "LNX_VIS_SVS.tsv", false);
+            mSvFileWriter = createCohortFileWriter(mOutputDir + "LNX_VIS_SVS.tsv");
             mSvFileWriter.write(VisSvDataFile.header());
             mSvFileWriter.newLine();
 
-            mSegmentFileWriter = createBufferedWriter(mOutputDir + "LNX_VIS_SEGMENTS.tsv", false);
+            mSegmentFileWriter = createCohortFileWriter(mOutputDir + "LNX_VIS_SEGMENTS.tsv");
             mSegmentFileWriter.write(VisSegmentFile.header());
             mSegmentFileWriter.newLine();
 
-            mCnFileWriter = createBufferedWriter(mOutputDir + "LNX_VIS_COPY_NUMBER.tsv", false);
+            mCnFileWriter = createCohortFileWriter(mOutputDir + "LNX_VIS_COPY_NUMBER.tsv");
             mCnFileWriter.write(VisCopyNumberFile.header());
             mCnFileWriter.newLine();
 
-            mGeneFileWriter = createBufferedWriter(mOutputDir + "LNX_VIS_GENE_EXONS.tsv", false);
+            mGeneFileWriter = createCohortFileWriter(mOutputDir + "LNX_VIS_GENE_EXONS.tsv");
             mGeneFileWriter.write(VisGeneExonFile.header());
             mGeneFileWriter.newLine();
 
-            mProteinDomainFileWriter = createBufferedWriter(mOutputDir + "LNX_VIS_PROTEIN_DOMAINS.tsv", false);
+            mProteinDomainFileWriter = createCohortFileWriter(mOutputDir + "LNX_VIS_PROTEIN_DOMAINS.tsv");
             mProteinDomainFileWriter.write(VisProteinDomainFile.header());
             mProteinDomainFileWriter.newLine();
 
-            mFusionFileWriter = createBufferedWriter(mOutputDir + "LNX_VIS_FUSIONS.tsv", false);
+            mFusionFileWriter = createCohortFileWriter(mOutputDir + "LNX_VIS_FUSIONS.tsv");
             mFusionFileWriter.write(VisFusionFile.header());
             mFusionFileWriter.newLine();
 
@@ -0,0 +1,88 @@
+package com.hartwig.hmftools.linx;
+
+import static com.hartwig.hmftools.linx.CohortFileWriter.createCohortFileWriter;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class CohortFileWriterTest
+{
+    @Test
+    public void testSharedHandlesWriteSingleHeaderAndWholeRows() throws IOException
+    {
+        final File file = File.createTempFile("LNX_COHORT", ".csv");
+        file.deleteOnExit();
+
+        BufferedWriter writer1 = createCohortFileWriter(file.getPath());
+        BufferedWriter writer2 = createCohortFileWriter(file.getPath());
+
+        // each handle writes the header, then rows built from interleaved partial writes
+        writer1.write("SampleId,");
+        writer2.write("SampleId,");
+        writer1.write("Value");
+        writer1.newLine();
+        writer2.write("Value");
+        writer2.newLine();
+
+        writer1.write("S1,");
+        writer2.write("S2,");
+        writer2.write("20");
+        writer1.write("10");
+        writer2.newLine();
+        writer1.newLine();
+
+        // multiple rows in a single write, and a last row left without a line end
+        writer2.write("S2,21\nS2,22\nS2,");
+        writer1.write("S1,11");
+        writer2.write("23");
+        writer1.newLine();
+
+        writer1.close();
+        writer2.flush();
+
+        // the file remains open until the last handle is closed, and a partial row is not written until complete
+        assertEquals(Lists.newArrayList("SampleId,Value", "S2,20", "S1,10", "S2,21", "S2,22", "S1,11"), readLines(file));
+
+        writer2.close();
+
+        assertEquals(Lists.newArrayList("SampleId,Value", "S2,20", "S1,10", "S2,21", "S2,22", "S1,11", "S2,23"), readLines(file));
+    }
+
+    @Test
+    public void testReopenAfterCloseStartsNewFile() throws IOException
+    {
+        final File file = File.createTempFile("LNX_COHORT", ".csv");
+        file.deleteOnExit();
+
+        BufferedWriter writer = createCohortFileWriter(file.getPath());
+        writer.write("Header");
+        writer.newLine();
+        writer.write("Row1");
+        writer.newLine();
+        writer.close();
+
+        // once all handles are closed, a new handle creates the file again with its own header
+        writer = createCohortFileWriter(file.getPath());
+        writer.write("Header");
+        writer.newLine();
+        writer.write("Row2");
+        writer.newLine();
+        writer.close();
+
+        assertEquals(Lists.newArrayList("Header", "Row2"), readLines(file));
+    }
+
+    private static List<String> readLines(final File file) throws IOException
+    {
+        return Files.readAllLines(file.toPath());
+    }
+}
@@ -9,6 +9,9 @@ import static com.hartwig.hmftools.linx.utils.SvTestUtils.createTestSv;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.List;
+
+import com.google.common.collect.Lists;
 import com.hartwig.hmftools.linx.types.SvCluster;
 import com.hartwig.hmftools.linx.types.SvVarData;
 import com.hartwig.hmftools.linx.utils.LinxTester;
@@ -421,4 +424,56 @@ public class ChainingComplexTest
         assertEquals(11, chain.getLinkCount());
     }
 
+    @Test
+    public void testParallelClusterChaining()
+    {
+        // independent BFB clusters of varying size chained across threads give the same chains as when chained serially
+        final List<String> serialChains = chainBfbClusters(1);
+        final List<String> parallelChains = chainBfbClusters(4);
+
+        assertEquals(6, serialChains.size());
+        assertEquals(serialChains, parallelChains);
+    }
+
+    private static List<String> chainBfbClusters(int threads)
+    {
+        LinxTester tester = new LinxTester();
+        tester.Analyser.setChainingThreads(threads);
+
+        int varId = 0;
+
+        for(int i = 0; i < 6; ++i)
+        {
+            String chromosome = String.valueOf(i + 1);
+            String otherChromosome = String.valueOf(i + 11);
+
+            tester.AllVariants.add(createTestSv(varId++, chromosome, chromosome, 1000,2000, -1, -1, INV,  8));
+            tester.AllVariants.add(createTestSv(varId++, chromosome, chromosome, 9000,10000, 1, 1, INV,  4));
+
+            if(i >= 2)
+                tester.AllVariants.add(createTestSv(varId++, chromosome, chromosome, 6000,7000, 1, 1, INV, 2));
+
+            if(i >= 4)
+                tester.AllVariants.add(createTestSv(varId++, chromosome, chromosome, 3000,4000, 1, 1, INV, 1));
+
+            tester.AllVariants.add(createTestSv(varId++, chromosome, otherChromosome, 12000,100, 1, 1, BND, 1));
+        }
+
+        tester.preClusteringInit();
+        tester.Analyser.clusterAndAnalyse();
+        tester.Analyser.close();
+
+        final List<String> chains = Lists.newArrayList();
+
+        for(SvCluster cluster : tester.Analyser.getClusters())
+        {
+            for(SvChain chain : cluster.getChains())
+            {
+                chains.add(String.format("cluster(%d) chain(%d) links(%s)", cluster.id(), chain.id(), chain.getLinkedPairs()));
+            }
+        }
+
+        return chains;
+    }
+
 }
@@ -6,6 +6,7 @@ import static com.hartwig.hmftools.linx.utils.SvTestUtils.createInf;
 import static com.hartwig.hmftools.linx.utils.SvTestUtils.createInv;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import com.google.common.collect.Lists;
@@ -51,6 +52,38 @@ public class LinkingTest
         lp3.hasLinkClash(lp2);
     }
 
+    @Test
+    public void testLinkedPairIndex()
+    {
+        final SvVarData var1 = createDup(1, "1", 100, 200);
+        final SvVarData var2 = createDup(2, "1", 300, 400);
+        final SvVarData var3 = createDup(3, "1", 500, 600);
+
+        LinkedPair lp1 = LinkedPair.from(var1, var2, false, true);
+        LinkedPair lp2 = LinkedPair.from(var2, var3, false, true);
+
+        LinkedPairIndex pairIndex = new LinkedPairIndex();
+        pairIndex.add(lp1);
+
+        // matched on the same breakends in either order
+        assertTrue(pairIndex.hasMatch(LinkedPair.from(var1, var2, false, true)));
+        assertTrue(pairIndex.hasMatch(LinkedPair.from(var2, var1, true, false)));
+        assertFalse(pairIndex.hasMatch(LinkedPair.from(var1, var2, true, true)));
+        assertFalse(pairIndex.hasMatch(lp2));
+
+        // only the specific pair is removed
+        pairIndex.add(lp2);
+        pairIndex.remove(LinkedPair.from(var1, var2, false, true));
+        assertTrue(pairIndex.hasMatch(lp1));
+
+        pairIndex.remove(lp1);
+        assertFalse(pairIndex.hasMatch(lp1));
+        assertTrue(pairIndex.hasMatch(lp2));
+
+        pairIndex.clear();
+        assertTrue(pairIndex.isEmpty());
+    }
+
     @Test
     public void testDeletionBridges()
     {